@@ -0,0 +1,47 @@
+// Copyright (C) 2021 Intel Corporation
+//
+// SPDX-License-Identifier: Apache-2.0
+//
+package com.intel.config_io;
+
+import com.intel.dai.benchmarks.BenchmarkData;
+import com.intel.properties.PropertyDocument;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing and serializing a foreign telemetry message with the JSON provider of ConfigIOFactory.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = "-DdaiLoggingLevel=ERROR")
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class JsonCliftonLabsProviderBenchmark {
+    @Param({"10", "1000"})
+    public int sensors;
+
+    @Setup
+    public void setUp() throws ConfigIOParseException {
+        parser_ = new JsonCliftonLabsProvider();
+        json_ = BenchmarkData.foreignTelemetry(1, sensors, Arrays.asList("x3000c0s19b0n0", "x3000c0s24b0n0"));
+        document_ = parser_.fromString(json_);
+    }
+
+    @Benchmark
+    public PropertyDocument fromString() throws ConfigIOParseException {
+        return parser_.fromString(json_);
+    }
+
+    @Benchmark
+    public String toJsonString() {
+        return parser_.toString(document_);
+    }
+
+    private ConfigIO parser_;
+    private String json_;
+    private PropertyDocument document_;
+}
@@ -0,0 +1,107 @@
+// Copyright (C) 2021 Intel Corporation
+//
+// SPDX-License-Identifier: Apache-2.0
+//
+package com.intel.dai;
+
+import com.intel.dai.benchmarks.BenchmarkData;
+import com.intel.dai.exceptions.DataStoreException;
+import com.intel.perflogging.BenchmarkHelper;
+import org.openjdk.jmh.annotations.*;
+import org.voltdb.VoltTable;
+import org.voltdb.VoltType;
+import org.voltdb.types.TimestampType;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Storing the RAS events moved from the Online tier with NearlineTableUpdater.Update, into an embedded in-memory H2
+ * database (PostgreSQL mode) with the Tier2_RasEvent table of the Nearline tier schema. This measures the JDBC
+ * batching and conversion overhead of the updater, not the performance of a PostgreSQL server.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = "-DdaiLoggingLevel=ERROR")
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class NearlineTableUpdaterBenchmark {
+    @Param({"1", "100", "5000"})
+    public int rows;
+
+    @Setup
+    public void setUp() throws SQLException {
+        conn_ = DriverManager.getConnection("jdbc:h2:mem:tier2;MODE=PostgreSQL;DB_CLOSE_DELAY=-1");
+        conn_.setAutoCommit(false);
+        try (Statement stmt = conn_.createStatement()) {
+            stmt.execute("CREATE TABLE IF NOT EXISTS Tier2_RasEvent (Id bigint NOT NULL, " +
+                    "DescriptiveName varchar(65) NOT NULL, Lctn varchar(100), Sernum varchar(50), JobId varchar(30), " +
+                    "NumberRepeats integer DEFAULT 0 NOT NULL, ControlOperation varchar(50), Done varchar(1) NOT NULL, " +
+                    "InstanceData varchar(10000), DbUpdatedTimestamp timestamp NOT NULL, " +
+                    "LastChgTimestamp timestamp NOT NULL, LastChgAdapterType varchar(20) NOT NULL, " +
+                    "LastChgWorkItemId bigint NOT NULL, EntryNumber bigint AUTO_INCREMENT)");
+            // Update() prepares the snapshot table procedure even though snapshots are not used.
+            stmt.execute("CREATE ALIAS IF NOT EXISTS insertorupdateraseventdata_ss FOR " +
+                    "\"com.intel.dai.NearlineTableUpdaterBenchmark.ignoreSnapshot\"");
+        }
+        conn_.commit();
+
+        updater_ = new NearlineTableUpdater(conn_, BenchmarkData.logger());
+        updater_.setBenchmarker(new BenchmarkHelper("NearlineTableUpdaterBenchmark",
+                new File(System.getProperty("java.io.tmpdir"), "NearlineTableUpdaterBenchmark.json"), 5L));
+
+        table_ = new VoltTable(
+                new VoltTable.ColumnInfo("Id", VoltType.BIGINT),
+                new VoltTable.ColumnInfo("DescriptiveName", VoltType.STRING),
+                new VoltTable.ColumnInfo("Lctn", VoltType.STRING),
+                new VoltTable.ColumnInfo("Sernum", VoltType.STRING),
+                new VoltTable.ColumnInfo("JobId", VoltType.STRING),
+                new VoltTable.ColumnInfo("NumberRepeats", VoltType.INTEGER),
+                new VoltTable.ColumnInfo("ControlOperation", VoltType.STRING),
+                new VoltTable.ColumnInfo("Done", VoltType.STRING),
+                new VoltTable.ColumnInfo("InstanceData", VoltType.STRING),
+                new VoltTable.ColumnInfo("DbUpdatedTimestamp", VoltType.TIMESTAMP),
+                new VoltTable.ColumnInfo("LastChgTimestamp", VoltType.TIMESTAMP),
+                new VoltTable.ColumnInfo("LastChgAdapterType", VoltType.STRING),
+                new VoltTable.ColumnInfo("LastChgWorkItemId", VoltType.BIGINT));
+        long now = System.currentTimeMillis() * 1000L;
+        for(int i = 0; i < rows; i++)
+            table_.addRow(i, "RasMntrForeignNodeSensorCritical", "R0-CH0-CN" + (i % 1000), null,
+                    (i % 3 == 0) ? null : "?", 0, null, "N", "Sensor=CPU" + (i % 2) + " Value=" + (90 + i % 10),
+                    new TimestampType(now + i), new TimestampType(now + i), "MONITOR", -1L);
+    }
+
+    @TearDown(Level.Iteration)
+    public void deleteRows() throws SQLException {
+        try (Statement stmt = conn_.createStatement()) {
+            stmt.execute("DELETE FROM Tier2_RasEvent");
+        }
+        conn_.commit();
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        try (Statement stmt = conn_.createStatement()) {
+            stmt.execute("DROP ALL OBJECTS");
+        }
+        conn_.close();
+    }
+
+    @Benchmark
+    public void update() throws DataStoreException {
+        table_.resetRowPosition();
+        updater_.Update("RasEvent", table_);
+    }
+
+    public static void ignoreSnapshot(Object... values) {
+    }
+
+    private Connection conn_;
+    private NearlineTableUpdater updater_;
+    private VoltTable table_;
+}
@@ -0,0 +1,72 @@
+// Copyright (C) 2021 Intel Corporation
+//
+// SPDX-License-Identifier: Apache-2.0
+//
+package com.intel.dai;
+
+import com.intel.dai.benchmarks.BenchmarkData;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The time AdapterDaiMgr's startup spends probing the compute nodes of a machine with NodeReachabilityProber: against
+ * fake hosts that answer after a fixed latency (half of the nodes are reachable), and with the non-blocking connects
+ * AdapterDaiMgr uses against loopback addresses that refuse the connection.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = "-DdaiLoggingLevel=ERROR")
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+public class NodeReachabilityProberBenchmark {
+    @Param({"1000", "10000"})
+    public int nodes;
+
+    @Param({"256", "4096"}) // AdapterDaiMgr keeps 4096 connection attempts in flight
+    public int maxConcurrent;
+
+    @Param({"1"})
+    public long latencyMs;
+
+    @Setup
+    public void setUp() {
+        addresses_ = new ArrayList<>(nodes);
+        loopbackAddresses_ = new ArrayList<>(nodes);
+        Set<String> reachable = new HashSet<>();
+        for(int i = 0; i < nodes; i++) {
+            String address = String.format("10.%d.%d.%d", i / 65536, (i / 256) % 256, i % 256);
+            addresses_.add(address);
+            loopbackAddresses_.add(String.format("127.%d.%d.%d", i / 65536, (i / 256) % 256, i % 256 + 1));
+            if(i % 2 == 0)
+                reachable.add(address);
+        }
+        prober_ = new NodeReachabilityProber(BenchmarkData.logger(), maxConcurrent, TIMEOUT_MS,
+                NodeReachabilityProber.fakeHosts(reachable, latencyMs));
+        connectingProber_ = new NodeReachabilityProber(BenchmarkData.logger(), maxConcurrent, TIMEOUT_MS,
+                CLOSED_PORT);
+    }
+
+    @Benchmark
+    public Set<String> probe() throws InterruptedException {
+        return prober_.probe(addresses_);
+    }
+
+    @Benchmark
+    public Set<String> connect() throws InterruptedException {
+        return connectingProber_.probe(loopbackAddresses_);
+    }
+
+    private List<String> addresses_;
+    private List<String> loopbackAddresses_;
+    private NodeReachabilityProber prober_;
+    private NodeReachabilityProber connectingProber_;
+
+    private static final int TIMEOUT_MS = 2000;
+    private static final int CLOSED_PORT = 9;  // discard, not expected to be listening.
+}
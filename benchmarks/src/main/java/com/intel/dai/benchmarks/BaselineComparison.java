@@ -0,0 +1,128 @@
+// Copyright (C) 2021 Intel Corporation
+//
+// SPDX-License-Identifier: Apache-2.0
+//
+package com.intel.dai.benchmarks;
+
+import com.intel.config_io.ConfigIO;
+import com.intel.config_io.ConfigIOFactory;
+import com.intel.config_io.ConfigIOParseException;
+import com.intel.properties.PropertyArray;
+import com.intel.properties.PropertyMap;
+import com.intel.properties.PropertyNotExpectedType;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.*;
+
+/**
+ * Compares JMH results (the JSON written with "-rf json") with a stored baseline of the same format.
+ *
+ * A benchmark regressed if its score is worse than the baseline score by more than maxRegression (a fraction, 0.10 for
+ * 10%): lower for the throughput mode, higher for the time modes. Benchmarks are matched by name, mode and parameters;
+ * benchmarks that are only in one of the files are reported but are not regressions.
+ *
+ * Usage: BaselineComparison baseline.json results.json [maxRegression], exits with 1 when a benchmark regressed.
+ */
+public final class BaselineComparison {
+    public BaselineComparison(double maxRegression, PrintStream out) {
+        if(maxRegression < 0.0) throw new IllegalArgumentException("The maximum regression cannot be negative!");
+        if(out == null) throw new IllegalArgumentException("The output stream cannot be null!");
+        maxRegression_ = maxRegression;
+        out_ = out;
+    }
+
+    /**
+     * Compare the results with the baseline, reporting every benchmark.
+     *
+     * @param baseline The baseline JMH results.
+     * @param results The new JMH results.
+     * @return The benchmarks that regressed.
+     * @throws PropertyNotExpectedType If the results are not in the JMH JSON format.
+     */
+    public List<String> compare(PropertyArray baseline, PropertyArray results) throws PropertyNotExpectedType {
+        Map<String, PropertyMap> baselineScores = byKey(baseline);
+        Map<String, PropertyMap> newScores = byKey(results);
+        List<String> regressions = new ArrayList<>();
+        for(Map.Entry<String, PropertyMap> entry: newScores.entrySet()) {
+            PropertyMap metric = entry.getValue().getMap("primaryMetric");
+            PropertyMap baselineResult = baselineScores.get(entry.getKey());
+            if(baselineResult == null) {
+                out_.println(String.format("NEW       %s: %s", entry.getKey(), score(metric)));
+                continue;
+            }
+            PropertyMap baselineMetric = baselineResult.getMap("primaryMetric");
+            double change = relativeChange(baselineMetric.getDouble("score"), metric.getDouble("score"),
+                    isThroughput(entry.getValue()));
+            boolean regressed = change < -maxRegression_;
+            out_.println(String.format("%-9s %s: %s (baseline %s, %+.1f%%)", regressed ? "REGRESSED" : "OK",
+                    entry.getKey(), score(metric), score(baselineMetric), change * 100.0));
+            if(regressed)
+                regressions.add(entry.getKey());
+        }
+        for(String key: baselineScores.keySet())
+            if(!newScores.containsKey(key))
+                out_.println(String.format("MISSING   %s", key));
+        return regressions;
+    }
+
+    /**
+     * The relative improvement of the new score over the baseline score, negative when it got worse.
+     */
+    static double relativeChange(double baselineScore, double newScore, boolean higherIsBetter) {
+        if(baselineScore == 0.0)
+            return 0.0;
+        double change = (newScore - baselineScore) / Math.abs(baselineScore);
+        return higherIsBetter ? change : -change;
+    }
+
+    public static void main(String[] args) {
+        if(args.length < 2 || args.length > 3) {
+            System.err.println("Usage: BaselineComparison <baseline.json> <results.json> [maxRegression]");
+            System.exit(2);
+        }
+        try {
+            ConfigIO parser = ConfigIOFactory.getInstance("json");
+            assert parser != null : "Failed to get the JSON parser!";
+            PropertyArray baseline = parser.readConfig(args[0]).getAsArray();
+            PropertyArray results = parser.readConfig(args[1]).getAsArray();
+            double maxRegression = (args.length == 3) ? Double.parseDouble(args[2]) : DEFAULT_MAX_REGRESSION;
+            List<String> regressions = new BaselineComparison(maxRegression, System.out).compare(baseline, results);
+            if(!regressions.isEmpty()) {
+                System.err.println(String.format("%d benchmark(s) regressed by more than %.1f%%: %s",
+                        regressions.size(), maxRegression * 100.0, regressions));
+                System.exit(1);
+            }
+        } catch(IOException | ConfigIOParseException | PropertyNotExpectedType | IllegalArgumentException e) {
+            System.err.println("Unable to compare the benchmark results: " + e.getMessage());
+            System.exit(2);
+        }
+    }
+
+    private static Map<String, PropertyMap> byKey(PropertyArray results) throws PropertyNotExpectedType {
+        Map<String, PropertyMap> byKey = new TreeMap<>();
+        for(int i = 0; i < results.size(); i++) {
+            PropertyMap result = results.getMap(i);
+            StringBuilder key = new StringBuilder(result.getString("benchmark"));
+            key.append(" [").append(result.getString("mode")).append(']');
+            PropertyMap params = result.getMapOrDefault("params", null);
+            if(params != null)
+                key.append(' ').append(new TreeMap<>(params));
+            byKey.put(key.toString(), result);
+        }
+        return byKey;
+    }
+
+    private static boolean isThroughput(PropertyMap result) throws PropertyNotExpectedType {
+        return result.getString("mode").equals("thrpt");
+    }
+
+    private static String score(PropertyMap metric) throws PropertyNotExpectedType {
+        return String.format("%.3f %s", metric.getDouble("score"), metric.getString("scoreUnit"));
+    }
+
+    private final double maxRegression_;
+    private final PrintStream out_;
+
+    static final double DEFAULT_MAX_REGRESSION = 0.10;
+}
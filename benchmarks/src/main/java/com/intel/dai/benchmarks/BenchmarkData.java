@@ -0,0 +1,55 @@
+// Copyright (C) 2021 Intel Corporation
+//
+// SPDX-License-Identifier: Apache-2.0
+//
+package com.intel.dai.benchmarks;
+
+import com.intel.logging.Logger;
+import com.intel.logging.LoggerFactory;
+
+import java.util.List;
+
+/**
+ * Synthetic input shared by the benchmarks.
+ */
+public final class BenchmarkData {
+    private BenchmarkData() {}
+
+    /**
+     * The console logger, the benchmark JVMs only log errors (see the jvmArgsAppend of the @Fork annotations).
+     */
+    public static Logger logger() {
+        return LoggerFactory.getInstance("BENCHMARK", "benchmarks", "console");
+    }
+
+    /**
+     * A foreign telemetry stream object ({"metrics":{"messages":[{"Events":[...]}]}}) in the format received from the
+     * foreign bus, with sensorsPerEvent sensors in each of the events.
+     *
+     * @param events The number of events.
+     * @param sensorsPerEvent The number of sensors of each event.
+     * @param locations The foreign locations of the sensors, used round robin.
+     * @return The JSON text.
+     */
+    public static String foreignTelemetry(int events, int sensorsPerEvent, List<String> locations) {
+        StringBuilder json = new StringBuilder("{\"metrics\":{\"messages\":[{\"Events\":[");
+        int sensor = 0;
+        for(int event = 0; event < events; event++) {
+            if(event > 0)
+                json.append(',');
+            json.append("{\"EventTimestamp\":\"2021-03-01T10:15:30Z\",\"MessageId\":\"CrayTelemetry.Temperature\",")
+                    .append("\"Oem\":{\"Sensors\":[");
+            for(int i = 0; i < sensorsPerEvent; i++, sensor++) {
+                if(i > 0)
+                    json.append(',');
+                json.append("{\"Timestamp\":\"2021-03-01T10:15:30.").append(String.format("%03d", i % 1000))
+                        .append("Z\",\"Location\":\"").append(locations.get(sensor % locations.size()))
+                        .append("\",\"PhysicalContext\":\"CPU\",\"DeviceSpecificContext\":\"Core")
+                        .append(i % 64).append("\",\"Index\":").append(i % 4).append(",\"Value\":\"")
+                        .append(30 + (sensor % 50)).append('.').append(sensor % 10).append("\"}");
+            }
+            json.append("],\"TelemetrySource\":\"River\"}}");
+        }
+        return json.append("]}]}}").toString();
+    }
+}
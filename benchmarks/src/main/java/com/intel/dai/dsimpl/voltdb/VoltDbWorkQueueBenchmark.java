@@ -0,0 +1,42 @@
+// Copyright (C) 2021 Intel Corporation
+//
+// SPDX-License-Identifier: Apache-2.0
+//
+package com.intel.dai.dsimpl.voltdb;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compressing work item results with VoltDbWorkQueue.compressResult, from a small result to one that has to be reduced
+ * until it fits the WorkItem Results column.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = "-DdaiLoggingLevel=ERROR")
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class VoltDbWorkQueueBenchmark {
+    @Param({"1000", "100000", "4000000"})
+    public int resultLength;
+
+    @Setup
+    public void setUp() {
+        // Command output like results: repetitive text with varying numbers
+        StringBuilder builder = new StringBuilder(resultLength + 100);
+        for(int line = 0; builder.length() < resultLength; line++)
+            builder.append("R0-CH0-CN").append(line % 4096).append(": BootState=Active, Elapsed=")
+                    .append((line * 7919L) % 100000L).append(" ms\n");
+        builder.setLength(resultLength);
+        result_ = builder.toString();
+    }
+
+    @Benchmark
+    public String compressResult() {
+        return VoltDbWorkQueue.compressResult(result_);
+    }
+
+    private String result_;
+}
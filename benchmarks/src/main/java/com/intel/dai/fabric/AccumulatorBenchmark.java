@@ -0,0 +1,56 @@
+// Copyright (C) 2021 Intel Corporation
+//
+// SPDX-License-Identifier: Apache-2.0
+//
+package com.intel.dai.fabric;
+
+import com.intel.dai.benchmarks.BenchmarkData;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Adding samples to the fabric telemetry Accumulator with the supported window configurations.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = "-DdaiLoggingLevel=ERROR")
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class AccumulatorBenchmark {
+    @Param({"count", "movingCount", "time", "movingTime"})
+    public String window;
+
+    @Setup
+    public void setUp() {
+        Map<String, String> config = new HashMap<>();
+        config.put("aggregateUseTime", Boolean.toString(window.endsWith("ime")));
+        config.put("aggregateUseMovingAverage", Boolean.toString(window.startsWith("moving")));
+        accumulator_ = new Accumulator(BenchmarkData.logger(), Accumulator.windowFromConfig(config));
+        values_ = new double[VALUES];
+        for(int i = 0; i < VALUES; i++)
+            values_[i] = 1000.0 + (i * 7919) % 500;
+    }
+
+    /**
+     * One sample per second (the timestamps are in microseconds), the item is created like the providers do for every
+     * sample.
+     */
+    @Benchmark
+    public FabricTelemetryItem addValue() {
+        long sample = next_++;
+        FabricTelemetryItem item = new FabricTelemetryItem(sample * 1_000_000L, "port.rx.bytes",
+                "R0-FABRIC0-BRD0-LINK0", values_[(int)(sample & (VALUES - 1))]);
+        accumulator_.addValue(item);
+        return item;
+    }
+
+    private Accumulator accumulator_;
+    private double[] values_;
+    private long next_ = 0L;
+
+    private static final int VALUES = 1024; // Power of 2
+}
@@ -0,0 +1,67 @@
+// Copyright (C) 2021 Intel Corporation
+//
+// SPDX-License-Identifier: Apache-2.0
+//
+package com.intel.dai.foreign_bus;
+
+import com.intel.config_io.ConfigIOParseException;
+import com.intel.dai.benchmarks.BenchmarkData;
+import com.intel.properties.PropertyArray;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing foreign telemetry (PropertyMap tree and streaming) and converting the foreign locations of the sensors,
+ * using the location translation map of the foreign_bus resources.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = "-DdaiLoggingLevel=ERROR")
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class CommonFunctionsBenchmark {
+    @Param({"100", "2000"})
+    public int sensors;
+
+    @Setup
+    public void setUp() {
+        locations_ = new ArrayList<>(CommonFunctions.getForeignLocations());
+        json_ = BenchmarkData.foreignTelemetry(sensors / SENSORS_PER_EVENT, SENSORS_PER_EVENT, locations_);
+    }
+
+    @Benchmark
+    public PropertyArray parseForeignTelemetry() throws ConfigIOParseException {
+        return CommonFunctions.parseForeignTelemetry(json_);
+    }
+
+    @Benchmark
+    public void parseForeignTelemetryStreaming(Blackhole blackhole) throws ConfigIOParseException {
+        CommonFunctions.parseForeignTelemetry(json_, (fullName, location, timestamp, value) -> {
+            blackhole.consume(fullName);
+            blackhole.consume(location);
+            blackhole.consume(timestamp);
+            blackhole.consume(value);
+        });
+    }
+
+    /**
+     * Converts the location of every sensor of the message, like the providers do.
+     */
+    @Benchmark
+    public void convertForeignToLocation(Blackhole blackhole) throws ConversionException {
+        for(int i = 0; i < sensors; i++)
+            blackhole.consume(CommonFunctions.convertForeignToLocation(locations_.get(i % locations_.size()),
+                    SENSOR_NAMES[i % SENSOR_NAMES.length]));
+    }
+
+    private List<String> locations_;
+    private String json_;
+
+    private static final int SENSORS_PER_EVENT = 20;
+    private static final String[] SENSOR_NAMES = {"CPU.Core0", "CPU.Core1", "Memory.DIMM3", "Chassis.Power"};
+}
@@ -0,0 +1,58 @@
+// Copyright (C) 2021 Intel Corporation
+//
+// SPDX-License-Identifier: Apache-2.0
+//
+package com.intel.dai.monitoring;
+
+import com.intel.dai.benchmarks.BenchmarkData;
+import com.intel.dai.foreign_bus.SampleAccumulator;
+import com.intel.dai.network_listener.CommonDataFormat;
+import com.intel.dai.network_listener.DataType;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Adding samples to the EnvironmentalProviderForeignBus.Accumulator with the supported window configurations.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = "-DdaiLoggingLevel=ERROR")
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class EnvironmentalAccumulatorBenchmark {
+    @Param({"count", "movingCount", "time", "movingTime"})
+    public String window;
+
+    @Setup
+    public void setUp() {
+        boolean useTime = window.endsWith("ime");
+        boolean moving = window.startsWith("moving");
+        accumulator_ = new EnvironmentalProviderForeignBus.Accumulator(BenchmarkData.logger(),
+                new SampleAccumulator.Window(useTime, 25, 600L * 1_000_000_000L, moving));
+        values_ = new double[VALUES];
+        for(int i = 0; i < VALUES; i++)
+            values_[i] = 30.0 + (i * 7919) % 50;
+    }
+
+    /**
+     * One sample per second (the timestamps are in nanoseconds), the sample is created like the provider does for
+     * every sensor.
+     */
+    @Benchmark
+    public CommonDataFormat addValue() {
+        long sample = next_++;
+        CommonDataFormat data = new CommonDataFormat(sample * 1_000_000_000L, "R0-CH0-CN0-CPU0",
+                DataType.EnvironmentalData);
+        data.setValueAndUnits(values_[(int)(sample & (VALUES - 1))], "C", "Temperature");
+        accumulator_.addValue(data, sample);
+        return data;
+    }
+
+    private EnvironmentalProviderForeignBus.Accumulator accumulator_;
+    private double[] values_;
+    private long next_ = 0L;
+
+    private static final int VALUES = 1024; // Power of 2
+}
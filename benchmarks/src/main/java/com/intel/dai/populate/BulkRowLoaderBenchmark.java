@@ -0,0 +1,142 @@
+// Copyright (C) 2021 Intel Corporation
+//
+// SPDX-License-Identifier: Apache-2.0
+//
+package com.intel.dai.populate;
+
+import com.intel.dai.benchmarks.BenchmarkData;
+import com.intel.logging.Logger;
+import org.openjdk.jmh.annotations.*;
+import org.voltdb.client.VoltBulkLoader.BulkLoaderFailureCallBack;
+import org.voltdb.client.VoltBulkLoader.BulkLoaderSuccessCallback;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * The time until the Tier1 tables of a synthetic machine config are loaded through BulkRowLoader, with the rows of
+ * DefaultOnlineTierDataLoader for every compute node (node, history, address caches, processors and DIMMs). The bulk
+ * loaders are fakes that complete every batch asynchronously after batchLatencyUs, like a VoltDB server would, so this
+ * measures the loader itself and its in-flight window, not VoltDB.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = "-DdaiLoggingLevel=ERROR")
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+public class BulkRowLoaderBenchmark {
+    @Param({"10000"})
+    public int computeNodes;
+
+    @Param({"0", "500"})
+    public long batchLatencyUs;
+
+    @Setup
+    public void setUp() {
+        log_ = BenchmarkData.logger();
+        server_ = Executors.newSingleThreadExecutor();
+    }
+
+    @TearDown
+    public void tearDown() {
+        server_.shutdownNow();
+    }
+
+    @Benchmark
+    public long loadMachineConfig() throws Exception {
+        BulkRowLoader loader = new BulkRowLoader(log_, FakeTableLoader::new, BulkRowLoader.DEFAULT_BATCH_SIZE,
+                BulkRowLoader.DEFAULT_MAX_IN_FLIGHT, 0L);
+        long timestamp = System.currentTimeMillis() * 1000L;
+        for(int node = 0; node < computeNodes; node++) {
+            String lctn = String.format("R%d-CH%d-CN%d", node / 512, (node / 16) % 32, node % 16);
+            String ipAddr = String.format("10.%d.%d.%d", node / 65536, (node / 256) % 256, node % 256);
+            String macAddr = String.format("00:1e:67:%02x:%02x:%02x", node / 65536, (node / 256) % 256, node % 256);
+            Object[] row = { lctn, node, "M", "node" + node, "centos7.3-vanilla", null, ipAddr, macAddr, null, null,
+                    null, timestamp, timestamp, "POPULATE", -1, "W", "SN0", null, "U", null, null };
+            loader.insert("COMPUTENODE", "Inserting ComputeNode - Lctn=" + lctn, row);
+            loader.insert("COMPUTENODE_HISTORY", "Inserting ComputeNode_History - Lctn=" + lctn, row);
+            loader.insert("CACHEMACADDRTOLCTN", "Inserting CachedMacaddrToLctn - Lctn=" + lctn, macAddr, lctn);
+            loader.insert("CACHEIPADDRTOLCTN", "Inserting CachedIpaddrToLctn - Lctn=" + lctn, ipAddr, lctn);
+            for(int cpu = 0; cpu < PROCESSORS_PER_NODE; cpu++) {
+                String cpuLctn = lctn + "-CPU" + cpu;
+                loader.insert("PROCESSOR", "Inserting Processor value - Lctn=" + cpuLctn, lctn, cpuLctn, "U",
+                        "CPU" + cpu, timestamp, timestamp, "POPULATE", -1);
+            }
+            for(int dimm = 0; dimm < DIMMS_PER_NODE; dimm++) {
+                String dimmLctn = lctn + "-DIMM" + dimm;
+                Object[] dimmRow = { lctn, dimmLctn, "U", 0L, "CPU" + (dimm % 2) + "_DIMM_" + dimm, "NODE 1",
+                        timestamp, timestamp, "POPULATE", -1 };
+                loader.insert("DIMM", "Inserting Dimm value - Lctn=" + dimmLctn, dimmRow);
+                loader.insert("DIMM_HISTORY", "Inserting Dimm_History value - Lctn=" + dimmLctn, dimmRow);
+            }
+        }
+        if(loader.finish() != 0L)
+            throw new IllegalStateException("Rows failed to load");
+        return loader.rowsLoaded();
+    }
+
+    // Sends full batches (and the partial batches when flushed) to the fake server, which completes them in order.
+    private final class FakeTableLoader implements BulkRowLoader.TableLoader {
+        FakeTableLoader(String table, int batchSize, BulkLoaderFailureCallBack failure,
+                        BulkLoaderSuccessCallback success) {
+            batchSize_ = batchSize;
+            success_ = success;
+            pending_ = new ArrayList<>(batchSize);
+        }
+
+        @Override
+        public synchronized void insertRow(Object rowHandle, Object... row) {
+            pending_.add(rowHandle);
+            if(pending_.size() >= batchSize_)
+                send();
+        }
+
+        @Override
+        public synchronized void flush() {
+            send();
+        }
+
+        @Override
+        public void drain() throws InterruptedException {
+            flush();
+            try {
+                server_.submit(() -> { }).get();
+            } catch(ExecutionException e) {
+                throw new IllegalStateException(e.getCause());
+            }
+        }
+
+        @Override
+        public void close() {
+        }
+
+        private void send() {
+            if(pending_.isEmpty())
+                return;
+            List<Object> batch = pending_;
+            pending_ = new ArrayList<>(batchSize_);
+            server_.execute(() -> {
+                if(batchLatencyUs > 0L)
+                    LockSupport.parkNanos(batchLatencyUs * 1000L);
+                for(Object rowHandle: batch)
+                    success_.success(rowHandle, null);
+            });
+        }
+
+        private final int batchSize_;
+        private final BulkLoaderSuccessCallback success_;
+        private List<Object> pending_;
+    }
+
+    private Logger log_;
+    private ExecutorService server_;
+
+    private static final int PROCESSORS_PER_NODE = 2;
+    private static final int DIMMS_PER_NODE = 8;
+}
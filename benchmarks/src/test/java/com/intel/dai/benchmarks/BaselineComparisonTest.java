@@ -0,0 +1,82 @@
+// Copyright (C) 2021 Intel Corporation
+//
+// SPDX-License-Identifier: Apache-2.0
+//
+package com.intel.dai.benchmarks;
+
+import com.intel.config_io.ConfigIO;
+import com.intel.config_io.ConfigIOFactory;
+import com.intel.properties.PropertyArray;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class BaselineComparisonTest {
+    @Before
+    public void setUp() {
+        parser = ConfigIOFactory.getInstance("json");
+        assert parser != null;
+        output = new ByteArrayOutputStream();
+        comparison = new BaselineComparison(0.10, new PrintStream(output, true));
+    }
+
+    @Test
+    public void reportsTheSlowerAverageTimeAsARegression() throws Exception {
+        List<String> regressions = comparison.compare(results(result("a.B.parse", "avgt", "1000", 10.0)),
+                results(result("a.B.parse", "avgt", "1000", 12.0), result("a.B.parse", "avgt", "10", 1.0)));
+        assertEquals(1, regressions.size());
+        assertTrue(regressions.get(0).startsWith("a.B.parse [avgt] {sensors=1000}"));
+        assertTrue(output.toString().contains("NEW       a.B.parse [avgt] {sensors=10}"));
+    }
+
+    @Test
+    public void reportsTheLowerThroughputAsARegression() throws Exception {
+        assertEquals(1, comparison.compare(results(result("a.B.parse", "thrpt", "10", 100.0)),
+                results(result("a.B.parse", "thrpt", "10", 80.0))).size());
+        assertEquals(0, comparison.compare(results(result("a.B.parse", "thrpt", "10", 100.0)),
+                results(result("a.B.parse", "thrpt", "10", 120.0))).size());
+    }
+
+    @Test
+    public void acceptsChangesWithinTheThreshold() throws Exception {
+        assertEquals(0, comparison.compare(results(result("a.B.parse", "avgt", "10", 10.0)),
+                results(result("a.B.parse", "avgt", "10", 10.9))).size());
+    }
+
+    @Test
+    public void reportsTheMissingBenchmarks() throws Exception {
+        assertEquals(0, comparison.compare(results(result("a.B.parse", "avgt", "10", 10.0)),
+                results()).size());
+        assertTrue(output.toString().contains("MISSING   a.B.parse [avgt] {sensors=10}"));
+    }
+
+    @Test
+    public void relativeChange() {
+        assertEquals(0.5, BaselineComparison.relativeChange(10.0, 15.0, true), 1e-9);
+        assertEquals(-0.5, BaselineComparison.relativeChange(10.0, 15.0, false), 1e-9);
+        assertEquals(0.0, BaselineComparison.relativeChange(0.0, 15.0, false), 1e-9);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void ctorRejectsANegativeThreshold() {
+        new BaselineComparison(-0.1, System.out);
+    }
+
+    private PropertyArray results(String... results) throws Exception {
+        return parser.fromString("[" + String.join(",", results) + "]").getAsArray();
+    }
+
+    private static String result(String benchmark, String mode, String sensors, double score) {
+        return String.format("{\"benchmark\":\"%s\",\"mode\":\"%s\",\"params\":{\"sensors\":\"%s\"}," +
+                "\"primaryMetric\":{\"score\":%f,\"scoreUnit\":\"us/op\"}}", benchmark, mode, sensors, score);
+    }
+
+    private ConfigIO parser;
+    private ByteArrayOutputStream output;
+    private BaselineComparison comparison;
+}
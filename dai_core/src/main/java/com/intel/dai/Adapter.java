@@ -10,6 +10,8 @@ import com.intel.dai.exceptions.DataStoreException;
 import com.intel.logging.*;
 import com.intel.dai.dsimpl.jdbc.DbConnectionFactory;
 import com.intel.dai.dsimpl.DataStoreFactoryImpl;
+import com.intel.dai.dsimpl.voltdb.RasEventBatcher;
+import com.intel.dai.dsimpl.voltdb.VoltDbRasEventLog;
 import com.intel.dai.InventoryKeys;
 import com.intel.config_io.*;
 import com.intel.properties.*;
@@ -49,6 +51,7 @@ public class Adapter implements IAdapter {
     static String RASMETADATA_FILE = "RasEventMetaData.json"; // File for RAS metadata.
     public final static String DataMoverQueueName    = "DAI-DataMover-Queue";
     public final static String DataMoverExchangeName = "DAI-DataMover-Exchange";
+    static final long DefaultRasEventBatchFlushMs = 100L;    // Flush interval used when ras event batching is enabled without a UcsRasEventBatchFlushMs.
     public final String KeyForLctn = "Lctn=";
     public final String KeyForTimeInMicroSecs = "TimeInMicroSecs=";
     public final String KeyForUsingSynthData = "UsingSynthData";
@@ -84,6 +87,7 @@ public class Adapter implements IAdapter {
     private WorkQueue               mWorkQueue                            = null;
     private DataStoreFactory        mFactory                              = null;
     private RasEventLog             mRasEventLog                          = null;
+    private RasEventBatcher         mRasEventBatcher                      = null;       // Buffers the asynchronously logged RAS events when batching is enabled.
     private AdapterShutdownHandler  mShutdownHandler                      = null;
     private ConfigIO                mJsonParser                           = null;       // Json parser.
     private long                    mNumLevelsInComputeNodeLctn           = -99999;     // Number of levels that make up compute node lctn strings in this machine (e.g., R2-CH03-N2 = 3 levels)
@@ -116,6 +120,11 @@ public class Adapter implements IAdapter {
 
     @Override
     public void                  setShutdownHandler(AdapterShutdownHandler handler)  { mShutdownHandler = handler; }
+    // Store the asynchronously logged RAS events in batches, folding identical events into one RasEvent row (see RasEventBatcher).
+    public void                  enableRasEventBatching(int iMaxBufferedEvents, long lFlushIntervalMs) {
+        if (mRasEventBatcher == null)
+            mRasEventBatcher = new RasEventBatcher(mLogger, this::client, iMaxBufferedEvents, lFlushIntervalMs, this::rasEventBatchFailed);
+    }
     @Override
     public Map<String, MetaData> cachedRasDescrNameToMetaDataMap()       { return mRasDescrNameToMetaDataMap; }
 
@@ -213,11 +222,48 @@ public class Adapter implements IAdapter {
             mNumLevelsInServiceNodeLctn = 2;  // default if no entry exists in UcsConfigValue table.
         }
 
+        // Batch the asynchronously logged ras events if this machine is configured to do so.
+        configureRasEventBatching();
+
         // Adapter should be ready for normal operation, now :)
 
         return mWorkQueue;
     }   // End setUpAdapter(String servers, String sSnLctn)
 
+    // Enable batching of the asynchronously logged ras events (both the ones logged by this adapter and the ones logged
+    // through its RasEventLog) when the UcsConfigValue table has a UcsRasEventBatchSize greater than 0, buffered events
+    // are stored at least every UcsRasEventBatchFlushMs milliseconds.
+    void configureRasEventBatching() {
+        long lBatchSize = ucsConfigValueAsLong("UcsRasEventBatchSize", 0L);
+        long lFlushIntervalMs = ucsConfigValueAsLong("UcsRasEventBatchFlushMs", DefaultRasEventBatchFlushMs);
+        if (lBatchSize <= 0L)
+            return;
+        if (lBatchSize > Integer.MAX_VALUE || lFlushIntervalMs <= 0L) {
+            mLogger.error("Adapter - ignoring the invalid ras event batching configuration - UcsRasEventBatchSize=%d, UcsRasEventBatchFlushMs=%d", lBatchSize, lFlushIntervalMs);
+            return;
+        }
+        mLogger.info("Adapter - batching ras events - UcsRasEventBatchSize=%d, UcsRasEventBatchFlushMs=%d", lBatchSize, lFlushIntervalMs);
+        enableRasEventBatching((int) lBatchSize, lFlushIntervalMs);
+        if (mRasEventLog instanceof VoltDbRasEventLog)
+            ((VoltDbRasEventLog) mRasEventLog).enableBatching((int) lBatchSize, lFlushIntervalMs);
+    }   // End configureRasEventBatching()
+
+    // Get the numeric value of the specified UcsConfigValue key, the default is returned if there is no such entry (or it can't be read).
+    private long ucsConfigValueAsLong(String sKey, long lDefault) {
+        try {
+            VoltTable vtTemp = client().callProcedure("UCSCONFIGVALUE.select", sKey).getResults()[0];
+            if (vtTemp.getRowCount() == 1) {
+                vtTemp.advanceRow();
+                return Long.parseLong(vtTemp.getString("Value"));
+            }
+        }
+        catch (Exception e)  {
+            mLogger.error("Adapter - exception occurred - can't get UCSCONFIGVALUE.select Key=%s!", sKey);
+            mLogger.error("Adapter - %s", Adapter.stackTraceToString(e));
+        }
+        return lDefault;
+    }   // End ucsConfigValueAsLong(String sKey, long lDefault)
+
 
     @Override
     public boolean isComputeNodeLctn(String sLctn)
@@ -1232,6 +1278,14 @@ public class Adapter implements IAdapter {
         // Mark this adapter's base work item as Finished (and implicitly also as Done as Base Work Items are NotifyWhenFinished = F)
         // (this will be done synchronously).
         teardownAdaptersBaseWorkItem(sBaseWorkItemResults);
+        // Store any RAS events that are still buffered.
+        if (mRasEventBatcher != null)
+            mRasEventBatcher.close();
+        if (mRasEventLog instanceof VoltDbRasEventLog)
+            ((VoltDbRasEventLog) mRasEventLog).disableBatching();
+        // Stop waiting for other work items to finish.
+        if (mWorkQueue != null)
+            mWorkQueue.shutdown();
         // Close the connections to db nodes.
         client().drain(); // ensure that all async calls have completed.
         client().close(); // close all of the connections and release any resources associated with the client.
@@ -1333,6 +1387,14 @@ public class Adapter implements IAdapter {
     public void logRasEventNoEffectedJob(String sEventDescrName, String sInstanceData, String sLctn, long lTsInMicroSecs, String sReqAdapterType, long lReqWorkItemId)
     {
         sEventDescrName = ensureRasDescrNameIsValid(sEventDescrName);
+        if ((mRasEventBatcher != null) && mRasEventBatcher.offer(sEventDescrName, sInstanceData, sLctn, null, lTsInMicroSecs, sReqAdapterType, lReqWorkItemId))
+            return;
+        storeRasEventNoEffectedJob(sEventDescrName, sInstanceData, sLctn, lTsInMicroSecs, sReqAdapterType, lReqWorkItemId);
+    }   // End logRasEventNoEffectedJob(String sEventDescrName, String sInstanceData, String sLctn, long lTsInMicroSecs, String sReqAdapterType, long lReqWorkItemId)
+
+    // Asynchronously store the specified (valid) ras event with the RasEventStore stored procedure (bypassing the batcher).
+    private void storeRasEventNoEffectedJob(String sEventDescrName, String sInstanceData, String sLctn, long lTsInMicroSecs, String sReqAdapterType, long lReqWorkItemId)
+    {
         String sTempStoredProcedure = "RasEventStore";
         MyCallbackForHouseKeepingLongRtrnValue oTempCallback = null;
         try {
@@ -1358,7 +1420,20 @@ public class Adapter implements IAdapter {
             mLogger.error("logRasEventNoEffectedJob - exception occurred trying to log ras event %s!", sEventDescrName);
             mLogger.error("logRasEventNoEffectedJob - %s", Adapter.stackTraceToString(e));
         }
-    }   // End logRasEventNoEffectedJob(String sEventDescrName, String sInstanceData, String sLctn, long lTsInMicroSecs, String sReqAdapterType, long lReqWorkItemId)
+    }   // End storeRasEventNoEffectedJob(String sEventDescrName, String sInstanceData, String sLctn, long lTsInMicroSecs, String sReqAdapterType, long lReqWorkItemId)
+
+    // A batch of buffered ras events could not be stored, log the generic callback failed RAS event (without batching it,
+    // so a batcher that keeps failing does not keep feeding itself).
+    private void rasEventBatchFailed(String sEventDescrName, int iNumEvents, String sStatusString, String sReqAdapterType, long lReqWorkItemId)
+    {
+        storeRasEventNoEffectedJob(ensureRasDescrNameIsValid("RasGenAdapterMyCallbackForHouseKeepingLongRtrnValueFailed")
+                                  ,("AdapterName=" + mAdapterName + ", SpThisIsCallbackFor=" + RasEventBatcher.StoredProcedure + ", " + "PertinentInfo=" + sEventDescrName + " (" + iNumEvents + " events), StatusString=" + sStatusString)
+                                  ,null                                  // Lctn
+                                  ,System.currentTimeMillis() * 1000L    // Time that the event that triggered this ras event occurred, in micro-seconds since epoch
+                                  ,sReqAdapterType                       // type of adapter that is generating this ras event
+                                  ,lReqWorkItemId                        // work item that is being worked on that resulted in the generation of this ras event
+                                  );
+    }
 
     // Log the specified ras event used when the caller is certain that NO job was effected by the "event" whose occurrence caused the logging of this ras event.
     // Note: this use synchronous data store updates!
@@ -1395,6 +1470,8 @@ public class Adapter implements IAdapter {
     {
         sEventDescrName = ensureRasDescrNameIsValid(sEventDescrName);
         String sTempStoredProcedure = "RasEventStore";
+        if ((mRasEventBatcher != null) && mRasEventBatcher.offer(sEventDescrName, sInstanceData, sLctn, sJobId, lTsInMicroSecs, sReqAdapterType, lReqWorkItemId))
+            return;
         try {
             client().callProcedure(new MyCallbackForHouseKeepingLongRtrnValue(this, sReqAdapterType, mAdapterName, sTempStoredProcedure, sEventDescrName, lReqWorkItemId)  // asynchronously invoke the procedure
                                   ,sTempStoredProcedure  // stored procedure name
@@ -1431,6 +1508,8 @@ public class Adapter implements IAdapter {
                 logRasEventNoEffectedJob(sEventDescrName, sInstanceData, sLctn, lTsInMicroSecs, sReqAdapterType, lReqWorkItemId);
                 return;
             }
+            if ((mRasEventBatcher != null) && mRasEventBatcher.offer(sEventDescrName, sInstanceData, sLctn, "?", lTsInMicroSecs, sReqAdapterType, lReqWorkItemId))
+                return;
             client().callProcedure(new MyCallbackForHouseKeepingLongRtrnValue(this, sReqAdapterType, mAdapterName, sTempStoredProcedure, sEventDescrName, lReqWorkItemId)  // asynchronously invoke the procedure
                                   ,sTempStoredProcedure  // stored procedure name
                                   ,sEventDescrName       // type of ras event
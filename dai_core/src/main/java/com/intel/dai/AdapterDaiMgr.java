@@ -51,6 +51,9 @@ public class AdapterDaiMgr {
     private static final long CONNECTION_TIMEOUT       = 10 * 1000L;    // Each attempt to connect to a VoltDB server will last up to 10 seconds.
     private static final long CONNECTION_LOOP_DELAY    = 15 * 1000L;    // Each attempt to connect to VoltDB will pause up to 15 seconds per loop of all servers.
     private static final long CONNECTION_TOTAL_TIMEOUT = 900 * 1000L;   // Total timeout for attempts to connect to VoltDB will last up to 15 minutes.
+    private static final int  NODE_PROBE_MAX_CONCURRENT = 4096;        // Number of nodes whose initial state is probed at the same time (non-blocking connects, no thread per node).
+    private static final int  NODE_PROBE_TIMEOUT        = 2 * 1000;    // Each node gets up to 2 seconds to answer the probe of its initial state.
+    private static final int  NODE_STATE_BATCH_SIZE     = 1000;        // Number of nodes whose initial state is set per ComputeNodeSetStates invocation.
 
     // Customization
     boolean useConsoleMsgLogic;
@@ -78,6 +81,7 @@ public class AdapterDaiMgr {
         mTimeLastCheckedDataRecvProgress = System.currentTimeMillis();  // initialize this value to the current timestamp, so that the first backlog check isn't done until we have a chance to start the child adapters, etc.
         mTimeLastCheckedNodesMissingConsoleMsgs = System.currentTimeMillis();  // initialize this value to the current timestamp, so that the first check isn't done until we have a chance to start the child adapters, etc.
         mTimeLastCheckedNodesStuckShuttingDown  = System.currentTimeMillis();  // initialize this value to the current timestamp, so that the first check isn't done until we have a chance to start the child adapters, etc.
+        mNodeProber = new NodeReachabilityProber(logger, NODE_PROBE_MAX_CONCURRENT, NODE_PROBE_TIMEOUT);
 
         // Create a VoltDB Client with shorter timeout.
         ClientConfig config = new ClientConfig("", "", null);
@@ -106,6 +110,7 @@ public class AdapterDaiMgr {
     String                                  mSnLctn;                                 // lctn string of the service node this adapter instance is running on.
     private DataStoreFactory                factory;
     private Client                          quickClient_;                            // Short timeout client.
+    NodeReachabilityProber                  mNodeProber;                             // determines the initial state of the compute nodes.
 
 
 
@@ -1171,18 +1176,10 @@ public class AdapterDaiMgr {
         // This needs to be replaced by a more in-depth ActSys mechanism but until that is available we will simply use ping.
         //    - Initial thought is that it might be best to handle this by using the node's serial console (Todd has a lot of good ideas on how this could be done)!
         //----------------------------------------------------------------------
-        class NodePingInfo {
-            NodePingInfo(String sLctn, String sIpAddr, Process oProcess)  { mNodeLctn=sLctn; mNodeIpAddr=sIpAddr; mNodeProcess=oProcess; }
-            String  mNodeLctn;
-            String  mNodeIpAddr;
-            Process mNodeProcess;
-        };
 
         //----------------------------------------------------------------------
         // Loop through the list of compute nodes.
         //----------------------------------------------------------------------
-        // Set up the correct stored procedure name that should be used for setting the node state values.
-        String sTempStoredProcedureForSavingStateInfo       = "ComputeNodeSetState";
         // Set up the correct stored procedure name that should be used for getting the list of child nodes.
         String sTempStoredProcedureForGettingListOfChildren = "ComputeNodeListOfChildren";
 
@@ -1196,81 +1193,59 @@ public class AdapterDaiMgr {
             throw new RuntimeException(response.getStatusString());
         }
         VoltTable vt = response.getResults()[0];
+        Map<String, String> mapNodeIpAddrs = new LinkedHashMap<>();  // lctn -> ip address, in lctn order.
+        Set<String> setNodesInError = new HashSet<>();
+        while (vt.advanceRow()) {
+            mapNodeIpAddrs.put(vt.getString("Lctn"), vt.getString("IpAddr"));
+            if ("E".equals(vt.getString("State")))
+                setNodesInError.add(vt.getString("Lctn"));
+        }
 
         //------------------------------------------------------------------
-        // Loop through each of the children nodes that were returned in the volt table - issue a ping to see if that node is already active.
+        // Check all of the children nodes at once to see which of them are already active (see NodeReachabilityProber).
         //------------------------------------------------------------------
-        ArrayList<NodePingInfo> alNodePingInfo = new ArrayList<NodePingInfo>();
-        int iNodeCntr = 1;
-        for (int iChildCntr = 0; iChildCntr < vt.getRowCount(); ++iChildCntr)
-        {
-            vt.advanceRow();
-            String sTempChildNodeLctn   = vt.getString("Lctn");
-            String sTempChildNodeIpAddr = vt.getString("IpAddr");
-            // Check & see if the node is already active.
-            String sTempCmd = "/usr/bin/ping -q -c 1 " + sTempChildNodeIpAddr;
-            log_.info("determineInitialNodeStates - checking to see if %s (%s) is already active - issuing '%s'", sTempChildNodeLctn, sTempChildNodeIpAddr, sTempCmd);
-            Process process = Runtime.getRuntime().exec(sTempCmd);
-            // Save away info about this node's ping.
-            alNodePingInfo.add( new NodePingInfo(sTempChildNodeLctn, sTempChildNodeIpAddr, process) );
-            // Ensure that don't consume too many processes doing these pings.
-            if (iNodeCntr % 500 == 0) {
-                Thread.sleep(1 * 1000);  // delay a little so we don't run out of processes (i.e., Too many open files)
-            }
-            ++iNodeCntr;
+        log_.info("determineInitialNodeStates - checking to see which of the %d nodes are already active", mapNodeIpAddrs.size());
+        long lProbeStartMs = System.currentTimeMillis();
+        Set<String> setReachableIpAddrs = mNodeProber.probe(mapNodeIpAddrs.values());
+        log_.info("determineInitialNodeStates - %d of the %d nodes answered in %d ms", setReachableIpAddrs.size(),
+                  mapNodeIpAddrs.size(), System.currentTimeMillis() - lProbeStartMs);
+
+        List<String> alActiveNodes  = new ArrayList<>();
+        List<String> alMissingNodes = new ArrayList<>();
+        for (Map.Entry<String, String> entry : mapNodeIpAddrs.entrySet()) {
+            if (!setReachableIpAddrs.contains(entry.getValue()))
+                alMissingNodes.add(entry.getKey());
+            else if (setNodesInError.contains(entry.getKey()))
+                // a node in error can not directly transition to active (ComputeNodeSetState(s) would reject it).
+                log_.error("determineInitialNodeStates - node %s is already active but is in error, node state left unchanged!", entry.getKey());
+            else
+                alActiveNodes.add(entry.getKey());
         }
 
         //------------------------------------------------------------------
-        // Loop through checking the results of the ping for each node.
+        // Set the state of the nodes that answered to Active - state of A is Active/Available/Usable.
         //------------------------------------------------------------------
-        for(NodePingInfo oNodePingInfo:alNodePingInfo) {
-            // Wait for this node's ping to finish.
-            int iTempExitCode = oNodePingInfo.mNodeProcess.waitFor();
-            if (iTempExitCode == 0) {
-                // ping was successful
-                String sTempNewState = "A";  // state of A is Active/Available/Usable.
-                // Set the node's state to Active state - simply recording state change info, no need to wait for ack that this work has completed
-                // NOTE: we PURPOSELY are not using the markNodeActive() method because we need a special flow to handle this "special" situation!
-                //       The same is true for the PertinentInfo specified in the creation of this callback, we do NOT want the "NewState=A" specified in the pertinent info,
-                //       even though we are setting the node to active because we do NOT want processing done in the callback for the general case of setting a node active.
-                //       This is a special case (not the general case), so be careful making any changes in this flow!!
-                String sPertinentInfo = "Lctn=" + oNodePingInfo.mNodeLctn;
-                adapter.client().callProcedure(adapter.createHouseKeepingCallbackLongRtrnValue(adapter.adapterType(), adapter.adapterName(), sTempStoredProcedureForSavingStateInfo, sPertinentInfo, workQueue.baseWorkItemId()) // asynchronously invoke the procedure
-                                              ,sTempStoredProcedureForSavingStateInfo   // stored procedure name
-                                              ,oNodePingInfo.mNodeLctn                  // node's location string
-                                              ,sTempNewState                            // node's new state, M = Missing
-                                              ,System.currentTimeMillis() * 1000L       // time that the event that triggered this ras event occurred, in micro-seconds since epoch
-                                              ,adapter.adapterType()                    // type of the adapter that is requesting/issuing this stored procedure
-                                              ,workQueue.baseWorkItemId());             // work item id for the work item that is being processed/executing, that is requesting/issuing this stored procedure
-                // NOTE: we PURPOSELY decided to NOT tell the WLM that it can start to use this node here in this situation!!!
-                //       The reason is that the WLM may already have taken the node offline for another reason, so if we
-                //       change the internal state of the WLM here, it could cause confusion and disruption!
-                // Cut a ras event indicating that we reset the initial state to active - since the db was reloaded, there isn't any job information available...
-                adapter.logRasEventNoEffectedJob("RasProvFoundNodeAlreadyActive"
-                                                ,("AdapterName=" + adapter.adapterName() + ", Lctn=" + oNodePingInfo.mNodeLctn + ", IpAddr=" + oNodePingInfo.mNodeIpAddr + ", Newstate=" + sTempNewState)  // Instance data
-                                                ,oNodePingInfo.mNodeLctn                // lctn
-                                                ,System.currentTimeMillis() * 1000L     // time this occurred, in micro-seconds since epoch
-                                                ,adapter.adapterType()                  // type of the adapter that is requesting/issuing this stored procedure
-                                                ,workQueue.baseWorkItemId()             // requesting work item id
-                                                );
-                log_.info("determineInitialNodeStates - node is already active, called stored procedure %s - Lctn=%s, IpAddr=%s, NewState=%s",
-                          sTempStoredProcedureForSavingStateInfo, oNodePingInfo.mNodeLctn, oNodePingInfo.mNodeIpAddr, sTempNewState);
-            }
-            else {
-                // ping did not get a response
-                // Set the node's state to Missing state - simply recording state change info, no need to wait for ack that this work has completed
-                String sTempNewState = "M";  // state of M is Missing/PoweredOff/Unusable.
-                adapter.client().callProcedure(adapter.createHouseKeepingCallbackNoRtrnValue(adapter.adapterType(), adapter.adapterName(), sTempStoredProcedureForSavingStateInfo, oNodePingInfo.mNodeLctn, workQueue.baseWorkItemId()) // asynchronously invoke the procedure
-                                              ,sTempStoredProcedureForSavingStateInfo   // stored procedure name
-                                              ,oNodePingInfo.mNodeLctn                  // node's location string
-                                              ,sTempNewState                            // node's new state, M = Missing
-                                              ,System.currentTimeMillis() * 1000L       // time that the event that triggered this ras event occurred, in micro-seconds since epoch
-                                              ,adapter.adapterType()                    // type of the adapter that is requesting/issuing this stored procedure
-                                              ,workQueue.baseWorkItemId());             // work item id for the work item that is being processed/executing, that is requesting/issuing this stored procedure
-                log_.info("determineInitialNodeStates - node is not active, called stored procedure %s - Lctn=%s, IpAddr=%s, NewState=%s, ExitCode=%d",
-                          sTempStoredProcedureForSavingStateInfo, oNodePingInfo.mNodeLctn, oNodePingInfo.mNodeIpAddr, sTempNewState, iTempExitCode);
-            }
-        }   // loop through each of the nodes in the result table.
+        // NOTE: we PURPOSELY are not using the markNodeActive() method because we need a special flow to handle this "special" situation!
+        //       This is a special case (not the general case), so be careful making any changes in this flow!!
+        setInitialNodeStates(alActiveNodes, "A");
+        for (String sNodeLctn : alActiveNodes) {
+            // NOTE: we PURPOSELY decided to NOT tell the WLM that it can start to use this node here in this situation!!!
+            //       The reason is that the WLM may already have taken the node offline for another reason, so if we
+            //       change the internal state of the WLM here, it could cause confusion and disruption!
+            // Cut a ras event indicating that we reset the initial state to active - since the db was reloaded, there isn't any job information available...
+            adapter.logRasEventNoEffectedJob("RasProvFoundNodeAlreadyActive"
+                                            ,("AdapterName=" + adapter.adapterName() + ", Lctn=" + sNodeLctn + ", IpAddr=" + mapNodeIpAddrs.get(sNodeLctn) + ", Newstate=A")  // Instance data
+                                            ,sNodeLctn                              // lctn
+                                            ,System.currentTimeMillis() * 1000L     // time this occurred, in micro-seconds since epoch
+                                            ,adapter.adapterType()                  // type of the adapter that is requesting/issuing this stored procedure
+                                            ,workQueue.baseWorkItemId()             // requesting work item id
+                                            );
+        }
+
+        //------------------------------------------------------------------
+        // Set the state of the nodes that did not answer to Missing - state of M is Missing/PoweredOff/Unusable.
+        //------------------------------------------------------------------
+        setInitialNodeStates(alMissingNodes, "M");
 
         log_.info("determineInitialNodeStates - updated  the initial node state for compute nodes");
         // Indicate that we have already determined the initial node states of this ServiceNode's child nodes.
@@ -1279,6 +1254,49 @@ public class AdapterDaiMgr {
     }   // End determineInitialNodestates(String sSnLctn)
 
 
+    //--------------------------------------------------------------------------
+    // Set the initial state of the specified compute nodes, NODE_STATE_BATCH_SIZE nodes per invocation of ComputeNodeSetStates.
+    // - If a batch is rejected (e.g., one of its nodes went into error in the meantime) its nodes are set one at a time.
+    //--------------------------------------------------------------------------
+    private void setInitialNodeStates(List<String> alNodeLctns, String sNewState) throws IOException, ProcCallException {
+        for (int iStart = 0; iStart < alNodeLctns.size(); iStart += NODE_STATE_BATCH_SIZE) {
+            List<String> alBatch = alNodeLctns.subList(iStart, Math.min(iStart + NODE_STATE_BATCH_SIZE, alNodeLctns.size()));
+            ClientResponse response;
+            try {
+                response = adapter.client().callProcedure("ComputeNodeSetStates"
+                                                         ,alBatch.toArray(new String[0])     // nodes' location strings
+                                                         ,sNewState                          // nodes' new state
+                                                         ,System.currentTimeMillis() * 1000L // time that the event that triggered this state change occurred, in micro-seconds since epoch
+                                                         ,adapter.adapterType()              // type of the adapter that is requesting/issuing this stored procedure
+                                                         ,workQueue.baseWorkItemId());       // work item id for the work item that is being processed/executing, that is requesting/issuing this stored procedure
+            }
+            catch (ProcCallException pce) {
+                response = pce.getClientResponse();
+            }
+            if (response != null && response.getStatus() == ClientResponse.SUCCESS) {
+                log_.info("determineInitialNodeStates - called stored procedure ComputeNodeSetStates - NumNodes=%d, NewState=%s", alBatch.size(), sNewState);
+                continue;
+            }
+            log_.error("determineInitialNodeStates - stored procedure ComputeNodeSetStates FAILED - StatusString=%s, NumNodes=%d, NewState=%s - setting the nodes one at a time",
+                       (response == null) ? null : response.getStatusString(), alBatch.size(), sNewState);
+            for (String sNodeLctn : alBatch) {
+                // Simply recording state change info, no need to wait for ack that this work has completed.
+                // NOTE: the PertinentInfo PURPOSELY does not have "NewState=A", we do NOT want processing done in the callback for the general case of setting a node active.
+                ProcedureCallback callback = ("A".equals(sNewState))
+                        ? adapter.createHouseKeepingCallbackLongRtrnValue(adapter.adapterType(), adapter.adapterName(), "ComputeNodeSetState", "Lctn=" + sNodeLctn, workQueue.baseWorkItemId())
+                        : adapter.createHouseKeepingCallbackNoRtrnValue(adapter.adapterType(), adapter.adapterName(), "ComputeNodeSetState", sNodeLctn, workQueue.baseWorkItemId());
+                adapter.client().callProcedure(callback                                 // asynchronously invoke the procedure
+                                              ,"ComputeNodeSetState"                    // stored procedure name
+                                              ,sNodeLctn                                // node's location string
+                                              ,sNewState                                // node's new state
+                                              ,System.currentTimeMillis() * 1000L       // time that the event that triggered this state change occurred, in micro-seconds since epoch
+                                              ,adapter.adapterType()                    // type of the adapter that is requesting/issuing this stored procedure
+                                              ,workQueue.baseWorkItemId());             // work item id for the work item that is being processed/executing, that is requesting/issuing this stored procedure
+            }
+        }
+    }   // End setInitialNodeStates(List<String> alNodeLctns, String sNewState)
+
+
     //--------------------------------------------------------------------------
     // Clean up any "stale" adapter instances that were inadvertently left marked as active
     // (specifically this involves checking for any adapter instances that are still marked active on this service node).
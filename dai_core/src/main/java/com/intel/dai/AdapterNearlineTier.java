@@ -28,6 +28,8 @@ public abstract class AdapterNearlineTier {
     WorkQueue workQueue;
     SyncAdapterShutdownHandler shutdownHandler;
     String rabbitMQ = "localhost";
+    int dataReceiverWorkers = 0;     // number of threads writing into Tier2, 0 means writing on the AMQP consumer thread.
+    int dataReceiverPrefetch = DataReceiverAmqp.DEFAULT_PREFETCH_COUNT;  // number of unacknowledged messages the broker sends ahead.
     protected static final long MAX_SHUTDOWN_TIME_SEC = 10L;
     protected static final String CONSUMER_TAG = "DataReceiver";
     protected static final long SHUTDOWN_CHECK_INTERVAL_MS = 1000L;
@@ -108,6 +110,10 @@ public abstract class AdapterNearlineTier {
         for(String nameValue: clientParameters) {
             if(nameValue.startsWith("RabbitMQHost="))
                 rabbitMQ = nameValue.substring(nameValue.indexOf("=")+1).trim();
+            else if(nameValue.startsWith("DataReceiverWorkers="))
+                dataReceiverWorkers = Math.max(0, Integer.parseInt(nameValue.substring(nameValue.indexOf("=")+1).trim()));
+            else if(nameValue.startsWith("DataReceiverPrefetch="))
+                dataReceiverPrefetch = Math.max(1, Integer.parseInt(nameValue.substring(nameValue.indexOf("=")+1).trim()));
         }
     }
 
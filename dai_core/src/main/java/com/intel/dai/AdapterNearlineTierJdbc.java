@@ -12,6 +12,7 @@ import com.intel.dai.dsapi.WorkQueue;
 import com.intel.perflogging.BenchmarkHelper;
 import org.voltdb.client.*;
 import org.voltdb.VoltTable;
+import org.json_voltpatches.JSONException;
 import java.util.*;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.io.IOException;
@@ -57,6 +58,8 @@ public class AdapterNearlineTierJdbc extends AdapterNearlineTier {
 
     private AtomicBoolean receivedEom;
     private BenchmarkHelper benchmarking_;
+    private final List<java.sql.Connection> mWorkerConns = new ArrayList<>();  // connections of the workers other than the first.
+    private static final long WORKER_SHUTDOWN_TIMEOUT_MS = 60_000L;
 
     // Constructor
     AdapterNearlineTierJdbc(DataStoreFactory dsFactory, Logger logger) throws TimeoutException, IOException, ClassNotFoundException, DataStoreException {
@@ -81,7 +84,29 @@ public class AdapterNearlineTierJdbc extends AdapterNearlineTier {
     }
 
     DataReceiverAmqp createDataReceiver(String host) throws IOException, TimeoutException {
-        return new DataReceiverAmqp(host, adapter, log_, workQueue.workItemId());
+        return new DataReceiverAmqp(host, adapter, log_, workQueue.workItemId(), dataReceiverPrefetch);
+    }
+
+    //--------------------------------------------------------------------------
+    // Create the pool of workers writing into Tier2, the first worker uses this adapter's connection and the other
+    // workers each get a connection of their own.
+    //--------------------------------------------------------------------------
+    DataReceiverWorkerPool createWorkerPool(DataReceiverAmqp oDataReceiver) throws DataStoreException {
+        List<NearlineTableUpdater> updaters = new ArrayList<>(dataReceiverWorkers);
+        updaters.add(mTableUpdater);
+        for (int iWorkerCntr = 1; iWorkerCntr < dataReceiverWorkers; ++iWorkerCntr) {
+            java.sql.Connection conn = createConnection();
+            mWorkerConns.add(conn);
+            NearlineTableUpdater updater = new NearlineTableUpdater(conn, log_);
+            updater.setBenchmarker(benchmarking_);
+            updaters.add(updater);
+        }
+        int iAckBatchSize = Math.max(1, dataReceiverPrefetch / 4);
+        log_.info("DataReceiver - writing into Tier2 with %d workers, acknowledging up to %d messages at once",
+                  dataReceiverWorkers, iAckBatchSize);
+        // false means to update this workitem's history record rather than doing an insert of another history record.
+        return new DataReceiverWorkerPool(log_, oDataReceiver.getChannel(), updaters, iAckBatchSize,
+                sRestartData -> workQueue.saveWorkItemsRestartData(workQueue.workItemId(), sRestartData, false));
     }
 
     void waitUntilFinishedProcessingMessages() throws InterruptedException {
@@ -98,6 +123,17 @@ public class AdapterNearlineTierJdbc extends AdapterNearlineTier {
         log_.info("Shutdown signal and EOM from data mover received");
     }
 
+    private void closeWorkerConnections() {
+        for (java.sql.Connection conn : mWorkerConns) {
+            try {
+                conn.close();
+            } catch (SQLException e) {
+                log_.exception(e, "Failed to close a DataReceiver worker's tier 2 DB connection");
+            }
+        }
+        mWorkerConns.clear();
+    }
+
     void signalEom() {
         receivedEom.set(true);
     }
@@ -171,8 +207,9 @@ public class AdapterNearlineTierJdbc extends AdapterNearlineTier {
 
         // Setup AMQP for receiving data being moved from Tier1 to Tier2.
         DataReceiverAmqp oDataReceiver = createDataReceiver("localhost");
+        DataReceiverWorkerPool workers = (dataReceiverWorkers > 0) ? createWorkerPool(oDataReceiver) : null;
         mAmqpDataReceiverMsgConsumer = new AmqpDataReceiverMsgConsumer(oDataReceiver, mPrevAmqpMessageId, adapter, log_,
-                mTableUpdater, this);
+                mTableUpdater, this, workers);
 
         // Start to consume messages containing data that is being moving from Tier1 to Tier2
         // (DataMover -> DataReceiver). It will push us messages asynchronously, using the
@@ -196,6 +233,12 @@ public class AdapterNearlineTierJdbc extends AdapterNearlineTier {
         // Stop receiving messages
         oDataReceiver.getChannel().basicCancel(CONSUMER_TAG);
 
+        // Finish writing and acknowledging the messages already handed to the workers.
+        if (workers != null) {
+            workers.shutdown(WORKER_SHUTDOWN_TIMEOUT_MS);
+            closeWorkerConnections();
+        }
+
         // Shutdown the DataReceiver AMQP infrastructure.
         oDataReceiver.close();
 
@@ -215,21 +258,32 @@ public class AdapterNearlineTierJdbc extends AdapterNearlineTier {
         private Logger log_;
         private IAdapter adapter;
         private long mPrevAmqpMessageId;
+        private AmqpMessageIdTracker mAmqpMsgIdTracker;
         private NearlineTableUpdater mTableUpdater;
         private WorkQueue workQueue;
         private AdapterNearlineTierJdbc nearlineAdapter;
+        private DataReceiverWorkerPool mWorkers;  // null when the messages are handled on the consumer thread.
 
         // Constructor
         AmqpDataReceiverMsgConsumer(DataReceiverAmqp oDataReceiver, long previousId, IAdapter a, Logger l,
                                     NearlineTableUpdater tableUpdater, AdapterNearlineTierJdbc nearlineAdapter) {
+            this(oDataReceiver, previousId, a, l, tableUpdater, nearlineAdapter, null);
+        }
+
+        // Constructor for handing the Tier2 updates to a pool of workers (the workers acknowledge the messages).
+        AmqpDataReceiverMsgConsumer(DataReceiverAmqp oDataReceiver, long previousId, IAdapter a, Logger l,
+                                    NearlineTableUpdater tableUpdater, AdapterNearlineTierJdbc nearlineAdapter,
+                                    DataReceiverWorkerPool workers) {
             super(oDataReceiver.getChannel());
             mDataReceiver = oDataReceiver;
             mPrevAmqpMessageId = previousId;
+            mAmqpMsgIdTracker = new AmqpMessageIdTracker(previousId);
             adapter = a;
             log_ = l;
             mTableUpdater = tableUpdater;
             workQueue = adapter.workQueue();
             this.nearlineAdapter = nearlineAdapter;
+            mWorkers = workers;
         }
 
         // Handle a message received from the DataMover message queue.
@@ -242,10 +296,20 @@ public class AdapterNearlineTierJdbc extends AdapterNearlineTier {
             long lAmqpMessageId = -99999L;
 
             String sAmqpMsg="NotFilledIn"; long lIntervalId=-99999; String sTableName="NotFilledIn";
+            long lDeliveryTag = envelope.getDeliveryTag();
+            boolean bHandedToWorker = false;
             try {
-                // Grab data out of this message we just received.
-                sAmqpMsg = new String(body, "UTF-8");
-                PropertyMap jsonMsgObject= adapter.jsonParser().fromString(sAmqpMsg).getAsMap();
+                // Grab data out of this message we just received (binary messages carry the header fields as AMQP headers).
+                boolean bBinaryMsg = DataMoverCodec.isBinary(properties);
+                PropertyMap jsonMsgObject;
+                if (bBinaryMsg) {
+                    jsonMsgObject = DataMoverCodec.headerFromProperties(properties);
+                    sAmqpMsg = jsonMsgObject.toString();
+                }
+                else {
+                    sAmqpMsg = new String(body, "UTF-8");
+                    jsonMsgObject = adapter.jsonParser().fromString(sAmqpMsg).getAsMap();
+                }
 
                 // Grab header information
                 boolean eom = jsonMsgObject.getBoolean("EOM");
@@ -275,7 +339,7 @@ public class AdapterNearlineTierJdbc extends AdapterNearlineTier {
                               + "Part %d Of %d, IntervalId=%d, EndInterval=%s, StartInterval=%s, "
                               + "AmqpMsgLength=%d", lAmqpMessageId, sTableName,
                               lThisMsgsPartNum, lTotalNumParts, lIntervalId, sEndIntvlTimeMs,
-                              sStartIntvlTimeMs, sAmqpMsg.length());
+                              sStartIntvlTimeMs, body.length);
 
                 if (sTableName == null) {
                     throw new RuntimeException("DataReceiver received an invalid message with empty table name");
@@ -283,8 +347,17 @@ public class AdapterNearlineTierJdbc extends AdapterNearlineTier {
 
                 // Ensure that this AmqpMessageId is "valid/expected" (should be monotonically
                 // increasing with no skipped values).
-                long lExpectedAmqpMessageId = mPrevAmqpMessageId + 1L;
-                if (lAmqpMessageId != lExpectedAmqpMessageId) {
+                // Note: a DataMover publishing on several channels only keeps the order of the messages within each interval's channel, see AmqpMessageIdTracker.
+                long lExpectedAmqpMessageId = mAmqpMsgIdTracker.lastInOrderMessageId() + 1L;
+                long lIntervalFirstAmqpMessageId = jsonMsgObject.getLongOrDefault("IntervalFirstAmqpMessageId", -1L);
+                long lLostAmqpMessages = mAmqpMsgIdTracker.messageReceived(lAmqpMessageId, lIntervalFirstAmqpMessageId);
+                if (lLostAmqpMessages < 0L) {
+                    // A redelivery (or a DataMover resend) of a message that was already stored, skip it (it is still acknowledged).
+                    log_.warn("DataReceiver received AmqpMessageId=%d again, skipping this duplicate message - IntervalId=%d, TableName=%s",
+                              lAmqpMessageId, lIntervalId, sTableName);
+                    return;
+                }
+                if (lLostAmqpMessages > 0L) {
                     // invalid/unexpected AmqpMessageId!
                     // Cut a ras event to record that we received an unexpected (out of sequence) message id while receiving data from Tier1.
                     adapter.logRasEventNoEffectedJob("RasAntDataReceiverInvalidMsgId",
@@ -301,57 +374,94 @@ public class AdapterNearlineTierJdbc extends AdapterNearlineTier {
                                lIntervalId, lAmqpMessageId, lExpectedAmqpMessageId, adapter.adapterType(), adapter.adapterId());
                     // Note: after logging that this has occurred, continue and processing this message!
                 }
+                mPrevAmqpMessageId = mAmqpMsgIdTracker.lastInOrderMessageId();
+
+                // Restart data indicating the timestamp of the last data that was moved from Tier1 to Tier2.
+                String sRestartData = "Processed through (" + TimestampPrefix + sEndIntvlTimeMs + ") (" + IntervalIdPrefix + lIntervalId + ") (" + AmqpMessageIdPrefix + mPrevAmqpMessageId + ") (" + TableNamePrefix + sTableName + ")";
 
                 String sAmqpRoutingKey = sTableName;  // use the table name as the routing key.
 
-                mDataReceiver.getChannel().basicPublish(Adapter.DataMoverExchangeName, sAmqpRoutingKey, null, adapter.jsonParser().toString(jsonMsgObject).getBytes());
+                // The subscribers expect the JSON form, so binary messages are decoded here and republished in that form.
+                VoltTable vtBinaryMsg = bBinaryMsg ? DataMoverCodec.decodeTable(body, properties) : null;
+                PropertyMap jsonPubSubMsg = bBinaryMsg ? DataMoverCodec.jsonMessage(jsonMsgObject, vtBinaryMsg, adapter.jsonParser()) : jsonMsgObject;
+
+                // The workers acknowledge messages on this channel, so they can't use it at the same time.
+                synchronized (mDataReceiver.getChannel()) {
+                    mDataReceiver.getChannel().basicPublish(Adapter.DataMoverExchangeName, sAmqpRoutingKey, null, adapter.jsonParser().toString(jsonPubSubMsg).getBytes());
+                }
                 log_.info("Published AmqpMessageId=%d - IntervalId=%d, EndIntervalTs=%s, StartIntervalTs=%s, RoutingKey=%s, TableName=%s, Part %d Of %d",
                           lAmqpMessageId, lIntervalId, sEndIntvlTimeMs, sStartIntvlTimeMs, sAmqpRoutingKey,
                           sTableName, lThisMsgsPartNum, lTotalNumParts);
 
-                // Reconstitute the original VoltTable from the specified Json string.
-                VoltTable vtFromMsg = VoltTable.fromJSONString(sAmqpMsg);
-
-                // Update the corresponding table in nearline tier
-                mTableUpdater.Update(sTableName, vtFromMsg);
-
-                log_.info("AmqpDataReceiverMsgConsumer - updated nearline table - "
-                              + "AmqpMessageId=%d, TableName=%s", lAmqpMessageId, sTableName);
-
-                // Save restart data indicating the timestamp of the last data that was moved from
-                // Tier1 to Tier2.
-                String sRestartData = "Processed through (" + TimestampPrefix + sEndIntvlTimeMs + ") (" + IntervalIdPrefix + lIntervalId + ") (" + AmqpMessageIdPrefix + lAmqpMessageId + ") (" + TableNamePrefix + sTableName + ")";
-                // false means to update this workitem's history record rather than doing an insert
-                // of another history record - this is "unusual" (only used when a workitem is
-                // updating its working results fields very often)
-                workQueue.saveWorkItemsRestartData(workQueue.workItemId(), sRestartData, false);
-                // Save the AmqpMessageId that we just used (so we have it available for the next
-                // message).
-                mPrevAmqpMessageId = lAmqpMessageId;
+                if (mWorkers == null) {
+                    updateTier2(mTableUpdater, sTableName, vtBinaryMsg, sAmqpMsg, lAmqpMessageId);
+                    // false means to update this workitem's history record rather than doing an insert
+                    // of another history record - this is "unusual" (only used when a workitem is
+                    // updating its working results fields very often)
+                    workQueue.saveWorkItemsRestartData(workQueue.workItemId(), sRestartData, false);
+                }
+                else {
+                    // Write the data on the worker owning this table, the restart data is saved once the message is acknowledged.
+                    final String sWorkerTableName = sTableName, sWorkerAmqpMsg = sAmqpMsg;
+                    final long lWorkerAmqpMessageId = lAmqpMessageId, lWorkerIntervalId = lIntervalId;
+                    mWorkers.delivered(lDeliveryTag, sRestartData);
+                    bHandedToWorker = true;
+                    mWorkers.submit(sTableName, lDeliveryTag, updater -> {
+                        try {
+                            updateTier2(updater, sWorkerTableName, vtBinaryMsg, sWorkerAmqpMsg, lWorkerAmqpMessageId);
+                        } catch (Exception e) {
+                            handleMessageException(e, sWorkerAmqpMsg, lWorkerIntervalId, lWorkerAmqpMessageId, sWorkerTableName);
+                        }
+                    });
+                }
             } catch (Exception e) {
-                log_.error("AmqpDataReceiverMsgConsumer - Exception occurred (msg will be skipped): %s!", e.getMessage());
-                log_.error("%s", Adapter.stackTraceToString(e));
-                log_.error("Message that incurred the above exception - %s", sAmqpMsg);
                 // Save the AmqpMessageId that we just used (so we have it available for the next message).
-                mPrevAmqpMessageId = lAmqpMessageId;
-                try {
-                    String sTempInstanceData = "IntervalId=" + lIntervalId + ", AmqpMessageId=" + lAmqpMessageId + ", TableName=" + sTableName + "Exception=" + e;
-                    adapter.logRasEventNoEffectedJob("RasAntException"
-                            ,sTempInstanceData                  // instanceData
-                            ,null                               // lctn
-                            ,System.currentTimeMillis() * 1000L // time that the event that triggered this ras event occurred
-                            ,adapter.adapterType()              // reqAdapterType
-                            ,workQueue.baseWorkItemId()         // reqWorkItemId
-                            );
-                    // Note: after logging that this has occurred, skip this message!
-                }
-                catch (Exception e2) { log_.error("AmqpDataReceiverMsgConsumer - Second exception occurred (exception within exception handler): %s!", e.getMessage()); }
+                mPrevAmqpMessageId = mAmqpMsgIdTracker.lastInOrderMessageId();
+                handleMessageException(e, sAmqpMsg, lIntervalId, lAmqpMessageId, sTableName);
             } finally {
-                // Send a successful acknowledgment for receipt and successfully handling this
-                // message!
-                mDataReceiver.getChannel().basicAck(envelope.getDeliveryTag(), false);
-                log_.debug("DataReceiver acknowledged AmqpMessageId=%d", lAmqpMessageId);
+                if (mWorkers == null) {
+                    // Send a successful acknowledgment for receipt and successfully handling this
+                    // message!
+                    mDataReceiver.getChannel().basicAck(lDeliveryTag, false);
+                    log_.debug("DataReceiver acknowledged AmqpMessageId=%d", lAmqpMessageId);
+                }
+                else if (!bHandedToWorker)
+                    mWorkers.completed(lDeliveryTag);  // acknowledged along with the messages still being written.
+            }
+        }
+
+        // Write the data of a message into its Tier2 table.
+        // A binary message was already decoded into vtBinaryMsg, it is null for a JSON message.
+        private void updateTier2(NearlineTableUpdater updater, String sTableName, VoltTable vtBinaryMsg,
+                                 String sAmqpMsg, long lAmqpMessageId)
+                throws IOException, JSONException, DataStoreException {
+            // Reconstitute the original VoltTable from the message.
+            VoltTable vtFromMsg = (vtBinaryMsg != null) ? vtBinaryMsg : VoltTable.fromJSONString(sAmqpMsg);
+
+            // Update the corresponding table in nearline tier
+            updater.Update(sTableName, vtFromMsg);
+
+            log_.info("AmqpDataReceiverMsgConsumer - updated nearline table - "
+                          + "AmqpMessageId=%d, TableName=%s", lAmqpMessageId, sTableName);
+        }
+
+        private void handleMessageException(Exception e, String sAmqpMsg, long lIntervalId, long lAmqpMessageId,
+                                            String sTableName) {
+            log_.error("AmqpDataReceiverMsgConsumer - Exception occurred (msg will be skipped): %s!", e.getMessage());
+            log_.error("%s", Adapter.stackTraceToString(e));
+            log_.error("Message that incurred the above exception - %s", sAmqpMsg);
+            try {
+                String sTempInstanceData = "IntervalId=" + lIntervalId + ", AmqpMessageId=" + lAmqpMessageId + ", TableName=" + sTableName + "Exception=" + e;
+                adapter.logRasEventNoEffectedJob("RasAntException"
+                        ,sTempInstanceData                  // instanceData
+                        ,null                               // lctn
+                        ,System.currentTimeMillis() * 1000L // time that the event that triggered this ras event occurred
+                        ,adapter.adapterType()              // reqAdapterType
+                        ,workQueue.baseWorkItemId()         // reqWorkItemId
+                        );
+                // Note: after logging that this has occurred, skip this message!
             }
+            catch (Exception e2) { log_.error("AmqpDataReceiverMsgConsumer - Second exception occurred (exception within exception handler): %s!", e.getMessage()); }
         }
     }
 
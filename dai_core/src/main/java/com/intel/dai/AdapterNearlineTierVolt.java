@@ -310,9 +310,11 @@ public class AdapterNearlineTierVolt extends AdapterNearlineTier {
         AmqpDataReceiverMsgConsumer(DataReceiverAmqp oDataReceiver) {
             super(oDataReceiver.getChannel());
             mDataReceiver = oDataReceiver;
+            mAmqpMsgIdTracker = new AmqpMessageIdTracker(mPrevAmqpMessageId);
         }
         // Member data
         private DataReceiverAmqp mDataReceiver;
+        private AmqpMessageIdTracker mAmqpMsgIdTracker;  // detects lost messages.
 
 
         // Handle a message received from the DataMover message queue.
@@ -323,9 +325,17 @@ public class AdapterNearlineTierVolt extends AdapterNearlineTier {
 
             String sAmqpMsg="NotFilledIn"; long lIntervalId=-99999; String sTableName="NotFilledIn";
             try {
-                // Grab the data out of this message we just received.
-                sAmqpMsg = new String(body, "UTF-8");
-                PropertyMap jsonMsgObject = adapter.jsonParser().fromString(sAmqpMsg).getAsMap();
+                // Grab the data out of this message we just received (binary messages carry the header fields as AMQP headers).
+                boolean bBinaryMsg = DataMoverCodec.isBinary(properties);
+                PropertyMap jsonMsgObject;
+                if (bBinaryMsg) {
+                    jsonMsgObject = DataMoverCodec.headerFromProperties(properties);
+                    sAmqpMsg = jsonMsgObject.toString();
+                }
+                else {
+                    sAmqpMsg = new String(body, "UTF-8");
+                    jsonMsgObject = adapter.jsonParser().fromString(sAmqpMsg).getAsMap();
+                }
                 if (jsonMsgObject == null)  throw new RuntimeException("handleDelivery - Received a bad message from RabbitMQ: " + sAmqpMsg);
 
                 // Grab message's header information and check for EOM message.
@@ -352,11 +362,20 @@ public class AdapterNearlineTierVolt extends AdapterNearlineTier {
                 long   lTotalNumPartsForThisTable = jsonMsgObject.getLong("Of");                           // the total number of parts that make up this interval's data for sTableName.
 
                 log_.info("DataReceiver received AmqpMessageId=%d - TableName=%s, Part %d Of %d, IntervalId=%d, EndInterval=%s, StartInterval=%s, AmqpMsgLength=%d",
-                          lAmqpMessageId, sTableName, lThisMsgsPartNum, lTotalNumPartsForThisTable, lIntervalId, sEndIntvlTimeMs, sStartIntvlTimeMs, sAmqpMsg.length());
+                          lAmqpMessageId, sTableName, lThisMsgsPartNum, lTotalNumPartsForThisTable, lIntervalId, sEndIntvlTimeMs, sStartIntvlTimeMs, body.length);
 
                 // Ensure that this AmqpMessageId is "valid/expected" (should be monotonically increasing with no skipped values).
-                long lExpectedAmqpMessageId = mPrevAmqpMessageId + 1L;
-                if (lAmqpMessageId != lExpectedAmqpMessageId) {
+                // Note: a DataMover publishing on several channels only keeps the order of the messages within each interval's channel, see AmqpMessageIdTracker.
+                long lExpectedAmqpMessageId = mAmqpMsgIdTracker.lastInOrderMessageId() + 1L;
+                long lIntervalFirstAmqpMessageId = jsonMsgObject.getLongOrDefault("IntervalFirstAmqpMessageId", -1L);
+                long lLostAmqpMessages = mAmqpMsgIdTracker.messageReceived(lAmqpMessageId, lIntervalFirstAmqpMessageId);
+                if (lLostAmqpMessages < 0L) {
+                    // A redelivery (or a DataMover resend) of a message that was already stored, skip it (it is still acknowledged).
+                    log_.warn("DataReceiver received AmqpMessageId=%d again, skipping this duplicate message - IntervalId=%d, TableName=%s",
+                              lAmqpMessageId, lIntervalId, sTableName);
+                    return;
+                }
+                if (lLostAmqpMessages > 0L) {
                     // invalid/unexpected AmqpMessageId!
                     // Cut a ras event to record that we received an unexpected (out of sequence) message id while receiving data from Tier1.
                     adapter.logRasEventNoEffectedJob("RasAntDataReceiverInvalidMsgId"
@@ -392,8 +411,12 @@ public class AdapterNearlineTierVolt extends AdapterNearlineTier {
                 //--------------------------------------------------------------
                 // Publish this message on the pub-sub bus.
                 //--------------------------------------------------------------
+                // Reconstitute the original VoltTable from the message.
+                VoltTable vtFromMsg = bBinaryMsg ? DataMoverCodec.decodeTable(body, properties) : VoltTable.fromJSONString(sAmqpMsg);
+                // The subscribers expect the JSON form, so binary messages are republished in that form.
+                String sPubSubMsg = bBinaryMsg ? DataMoverCodec.jsonMessage(jsonMsgObject, vtFromMsg, adapter.jsonParser()).toString() : jsonMsgObject.toString();
                 String sAmqpRoutingKey = sTableName;  // use the table name as the routing key.
-                mDataReceiver.getChannel().basicPublish(Adapter.DataMoverExchangeName, sAmqpRoutingKey, null, jsonMsgObject.toString().getBytes());
+                mDataReceiver.getChannel().basicPublish(Adapter.DataMoverExchangeName, sAmqpRoutingKey, null, sPubSubMsg.getBytes());
                 log_.info("Published AmqpMessageId=%d - IntervalId=%d, EndIntervalTs=%s, StartIntervalTs=%s, RoutingKey=%s, TableName=%s, Part %d Of %d",
                           lAmqpMessageId, lIntervalId, sEndIntvlTimeMs, sStartIntvlTimeMs, sAmqpRoutingKey,
                           sTableName, lThisMsgsPartNum, lTotalNumPartsForThisTable);
@@ -401,8 +424,6 @@ public class AdapterNearlineTierVolt extends AdapterNearlineTier {
                 //--------------------------------------------------------------
                 // Invoke the appropriate stored procedure to insert this table's information into the appropriate Tier2 table.
                 //--------------------------------------------------------------
-                // Reconstitute the original VoltTable from the specified Json string.
-                VoltTable vtFromMsg = VoltTable.fromJSONString(sAmqpMsg);
                 log_.info("Inserting AmqpMessageId=%d - IntervalId=%d, EndIntervalTs=%s, StartIntervalTs=%s, TableName=%s, Part %d Of %d, %d rows",
                           lAmqpMessageId, lIntervalId, sEndIntvlTimeMs,  sStartIntvlTimeMs,
                           sTableName, lThisMsgsPartNum, lTotalNumPartsForThisTable, vtFromMsg.getRowCount());
@@ -585,17 +606,17 @@ public class AdapterNearlineTierVolt extends AdapterNearlineTier {
                 //--------------------------------------------------------------
                 // Save restart data indicating the timestamp of the last data that was moved from Tier1 to Tier2.
                 //--------------------------------------------------------------
-                String sRestartData = "Processed through (" + TimestampPrefix + sEndIntvlTimeMs + ") (" + IntervalIdPrefix + lIntervalId + ") (" + AmqpMessageIdPrefix + lAmqpMessageId + ") (" + TableNamePrefix + sTableName + ")";
+                String sRestartData = "Processed through (" + TimestampPrefix + sEndIntvlTimeMs + ") (" + IntervalIdPrefix + lIntervalId + ") (" + AmqpMessageIdPrefix + mAmqpMsgIdTracker.lastInOrderMessageId() + ") (" + TableNamePrefix + sTableName + ")";
                 workQueue.saveWorkItemsRestartData(workQueue.workItemId(), sRestartData, false);  // false means to update this workitem's history record rather than doing an insert of another history record - this is "unusual" (only used when a workitem is updating its working results fields very often)
                 // Save the AmqpMessageId that we just used (so we have it available for the next message).
-                mPrevAmqpMessageId = lAmqpMessageId;
+                mPrevAmqpMessageId = mAmqpMsgIdTracker.lastInOrderMessageId();
             }
             catch (Exception e) {
                 log_.error("AmqpDataReceiverMsgConsumer - Exception occurred (msg will be skipped): %s!", e.getMessage());
                 log_.error("%s", Adapter.stackTraceToString(e));
                 log_.error("Message that incurred the above exception - %s", sAmqpMsg);
                 // Save the AmqpMessageId that we just used (so we have it available for the next message).
-                mPrevAmqpMessageId = lAmqpMessageId;
+                mPrevAmqpMessageId = mAmqpMsgIdTracker.lastInOrderMessageId();
                 try {
                     String sTempInstanceData = "IntervalId=" + lIntervalId + ", AmqpMessageId=" + lAmqpMessageId + ", TableName=" + sTableName + "Exception=" + e;
                     adapter.logRasEventNoEffectedJob("RasAntException"
@@ -8,6 +8,8 @@ import com.intel.config_io.ConfigIOParseException;
 import com.intel.logging.Logger;
 import com.intel.logging.LoggerFactory;
 import com.intel.dai.dsapi.WorkQueue;
+import com.intel.perflogging.MetricsRegistry;
+import com.intel.perflogging.MetricsServer;
 
 import org.voltdb.client.*;
 import java.lang.*;
@@ -31,6 +33,9 @@ public abstract class AdapterOnlineTier {
     WorkQueue workQueue;
     SyncAdapterShutdownHandler shutdownHandler;
     String rabbitMQHost = "localhost";
+    DataMoverCodec.Format dataMoverFormat = DataMoverCodec.Format.JSON;  // wire format of the messages sent to the DataReceiver.
+    int dataMoverNumChannels = 1;         // number of AMQP channels that the DataMover spreads the tables over.
+    int dataMoverMaxUnconfirmedMsgs = 0;  // maximum number of messages waiting for a publisher confirm, 0 means no publisher confirms (and no pipelining).
 
     // Constructor
     AdapterOnlineTier(Logger logger) throws IOException, TimeoutException {
@@ -115,6 +120,7 @@ public abstract class AdapterOnlineTier {
     // This method handles the general processing flow for NearlineTier adapters (regardless of specific implementation, e.g. VoltDB).
     //--------------------------------------------------------------------------
     public void mainProcessingFlow(String[] args) throws IOException, TimeoutException {
+        MetricsServer metricsServer = null;
         try {
             log_.info("starting");
 
@@ -125,6 +131,15 @@ public abstract class AdapterOnlineTier {
             log_.info("this adapter instance is running on lctn=%s, hostname=%s, pid=%d", SnLctn, SnHostname, adapter.pid());
             // Set up the adapter instance.
             workQueue = adapter.setUpAdapter(DbServers, SnLctn, shutdownHandler);
+            // Serve the DataMover metrics when DAI_METRICS_PORT_<adapter type> is set (the adapter runs without the endpoint if it fails).
+            try {
+                metricsServer = MetricsServer.fromEnvironment(MetricsRegistry.getDefault(), adapter.adapterType());
+                if (metricsServer != null)
+                    log_.info("serving the metrics at http://localhost:%d/metrics", metricsServer.port());
+            }
+            catch (IOException | IllegalArgumentException e) {
+                log_.exception(e, "failed to start the metrics endpoint, continuing without it");
+            }
 
             //-----------------------------------------------------------------
             // Main processing loop
@@ -170,6 +185,10 @@ public abstract class AdapterOnlineTier {
         catch (Exception e) {
             adapter.handleMainlineAdapterException(e);
         }
+        finally {
+            if (metricsServer != null)
+                metricsServer.close();
+        }
     }   // End mainProcessingFlow(String[] args)
 
     void processClientParams(String[] aWiParms) {
@@ -186,6 +205,18 @@ public abstract class AdapterOnlineTier {
                 rabbitMQHost = sParm.substring(sParm.indexOf("=")+1).trim();
                 log_.info("DataMover - setting rabbitMQHost to %s", rabbitMQHost);
             }
+            else if (sParm.startsWith("DataMoverFormat=")) {
+                dataMoverFormat = DataMoverCodec.Format.fromString(sParm.substring(sParm.indexOf("=")+1));
+                log_.info("DataMover - setting the message format to %s", dataMoverFormat);
+            }
+            else if (sParm.startsWith("DataMoverChannels=")) {
+                dataMoverNumChannels = Math.max(1, Integer.parseInt( sParm.substring(sParm.indexOf("=")+1).trim() ));
+                log_.info("DataMover - setting the number of AMQP channels to %d", dataMoverNumChannels);
+            }
+            else if (sParm.startsWith("DataMoverMaxUnconfirmedMsgs=")) {
+                dataMoverMaxUnconfirmedMsgs = Math.max(0, Integer.parseInt( sParm.substring(sParm.indexOf("=")+1).trim() ));
+                log_.info("DataMover - setting the maximum number of unconfirmed AMQP messages to %d", dataMoverMaxUnconfirmedMsgs);
+            }
         }
 
     }
@@ -6,6 +6,9 @@ package com.intel.dai;
 
 import com.intel.logging.Logger;
 import com.intel.logging.LoggerFactory;
+import com.intel.perflogging.Counter;
+import com.intel.perflogging.LatencyHistogram;
+import com.intel.perflogging.MetricsRegistry;
 import org.voltdb.client.*;
 import org.voltdb.VoltTable;
 import java.lang.*;
@@ -15,6 +18,11 @@ import java.text.DecimalFormat;
 import java.text.SimpleDateFormat;
 import com.intel.config_io.*;
 import com.intel.properties.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import com.rabbitmq.client.*;
 
@@ -39,16 +47,30 @@ public class AdapterOnlineTierVolt extends AdapterOnlineTier {
         mDataMoverAmqpMessageId         = 0L;
         mDataMoverIntervalId            = -99999L;
         mDataMoverPrevProcessedTimeMs   = 0L;
+        mDataMoverMovedTimeMs           = 0L;
+        mDataMoverIntervalFirstAmqpMessageId = 0L;
+        mDataMoverPublisher             = null;
+        mPendingInterval                = null;
         mLastIntvlWasOnlyDataMoverWIs   = false;  // flag that records whether or not the last interval consisted only of either a DataMover WorkItem workitem, a DataReceiver WorkItem, or 1 of each.
     }   // ctor
     // Member Data
     private long    mDataMoverAmqpMessageId;        // this identifies a specific message that was sent over the AMQP bus (can detect "lost" messages).
     private long    mDataMoverIntervalId;           // this identifies the sequence of intervals (the number of times we found sets of data that needs to be moved from Tier1 to Tier2).
     private long    mDataMoverPrevProcessedTimeMs;  // the timestamp (in millisecs since epoch) of the already handled data, used to determine the starting time of this interval.
+    private volatile long mDataMoverMovedTimeMs;    // the timestamp (in millisecs since epoch) of the data that has been completely sent to Tier2 (trails mDataMoverPrevProcessedTimeMs while an interval is being sent).
+    private long    mDataMoverIntervalFirstAmqpMessageId;  // the first AmqpMessageId of the interval currently being sent.
+    private ExecutorService mDataMoverPublisher;    // sends the intervals to Tier2 while the next interval is being queried, null when not pipelining.
+    private Future<Void>    mPendingInterval;       // the interval currently being sent by mDataMoverPublisher.
     // Flag that records whether or not the last interval consisted only of either a DataMover WorkItem workitem, a DataReceiver WorkItem, or 1 of each
     // (we are tracking this so that we do not end up with a constant stream consisting simply of DataMover/DataReceiver work items, that "recurse" because
     //  we can't update the DataMover/DataReceiver work items WorkingResults info until after that DataMover interval has finished, so then the next interval it would send the DataMover update, which results in an update, which would then be sent, on, on, on).
     private boolean mLastIntvlWasOnlyDataMoverWIs;
+    // Metrics exported by the metrics endpoint (see AdapterOnlineTier.mainProcessingFlow()).
+    private final MetricsRegistry  mMetrics             = MetricsRegistry.getDefault();
+    private final LatencyHistogram mQueryLatency        = mMetrics.histogram("dai_data_mover_query_seconds", "Time to query the Tier1 rows of an interval");
+    private final LatencyHistogram mIntervalSendLatency = mMetrics.histogram("dai_data_mover_interval_send_seconds", "Time to send and confirm the rows of an interval");
+    private final Counter          mNumIntervalsMoved   = mMetrics.counter("dai_data_mover_intervals_total", "Intervals moved from Tier1 to Tier2");
+    private final Counter          mNumRowsMoved        = mMetrics.counter("dai_data_mover_rows_total", "Rows moved from Tier1 to Tier2");
 
 
     //---------------------------------------------------------
@@ -96,41 +118,67 @@ public class AdapterOnlineTierVolt extends AdapterOnlineTier {
         SimpleDateFormat sdfSqlDateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.SSS");
         sdfSqlDateFormat.setTimeZone(TimeZone.getTimeZone("UTC"));  // this line cause timestamps formatted by this SimpleDateFormat to be converted into UTC time zone
         mDataMoverPrevProcessedTimeMs = sdfSqlDateFormat.parse(sTempTimestamp).getTime();  // the timestamp (in millisecs since epoch) of the already handled data, used to determine the starting time of this interval.
+        mDataMoverMovedTimeMs = mDataMoverPrevProcessedTimeMs;
+        mMetrics.gaugeFunction("dai_data_mover_lag_milliseconds", "How far the data moved to Tier2 trails the current time",
+                               () -> System.currentTimeMillis() - mDataMoverMovedTimeMs);
 
         // Set up AMQP for directly moving data from Tier1 to Tier2 (via a queue, not pub-sub).
-        DataMoverAmqp oDataMover = new DataMoverAmqp("localhost", adapter, log_, workQueue.workItemId());
+        DataMoverAmqp oDataMover = new DataMoverAmqp("localhost", adapter, log_, workQueue.workItemId(), dataMoverNumChannels, dataMoverMaxUnconfirmedMsgs);
+        if (oDataMover.usingPublisherConfirms()) {
+            // Publisher confirms tell us when an interval has safely arrived, so the next interval can be queried while the current one is still being sent.
+            mDataMoverPublisher = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "DataMoverPublisher");
+                thread.setDaemon(true);
+                return thread;
+            });
+            log_.info("DataMover - pipelining the intervals using %d channels and at most %d unconfirmed messages", dataMoverNumChannels, dataMoverMaxUnconfirmedMsgs);
+        }
 
-        //----------------------------------------------------------------------
-        // Loop forever moving data from Tier1 to Tier2 (each iteration through this loop is referred to as an interval).
-        //----------------------------------------------------------------------
-        long lLastTimePurgeDataChkInMillis = 0L;  // timestamp in millisecs when we last checked for data to purged.
-        while(adapter.adapterShuttingDown() == false) {  // loop forever processing as a "DataMover"
-            //------------------------------------------------------------------
-            // Handle any data that needs to be moved from Tier1 to Tier2
-            //------------------------------------------------------------------
-            handleDataNeedingToMoveFromTier1ToTier2(oDataMover);
-            //------------------------------------------------------------------
-            // Periodically purge data that has already been moved to Tier2 (by handleDataNeedingToMoveFromTier1ToTier2) AND
-            // that is older than the LengthOfTimeToRetainPurgeableData.
-            // - this is envisioned to wake up once an hour and purge data from the pertinent tables that is 24 hours older than
-            //   the timestamp of the last moved data.
-            //------------------------------------------------------------------
-            if ((System.currentTimeMillis() - timeBetweenCheckingForDataToPurgeInMillis()) >= lLastTimePurgeDataChkInMillis) {
-                // Purge pertinent data from the Tier1 tables
-                // (will only purge data that has already been moved from Tier1 to Tier2, so the data being purged is already in Tier2).
-                handlePurgingData(mDataMoverPrevProcessedTimeMs, timeToKeepMovedDataBeforePurgingInMillis());
-                // Save current timestamp so we know when we last checked to see if there is any data to be purged.
-                lLastTimePurgeDataChkInMillis = System.currentTimeMillis();
-            }
+        try {
+            //----------------------------------------------------------------------
+            // Loop forever moving data from Tier1 to Tier2 (each iteration through this loop is referred to as an interval).
+            //----------------------------------------------------------------------
+            long lLastTimePurgeDataChkInMillis = 0L;  // timestamp in millisecs when we last checked for data to purged.
+            while(adapter.adapterShuttingDown() == false) {  // loop forever processing as a "DataMover"
+                //------------------------------------------------------------------
+                // Handle any data that needs to be moved from Tier1 to Tier2
+                //------------------------------------------------------------------
+                boolean bMoreDataWaiting = handleDataNeedingToMoveFromTier1ToTier2(oDataMover);
+                //------------------------------------------------------------------
+                // Periodically purge data that has already been moved to Tier2 (by handleDataNeedingToMoveFromTier1ToTier2) AND
+                // that is older than the LengthOfTimeToRetainPurgeableData.
+                // - this is envisioned to wake up once an hour and purge data from the pertinent tables that is 24 hours older than
+                //   the timestamp of the last moved data.
+                //------------------------------------------------------------------
+                if ((System.currentTimeMillis() - timeBetweenCheckingForDataToPurgeInMillis()) >= lLastTimePurgeDataChkInMillis) {
+                    // Purge pertinent data from the Tier1 tables
+                    // (will only purge data that has already been moved from Tier1 to Tier2, so the data being purged is already in Tier2).
+                    handlePurgingData(mDataMoverMovedTimeMs, timeToKeepMovedDataBeforePurgingInMillis());
+                    // Save current timestamp so we know when we last checked to see if there is any data to be purged.
+                    lLastTimePurgeDataChkInMillis = System.currentTimeMillis();
+                }
 
-            // Sleep for 1 second between iterations.
-            //      Optimization would be to keep a summary indicating which tables had updates for this interval, and how many updates have shown up this interval.
-            //      These would let us know which tables should be queried (only query those tables that we know have changed) and also could use the summary of number of changes to possibly increase or decrease the 1 second interval based on amount of "traffic".
-            Thread.sleep(1 * 1000);
-        }   // loop forever processing as a "DataMover"
+                // Sleep for 1 second between iterations.
+                //      Optimization would be to keep a summary indicating which tables had updates for this interval, and how many updates have shown up this interval.
+                //      These would let us know which tables should be queried (only query those tables that we know have changed) and also could use the summary of number of changes to possibly increase or decrease the 1 second interval based on amount of "traffic".
+                //      When pipelining and the interval was shortened to MaxTimeInIntervalMs (i.e., we are behind) go straight on to the next interval.
+                if (!bMoreDataWaiting || (mDataMoverPublisher == null))
+                    Thread.sleep(1 * 1000);
+            }   // loop forever processing as a "DataMover"
 
-        // Signal the data receiver that no more messages will be sent as we're shutting down
-        sendFinalMessage(oDataMover);
+            // Finish sending the last interval.
+            waitForPendingInterval();
+
+            // Signal the data receiver that no more messages will be sent as we're shutting down
+            sendFinalMessage(oDataMover);
+        }
+        finally {
+            // Also stops the publisher when an interval failed or its confirms did not arrive in time.
+            if (mDataMoverPublisher != null) {
+                mDataMoverPublisher.shutdownNow();
+                mDataMoverPublisher = null;
+            }
+        }
 
         // Shutdown the DataMover AMQP infrastructure.
         oDataMover.close();
@@ -250,7 +298,11 @@ public class AdapterOnlineTierVolt extends AdapterOnlineTier {
     }   // End handlePurgingData(long lTimeOfLastMovedTier1DataInMillis, long lTimeToKeepMovedDataBeforePurgingInMillis)
 
 
-    private final void handleDataNeedingToMoveFromTier1ToTier2(DataMoverAmqp oDataMover) throws IOException, ProcCallException, InterruptedException, ConfigIOParseException {
+    //---------------------------------------------------------
+    // Query the data for the next interval and send it to Tier2 (when pipelining, the data is sent by mDataMoverPublisher).
+    // Returns true if the interval was shortened to MaxTimeInIntervalMs, i.e., there is more data already waiting to be moved.
+    //---------------------------------------------------------
+    private final boolean handleDataNeedingToMoveFromTier1ToTier2(DataMoverAmqp oDataMover) throws IOException, ProcCallException, InterruptedException, ConfigIOParseException, TimeoutException {
         final long MaxTimeInIntervalMs = (15 * 1000L);  // Don't calculate an interval that is too long (want to avoid org.voltcore.network.VoltProtocolHandler$BadMessageLength).
         DecimalFormat decimalFormatter = new DecimalFormat("#,###,###");  // pretty formatting
         SimpleDateFormat sdfSqlDateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.SSS");
@@ -282,8 +334,7 @@ public class AdapterOnlineTierVolt extends AdapterOnlineTier {
                       lMaxEndingTimeMs, lCurEndingTimeMs,
                       sdfSqlDateFormat.format(new Date(lMaxEndingTimeMs)), sdfSqlDateFormat.format(new Date(lCurEndingTimeMs)));
         }
-        String sEndIntvlTimestamp   = sdfSqlDateFormat.format(new Date(lEndIntvlTimeMs));
-        String sStartIntvlTimestamp = sdfSqlDateFormat.format(new Date(mDataMoverPrevProcessedTimeMs));
+        boolean bMoreDataWaiting = (lEndIntvlTimeMs == lMaxEndingTimeMs);
         //----------------------------------------------------------------------
         // Do a "big" query to Volt w/i a single stored procedure to get any changes to the specified historical tables for THIS interval
         // (want to do this all in a single stored procedure as I think that will minimize the amount of time that the db will be locked, as this is not a partitioned procedure).
@@ -291,18 +342,15 @@ public class AdapterOnlineTierVolt extends AdapterOnlineTier {
         //----------------------------------------------------------------------
         String sTempStoredProcedure = "DataMoverGetListOfRecsToMove";
         // Create an array of JSON strings, each string contains the json formatted data for one table (a json string has the information that is being moved for a single tier1 table).
+        long lQueryStartNs = System.nanoTime();
         ClientResponse response = getListOfDbRecsToMove(sTempStoredProcedure, lEndIntvlTimeMs, mDataMoverPrevProcessedTimeMs);
+        mQueryLatency.recordSince(lQueryStartNs);
         // Save away the volt table results.
         VoltTable[] aVt = response.getResults();
-        String[] aVtJson = new String[aVt.length];  // VoltTables in form of JSON-formatted strings, one json string per table.
         int iNumRecsBeingMoved = 0;  // initialize the total number of db rows being moved from Tier1 to Tier2 this interval.
         for (int iVtCntr=0; iVtCntr < aVt.length; ++iVtCntr) {
             // Add the number of rows being moved for this table to the total number being moved this interval.
             iNumRecsBeingMoved += aVt[iVtCntr].getRowCount();
-            // Get the Json-formatted string for this table (if appropriate).
-            if (aVt[iVtCntr].getRowCount() != 0) {
-                aVtJson[iVtCntr] = aVt[iVtCntr].toJSONString();  // convert the rows being moved for this table into a single json formatted string.
-            }
         }
 
         // Check & see if there were any records to move this interval, if no records to move then short-circuit this flow.
@@ -310,7 +358,9 @@ public class AdapterOnlineTierVolt extends AdapterOnlineTier {
             log_.debug("DataMover - recurse check - there aren't any rows of data moving this interval, so no recurse is occurring");
             // Set the "next" value that will be used as the previously processed timestamp (indicates which data has already been moved).
             mDataMoverPrevProcessedTimeMs = lEndIntvlTimeMs;
-            return;  // there aren't any records to move this interval, short-circuit and return to caller.
+            if (mPendingInterval == null)
+                mDataMoverMovedTimeMs = lEndIntvlTimeMs;
+            return bMoreDataWaiting;  // there aren't any records to move this interval, short-circuit and return to caller.
         }
 
         //----------------------------------------------------------------------
@@ -319,14 +369,46 @@ public class AdapterOnlineTierVolt extends AdapterOnlineTier {
         //----------------------------------------------------------------------
         long lRc = seeIfInDataMoverRecursion(iNumRecsBeingMoved, aVt, decimalFormatter);
         if (lRc < 0L) {
-            return;  // recursion was detected, we should suppress it (i.e., do not move this data to Tier2)
+            return bMoreDataWaiting;  // recursion was detected, we should suppress it (i.e., do not move this data to Tier2)
         }
 
         //----------------------------------------------
         // There is data to be moved.
         //----------------------------------------------
+        // The previous interval has to be completely sent (and confirmed) before this interval is started, so the receiver can detect lost messages.
+        waitForPendingInterval();
         log_.info("DataMover - moving %s rows of data this interval", decimalFormatter.format(iNumRecsBeingMoved));
         ++mDataMoverIntervalId;  // get the next interval id to use for this iteration of moving a set of data from Tier1 to Tier2.
+        final long lStartIntvlTimeMs = mDataMoverPrevProcessedTimeMs;
+        if (mDataMoverPublisher == null) {
+            sendIntervalToTier2(lEndIntvlTimeMs, lStartIntvlTimeMs, aVt, oDataMover);
+        }
+        else {
+            mPendingInterval = mDataMoverPublisher.submit(() -> {
+                sendIntervalToTier2(lEndIntvlTimeMs, lStartIntvlTimeMs, aVt, oDataMover);
+                return null;
+            });
+        }
+
+        // Set the "next" value that will be used as the previously processed timestamp (indicates which data has already been queried).
+        mDataMoverPrevProcessedTimeMs = lEndIntvlTimeMs;
+        return bMoreDataWaiting;
+    }   // End handleDataNeedingToMoveFromTier1ToTier2(DataMoverAmqp oDataMover)
+
+
+    //---------------------------------------------------------
+    // Send the data of one interval to Tier2 and save the restart data once all of it has been sent.
+    //---------------------------------------------------------
+    private final void sendIntervalToTier2(long lEndIntvlTimeMs, long lStartIntvlTimeMs, VoltTable[] aVt, DataMoverAmqp oDataMover)
+                       throws IOException, ConfigIOParseException, InterruptedException, TimeoutException
+    {
+        final long ConfirmTimeoutMs = (60 * 1000L);  // how long to wait for the broker to confirm this interval's messages.
+        long lSendStartNs = System.nanoTime();
+        SimpleDateFormat sdfSqlDateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.SSS");
+        sdfSqlDateFormat.setTimeZone(TimeZone.getTimeZone("UTC"));  // this line cause timestamps formatted by this SimpleDateFormat to be converted into UTC time zone
+        String sEndIntvlTimestamp   = sdfSqlDateFormat.format(new Date(lEndIntvlTimeMs));
+        String sStartIntvlTimestamp = sdfSqlDateFormat.format(new Date(lStartIntvlTimeMs));
+        mDataMoverIntervalFirstAmqpMessageId = mDataMoverAmqpMessageId + 1L;
 
         //----------------------------------------------
         // Loop through the tables, sending each table's rows (for this interval) to the Tier2 DataReceiver
@@ -340,11 +422,20 @@ public class AdapterOnlineTierVolt extends AdapterOnlineTier {
         //      - The DataReceiver may also create "Delta summary / Aggregated summary" records that would for instance summarize the state of the system at possibly 1 minute intervals.
         //          Before implementing these summary records it should be discussed with Todd and the GUI/UI owner to ascertain if this functionality is needed!
         //----------------------------------------------
-        for (int iVtCntr=0; iVtCntr < aVtJson.length; ++iVtCntr) {
+        for (int iVtCntr=0; iVtCntr < aVt.length; ++iVtCntr) {
             // Send this table's changes to the Tier2 DataReceiver.
-            sendThisTablesChangesToTier2(lEndIntvlTimeMs, sEndIntvlTimestamp, sStartIntvlTimestamp,
-                    adapter.dataMoverResultTblIndxToTableNameMap().get(iVtCntr), aVt[iVtCntr].getRowCount(), aVtJson[iVtCntr], oDataMover);
+            if (dataMoverFormat == DataMoverCodec.Format.JSON) {
+                // Get the Json-formatted string for this table (if appropriate).
+                String sVtJson = (aVt[iVtCntr].getRowCount() != 0) ? aVt[iVtCntr].toJSONString() : null;
+                sendThisTablesChangesToTier2(lEndIntvlTimeMs, lStartIntvlTimeMs, sEndIntvlTimestamp, sStartIntvlTimestamp,
+                        adapter.dataMoverResultTblIndxToTableNameMap().get(iVtCntr), aVt[iVtCntr].getRowCount(), sVtJson, oDataMover);
+            }
+            else
+                sendThisTablesChangesToTier2Binary(lEndIntvlTimeMs, lStartIntvlTimeMs, sEndIntvlTimestamp, sStartIntvlTimestamp,
+                        adapter.dataMoverResultTblIndxToTableNameMap().get(iVtCntr), aVt[iVtCntr], oDataMover);
         }
+        // Make sure that the broker has this interval's messages before recording that they were moved.
+        oDataMover.waitForConfirms(ConfirmTimeoutMs);
 
         //--------------------------------------------------------------
         // Save restart data indicating the timestamp of the last data that was moved from Tier1 to Tier2.
@@ -352,9 +443,38 @@ public class AdapterOnlineTierVolt extends AdapterOnlineTier {
         String sRestartData = "Processed through (" + TimestampPrefix + sEndIntvlTimestamp + ") (" + IntervalIdPrefix + mDataMoverIntervalId + ") (" + AmqpMessageIdPrefix + mDataMoverAmqpMessageId + ")";
         workQueue.saveWorkItemsRestartData(workQueue.workItemId(), sRestartData, false);  // false means to update this workitem's history record rather than doing an insert of another history record - this is "unusual" (only used when a workitem is updating its working results fields very often)
 
-        // Set the "next" value that will be used as the previously processed timestamp (indicates which data has already been moved).
-        mDataMoverPrevProcessedTimeMs = lEndIntvlTimeMs;
-    }   // End handleDataNeedingToMoveFromTier1ToTier2(DataMoverAmqp oDataMover)
+        // Indicates which data has already been moved (and so can be purged from Tier1).
+        mDataMoverMovedTimeMs = lEndIntvlTimeMs;
+        mIntervalSendLatency.recordSince(lSendStartNs);
+        mNumIntervalsMoved.increment();
+        for (VoltTable vt : aVt)
+            mNumRowsMoved.add(vt.getRowCount());
+    }   // End sendIntervalToTier2(long lEndIntvlTimeMs, long lStartIntvlTimeMs, VoltTable[] aVt, DataMoverAmqp oDataMover)
+
+
+    //---------------------------------------------------------
+    // Wait for mDataMoverPublisher to finish sending the previous interval, any failure sending it is rethrown here.
+    //---------------------------------------------------------
+    private final void waitForPendingInterval() throws IOException, InterruptedException {
+        final long PendingIntervalTimeoutMs = (10 * 60 * 1000L);  // backstop for a send that is stuck outside of the DataMoverAmqp timeouts.
+        if (mPendingInterval == null)
+            return;
+        try {
+            mPendingInterval.get(PendingIntervalTimeoutMs, TimeUnit.MILLISECONDS);
+        }
+        catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException)
+                throw (IOException) e.getCause();
+            throw new IOException("DataMover failed to send an interval to Tier2", e.getCause());
+        }
+        catch (TimeoutException e) {
+            mPendingInterval.cancel(true);
+            throw new IOException("DataMover did not finish sending an interval to Tier2 within " + PendingIntervalTimeoutMs + " ms", e);
+        }
+        finally {
+            mPendingInterval = null;
+        }
+    }   // End waitForPendingInterval()
 
 
     private final ClientResponse getListOfDbRecsToMove(String sStoredProcedure, long lEndIntvlTimeMs, long lStartIntvlTimeMs)
@@ -385,9 +505,9 @@ public class AdapterOnlineTierVolt extends AdapterOnlineTier {
 
 
     @SuppressWarnings("unchecked") /*To temporarily suppress unchecked warnings when using JSONObject*/
-    private final void sendThisTablesChangesToTier2(long lEndIntvlTimeMs, String sEndIntvlTimestamp, String sStartIntvlTimestamp,
+    private final void sendThisTablesChangesToTier2(long lEndIntvlTimeMs, long lStartIntvlTimeMs, String sEndIntvlTimestamp, String sStartIntvlTimestamp,
                                                     String sTableName, long lNumRowsOfDataInThisTable, String sThisTablesInfoAsJson,
-                                                    DataMoverAmqp oDataMover) throws IOException, ConfigIOParseException
+                                                    DataMoverAmqp oDataMover) throws IOException, ConfigIOParseException, InterruptedException
     {
         DecimalFormat decimalFormatter = new DecimalFormat("#,###,###");  // pretty formatting
         final long    NumRowsPerAmqpMsg = 1000L;  // max number of "data" entries to include in a AMQP message.
@@ -416,7 +536,8 @@ public class AdapterOnlineTierVolt extends AdapterOnlineTier {
             jsonAmqpObj.put("EOM", false);
             jsonAmqpObj.put("IntervalId", mDataMoverIntervalId);
             jsonAmqpObj.put("EndIntvlTsInMsSinceEpoch",   lEndIntvlTimeMs);                 // timestamp in form of millisecs since epoch
-            jsonAmqpObj.put("StartIntvlTsInMsSinceEpoch", mDataMoverPrevProcessedTimeMs);   // timestamp in form of millisecs since epoch
+            jsonAmqpObj.put("StartIntvlTsInMsSinceEpoch", lStartIntvlTimeMs);   // timestamp in form of millisecs since epoch
+            jsonAmqpObj.put("IntervalFirstAmqpMessageId", mDataMoverIntervalFirstAmqpMessageId);  // lets the receiver detect lost messages when using multiple channels.
             jsonAmqpObj.put("TableName", sTableName);
             // Include the status field from the json representation of the VoltTable.
             jsonAmqpObj.put("status", lStatus);
@@ -439,7 +560,7 @@ public class AdapterOnlineTierVolt extends AdapterOnlineTier {
                 }
                 jsonAmqpObj.put("data", jaDataRows);
                 // Put this message onto the DataMover queue (MessageProperties.PERSISTENT_BASIC says to mark this message as persistent, i.e. save the message to disk).
-                oDataMover.getChannel().basicPublish("", Adapter.DataMoverQueueName, MessageProperties.PERSISTENT_BASIC, adapter.jsonParser().toString(jsonAmqpObj).getBytes());
+                oDataMover.publish(sTableName, MessageProperties.PERSISTENT_BASIC, adapter.jsonParser().toString(jsonAmqpObj).getBytes());
                 log_.info("DataMover sent AmqpMessageId=%d - IntervalId=%d, EndIntervalTs=%s, StartIntervalTs=%s, AmqpQueue=%s, TableName=%s, Part %d Of %d, NumDataRows=%s",
                           mDataMoverAmqpMessageId, mDataMoverIntervalId, sEndIntvlTimestamp, sStartIntvlTimestamp, Adapter.DataMoverQueueName,
                           sTableName, lThisMsgsPartNum, lTotalNumPartsForThisTable, decimalFormatter.format(iNumRowsAddedToAmqpMsg));
@@ -448,6 +569,56 @@ public class AdapterOnlineTierVolt extends AdapterOnlineTier {
     }   // End sendThisTablesChangesToTier2(...)
 
 
+    //--------------------------------------------------------------------------
+    // Same as sendThisTablesChangesToTier2() but sends the table's rows in the binary DataMover format, the header
+    // fields are sent as AMQP message headers and the body is the serialized VoltTable holding this part's rows.
+    //--------------------------------------------------------------------------
+    private final void sendThisTablesChangesToTier2Binary(long lEndIntvlTimeMs, long lStartIntvlTimeMs, String sEndIntvlTimestamp, String sStartIntvlTimestamp,
+                                                          String sTableName, VoltTable vtThisTable, DataMoverAmqp oDataMover)
+                                                          throws IOException, InterruptedException
+    {
+        DecimalFormat decimalFormatter = new DecimalFormat("#,###,###");  // pretty formatting
+        final long    NumRowsPerAmqpMsg = 1000L;  // max number of rows to include in a AMQP message.
+
+        // Check & see if there is any data to be sent for this table.
+        long lNumRowsOfDataInThisTable = vtThisTable.getRowCount();
+        if (lNumRowsOfDataInThisTable == 0L)
+            return;
+
+        long lTotalNumPartsForThisTable = (lNumRowsOfDataInThisTable + (NumRowsPerAmqpMsg-1)) / NumRowsPerAmqpMsg;
+        Map<String, Object> header = new HashMap<>();
+        header.put("EOM", false);
+        header.put("IntervalId", mDataMoverIntervalId);
+        header.put("EndIntvlTsInMsSinceEpoch",   lEndIntvlTimeMs);                 // timestamp in form of millisecs since epoch
+        header.put("StartIntvlTsInMsSinceEpoch", lStartIntvlTimeMs);   // timestamp in form of millisecs since epoch
+        header.put("IntervalFirstAmqpMessageId", mDataMoverIntervalFirstAmqpMessageId);  // lets the receiver detect lost messages when using multiple channels.
+        header.put("TableName", sTableName);
+        header.put("status", (long) vtThisTable.getStatusCode());
+        header.put("Of", lTotalNumPartsForThisTable);  // how many total messages are there for this table.
+
+        vtThisTable.resetRowPosition();
+        for (long lThisMsgsPartNum=1; lThisMsgsPartNum <= lTotalNumPartsForThisTable; ++lThisMsgsPartNum) {
+            header.put("Part", lThisMsgsPartNum);              // which message is this, of the messages for this table.
+            header.put("AmqpMessageId", ++mDataMoverAmqpMessageId); // this specific AmqpMessage's id.
+            // Copy the appropriate number of rows into this message's table.
+            VoltTable vtPart = new VoltTable(vtThisTable.getTableSchema());
+            vtPart.setStatusCode(vtThisTable.getStatusCode());
+            int iNumRowsAddedToAmqpMsg = 0;
+            while ((iNumRowsAddedToAmqpMsg < NumRowsPerAmqpMsg) && vtThisTable.advanceRow()) {
+                vtPart.add(vtThisTable);
+                ++iNumRowsAddedToAmqpMsg;
+            }
+            byte[] body = DataMoverCodec.encodeTable(vtPart, dataMoverFormat);
+            // Put this message onto the DataMover queue (the properties mark this message as persistent, i.e. save the message to disk).
+            oDataMover.publish(sTableName, DataMoverCodec.binaryProperties(header, dataMoverFormat), body);
+            log_.info("DataMover sent AmqpMessageId=%d - IntervalId=%d, EndIntervalTs=%s, StartIntervalTs=%s, AmqpQueue=%s, TableName=%s, Part %d Of %d, NumDataRows=%s, Format=%s, AmqpMsgLength=%d",
+                      mDataMoverAmqpMessageId, mDataMoverIntervalId, sEndIntvlTimestamp, sStartIntvlTimestamp, Adapter.DataMoverQueueName,
+                      sTableName, lThisMsgsPartNum, lTotalNumPartsForThisTable, decimalFormatter.format(iNumRowsAddedToAmqpMsg),
+                      dataMoverFormat, body.length);
+        }
+    }   // End sendThisTablesChangesToTier2Binary(...)
+
+
     //--------------------------------------------------------------------------
     // This method checks for and prevents a constant stream of the DataMover moving only DataMover/DataReceiver work items, this "recursion" occurs because we can't update the DataMover/DataReceiver work item's WorkingResults field
     // until AFTER that DataMover interval has finished, which means that in the next interval it would then send the DataMover update, which results in an update, which would then be sent, on, on, on).
@@ -0,0 +1,55 @@
+// Copyright (C) 2021 Intel Corporation
+//
+// SPDX-License-Identifier: Apache-2.0
+//
+package com.intel.dai;
+
+import java.util.NavigableSet;
+import java.util.TreeSet;
+
+//--------------------------------------------------------------------------
+// Detects lost DataMover messages on the DataReceiver side.
+//
+// A DataMover publishing on a single channel delivers its AmqpMessageIds in order, so any skipped id is a lost
+// message. A DataMover publishing on several channels only keeps the order within an interval's channel, the ids of
+// one interval may arrive in any order. It does wait for all messages of an interval to be confirmed before
+// publishing the next interval and puts the first AmqpMessageId of the interval into every message, so any id before
+// that first id that has not arrived yet is lost. Messages without the first id (older DataMovers) are checked in
+// strict order.
+//--------------------------------------------------------------------------
+final class AmqpMessageIdTracker {
+    AmqpMessageIdTracker(long lLastMessageId) {
+        mLastInOrderMessageId = lLastMessageId;
+    }
+
+    /**
+     * Record a received message.
+     *
+     * @param lMessageId The AmqpMessageId of the message.
+     * @param lIntervalFirstMessageId The first AmqpMessageId of the message's interval or a value <= 0 when unknown.
+     * @return The number of messages detected as lost, or -1 if this message id was already received.
+     */
+    long messageReceived(long lMessageId, long lIntervalFirstMessageId) {
+        if (lMessageId <= mLastInOrderMessageId || mReceivedAhead.contains(lMessageId))
+            return -1L;
+        long lFirstId = (lIntervalFirstMessageId > 0L) ? Math.min(lIntervalFirstMessageId, lMessageId) : lMessageId;
+        long lLost = 0L;
+        if (lFirstId > mLastInOrderMessageId + 1L) {
+            // The messages of the earlier intervals can no longer arrive.
+            NavigableSet<Long> earlier = mReceivedAhead.headSet(lFirstId, false);
+            lLost = (lFirstId - 1L - mLastInOrderMessageId) - earlier.size();
+            earlier.clear();
+            mLastInOrderMessageId = lFirstId - 1L;
+        }
+        mReceivedAhead.add(lMessageId);
+        while (!mReceivedAhead.isEmpty() && mReceivedAhead.first() == mLastInOrderMessageId + 1L)
+            mLastInOrderMessageId = mReceivedAhead.pollFirst();
+        return lLost;
+    }
+
+    // The highest AmqpMessageId such that it and all lower ids have been received (or detected as lost).
+    long lastInOrderMessageId() { return mLastInOrderMessageId; }
+
+    private long mLastInOrderMessageId;
+    private final TreeSet<Long> mReceivedAhead = new TreeSet<>();  // received ids above mLastInOrderMessageId + 1.
+}   // End class AmqpMessageIdTracker
@@ -6,8 +6,19 @@ package com.intel.dai;
 
 import java.io.IOException;
 import com.rabbitmq.client.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import com.intel.logging.Logger;
+import com.intel.perflogging.Counter;
+import com.intel.perflogging.MetricsRegistry;
 
 //--------------------------------------------------------------------------
 // Class for the AMQP sending of Tier1 data to Tier2.
@@ -15,6 +26,19 @@ import com.intel.logging.Logger;
 public class DataMoverAmqp {
     // Class constructor
     DataMoverAmqp(String sHost, IAdapter adapter, Logger log, long lWorkItemId) throws IOException, TimeoutException {
+        this(sHost, adapter, log, lWorkItemId, 1, 0);
+    }   // End ctor
+
+    //--------------------------------------------------------------------------
+    // Parms:
+    //      int iNumChannels          - the number of channels the messages are spread over (by table name).
+    //      int iMaxUnconfirmedMsgs   - the maximum number of published messages that the broker has not yet confirmed, publish() blocks
+    //                                  while this many messages are outstanding.  0 turns off publisher confirms.
+    //--------------------------------------------------------------------------
+    DataMoverAmqp(String sHost, IAdapter adapter, Logger log, long lWorkItemId, int iNumChannels, int iMaxUnconfirmedMsgs)
+            throws IOException, TimeoutException {
+        if (iNumChannels <= 0)  throw new IllegalArgumentException("The number of channels must be greater than 0!");
+        if (iMaxUnconfirmedMsgs < 0)  throw new IllegalArgumentException("The maximum number of unconfirmed messages cannot be negative!");
         mFactory = new ConnectionFactory();
         mFactory.setHost(sHost);
         mFactory.setAutomaticRecoveryEnabled(true);
@@ -46,21 +70,192 @@ public class DataMoverAmqp {
                 try { Thread.sleep(5 * 1000); }  catch (Exception e2) {}
             }
         }
-        mChannel = mConnection.createChannel();     // channel has most of the API for getting things done resides (virtual connection or AMQP connection) - you can use 1 channel for everything going via the tcp connection.
+        init(iNumChannels, iMaxUnconfirmedMsgs);
+    }   // End ctor
+
+    // Used by the unit tests to send over a connection they have set up.
+    DataMoverAmqp(Connection connection, int iNumChannels, int iMaxUnconfirmedMsgs, long lPublishTimeoutMs) throws IOException {
+        if (iNumChannels <= 0)  throw new IllegalArgumentException("The number of channels must be greater than 0!");
+        if (iMaxUnconfirmedMsgs < 0)  throw new IllegalArgumentException("The maximum number of unconfirmed messages cannot be negative!");
+        mConnection = connection;
+        mPublishTimeoutMs = lPublishTimeoutMs;
+        init(iNumChannels, iMaxUnconfirmedMsgs);
+    }   // End ctor
+
+    private void init(int iNumChannels, int iMaxUnconfirmedMsgs) throws IOException {
+        mChannels = new Channel[iNumChannels];
+        mUnconfirmedSeqNos = new ConfirmTracker[iNumChannels];
+        mUnconfirmedPermits = (iMaxUnconfirmedMsgs > 0) ? new Semaphore(iMaxUnconfirmedMsgs) : null;
+        if (mUnconfirmedPermits != null)
+            MetricsRegistry.getDefault().gaugeFunction("dai_data_mover_unconfirmed_messages", "DataMover messages not yet confirmed by the broker",
+                                                       () -> iMaxUnconfirmedMsgs - mUnconfirmedPermits.availablePermits());
+        for (int iChannelCntr = 0; iChannelCntr < iNumChannels; ++iChannelCntr) {
+            mChannels[iChannelCntr] = mConnection.createChannel();     // channel has most of the API for getting things done resides (virtual connection or AMQP connection) - you can use 1 channel for everything going via the tcp connection.
+            if (mUnconfirmedPermits != null) {
+                // Have the broker confirm each message once it has taken responsibility for it (i.e., it was persisted to the durable queue).
+                mChannels[iChannelCntr].confirmSelect();
+                mUnconfirmedSeqNos[iChannelCntr] = new ConfirmTracker();
+                mChannels[iChannelCntr].addConfirmListener(mUnconfirmedSeqNos[iChannelCntr]);
+                // A recovered channel starts its publish sequence numbers over, so the messages that were not confirmed on the old channel have to be sent again.
+                if (mChannels[iChannelCntr] instanceof Recoverable)
+                    ((Recoverable) mChannels[iChannelCntr]).addRecoveryListener(mUnconfirmedSeqNos[iChannelCntr]);
+            }
+        }
+        mChannel = mChannels[0];
         // Create a queue that is used by the DataMover for sending Tier1 data to Tier2 - set up so messages have to be manually acknowledged and won't be lost.
         mChannel.queueDeclare(Adapter.DataMoverQueueName, Durable, false, false, null);  // set up our queue from DataMover to the DataReceiver.
-    }   // End ctor
+    }   // End init(int iNumChannels, int iMaxUnconfirmedMsgs)
 
     void close() throws IOException, TimeoutException {
-        mChannel.close();
+        for (Channel channel : mChannels)
+            channel.close();
         mConnection.close();
     }
 
     Channel getChannel()  { return mChannel; }
 
+    boolean usingPublisherConfirms()  { return mUnconfirmedPermits != null; }
+
+    //--------------------------------------------------------------------------
+    // Put a message onto the DataMover queue, all of the messages for the same table are published on the same channel.
+    // When publisher confirms are being used this blocks while the maximum number of unconfirmed messages are outstanding,
+    // an IOException is thrown if the broker does not confirm any of them within the publish timeout (e.g., the connection was lost).
+    //--------------------------------------------------------------------------
+    void publish(String sTableName, AMQP.BasicProperties properties, byte[] body) throws IOException, InterruptedException {
+        int iChannel = (sTableName == null) ? 0 : Math.floorMod(sTableName.hashCode(), mChannels.length);
+        mNumPublishedMsgs.increment();
+        mNumPublishedBytes.add(body.length);
+        if (mUnconfirmedPermits == null) {
+            mChannels[iChannel].basicPublish("", Adapter.DataMoverQueueName, properties, body);
+            return;
+        }
+        publishConfirmed(iChannel, new UnconfirmedMsg(properties, body));
+    }   // End publish(String sTableName, AMQP.BasicProperties properties, byte[] body)
+
+    private void publishConfirmed(int iChannel, UnconfirmedMsg msg) throws IOException, InterruptedException {
+        if (!mUnconfirmedPermits.tryAcquire(mPublishTimeoutMs, TimeUnit.MILLISECONDS))
+            throw new IOException("The AMQP broker has not confirmed any DataMover messages for " + mPublishTimeoutMs + " ms");
+        Channel channel = mChannels[iChannel];
+        try {
+            synchronized (channel) {
+                mUnconfirmedSeqNos[iChannel].add(channel.getNextPublishSeqNo(), msg);
+                channel.basicPublish("", Adapter.DataMoverQueueName, msg.mProperties, msg.mBody);
+            }
+        }
+        catch (IOException | RuntimeException e) {
+            mUnconfirmedPermits.release();
+            throw e;
+        }
+    }   // End publishConfirmed(int iChannel, UnconfirmedMsg msg)
+
+    //--------------------------------------------------------------------------
+    // Wait until the broker has confirmed all of the messages published so far (returns immediately when publisher confirms are not being used).
+    // The messages that the broker rejected (nack'ed), or that were not confirmed before their channel was recovered, are sent again;
+    // an IOException is thrown if they are still not confirmed after MaxResends attempts.
+    //--------------------------------------------------------------------------
+    void waitForConfirms(long lTimeoutMs) throws IOException, InterruptedException, TimeoutException {
+        if (mUnconfirmedPermits == null)
+            return;
+        for (int iAttempt = 0; ; ++iAttempt) {
+            boolean bAllAcked = true;
+            for (Channel channel : mChannels)
+                bAllAcked &= channel.waitForConfirms(lTimeoutMs);
+            boolean bAnyRejected = false;
+            for (ConfirmTracker tracker : mUnconfirmedSeqNos)
+                bAnyRejected |= tracker.hasRejected();
+            if (!bAnyRejected) {
+                if (!bAllAcked)
+                    throw new IOException("The AMQP broker rejected DataMover messages that could not be identified");
+                return;
+            }
+            if (iAttempt == MaxResends)
+                throw new IOException("The AMQP broker rejected DataMover messages " + (MaxResends + 1) + " times");
+            for (int iChannel = 0; iChannel < mChannels.length; ++iChannel) {
+                for (UnconfirmedMsg msg : mUnconfirmedSeqNos[iChannel].takeRejected()) {
+                    mNumResentMsgs.increment();
+                    publishConfirmed(iChannel, msg);
+                }
+            }
+        }
+    }   // End waitForConfirms(long lTimeoutMs)
+
+    //--------------------------------------------------------------------------
+    // A message that was published but has not been confirmed yet, kept so it can be sent again.
+    //--------------------------------------------------------------------------
+    private static final class UnconfirmedMsg {
+        UnconfirmedMsg(AMQP.BasicProperties properties, byte[] body)  { mProperties = properties;  mBody = body; }
+        final AMQP.BasicProperties mProperties;
+        final byte[]               mBody;
+    }   // End class UnconfirmedMsg
+
+    //--------------------------------------------------------------------------
+    // Tracks the outstanding publish sequence numbers of one channel and frees up their in-flight permits as they are confirmed.
+    // Rejected messages are kept until waitForConfirms() sends them again.
+    //--------------------------------------------------------------------------
+    private final class ConfirmTracker implements ConfirmListener, RecoveryListener {
+        void add(long lSeqNo, UnconfirmedMsg msg)  { mOutstanding.put(lSeqNo, msg); }
+
+        boolean hasRejected()  { return !mRejected.isEmpty(); }
+
+        List<UnconfirmedMsg> takeRejected() {
+            List<UnconfirmedMsg> rejected = new ArrayList<>();
+            for (UnconfirmedMsg msg; (msg = mRejected.poll()) != null; )
+                rejected.add(msg);
+            return rejected;
+        }
+
+        @Override public void handleAck(long lDeliveryTag, boolean bMultiple)  { confirmed(lDeliveryTag, bMultiple, false); }
+
+        @Override public void handleNack(long lDeliveryTag, boolean bMultiple) {
+            mNumNackedMsgs.add(confirmed(lDeliveryTag, bMultiple, true));
+        }
+
+        // The old channel's sequence numbers are meaningless on the recovered channel, so everything outstanding is treated as rejected.
+        @Override public void handleRecovery(Recoverable recoverable) {
+            synchronized (recoverable) {  // the publishing thread holds the channel's lock while publishing.
+                confirmed(Long.MAX_VALUE, true, true);
+            }
+        }
+
+        @Override public void handleRecoveryStarted(Recoverable recoverable) {}
+
+        private int confirmed(long lDeliveryTag, boolean bMultiple, boolean bRejected) {
+            int iNumConfirmed = 0;
+            if (bMultiple) {
+                NavigableMap<Long, UnconfirmedMsg> confirmedSeqNos = mOutstanding.headMap(lDeliveryTag, true);
+                for (Map.Entry<Long, UnconfirmedMsg> entry; (entry = confirmedSeqNos.pollFirstEntry()) != null; ) {
+                    ++iNumConfirmed;
+                    if (bRejected)  mRejected.add(entry.getValue());
+                }
+            }
+            else {
+                UnconfirmedMsg msg = mOutstanding.remove(lDeliveryTag);
+                if (msg != null) {
+                    iNumConfirmed = 1;
+                    if (bRejected)  mRejected.add(msg);
+                }
+            }
+            mUnconfirmedPermits.release(iNumConfirmed);
+            return iNumConfirmed;
+        }
+
+        private final ConcurrentSkipListMap<Long, UnconfirmedMsg> mOutstanding = new ConcurrentSkipListMap<>();
+        private final Queue<UnconfirmedMsg> mRejected = new ConcurrentLinkedQueue<>();
+    }   // End class ConfirmTracker
+
     // Member data
     final boolean           Durable = true;  // make sure that RabbitMQ will never lose our QUEUE.
     ConnectionFactory       mFactory;
     Connection              mConnection;
-    Channel                 mChannel;
+    Channel                 mChannel;             // the first channel, also used for any messages that are not associated with a table.
+    private Channel[]       mChannels;
+    private ConfirmTracker[] mUnconfirmedSeqNos;  // per channel, null entries when publisher confirms are not being used.
+    private Semaphore       mUnconfirmedPermits;  // one permit per message that may be outstanding, null when publisher confirms are not being used.
+    private long            mPublishTimeoutMs = PublishTimeoutMs;
+    static final long       PublishTimeoutMs = 5 * 60 * 1000L;  // how long publish() waits for the broker to confirm an outstanding message.
+    static final int        MaxResends = 3;  // how many times waitForConfirms() sends the rejected messages again.
+    private final Counter   mNumPublishedMsgs  = MetricsRegistry.getDefault().counter("dai_data_mover_messages_total", "DataMover messages published to Tier2");
+    private final Counter   mNumPublishedBytes = MetricsRegistry.getDefault().counter("dai_data_mover_message_bytes_total", "Bytes of the DataMover messages published to Tier2");
+    private final Counter   mNumNackedMsgs     = MetricsRegistry.getDefault().counter("dai_data_mover_nacked_messages_total", "DataMover messages rejected by the broker");
+    private final Counter   mNumResentMsgs     = MetricsRegistry.getDefault().counter("dai_data_mover_resent_messages_total", "DataMover messages sent again after being rejected or lost");
 }   // End class DataMoverAmqp
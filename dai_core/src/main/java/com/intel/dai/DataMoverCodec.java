@@ -0,0 +1,150 @@
+// Copyright (C) 2021 Intel Corporation
+//
+// SPDX-License-Identifier: Apache-2.0
+//
+package com.intel.dai;
+
+import com.intel.config_io.ConfigIO;
+import com.intel.config_io.ConfigIOParseException;
+import com.intel.properties.PropertyMap;
+import com.rabbitmq.client.AMQP;
+import com.rabbitmq.client.MessageProperties;
+import org.voltdb.PrivateVoltTableFactory;
+import org.voltdb.VoltTable;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+//--------------------------------------------------------------------------
+// Binary wire format for the DataMover messages from Tier1 to Tier2.
+//
+// The original format is a JSON object holding the message header fields plus the JSON form of the VoltTable. The
+// binary format carries the same header fields as AMQP message headers and the body is the VoltTable's native
+// serialized buffer, optionally deflate compressed. The content type of the AMQP message tells the receiver which
+// format was used, messages without the binary content type are the original JSON format so a new receiver works
+// with an old DataMover. The DataMover only sends the binary format when asked to by its work item parameters, so a
+// DataMover is only switched to the binary format after its DataReceivers were updated.
+//--------------------------------------------------------------------------
+final class DataMoverCodec {
+    enum Format {
+        JSON,
+        BINARY,
+        BINARY_DEFLATE;
+
+        // Accepts the DataMoverFormat work item parameter value, anything unknown is the JSON format.
+        static Format fromString(String name) {
+            if(name == null) return JSON;
+            switch(name.trim().toLowerCase()) {
+                case "binary":
+                    return BINARY;
+                case "binary_deflate":
+                case "binarydeflate":
+                case "deflate":
+                    return BINARY_DEFLATE;
+                default:
+                    return JSON;
+            }
+        }
+    }
+
+    private DataMoverCodec() {}
+
+    static boolean isBinary(AMQP.BasicProperties properties) {
+        return properties != null && BinaryContentType.equals(properties.getContentType());
+    }
+
+    /**
+     * Build the AMQP properties for a binary message.
+     *
+     * @param header The DataMover header fields (EOM, IntervalId, AmqpMessageId, TableName, ...).
+     * @param format Format.BINARY or Format.BINARY_DEFLATE.
+     * @return The persistent message properties holding the header fields.
+     */
+    static AMQP.BasicProperties binaryProperties(Map<String, Object> header, Format format) {
+        assert format != Format.JSON:"Passed the JSON format to DataMoverCodec.binaryProperties()!";
+        Map<String, Object> headers = new HashMap<>(header);
+        headers.put(FormatVersionHeader, FormatVersion);
+        return MessageProperties.PERSISTENT_BASIC.builder()
+                .contentType(BinaryContentType)
+                .contentEncoding(format == Format.BINARY_DEFLATE ? DeflateEncoding : null)
+                .headers(headers)
+                .build();
+    }
+
+    /**
+     * Get the DataMover header fields of a binary message in the same form as the fields of a JSON message.
+     */
+    static PropertyMap headerFromProperties(AMQP.BasicProperties properties) throws IOException {
+        Map<String, Object> headers = properties.getHeaders();
+        if(headers == null)
+            throw new IOException("DataMover binary message is missing its headers");
+        Object version = headers.get(FormatVersionHeader);
+        if(version == null || Long.parseLong(version.toString()) > FormatVersion)
+            throw new IOException("Unsupported DataMover binary message format version: " + version);
+        PropertyMap header = new PropertyMap();
+        for(Map.Entry<String, Object> entry: headers.entrySet()) {
+            Object value = entry.getValue();
+            // Strings arrive as AMQP LongString objects.
+            header.put(entry.getKey(), (value instanceof Number || value instanceof Boolean) ? value :
+                    (value == null ? null : value.toString()));
+        }
+        return header;
+    }
+
+    /**
+     * Build the JSON form of a message from its header fields and table, this is the form the DataReceiver publishes
+     * on the DataMover pub-sub exchange whichever format the message arrived in.
+     */
+    static PropertyMap jsonMessage(PropertyMap header, VoltTable table, ConfigIO parser) throws ConfigIOParseException {
+        PropertyMap message = new PropertyMap(header);
+        message.remove(FormatVersionHeader);
+        message.put("status", (long) table.getStatusCode());
+        PropertyMap tableObject = parser.fromString(table.toJSONString()).getAsMap();
+        message.put("schema", tableObject.getArrayOrDefault("schema", null));
+        message.put("data", tableObject.getArrayOrDefault("data", null));
+        return message;
+    }
+
+    static byte[] encodeTable(VoltTable table, Format format) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(table.getSerializedSize());
+        table.flattenToBuffer(buffer);
+        byte[] bytes = buffer.array();
+        if(format != Format.BINARY_DEFLATE)
+            return bytes;
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 4);
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try (DeflaterOutputStream stream = new DeflaterOutputStream(out, deflater)) {
+            stream.write(bytes);
+        } finally {
+            deflater.end();
+        }
+        return out.toByteArray();
+    }
+
+    static VoltTable decodeTable(byte[] body, AMQP.BasicProperties properties) throws IOException {
+        byte[] bytes = body;
+        if(DeflateEncoding.equals(properties.getContentEncoding())) {
+            try (InputStream stream = new InflaterInputStream(new ByteArrayInputStream(body))) {
+                bytes = stream.readAllBytes();
+            }
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        int length = buffer.getInt(); // flattenToBuffer() prefixes the table with its length.
+        if(length != buffer.remaining())
+            throw new IOException("DataMover binary message has a bad table length: " + length);
+        return PrivateVoltTableFactory.createVoltTableFromBuffer(buffer.slice(), true);
+    }
+
+    static final String BinaryContentType   = "application/x-dai-volttable";
+    static final String DeflateEncoding     = "deflate";
+    static final String FormatVersionHeader = "DataMoverFormatVersion";
+    static final long   FormatVersion       = 1L;
+}
@@ -13,6 +13,12 @@ import com.intel.logging.Logger;
 public class DataReceiverAmqp {
     // Class constructor
     DataReceiverAmqp(String sHost, IAdapter adapter, Logger log, long lWorkItemId) throws IOException, TimeoutException {
+        this(sHost, adapter, log, lWorkItemId, DEFAULT_PREFETCH_COUNT);
+    }   // End ctor
+
+    // iPrefetchCount - the maximum number of unacknowledged messages the broker sends to this consumer.
+    DataReceiverAmqp(String sHost, IAdapter adapter, Logger log, long lWorkItemId, int iPrefetchCount) throws IOException, TimeoutException {
+        if (iPrefetchCount <= 0)  throw new IllegalArgumentException("The prefetch count must be greater than 0!");
         mFactory = new ConnectionFactory();
         mFactory.setHost(sHost);
         mFactory.setAutomaticRecoveryEnabled(true);
@@ -47,9 +53,8 @@ public class DataReceiverAmqp {
         mChannel = mConnection.createChannel();     // channel has most of the API for getting things done resides (virtual connection or AMQP connection) - you can use 1 channel for everything going via the tcp connection.
         // Create a queue that is used by the DataMover to send Tier1 data to Tier2 - set up so messages have to be manually acknowledged and won't be lost.
         mChannel.queueDeclare(Adapter.DataMoverQueueName, Durable, false, false, null);  // set up our queue from DataMover to the DataReceiver.
-        // Configure this consumer of DataMover queue messages to prefetch up to 100 message at a time from the queue.
-        final int PrefetchCount = 100;
-        mChannel.basicQos(PrefetchCount, false); // this sets the limit for this consumer only.
+        // Configure this consumer of DataMover queue messages to prefetch up to iPrefetchCount messages at a time from the queue.
+        mChannel.basicQos(iPrefetchCount, false); // this sets the limit for this consumer only.
         // Create an exchange for sending pub-sub traffic to all subscribers (this is idempotent so won't hurt if the exchange has already been set up).
         mChannel.exchangeDeclare(Adapter.DataMoverExchangeName, "topic");  // set up our topic-type exchange.
     }   // End ctor
@@ -62,6 +67,7 @@ public class DataReceiverAmqp {
     Channel getChannel()  { return mChannel; }
 
     // Member data
+    static final int        DEFAULT_PREFETCH_COUNT = 100;
     final boolean           Durable = true;  // make sure that RabbitMQ will never lose our QUEUE.
     ConnectionFactory       mFactory;
     Connection              mConnection;
@@ -0,0 +1,193 @@
+// Copyright (C) 2021 Intel Corporation
+//
+// SPDX-License-Identifier: Apache-2.0
+//
+package com.intel.dai;
+
+import com.intel.logging.Logger;
+import com.rabbitmq.client.Channel;
+import com.rabbitmq.client.Recoverable;
+import com.rabbitmq.client.RecoveryListener;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+//--------------------------------------------------------------------------
+// Writes the DataReceiver's messages into Tier2 on several worker threads. Each worker has its own
+// NearlineTableUpdater (and so its own JDBC connection) and the worker is chosen from the table name, so the
+// messages of a table are still written in the order they were received.
+//
+// Since the workers finish out of order, a message is only acknowledged once it and all of the messages delivered
+// before it have been written. The acknowledgements are sent as a single multiple=true ack for a batch of messages,
+// together with the restart data of the last message of the batch.
+//
+// The delivery tags start over at 1 on a recovered channel and the broker delivers the unacknowledged messages again,
+// so on recovery the messages of the old channel are forgotten and their completions are ignored.
+//--------------------------------------------------------------------------
+final class DataReceiverWorkerPool {
+    interface TableTask {
+        void run(NearlineTableUpdater updater) throws Exception;
+    }
+
+    interface RestartDataSaver {
+        void save(String sRestartData) throws IOException;
+    }
+
+    /**
+     * Create and start the workers.
+     *
+     * @param log The logger.
+     * @param channel The channel the messages are consumed from, the acknowledgements are sent on it.
+     * @param updaters One updater per worker, each must use its own connection.
+     * @param iAckBatchSize The number of written messages acknowledged at once (all pending messages are
+     *                      acknowledged as soon as the workers are idle).
+     * @param restartDataSaver Saves the restart data of the last acknowledged message.
+     */
+    DataReceiverWorkerPool(Logger log, Channel channel, List<NearlineTableUpdater> updaters, int iAckBatchSize,
+                           RestartDataSaver restartDataSaver) {
+        assert log != null:"Passed a null Logger to DataReceiverWorkerPool.ctor()!";
+        assert channel != null:"Passed a null Channel to DataReceiverWorkerPool.ctor()!";
+        if (updaters == null || updaters.isEmpty()) throw new IllegalArgumentException("At least one updater is required!");
+        if (iAckBatchSize <= 0) throw new IllegalArgumentException("The ack batch size must be greater than 0!");
+        log_ = log;
+        channel_ = channel;
+        updaters_ = new ArrayList<>(updaters);
+        ackBatchSize_ = iAckBatchSize;
+        restartDataSaver_ = restartDataSaver;
+        workers_ = new ExecutorService[updaters_.size()];
+        for (int i = 0; i < workers_.length; i++) {
+            String name = "DataReceiverWorker-" + i;
+            workers_[i] = Executors.newSingleThreadExecutor(task -> new Thread(task, name));
+        }
+        if (channel instanceof Recoverable) {
+            ((Recoverable) channel).addRecoveryListener(new RecoveryListener() {
+                @Override public void handleRecovery(Recoverable recoverable) { channelRecovered(); }
+
+                @Override public void handleRecoveryStarted(Recoverable recoverable) {}
+            });
+        }
+    }
+
+    /**
+     * Record a delivery, must be called on the consumer thread for every message before it is submitted.
+     *
+     * @param lDeliveryTag The delivery tag of the message.
+     * @param sRestartData The restart data to save once this message is acknowledged, null for none.
+     */
+    synchronized void delivered(long lDeliveryTag, String sRestartData) {
+        pending_.put(lDeliveryTag, sRestartData);
+        lastDelivered_ = Math.max(lastDelivered_, lDeliveryTag);
+    }
+
+    /**
+     * Run the Tier2 update of a message on the worker owning its table, the message is completed when the task ends.
+     */
+    void submit(String sTableName, long lDeliveryTag, TableTask task) {
+        int iWorker = partitionOf(sTableName);
+        NearlineTableUpdater updater = updaters_.get(iWorker);
+        long lChannelGeneration = channelGeneration();
+        workers_[iWorker].execute(() -> {
+            try {
+                task.run(updater);
+            } catch (Exception e) {
+                log_.exception(e, "DataReceiver worker failed to handle a message for table %s", sTableName);
+            } finally {
+                completed(lDeliveryTag, lChannelGeneration);
+            }
+        });
+    }
+
+    /**
+     * Mark a message as handled, acknowledging the messages that are no longer waiting on an earlier message. A
+     * message that was never submitted to a worker can be completed on the consumer thread without delivered().
+     */
+    synchronized void completed(long lDeliveryTag) {
+        completed(lDeliveryTag, channelGeneration_);
+    }
+
+    /**
+     * Forget the messages delivered on the channel before it was recovered, they can no longer be acknowledged.
+     */
+    synchronized void channelRecovered() {
+        log_.warn("DataReceiver channel was recovered, %d messages being written will be delivered again",
+                pending_.size());
+        channelGeneration_++;
+        pending_.clear();
+        completedRestartData_.clear();
+        lastDelivered_ = 0L;
+        lastAcked_ = 0L;
+    }
+
+    private synchronized long channelGeneration() { return channelGeneration_; }
+
+    private synchronized void completed(long lDeliveryTag, long lChannelGeneration) {
+        if (lChannelGeneration != channelGeneration_)
+            return;  // delivered on the channel before it was recovered.
+        lastDelivered_ = Math.max(lastDelivered_, lDeliveryTag);
+        String sRestartData = pending_.remove(lDeliveryTag);
+        if (sRestartData != null)
+            completedRestartData_.put(lDeliveryTag, sRestartData);
+        long lAckThrough = pending_.isEmpty() ? lastDelivered_ : pending_.firstKey() - 1L;
+        if (lAckThrough > lastAcked_ && (pending_.isEmpty() || (lAckThrough - lastAcked_) >= ackBatchSize_))
+            acknowledge(lAckThrough);
+    }
+
+    int partitionOf(String sTableName) {
+        return (sTableName == null) ? 0 : Math.floorMod(sTableName.hashCode(), workers_.length);
+    }
+
+    int workers() { return workers_.length; }
+
+    /**
+     * Write all submitted messages, acknowledge them and stop the workers.
+     */
+    void shutdown(long lTimeoutMs) throws InterruptedException {
+        for (ExecutorService worker: workers_)
+            worker.shutdown();
+        long lDeadline = System.currentTimeMillis() + lTimeoutMs;
+        for (ExecutorService worker: workers_) {
+            if (!worker.awaitTermination(Math.max(0L, lDeadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS))
+                log_.warn("DataReceiver worker did not finish its messages before shutting down");
+        }
+    }
+
+    // Must be called holding the object lock.
+    private void acknowledge(long lAckThrough) {
+        try {
+            synchronized (channel_) {
+                channel_.basicAck(lAckThrough, true);
+            }
+        } catch (IOException e) {
+            log_.exception(e, "DataReceiver failed to acknowledge the messages through delivery tag %d", lAckThrough);
+            return;
+        }
+        lastAcked_ = lAckThrough;
+        NavigableMap<Long, String> acked = completedRestartData_.headMap(lAckThrough, true);
+        if (!acked.isEmpty() && restartDataSaver_ != null) {
+            try {
+                restartDataSaver_.save(acked.lastEntry().getValue());
+            } catch (IOException | RuntimeException e) {
+                log_.exception(e, "DataReceiver failed to save its restart data");
+            }
+        }
+        acked.clear();
+    }
+
+    private final Logger log_;
+    private final Channel channel_;
+    private final List<NearlineTableUpdater> updaters_;
+    private final ExecutorService[] workers_;
+    private final int ackBatchSize_;
+    private final RestartDataSaver restartDataSaver_;
+    private final TreeMap<Long, String> pending_ = new TreeMap<>();  // delivered but not yet completed, to restart data.
+    private final TreeMap<Long, String> completedRestartData_ = new TreeMap<>();  // completed but not yet acknowledged.
+    private long lastDelivered_ = 0L;
+    private long lastAcked_ = 0L;
+    private long channelGeneration_ = 0L;  // incremented each time the channel is recovered.
+}   // End class DataReceiverWorkerPool
@@ -23,6 +23,26 @@ import org.voltdb.VoltType;
 
 public class NearlineTableUpdater {
     private static final boolean USE_SNAPSHOTS = false;
+    static class ColumnTypes {
+        ColumnTypes(VoltTable tableData) {
+            voltTypes = new VoltType[tableData.getColumnCount()];
+            sqlTypes = new int[voltTypes.length];
+            for (int i = 0; i < voltTypes.length; ++i) {
+                voltTypes[i] = tableData.getColumnType(i);
+                sqlTypes[i] = voltTypes[i].getJdbcSqlType(); // Get equivalent JDBC type
+            }
+        }
+        boolean matches(VoltTable tableData) {
+            if (voltTypes.length != tableData.getColumnCount())
+                return false;
+            for (int i = 0; i < voltTypes.length; ++i)
+                if (voltTypes[i] != tableData.getColumnType(i))
+                    return false;
+            return true;
+        }
+        final VoltType[] voltTypes;
+        final int[] sqlTypes;
+    }
     static class DataUpdateStmt {
         DataUpdateStmt(String stmtTxt, boolean isProcedure) {
             this.stmtTxt = stmtTxt;
@@ -35,9 +55,16 @@ public class NearlineTableUpdater {
     private BenchmarkHelper benchmarker;
 
     NearlineTableUpdater(Connection tier2DbConn, Logger logger) {
+        this(tier2DbConn, logger, DEFAULT_MAX_BATCH_ROWS);
+    }
+
+    NearlineTableUpdater(Connection tier2DbConn, Logger logger, int maxBatchRows) {
+        if(maxBatchRows <= 0) throw new IllegalArgumentException("The maximum batch rows must be greater than 0!");
         log = logger;
         mCachedStmts = new HashMap<>();
+        mCachedColumns = new HashMap<>();
         mConn = tier2DbConn;
+        mMaxBatchRows = maxBatchRows;
     }
 
     public void Update(String tableName, VoltTable tableData) throws DataStoreException {
@@ -48,13 +75,16 @@ public class NearlineTableUpdater {
             //log.info("SNAPSHOT TABLE UPDATE TABLE NAME %s \t STATEMNET %s",tableName+"_SS", snapshotStmt); // KEEP
             throw new DataStoreException("Unsupported table in nearline tier: " + tableName);
         }
+        ColumnTypes columns = getColumnTypes(tableName, tableData);
         if (snapshotStmt != null && USE_SNAPSHOTS) {
             try {
 
                 // Store all the data for this table
                 while (tableData.advanceRow()) {
-                    dbUpdateHelper(snapshotStmt, tableName, tableData);
-                    dbUpdateHelper(stmt, tableName, tableData);
+                    dbUpdateHelper(snapshotStmt, columns, tableData);
+                    snapshotStmt.execute();
+                    dbUpdateHelper(stmt, columns, tableData);
+                    stmt.execute();
                 }
                 mConn.commit();
 
@@ -71,15 +101,20 @@ public class NearlineTableUpdater {
                     benchmarker.addNamedValue("BeforeRasDataWrite", tableData.getRowCount());
 
                 // Store all the data for this table
-                while (tableData.advanceRow()) {
-                    dbUpdateHelper(stmt, tableName, tableData);
-                }
+                if (SQL_STMTS.get(tableName).isProcedure)
+                    while (tableData.advanceRow()) {
+                        dbUpdateHelper(stmt, columns, tableData);
+                        stmt.execute();
+                    }
+                else
+                    dbBatchUpdateHelper(stmt, columns, tableData);
                 mConn.commit();
 
                 if(tableName.equals("RasEvent"))
                     benchmarker.addNamedValue("WroteRasData", tableData.getRowCount());
             } catch (SQLException ex) {
                 try {
+                    stmt.clearBatch();
                     mConn.rollback();
                 } catch(SQLException e) { /* Do Nothing on failure */ }
                 throw new DataStoreException("Unable to update nearline tier table: " + tableName, ex);
@@ -91,10 +126,27 @@ public class NearlineTableUpdater {
         this.benchmarker = benchmarker;
     }
 
-    private void dbUpdateHelper (PreparedStatement stmt, String tableName, VoltTable tableData) throws SQLException{
-        for (int i = 0; i < tableData.getColumnCount(); ++i) {
-            VoltType voltType = tableData.getColumnType(i);
-            int sqlType = voltType.getJdbcSqlType(); // Get equivalent JDBC type
+    // Plain inserts are sent to the DB in batches of up to mMaxBatchRows rows. Stored procedure calls cannot be
+    // batched because the PostgreSQL driver rejects the result row every procedure call returns.
+    private void dbBatchUpdateHelper(PreparedStatement stmt, ColumnTypes columns, VoltTable tableData)
+            throws SQLException {
+        int pending = 0;
+        while (tableData.advanceRow()) {
+            dbUpdateHelper(stmt, columns, tableData);
+            stmt.addBatch();
+            if (++pending == mMaxBatchRows) {
+                stmt.executeBatch();
+                pending = 0;
+            }
+        }
+        if (pending > 0)
+            stmt.executeBatch();
+    }
+
+    private void dbUpdateHelper(PreparedStatement stmt, ColumnTypes columns, VoltTable tableData)
+            throws SQLException {
+        for (int i = 0; i < columns.sqlTypes.length; ++i) {
+            int sqlType = columns.sqlTypes[i];
             Object value;
 
             if (sqlType == Types.TIMESTAMP) {
@@ -103,20 +155,28 @@ public class NearlineTableUpdater {
                 // Convert to GMT time zone
                 value = tableData.getTimestampAsSqlTimestamp(i);
                 if (value != null){
-                    Calendar cal = Calendar.getInstance(TimeZone.getTimeZone("GMT"));
-                    stmt.setTimestamp(i + 1, (Timestamp) value, cal);
+                    stmt.setTimestamp(i + 1, (Timestamp) value, mGmt);
                 }
                 else {
                     stmt.setObject(i + 1, value, sqlType);
                 }
             } else {
-                value = tableData.get(i, voltType);
+                value = tableData.get(i, columns.voltTypes[i]);
                 if (tableData.wasNull())
                     value = null;
                 stmt.setObject(i + 1, value, sqlType);
             }
         }
-        stmt.execute();
+    }
+
+    // The column types of a table are computed once and reused while the VoltDB table layout is unchanged.
+    private ColumnTypes getColumnTypes(String tableName, VoltTable tableData) {
+        ColumnTypes columns = mCachedColumns.get(tableName);
+        if (columns == null || !columns.matches(tableData)) {
+            columns = new ColumnTypes(tableData);
+            mCachedColumns.put(tableName, columns);
+        }
+        return columns;
     }
 
     private PreparedStatement getStmt(String tableName) throws DataStoreException {
@@ -148,6 +208,11 @@ public class NearlineTableUpdater {
 
     private Connection mConn;
     private Map<String, PreparedStatement> mCachedStmts;
+    private Map<String, ColumnTypes> mCachedColumns;
+    private final int mMaxBatchRows;
+    private final Calendar mGmt = Calendar.getInstance(TimeZone.getTimeZone("GMT"));
+
+    private static final int DEFAULT_MAX_BATCH_ROWS = 1000;
 
     // SQL statements for all the supported tables in tier 2
     private static final Map<String, DataUpdateStmt> SQL_STMTS;
@@ -217,8 +282,10 @@ public class NearlineTableUpdater {
                 false));
         SQL_STMTS.put("RasEvent",
             new DataUpdateStmt(
-                "{call InsertOrUpdateRasEvent(?,?,?,?,?,?,?,?,?,?,?,?,?)}",
-                true));
+                "insert into Tier2_RasEvent(Id, DescriptiveName, Lctn, Sernum, JobId, NumberRepeats, "
+                + "ControlOperation, Done, InstanceData, DbUpdatedTimestamp, LastChgTimestamp, LastChgAdapterType, "
+                + "LastChgWorkItemId) values(?,?,?,?,?,?,?,?,?,?,?,?,?)",
+                false));
         SQL_STMTS.put("Replacement_History",
             new DataUpdateStmt(
                 "insert into Tier2_Replacement_History(Lctn, FruType, ServiceOperationId, OldSernum, NewSernum, OldState, "
@@ -0,0 +1,250 @@
+// Copyright (C) 2021 Intel Corporation
+//
+// SPDX-License-Identifier: Apache-2.0
+//
+package com.intel.dai;
+
+import com.intel.logging.Logger;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.InetSocketAddress;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Determines which nodes answer on the network, many nodes at a time and without starting a process per node (used by
+ * AdapterDaiMgr to determine the initial state of the compute nodes).
+ *
+ * By default a node is reachable if it accepts or refuses a TCP connection to the probed port within timeoutMs. The
+ * connections are made with non-blocking channels on a single selector, so at most maxConcurrent connection attempts
+ * are in flight and a node that does not answer costs one timeout, no thread is blocked waiting for it. When the
+ * process runs out of file descriptors fewer connections are kept in flight. Tests use a Probe (e.g., fakeHosts())
+ * instead of the network, these are run on up to maxConcurrent threads.
+ */
+final class NodeReachabilityProber {
+    static final int DEFAULT_TCP_PORT = 22;
+
+    // Probes a single address.
+    interface Probe {
+        boolean isReachable(String address, int timeoutMs) throws IOException, InterruptedException;
+    }
+
+    NodeReachabilityProber(Logger log, int maxConcurrent, int timeoutMs) {
+        this(log, maxConcurrent, timeoutMs, DEFAULT_TCP_PORT);
+    }
+
+    NodeReachabilityProber(Logger log, int maxConcurrent, int timeoutMs, int tcpPort) {
+        this(log, maxConcurrent, timeoutMs, tcpPort, null);
+        if (tcpPort <= 0 || tcpPort > 65535) throw new IllegalArgumentException("The probed port must be between 1 and 65535!");
+    }
+
+    NodeReachabilityProber(Logger log, int maxConcurrent, int timeoutMs, Probe probe) {
+        this(log, maxConcurrent, timeoutMs, DEFAULT_TCP_PORT, probe);
+        if (probe == null) throw new IllegalArgumentException("The probe can not be null!");
+    }
+
+    private NodeReachabilityProber(Logger log, int maxConcurrent, int timeoutMs, int tcpPort, Probe probe) {
+        assert log != null:"Passed a null Logger to NodeReachabilityProber.ctor()!";
+        if (maxConcurrent <= 0) throw new IllegalArgumentException("The number of concurrent probes must be greater than 0!");
+        if (timeoutMs <= 0) throw new IllegalArgumentException("The probe timeout must be greater than 0!");
+        log_ = log;
+        maxConcurrent_ = maxConcurrent;
+        timeoutMs_ = timeoutMs;
+        tcpPort_ = tcpPort;
+        probe_ = probe;
+    }
+
+    /**
+     * Probe the addresses.
+     *
+     * @param addresses The IP addresses (or host names) of the nodes, null or empty addresses are never reachable.
+     * @return The addresses that answered.
+     */
+    Set<String> probe(Collection<String> addresses) throws InterruptedException {
+        Set<String> unique = new LinkedHashSet<>(addresses);
+        unique.remove(null);
+        unique.remove("");
+        if (unique.isEmpty())
+            return new HashSet<>();
+        if (probe_ == null)
+            return connectAll(unique);
+        Set<String> reachable = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(maxConcurrent_, unique.size()),
+                new ProbeThreadFactory());
+        try {
+            List<Callable<Void>> probes = new ArrayList<>(unique.size());
+            for (String address: unique) {
+                probes.add(() -> {
+                    try {
+                        if (probe_.isReachable(address, timeoutMs_))
+                            reachable.add(address);
+                    } catch (IOException e) {
+                        log_.debug("NodeReachabilityProber - %s is not reachable: %s", address, e.getMessage());
+                    }
+                    return null;
+                });
+            }
+            executor.invokeAll(probes);
+        } finally {
+            executor.shutdownNow();
+        }
+        return reachable;
+    }
+
+    // Connect to all of the addresses, keeping up to maxConcurrent connection attempts in flight.
+    private Set<String> connectAll(Collection<String> addresses) throws InterruptedException {
+        Set<String> reachable = new HashSet<>();
+        Deque<String> pending = new ArrayDeque<>(addresses);
+        Deque<Attempt> inFlight = new ArrayDeque<>();  // in start order, which is also deadline order.
+        int maxInFlight = maxConcurrent_;
+        try (Selector selector = Selector.open()) {
+            while (!pending.isEmpty() || !inFlight.isEmpty()) {
+                while (!pending.isEmpty() && inFlight.size() < maxInFlight) {
+                    String address = pending.poll();
+                    SocketChannel channel;
+                    try {
+                        channel = SocketChannel.open();
+                    } catch (IOException e) {
+                        if (inFlight.isEmpty()) {
+                            log_.error("NodeReachabilityProber - unable to probe %s: %s", address, e.getMessage());
+                            continue;
+                        }
+                        // Most likely out of file descriptors, retry once some of the attempts in flight are done.
+                        log_.warn("NodeReachabilityProber - only probing %d nodes at a time: %s", inFlight.size(),
+                                e.getMessage());
+                        maxInFlight = inFlight.size();
+                        pending.addFirst(address);
+                        break;
+                    }
+                    Attempt attempt = new Attempt(address, channel, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs_));
+                    if (startConnect(selector, attempt))
+                        inFlight.add(attempt);
+                    else if (attempt.reachable)
+                        reachable.add(address);
+                }
+                if (inFlight.isEmpty())
+                    continue;
+                long waitMs = TimeUnit.NANOSECONDS.toMillis(inFlight.peek().deadlineNs - System.nanoTime());
+                selector.select(Math.max(1L, waitMs));
+                if (Thread.interrupted())
+                    throw new InterruptedException("Interrupted while probing the nodes");
+                for (SelectionKey key: selector.selectedKeys()) {
+                    Attempt attempt = (Attempt) key.attachment();
+                    finishConnect(attempt);
+                    if (attempt.reachable)
+                        reachable.add(attempt.address);
+                }
+                selector.selectedKeys().clear();
+                long now = System.nanoTime();
+                while (!inFlight.isEmpty() && (inFlight.peek().done || inFlight.peek().deadlineNs - now <= 0L)) {
+                    Attempt attempt = inFlight.poll();
+                    if (!attempt.done) {
+                        log_.debug("NodeReachabilityProber - %s did not answer within %d ms", attempt.address, timeoutMs_);
+                        attempt.close();
+                    }
+                }
+            }
+        } catch (IOException e) {
+            log_.exception(e, "NodeReachabilityProber - unable to probe the nodes");
+        } finally {
+            for (Attempt attempt: inFlight)
+                attempt.close();
+        }
+        return reachable;
+    }
+
+    // Start connecting, returns false if the attempt is already done.
+    private boolean startConnect(Selector selector, Attempt attempt) {
+        try {
+            InetSocketAddress socketAddress = new InetSocketAddress(attempt.address, tcpPort_);
+            if (socketAddress.isUnresolved())
+                throw new IOException("unknown host");
+            attempt.channel.configureBlocking(false);
+            if (attempt.channel.connect(socketAddress)) {
+                attempt.reachable = true;
+                attempt.close();
+                return false;
+            }
+            attempt.channel.register(selector, SelectionKey.OP_CONNECT, attempt);
+            return true;
+        } catch (IOException e) {
+            connectFailed(attempt, e);
+            return false;
+        }
+    }
+
+    private void finishConnect(Attempt attempt) {
+        try {
+            attempt.reachable = attempt.channel.finishConnect();
+            attempt.close();
+        } catch (IOException e) {
+            connectFailed(attempt, e);
+        }
+    }
+
+    private void connectFailed(Attempt attempt, IOException e) {
+        // A refused connection still means that the node is up.
+        attempt.reachable = e instanceof ConnectException;
+        if (!attempt.reachable)
+            log_.debug("NodeReachabilityProber - %s is not reachable: %s", attempt.address, e.getMessage());
+        attempt.close();
+    }
+
+    /**
+     * A probe that does not use the network: only the given addresses are reachable and every probe takes latencyMs
+     * (for tests and for measuring the startup time of large machines).
+     */
+    static Probe fakeHosts(Set<String> reachable, long latencyMs) {
+        return (address, timeoutMs) -> {
+            if (latencyMs > 0L)
+                Thread.sleep(Math.min(latencyMs, timeoutMs));
+            return latencyMs <= timeoutMs && reachable.contains(address);
+        };
+    }
+
+    private static final class ProbeThreadFactory implements ThreadFactory {
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "NodeReachabilityProber-" + count_.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+
+        private final AtomicInteger count_ = new AtomicInteger(0);
+    }   // End class ProbeThreadFactory
+
+    // A connection attempt made by connectAll().
+    private static final class Attempt {
+        Attempt(String address, SocketChannel channel, long deadlineNs) {
+            this.address = address;
+            this.channel = channel;
+            this.deadlineNs = deadlineNs;
+        }
+
+        void close() {
+            done = true;
+            try {
+                channel.close();  // also cancels its selection key.
+            } catch (IOException e) {
+                // nothing left to do with it.
+            }
+        }
+
+        final String address;
+        final SocketChannel channel;
+        final long deadlineNs;
+        boolean reachable = false;
+        boolean done = false;
+    }   // End class Attempt
+
+    private final Logger log_;
+    private final int maxConcurrent_;
+    private final int timeoutMs_;
+    private final int tcpPort_;
+    private final Probe probe_;  // null when connecting to the nodes.
+}
@@ -4,6 +4,7 @@
 //
 package com.intel.dai.dsapi;
 
+import com.intel.dai.locations.LocationIndex;
 import com.intel.properties.PropertyMap;
 import com.intel.dai.exceptions.DataStoreException;
 import com.intel.dai.exceptions.BadInputException;
@@ -54,4 +55,10 @@ public interface Location {
 
     public Set<String> getNodesFromLocations(Set<String> locations) throws BadInputException;
 
+    /**
+     * Get the hierarchical index of the node locations (parents, subtrees and integer ids of the locations).
+     * @return LocationIndex of the node locations loaded by the last reloadCache()
+     */
+    LocationIndex getLocationIndex();
+
 }
@@ -6,6 +6,7 @@ package com.intel.dai.dsapi;
 
 import java.io.IOException;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 public interface WorkQueue {
     boolean grabNextAvailWorkItem() throws IOException;
@@ -35,6 +36,9 @@ public interface WorkQueue {
     String[] waitForWorkItemToFinishAndMarkDone(String sCmdForMsg, String sWaitingForAdapterType,
                                                 long lWaitingForWorkItemId, String sReqAdapterType, long lReqWorkItemId)
             throws IOException, InterruptedException;
+    CompletableFuture<String[]> waitForWorkItemToFinishAndMarkDoneAsync(String sCmdForMsg, String sWaitingForAdapterType,
+                                                                 long lWaitingForWorkItemId, String sReqAdapterType, long lReqWorkItemId);
+    void shutdown();
     void finishedWorkItemDueToError(String sCmdForMsg, String sAdapterType, long lWorkItemId, String sWorkItemResults, String sAllowNonWorkingWiToBeFinished)
             throws IOException;
     String workingResults();
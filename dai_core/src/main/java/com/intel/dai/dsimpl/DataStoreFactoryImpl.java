@@ -124,10 +124,12 @@ public class DataStoreFactoryImpl implements DataStoreFactory {
 
     @Override
     public DataLoaderApi createDataLoaderApi() throws DataStoreException {
+        Client onlineClient = createTier1Client();
         Connection nearlineConn = createTier2Connection();
         Connection onlineConn = createTier1Connection();
 
-        DataLoaderApi api = new DataLoaderApiJdbc(onlineConn, nearlineConn, logger_);
+        DataLoaderApi api = new DataLoaderApiJdbc(onlineConn, nearlineConn, this::createTier1Connection,
+                this::createTier2Connection, DATA_LOADER_PARALLEL_TABLES, onlineClient, logger_);
         Runtime.getRuntime().addShutdownHook(new Thread(()-> {
             try {
                 api.disconnectAll();
@@ -219,6 +221,14 @@ public class DataStoreFactoryImpl implements DataStoreFactory {
                 generateVoltDBJdbcUrl(servers), true);
     }
 
+    protected Client createTier1Client() throws DataStoreException {
+        try {
+            return createVoltDbLegacyAccess().getVoltDbClient();
+        } catch (RuntimeException ex) {
+            throw new DataStoreException("Unable to connect to the Online tier", ex);
+        }
+    }
+
     @Override
     public Jobs createJobApi() {
         VoltDbJobs jobs = new VoltDbJobs(logger_, parsedServers);
@@ -245,5 +255,6 @@ public class DataStoreFactoryImpl implements DataStoreFactory {
 
     final static String DEFAULT_VOLTDB_SERVER = "localhost";
     final static String ONLINE_TIER_DRIVER = "org.voltdb.jdbc.Driver";
+    final static int DATA_LOADER_PARALLEL_TABLES = 4; // Tables loaded in parallel when repopulating the Online tier
     final Logger logger_;
 }
@@ -7,23 +7,59 @@ package com.intel.dai.dsimpl.jdbc;
 import com.intel.dai.dsapi.DataLoaderApi;
 import com.intel.dai.exceptions.DataStoreException;
 import com.intel.logging.Logger;
+import org.voltdb.client.Client;
+import org.voltdb.client.ClientResponse;
 
+import java.io.IOException;
 import java.sql.*;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.TimeZone;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 public class DataLoaderApiJdbc implements DataLoaderApi {
 
     public DataLoaderApiJdbc(Connection onlineConn, Connection nearlineConn, Logger log) {
+        this(onlineConn, nearlineConn, null, null, 1, log);
+    }
+
+    public DataLoaderApiJdbc(Connection onlineConn, Connection nearlineConn,
+                             DbConnectionPool.ConnectionSource onlineConnSource,
+                             DbConnectionPool.ConnectionSource nearlineConnSource, int maxParallelTables, Logger log) {
+        this(onlineConn, nearlineConn, onlineConnSource, nearlineConnSource, maxParallelTables, null, log);
+    }
+
+    /**
+     * The Online tier tables are populated by up to maxParallelTables loaders at the same time, one table per loader
+     * at a time.  The first loader uses the given connections, the others each open their own pair of connections
+     * from the connection sources and close them once there are no more tables to load.
+     *
+     * When a VoltDB client is given the rows are stored in the Online tier through it, as asynchronous inserts with at
+     * most insertWindow rows waiting for VoltDB per loader.  Otherwise they are stored through the Online tier
+     * connections; the VoltDB JDBC driver sends each row of a batch as its own synchronous call.
+     */
+    public DataLoaderApiJdbc(Connection onlineConn, Connection nearlineConn,
+                             DbConnectionPool.ConnectionSource onlineConnSource,
+                             DbConnectionPool.ConnectionSource nearlineConnSource, int maxParallelTables,
+                             Client onlineClient, Logger log) {
         assert onlineConn != null : "Online tier DB connection must be provided to DataLoaderApiJdbc";
         assert nearlineConn != null : "Nearline tier DB connection must be provided to DataLoaderApiJdbc";
         assert log != null : "Logger must be provided to DataLoaderApiJdbc";
+        if (maxParallelTables <= 0) {
+            throw new IllegalArgumentException("The number of tables loaded in parallel must be greater than 0");
+        }
+        if (maxParallelTables > 1 && (onlineConnSource == null || nearlineConnSource == null)) {
+            throw new IllegalArgumentException("Connection sources must be provided to load tables in parallel");
+        }
 
         this.log = log;
 
         this.onlineTierConn = onlineConn;
         this.nearlineTierConn = nearlineConn;
+        this.onlineConnSource = onlineConnSource;
+        this.nearlineConnSource = nearlineConnSource;
+        this.maxParallelTables = maxParallelTables;
+        this.onlineClient = onlineClient;
     }
 
     @Override
@@ -68,8 +104,47 @@ public class DataLoaderApiJdbc implements DataLoaderApi {
 
     @Override
     public void populateOnlineTierFromNearlineTier() throws DataStoreException {
-        for (String tableName : tables) {
-            populateOnlineTableFromNearline(tableName);
+        Queue<String> pending = new ConcurrentLinkedQueue<>(Arrays.asList(tables));
+        int loaders = Math.min(maxParallelTables, tables.length);
+        if (loaders <= 1) {
+            populateOnlineTablesFromNearline(onlineTierConn, nearlineTierConn, pending);
+            return;
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(loaders);
+        try {
+            List<Future<Void>> results = new ArrayList<>();
+            results.add(executor.submit(() -> {
+                populateOnlineTablesFromNearline(onlineTierConn, nearlineTierConn, pending);
+                return null;
+            }));
+            for (int i = 1; i < loaders; i++) {
+                results.add(executor.submit(() -> {
+                    populateOnlineTablesFromNewConnections(pending);
+                    return null;
+                }));
+            }
+
+            Throwable failure = null;
+            for (Future<Void> result : results) {
+                try {
+                    result.get();
+                } catch (ExecutionException ex) {
+                    if (failure == null) {
+                        failure = ex.getCause();
+                    }
+                }
+            }
+            if (failure instanceof DataStoreException) {
+                throw (DataStoreException) failure;
+            } else if (failure != null) {
+                throw new DataStoreException("An error occurred while populating the Online tier tables", failure);
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new DataStoreException("Interrupted while populating the Online tier tables", ex);
+        } finally {
+            executor.shutdownNow();
         }
     }
 
@@ -104,7 +179,44 @@ public class DataLoaderApiJdbc implements DataLoaderApi {
         }
     }
 
-    private void populateOnlineTableFromNearline(String tableName) throws DataStoreException {
+    private void populateOnlineTablesFromNearline(Connection onlineConn, Connection nearlineConn,
+                                                  Queue<String> pending) throws DataStoreException {
+        String tableName;
+        while ((tableName = pending.poll()) != null) {
+            try {
+                populateOnlineTableFromNearline(onlineConn, nearlineConn, tableName);
+            } catch (DataStoreException | RuntimeException ex) {
+                pending.clear(); // The other loaders stop after their current table
+                throw ex;
+            }
+        }
+    }
+
+    private void populateOnlineTablesFromNewConnections(Queue<String> pending) throws DataStoreException {
+        Connection onlineConn = null;
+        Connection nearlineConn = null;
+        try {
+            if (onlineClient == null) {
+                onlineConn = onlineConnSource.createConnection();
+            }
+            nearlineConn = nearlineConnSource.createConnection();
+        } catch (DataStoreException ex) {
+            // The remaining tables are still loaded by the other loaders
+            log.warn("Unable to connect an additional Online tier table loader: " + ex.getMessage());
+            closeConn(onlineConn);
+            return;
+        }
+
+        try {
+            populateOnlineTablesFromNearline(onlineConn, nearlineConn, pending);
+        } finally {
+            closeConn(nearlineConn);
+            closeConn(onlineConn);
+        }
+    }
+
+    private void populateOnlineTableFromNearline(Connection onlineConn, Connection nearlineConn, String tableName)
+            throws DataStoreException {
         PreparedStatement loadStmt = null;
         PreparedStatement activeStoreStmt = null;
         PreparedStatement historyStoreStmt = null;
@@ -112,10 +224,12 @@ public class DataLoaderApiJdbc implements DataLoaderApi {
         boolean hasHistoryTable = historyTable != null;
 
         try {
-            loadStmt = createNearlineTableLoadStmt(tableName);
-            activeStoreStmt = createOnlineTierTableStoreStmt(tableName);
-            if (hasHistoryTable) {
-                historyStoreStmt = createOnlineTierHistoryTableStoreStmt(historyTable);
+            loadStmt = createNearlineTableLoadStmt(nearlineConn, tableName);
+            if (onlineClient == null) {
+                activeStoreStmt = createOnlineTierTableStoreStmt(onlineConn, tableName);
+                if (hasHistoryTable) {
+                    historyStoreStmt = createOnlineTierHistoryTableStoreStmt(onlineConn, historyTable);
+                }
             }
         } catch (DataStoreException ex) {
             closeStmt(loadStmt);
@@ -130,6 +244,8 @@ public class DataLoaderApiJdbc implements DataLoaderApi {
 
         log.info("Loading data from Nearline tier table: %s", tableName);
         try {
+            // Stream the rows from the Nearline tier instead of reading the whole table into memory at once
+            loadStmt.setFetchSize(fetchSize);
             data = loadStmt.executeQuery();
             metaData = data.getMetaData();
         } catch (SQLException ex) {
@@ -145,22 +261,38 @@ public class DataLoaderApiJdbc implements DataLoaderApi {
 
         try {
             log.info("Storing data in Online tier table: %s", tableName);
-            Map<String, Integer> columnTypes = getColumnTypesFromMetaData(metaData);
+            String[] fields = tableFields.get(tableName);
+            assert fields != null : "Missing Nearline database schema details in DataLoaderApi";
+            String[] historyFields = hasHistoryTable ? historyTableFields.get(historyTable) : null;
+            assert !hasHistoryTable || historyFields != null :
+                    "Missing Nearline database schema details in DataLoaderApi";
+            ColumnPlan plan = new ColumnPlan(metaData, tableName, fields, historyTable, historyFields);
+
+            Object[] row = new Object[plan.columnTypes.length];
+            long rows = 0;
+            if (onlineClient != null) {
+                rows = storeRowsAsync(data, plan, row, tableName, fields, historyTable, historyFields);
+                log.info("Stored %d rows in Online tier table: %s", rows, tableName);
+                return;
+            }
             while (data.next()) {
-                String[] fields = tableFields.get(tableName);
-                assert fields != null : "Missing Nearline database schema details in DataLoaderApi";
-
-                setStmtData(data, tableName, fields, columnTypes, activeStoreStmt);
-                activeStoreStmt.execute();
+                plan.readRow(data, row);
 
+                setStmtData(row, plan.activeColumns, plan.columnTypes, activeStoreStmt);
+                activeStoreStmt.addBatch();
                 if (hasHistoryTable) {
-                    String[] historyFields = historyTableFields.get(historyTable);
-                    assert historyFields != null : "Missing Nearline database schema details in DataLoaderApi";
+                    setStmtData(row, plan.historyColumns, plan.columnTypes, historyStoreStmt);
+                    historyStoreStmt.addBatch();
+                }
 
-                    setStmtData(data, historyTable, historyFields, columnTypes, historyStoreStmt);
-                    historyStoreStmt.execute();
+                if (++rows % insertBatchSize == 0) {
+                    executeBatches(activeStoreStmt, historyStoreStmt);
                 }
             }
+            if (rows % insertBatchSize != 0) {
+                executeBatches(activeStoreStmt, historyStoreStmt);
+            }
+            log.info("Stored %d rows in Online tier table: %s", rows, tableName);
         } catch (SQLException ex) {
             log.exception(ex, "An error occurred while updating Online tier database");
             throw new DataStoreException("An error occurred while updating Online tier database", ex);
@@ -172,9 +304,39 @@ public class DataLoaderApiJdbc implements DataLoaderApi {
         }
     }
 
-    private PreparedStatement createNearlineTableLoadStmt(String tableName) throws DataStoreException {
+    private long storeRowsAsync(ResultSet data, ColumnPlan plan, Object[] row, String tableName, String[] fields,
+                                String historyTable, String[] historyFields) throws SQLException, DataStoreException {
+        String activeInsert = generateInsertStatementText(tableName, fields);
+        String historyInsert = historyTable != null ? generateInsertStatementText(historyTable, historyFields) : null;
+        AsyncInserter inserter = new AsyncInserter(onlineClient, insertWindow);
+        long rows = 0;
+        try {
+            while (data.next()) {
+                plan.readRow(data, row);
+                inserter.insert(activeInsert, row, plan.activeColumns);
+                if (historyInsert != null) {
+                    inserter.insert(historyInsert, row, plan.historyColumns);
+                }
+                rows++;
+            }
+        } finally {
+            inserter.finish();
+        }
+        return rows;
+    }
+
+    private void executeBatches(PreparedStatement activeStoreStmt, PreparedStatement historyStoreStmt)
+            throws SQLException {
+        activeStoreStmt.executeBatch();
+        if (historyStoreStmt != null) {
+            historyStoreStmt.executeBatch();
+        }
+    }
+
+    private PreparedStatement createNearlineTableLoadStmt(Connection nearlineConn, String tableName)
+            throws DataStoreException {
         try {
-            PreparedStatement stmt = nearlineTierConn.prepareCall(
+            PreparedStatement stmt = nearlineConn.prepareCall(
                     generateProcCallText(tableToProcedure.get(tableName)));
             return stmt;
         } catch (SQLException ex) {
@@ -183,13 +345,14 @@ public class DataLoaderApiJdbc implements DataLoaderApi {
         }
     }
 
-    private PreparedStatement createOnlineTierTableStoreStmt(String tableName) throws DataStoreException {
+    private PreparedStatement createOnlineTierTableStoreStmt(Connection onlineConn, String tableName)
+            throws DataStoreException {
         try {
             String[] fields = tableFields.get(tableName);
             // fields should never be null (if it is, it's a programmer error)
             assert fields != null : "Missing Nearline database schema details in DataLoaderApi";
 
-            PreparedStatement stmt = onlineTierConn.prepareStatement(
+            PreparedStatement stmt = onlineConn.prepareStatement(
                     generateInsertStatementText(tableName, fields));
             return stmt;
         } catch (SQLException ex) {
@@ -198,13 +361,14 @@ public class DataLoaderApiJdbc implements DataLoaderApi {
         }
     }
 
-    private PreparedStatement createOnlineTierHistoryTableStoreStmt(String historyTableName) throws DataStoreException {
+    private PreparedStatement createOnlineTierHistoryTableStoreStmt(Connection onlineConn, String historyTableName)
+            throws DataStoreException {
         try {
             String[] fields = historyTableFields.get(historyTableName);
             // fields should never be null (if it is, it's a programmer error)
             assert fields != null : "Missing Nearline database schema details in DataLoaderApi";
 
-            PreparedStatement stmt = onlineTierConn.prepareStatement(
+            PreparedStatement stmt = onlineConn.prepareStatement(
                     generateInsertStatementText(historyTableName, fields));
             return stmt;
         } catch (SQLException ex) {
@@ -213,46 +377,21 @@ public class DataLoaderApiJdbc implements DataLoaderApi {
         }
     }
 
-    private void setStmtData(ResultSet data, String tableName, String[] fields, Map<String, Integer> columnTypes,
-                             PreparedStatement stmt) throws SQLException {
-        for (int i = 0; i < fields.length; i++) {
-            Integer sqlType = columnTypes.get(fields[i].toUpperCase());
-            if (sqlType == null) {
-                log.error("An unexpected error has occurred: column not found in table %s: %s", tableName, fields[i]);
-                throw new RuntimeException(
-                        String.format("An unexpected error has occurred: column not found in table %s: %s",
-                                tableName, fields[i]));
-            }
-            if (sqlType == Types.BINARY || sqlType == Types.VARBINARY) {
-                // Special case for binary field types, as not every DBMS supports these in the same way.  For more
-                // compatibility, handle this as a byte array (explicit type instead of generic Object).
-                byte[] bytes = data.getBytes(fields[i]);
-                if (bytes == null) {
-                    stmt.setNull(i + 1, sqlType);
-                } else {
-                    stmt.setBytes(i + 1, bytes);
-                }
-            } else if (sqlType == Types.TIMESTAMP) {
-                Object value = data.getTimestamp(fields[i]);
-                if (value == null) {
-                    stmt.setNull(i + 1, sqlType);
-                }
-                else {
-                    Timestamp fromGmt = new Timestamp(((Timestamp) value).getTime() + TimeZone.getDefault().getOffset(((Timestamp) value).getTime()));
-                    stmt.setObject(i+1, fromGmt, sqlType);
-                }
+    private void setStmtData(Object[] row, int[] columns, int[] columnTypes, PreparedStatement stmt)
+            throws SQLException {
+        for (int i = 0; i < columns.length; i++) {
+            int sqlType = columnTypes[columns[i]];
+            Object value = row[columns[i]];
+            if (value == null) {
+                stmt.setNull(i + 1, sqlType);
+            } else if (value instanceof byte[]) {
+                stmt.setBytes(i + 1, (byte[]) value);
             } else {
-                Object value = data.getObject(fields[i]);
-                if (value == null) {
-                    stmt.setNull(i + 1, sqlType);
-                } else {
-                    stmt.setObject(i + 1, value, sqlType);
-                }
+                stmt.setObject(i + 1, value, sqlType);
             }
         }
     }
 
-
     private String generateProcCallText(String procedure) {
         String call = String.format("{call %s}", procedure);
         return call;
@@ -270,14 +409,6 @@ public class DataLoaderApiJdbc implements DataLoaderApi {
         return query;
     }
 
-    private Map<String, Integer> getColumnTypesFromMetaData(ResultSetMetaData metaData) throws SQLException {
-        Map<String, Integer> columnTypes = new HashMap<>();
-        for (int i = 1; i <= metaData.getColumnCount(); i++) {
-            columnTypes.put(metaData.getColumnName(i).toUpperCase(), metaData.getColumnType(i));
-        }
-        return columnTypes;
-    }
-
     private void closeResultSet(ResultSet rs) {
         try {
             if (rs != null) {
@@ -298,6 +429,147 @@ public class DataLoaderApiJdbc implements DataLoaderApi {
         }
     }
 
+    private void closeConn(Connection conn) {
+        try {
+            if (conn != null) {
+                conn.close();
+            }
+        } catch (SQLException ex) {
+            log.warn("An unexpected error occurred while closing a DB resources (connection): " + ex.getMessage());
+        }
+    }
+
+    /**
+     * Runs the parameterized Online tier inserts as asynchronous @AdHoc calls on a VoltDB client, which is the call the
+     * VoltDB JDBC driver makes synchronously for every row.  At most maxInFlight inserts wait for VoltDB at any time,
+     * insert() blocks until an earlier one completes.  finish() waits for all of the inserts and fails if any of them
+     * failed.
+     */
+    static final class AsyncInserter {
+        AsyncInserter(Client client, int maxInFlight) {
+            this.client = client;
+            this.maxInFlight = maxInFlight;
+            inFlight = new Semaphore(maxInFlight);
+        }
+
+        void insert(String sql, Object[] row, int[] columns) throws DataStoreException {
+            checkFailure();
+            Object[] params = new Object[columns.length + 1];
+            params[0] = sql;
+            for (int i = 0; i < columns.length; i++) {
+                params[i + 1] = row[columns[i]];
+            }
+            try {
+                inFlight.acquire();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new DataStoreException("Interrupted while storing data in the Online tier", ex);
+            }
+            try {
+                if (!client.callProcedure(this::completed, "@AdHoc", params)) {
+                    inFlight.release();
+                    throw new DataStoreException("Unable to queue an insert into the Online tier: " + sql);
+                }
+            } catch (IOException ex) {
+                inFlight.release();
+                throw new DataStoreException("Unable to queue an insert into the Online tier: " + sql, ex);
+            }
+        }
+
+        void finish() throws DataStoreException {
+            try {
+                inFlight.acquire(maxInFlight);
+                inFlight.release(maxInFlight);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new DataStoreException("Interrupted while storing data in the Online tier", ex);
+            }
+            checkFailure();
+        }
+
+        private void completed(ClientResponse response) {
+            if (response.getStatus() != ClientResponse.SUCCESS) {
+                failed.incrementAndGet();
+                firstFailure.compareAndSet(null, response.getStatusString());
+            }
+            inFlight.release();
+        }
+
+        private void checkFailure() throws DataStoreException {
+            String failure = firstFailure.get();
+            if (failure != null) {
+                throw new DataStoreException(String.format("An error occurred while updating Online tier database " +
+                        "(%d failed inserts): %s", failed.get(), failure));
+            }
+        }
+
+        private final Client client;
+        private final int maxInFlight;
+        private final Semaphore inFlight;
+        private final AtomicLong failed = new AtomicLong(0L);
+        private final AtomicReference<String> firstFailure = new AtomicReference<>();
+    }
+
+    /**
+     * Maps the columns of a Nearline tier result set to the parameters of the Online tier insert statements of a table
+     * (and its history table), so the column names and types are only looked up once per table instead of once per
+     * value.  Every column is read once per row, even when it is stored in both tables.
+     */
+    private static final class ColumnPlan {
+        ColumnPlan(ResultSetMetaData metaData, String tableName, String[] fields, String historyTable,
+                   String[] historyFields) throws SQLException, DataStoreException {
+            Map<String, Integer> columnIndexes = new HashMap<>();
+            columnTypes = new int[metaData.getColumnCount() + 1];
+            for (int i = 1; i <= metaData.getColumnCount(); i++) {
+                columnIndexes.put(metaData.getColumnName(i).toUpperCase(), i);
+                columnTypes[i] = metaData.getColumnType(i);
+            }
+            usedColumns = new boolean[columnTypes.length];
+            activeColumns = mapColumns(columnIndexes, tableName, fields);
+            historyColumns = historyFields != null ? mapColumns(columnIndexes, historyTable, historyFields) : null;
+        }
+
+        void readRow(ResultSet data, Object[] row) throws SQLException {
+            for (int i = 1; i < row.length; i++) {
+                if (!usedColumns[i]) {
+                    continue;
+                }
+                int sqlType = columnTypes[i];
+                if (sqlType == Types.BINARY || sqlType == Types.VARBINARY) {
+                    // Special case for binary field types, as not every DBMS supports these in the same way.  For more
+                    // compatibility, handle this as a byte array (explicit type instead of generic Object).
+                    row[i] = data.getBytes(i);
+                } else if (sqlType == Types.TIMESTAMP) {
+                    Timestamp value = data.getTimestamp(i);
+                    row[i] = value == null ? null :
+                            new Timestamp(value.getTime() + TimeZone.getDefault().getOffset(value.getTime()));
+                } else {
+                    row[i] = data.getObject(i);
+                }
+            }
+        }
+
+        private int[] mapColumns(Map<String, Integer> columnIndexes, String tableName, String[] fields)
+                throws DataStoreException {
+            int[] columns = new int[fields.length];
+            for (int i = 0; i < fields.length; i++) {
+                Integer column = columnIndexes.get(fields[i].toUpperCase());
+                if (column == null) {
+                    throw new DataStoreException(String.format(
+                            "An unexpected error has occurred: column not found in table %s: %s", tableName, fields[i]));
+                }
+                columns[i] = column;
+                usedColumns[column] = true;
+            }
+            return columns;
+        }
+
+        final int[] columnTypes;      // SQL type of each result set column (1-based)
+        final int[] activeColumns;    // Result set column of each active table insert parameter
+        final int[] historyColumns;   // Result set column of each history table insert parameter (or null)
+        private final boolean[] usedColumns;
+    }
+
     private static final String[] TABLES = { "BootImage", "Chassis", "ComputeNode",
             "Machine", "Rack", "ServiceNode", "ServiceOperation", "Switch", "WorkItem", "Diag_Tools", "MachineAdapterInstance", "RasMetaData", "CacheIpAddrToLctn", "CacheMacAddrToLctn",
             "UcsConfigValue", "UniqueValues", "RawHWInventory_History"};
@@ -312,6 +584,13 @@ public class DataLoaderApiJdbc implements DataLoaderApi {
     Map<String, String> tableToProcedure = TABLE_TO_PROCEDURE;
     Map<String, String[]> tableFields = TABLE_FIELDS;
     Map<String, String[]> historyTableFields = HISTORY_TABLE_FIELDS;
+    int fetchSize = FETCH_SIZE;
+    int insertBatchSize = INSERT_BATCH_SIZE;
+    int insertWindow = INSERT_WINDOW;
+
+    private static final int FETCH_SIZE = 5000;
+    private static final int INSERT_BATCH_SIZE = 500;
+    private static final int INSERT_WINDOW = 2000; // Asynchronous inserts waiting for VoltDB per loader
 
     private static final String VALUE_COL = "value";
     private static final String GET_TIER2_VALID_CONFIG_VALUE_SQL =
@@ -469,6 +748,10 @@ public class DataLoaderApiJdbc implements DataLoaderApi {
 
     private Connection onlineTierConn;
     private Connection nearlineTierConn;
+    private final DbConnectionPool.ConnectionSource onlineConnSource;
+    private final DbConnectionPool.ConnectionSource nearlineConnSource;
+    private final int maxParallelTables;
+    private final Client onlineClient;
     private Logger log;
 
     private PreparedStatement tier2ValidGetStmt = null;
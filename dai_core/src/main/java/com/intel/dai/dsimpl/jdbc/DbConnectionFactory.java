@@ -37,6 +37,16 @@ public class DbConnectionFactory {
         }
     }
 
+    /**
+     * Check out a connection to the Nearline tier database from the shared connection pool, closing the connection
+     * returns it to the pool. The pool is created with the first checkout, its limits can be set with the optional
+     * "pool-size", "pool-checkout-timeout-ms", "pool-validation-interval-ms" and "query-timeout-seconds" parameters of
+     * the DB configuration.
+     */
+    public static Connection getPooledDefaultConnection() throws DataStoreException {
+        return getDefaultPool().getConnection();
+    }
+
     public static Connection createConnectionFromConfig(DbConfig config) throws DataStoreException {
         Connection connObj = createConnFromConfig(config);
         return connObj;
@@ -48,6 +58,33 @@ public class DbConnectionFactory {
         return connObj;
     }
 
+    private static synchronized DbConnectionPool getDefaultPool() throws DataStoreException {
+        if (defaultPool == null) {
+            DbConfig config = new DbConfig();
+            try {
+                config.loadFromFile(DEFAULT_CONFIG_FILE);
+            } catch (IOException | ConfigIOParseException ex) {
+                throw new DataStoreException("Unable to load DB configuration parameters from file: " +
+                        DEFAULT_CONFIG_FILE, ex);
+            }
+            defaultPool = createPoolFromConfig(config);
+        }
+        return defaultPool;
+    }
+
+    static DbConnectionPool createPoolFromConfig(DbConfig config) throws DataStoreException {
+        Map<String, String> dbParams = config.getDbConfig();
+        try {
+            return new DbConnectionPool(() -> createConnFromConfig(config),
+                    Integer.parseInt(dbParams.getOrDefault("pool-size", DEFAULT_POOL_SIZE)),
+                    Long.parseLong(dbParams.getOrDefault("pool-checkout-timeout-ms", DEFAULT_POOL_CHECKOUT_TIMEOUT_MS)),
+                    Long.parseLong(dbParams.getOrDefault("pool-validation-interval-ms", DEFAULT_POOL_VALIDATION_INTERVAL_MS)),
+                    Integer.parseInt(dbParams.getOrDefault("query-timeout-seconds", DEFAULT_QUERY_TIMEOUT_SECONDS)));
+        } catch (IllegalArgumentException ex) {
+            throw new DataStoreException("Invalid DB connection pool configuration", ex);
+        }
+    }
+
     private static Connection createConnFromConfig(DbConfig config) throws DataStoreException {
         Map<String, String> dbParams = config.getDbConfig();
         String url = dbParams.get("url");
@@ -124,6 +161,11 @@ public class DbConnectionFactory {
     }
 
     private static final String DEFAULT_CONFIG_FILE = "NearlineConfig.json";
+    private static final String DEFAULT_POOL_SIZE = "8";
+    private static final String DEFAULT_POOL_CHECKOUT_TIMEOUT_MS = "30000";
+    private static final String DEFAULT_POOL_VALIDATION_INTERVAL_MS = "30000";
+    private static final String DEFAULT_QUERY_TIMEOUT_SECONDS = "300";
+    private static DbConnectionPool defaultPool = null;
     private static ConnectionCreator connCreator = new ConnectionCreator() {
         @Override
         public Connection createConnection(String url, String username, String password) throws SQLException {
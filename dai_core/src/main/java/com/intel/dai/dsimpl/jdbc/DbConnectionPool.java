@@ -0,0 +1,223 @@
+// Copyright (C) 2021 Intel Corporation
+//
+// SPDX-License-Identifier: Apache-2.0
+//
+package com.intel.dai.dsimpl.jdbc;
+
+import com.intel.dai.exceptions.DataStoreException;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded pool of database connections.
+ *
+ * getConnection() checks out a connection; closing it returns the connection to the pool (any open transaction is
+ * rolled back first) instead of closing it, so the connection, and the server side prepared statements the JDBC
+ * driver keeps for it, can be used by the next request. At most maxConnections connections are checked out at a time,
+ * a checkout waits up to the checkout timeout for one to be returned. Idle connections that were not used for the
+ * validation interval are validated before they are handed out again. Every statement created on a pooled connection
+ * gets the pool's query timeout.
+ */
+public final class DbConnectionPool implements AutoCloseable {
+    public interface ConnectionSource {
+        Connection createConnection() throws DataStoreException;
+    }
+
+    /**
+     * Create the pool, connections are only created when they are needed.
+     *
+     * @param source Creates the physical connections.
+     * @param maxConnections The maximum number of connections.
+     * @param checkoutTimeoutMs How long a checkout waits for a connection.
+     * @param validationIntervalMs Idle connections not used for this long are validated before they are handed out.
+     * @param queryTimeoutSeconds The query timeout of the statements, 0 for no timeout.
+     */
+    public DbConnectionPool(ConnectionSource source, int maxConnections, long checkoutTimeoutMs,
+                            long validationIntervalMs, int queryTimeoutSeconds) {
+        if (source == null) throw new IllegalArgumentException("The connection source can not be null!");
+        if (maxConnections <= 0) throw new IllegalArgumentException("The maximum number of connections must be greater than 0!");
+        if (checkoutTimeoutMs < 0L) throw new IllegalArgumentException("The checkout timeout can not be negative!");
+        if (queryTimeoutSeconds < 0) throw new IllegalArgumentException("The query timeout can not be negative!");
+        source_ = source;
+        maxConnections_ = maxConnections;
+        permits_ = new Semaphore(maxConnections, true);
+        checkoutTimeoutMs_ = checkoutTimeoutMs;
+        validationIntervalMs_ = validationIntervalMs;
+        queryTimeoutSeconds_ = queryTimeoutSeconds;
+    }
+
+    /**
+     * Check out a connection, close it to return it to the pool.
+     *
+     * @return The connection.
+     * @throws DataStoreException If no connection became available within the checkout timeout or a new connection
+     * could not be created.
+     */
+    public Connection getConnection() throws DataStoreException {
+        try {
+            if (!permits_.tryAcquire(checkoutTimeoutMs_, TimeUnit.MILLISECONDS))
+                throw new DataStoreException("Timed out waiting for a pooled database connection");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DataStoreException("Interrupted while waiting for a pooled database connection", e);
+        }
+        try {
+            Connection connection = takeIdle();
+            if (connection == null)
+                connection = source_.createConnection();
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[] { Connection.class }, new PooledConnection(connection));
+        } catch (DataStoreException | RuntimeException e) {
+            permits_.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Close the idle connections, connections still checked out are closed when they are returned.
+     */
+    @Override
+    public void close() {
+        ArrayDeque<IdleConnection> idle;
+        synchronized (this) {
+            closed_ = true;
+            idle = new ArrayDeque<>(idle_);
+            idle_.clear();
+        }
+        for (IdleConnection connection: idle)
+            closeQuietly(connection.connection);
+    }
+
+    synchronized int numIdle() { return idle_.size(); }
+
+    int numCheckedOut() { return maxConnections_ - permits_.availablePermits(); }
+
+    // Most recently used first, so the connections that are not needed anymore become idle long enough to be dropped
+    // by the database or validated.
+    private Connection takeIdle() {
+        while (true) {
+            IdleConnection idle;
+            synchronized (this) {
+                idle = idle_.pollFirst();
+            }
+            if (idle == null)
+                return null;
+            if (System.currentTimeMillis() - idle.lastUsedMs < validationIntervalMs_ || isValid(idle.connection))
+                return idle.connection;
+            closeQuietly(idle.connection);
+        }
+    }
+
+    private void giveBack(Connection connection, boolean reusable) {
+        boolean keep = false;
+        synchronized (this) {
+            if (reusable && !closed_) {
+                idle_.addFirst(new IdleConnection(connection, System.currentTimeMillis()));
+                keep = true;
+            }
+        }
+        if (!keep)
+            closeQuietly(connection);
+        permits_.release();
+    }
+
+    private static boolean isValid(Connection connection) {
+        try {
+            return connection.isValid(VALIDATION_TIMEOUT_SECONDS);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private static void closeQuietly(Connection connection) {
+        try {
+            connection.close();
+        } catch (SQLException e) { /* The connection is being dropped anyway. */ }
+    }
+
+
+    // Hands out the physical connection until it is closed, then returns it to the pool.
+    private final class PooledConnection implements InvocationHandler {
+        PooledConnection(Connection connection) {
+            connection_ = connection;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    returnConnection();
+                    return null;
+                case "isClosed":
+                    return returned_ || connection_.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Pooled " + connection_;
+                default:
+                    break;
+            }
+            if (returned_)
+                throw new SQLException("The connection was returned to the pool");
+            Object result;
+            try {
+                result = method.invoke(connection_, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            if (queryTimeoutSeconds_ > 0 && result instanceof Statement)
+                ((Statement) result).setQueryTimeout(queryTimeoutSeconds_);
+            return result;
+        }
+
+        private synchronized void returnConnection() {
+            if (returned_)
+                return;
+            returned_ = true;
+            boolean reusable;
+            try {
+                if (!connection_.isClosed() && !connection_.getAutoCommit())
+                    connection_.rollback();  // end the request's (read) transaction.
+                reusable = !connection_.isClosed();
+            } catch (SQLException e) {
+                reusable = false;
+            }
+            giveBack(connection_, reusable);
+        }
+
+        private final Connection connection_;
+        private volatile boolean returned_ = false;
+    }   // End class PooledConnection
+
+    private static final class IdleConnection {
+        IdleConnection(Connection connection, long lastUsedMs) {
+            this.connection = connection;
+            this.lastUsedMs = lastUsedMs;
+        }
+
+        final Connection connection;
+        final long lastUsedMs;
+    }   // End class IdleConnection
+
+    private static final int VALIDATION_TIMEOUT_SECONDS = 5;
+
+    private final ConnectionSource source_;
+    private final int maxConnections_;
+    private final Semaphore permits_;
+    private final long checkoutTimeoutMs_;
+    private final long validationIntervalMs_;
+    private final int queryTimeoutSeconds_;
+    private final ArrayDeque<IdleConnection> idle_ = new ArrayDeque<>();
+    private boolean closed_ = false;
+}
@@ -7,22 +7,52 @@ package com.intel.dai.dsimpl.jdbc;
 import com.intel.dai.dsapi.StoreTelemetry;
 import com.intel.dai.exceptions.DataStoreException;
 import com.intel.logging.Logger;
+import com.intel.perflogging.Counter;
+import com.intel.perflogging.LatencyHistogram;
+import com.intel.perflogging.MetricsRegistry;
 
-import java.io.Closeable;
 import java.io.IOException;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
-import java.sql.Timestamp;
-import java.util.Calendar;
-import java.util.TimeZone;
+import java.util.Arrays;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 /**
- * Description of class JdbcStoreTelemetry.
+ * Stores aggregated telemetry in the tier 2 DB. Rows are buffered and written in batches, a batch is written when
+ * it is full (by the calling thread) or when the oldest buffered row is older than the flush interval (by a
+ * background thread). Each batch is one round-trip that calls the stored procedure for every row in the batch.
+ *
+ * A failed write drops its batch. When the calling thread writes the batch the failure is thrown to it, when the
+ * background thread writes it the failure is thrown from the next logEnvDataAggregated() call instead. The flush
+ * counts and latencies of all instances are exported through the default MetricsRegistry.
  */
 public class JdbcStoreTelemetry implements StoreTelemetry {
     public JdbcStoreTelemetry(Logger log) {
+        this(log, DEFAULT_BATCH_SIZE, DEFAULT_FLUSH_INTERVAL_MS);
+    }
+
+    /**
+     * @param log The logger.
+     * @param batchSize The maximum number of buffered rows; a full buffer is written before the next row is added.
+     * @param flushIntervalMs The maximum time a row is buffered before it is written.
+     */
+    public JdbcStoreTelemetry(Logger log, int batchSize, long flushIntervalMs) {
+        if(batchSize <= 0) throw new IllegalArgumentException("The batch size must be greater than 0!");
+        if(flushIntervalMs <= 0L) throw new IllegalArgumentException("The flush interval must be greater than 0!");
         log_ = log;
+        batchSize_ = batchSize;
+        flushIntervalMs_ = flushIntervalMs;
+        locations_ = new String[batchSize];
+        timestamps_ = new Long[batchSize];
+        types_ = new String[batchSize];
+        maxValues_ = new Double[batchSize];
+        minValues_ = new Double[batchSize];
+        avgValues_ = new Double[batchSize];
+        adapterTypes_ = new String[batchSize];
+        workItemIds_ = new Long[batchSize];
     }
 
     @Override
@@ -30,20 +60,51 @@ public class JdbcStoreTelemetry implements StoreTelemetry {
                                                   double dMaxValue, double dMinValue, double dAvgValue,
                                                   String sReqAdapterType, long lReqWorkItemId)
             throws DataStoreException {
+        log_.debug("\n\n*** UNIQUE TUPLE: TYPE='%s'; LOCATION='%s'; TS='%d'\n", sTypeOfData, sLctn, lTsInMicroSecs);
+        if(closed_) throw new DataStoreException("The aggregated telemetry store was already closed");
+        DataStoreException timedFlushFailure = timedFlushFailure_;
+        timedFlushFailure_ = null;
+        if(pending_ == 0) {
+            firstPendingNs_ = System.nanoTime();
+            startFlushTimer();
+        }
+        locations_[pending_] = sLctn;
+        timestamps_[pending_] = lTsInMicroSecs;
+        types_[pending_] = sTypeOfData;
+        maxValues_[pending_] = dMaxValue;
+        minValues_[pending_] = dMinValue;
+        avgValues_[pending_] = dAvgValue;
+        adapterTypes_[pending_] = sReqAdapterType;
+        workItemIds_[pending_] = lReqWorkItemId;
+        pending_++;
+        if(pending_ == batchSize_)
+            flush();
+        if(timedFlushFailure != null)
+            throw timedFlushFailure;
+        return 0L;
+    }
+
+    /**
+     * Write all buffered rows in one transaction. The rows are discarded if the write fails.
+     *
+     * @throws DataStoreException When the rows could not be stored.
+     */
+    public synchronized void flush() throws DataStoreException {
+        if(pending_ == 0) return;
+        int count = pending_;
+        pending_ = 0;
+        long start = System.nanoTime();
         createConnection();
         createlogEnvDataAggregatedPreparedCall();
-        log_.debug("\n\n*** UNIQUE TUPLE: TYPE='%s'; LOCATION='%s'; TS='%d'\n", sTypeOfData, sLctn, lTsInMicroSecs);
         try {
-            telemetryAggregatedData_.setString(1, sLctn);
-            Timestamp jts = new Timestamp(lTsInMicroSecs / 1_000_000L * 1_000L); // Set in truncated Milliseconds
-            jts.setNanos(((int)(lTsInMicroSecs % 1_000_000L)) * 1_000); // Set remaining microseconds as nano seconds.
-            telemetryAggregatedData_.setTimestamp(2, jts, gmt_);
-            telemetryAggregatedData_.setString(3, sTypeOfData);
-            telemetryAggregatedData_.setDouble(4, dMaxValue);
-            telemetryAggregatedData_.setDouble(5, dMinValue);
-            telemetryAggregatedData_.setDouble(6, dAvgValue);
-            telemetryAggregatedData_.setString(7, sReqAdapterType);
-            telemetryAggregatedData_.setLong(8, lReqWorkItemId);
+            telemetryAggregatedData_.setArray(1, connection_.createArrayOf("varchar", slice(locations_, count)));
+            telemetryAggregatedData_.setArray(2, connection_.createArrayOf("int8", slice(timestamps_, count)));
+            telemetryAggregatedData_.setArray(3, connection_.createArrayOf("varchar", slice(types_, count)));
+            telemetryAggregatedData_.setArray(4, connection_.createArrayOf("float8", slice(maxValues_, count)));
+            telemetryAggregatedData_.setArray(5, connection_.createArrayOf("float8", slice(minValues_, count)));
+            telemetryAggregatedData_.setArray(6, connection_.createArrayOf("float8", slice(avgValues_, count)));
+            telemetryAggregatedData_.setArray(7, connection_.createArrayOf("varchar", slice(adapterTypes_, count)));
+            telemetryAggregatedData_.setArray(8, connection_.createArrayOf("int8", slice(workItemIds_, count)));
             telemetryAggregatedData_.execute();
             connection_.commit();
         } catch(SQLException ex) {
@@ -52,23 +113,38 @@ public class JdbcStoreTelemetry implements StoreTelemetry {
             } catch(SQLException e) {
                 log_.exception(e, "Rollback failed after telemetry store failed");
             }
-            log_.exception(ex, "An error occurred while executing stored procedure: %s",
-                    storeTelementryProcedureName_);
+            failedRows_ += count;
+            FAILED_ROWS.add(count);
+            log_.exception(ex, "An error occurred while executing stored procedure %s for %d rows",
+                    storeTelementryProcedureName_, count);
             throw new DataStoreException("Failed to store the aggregated telemetry", ex);
+        } finally {
+            Arrays.fill(locations_, 0, count, null);
+            Arrays.fill(types_, 0, count, null);
+            Arrays.fill(adapterTypes_, 0, count, null);
         }
+        long micros = (System.nanoTime() - start) / 1_000L;
+        FLUSH_LATENCY.recordSince(start);
+        FLUSHED_ROWS.add(count);
+        flushCount_++;
+        flushedRows_ += count;
+        totalFlushMicros_ += micros;
+        maxFlushMicros_ = Math.max(maxFlushMicros_, micros);
+        log_.debug("called stored procedure %s for %d rows in %d us", storeTelementryProcedureName_, count, micros);
+    }
 
-        String sPertinentInfo = "Lctn=" + sLctn + ",TypeOfData=" + sTypeOfData + ",lTsInMicroSecs=" + lTsInMicroSecs;
-        log_.info("called stored procedure %s - Lctn=%s, TypeOfData=%s, PertinentInfo='%s'",
-                storeTelementryProcedureName_, sLctn, sTypeOfData, sPertinentInfo);
-
-        return 0L;
+    public synchronized long getFlushCount() { return flushCount_; }
+    public synchronized long getFlushedRows() { return flushedRows_; }
+    public synchronized long getFailedRows() { return failedRows_; }
+    public synchronized long getMaxFlushMicroseconds() { return maxFlushMicros_; }
+    public synchronized long getAverageFlushMicroseconds() {
+        return (flushCount_ == 0L) ? 0L : totalFlushMicros_ / flushCount_;
     }
 
     protected void createlogEnvDataAggregatedPreparedCall() throws DataStoreException {
         try {
             if (telemetryAggregatedData_ == null)
-                telemetryAggregatedData_ = connection_.prepareCall("{call " + storeTelementryProcedureName_ +
-                        "(?,?,?,?,?,?,?,?)}");
+                telemetryAggregatedData_ = connection_.prepareStatement(BATCH_SQL);
         } catch(SQLException e) {
             throw new DataStoreException("Failed to create the data store statement for telemetry", e);
         }
@@ -80,18 +156,89 @@ public class JdbcStoreTelemetry implements StoreTelemetry {
     }
 
     @Override
-    public void close() throws IOException {
+    public synchronized void close() throws IOException {
+        closed_ = true;
+        if(timedFlushFailure_ != null)
+            log_.exception(timedFlushFailure_, "Failed to store aggregated telemetry before close");
         try {
-            telemetryAggregatedData_.close();
-            connection_.close();
+            flush();
+        } catch(DataStoreException e) {
+            log_.exception(e, "Failed to store the buffered aggregated telemetry on close");
+        }
+        if(timer_ != null)
+            timer_.shutdownNow();
+        try {
+            if(telemetryAggregatedData_ != null) telemetryAggregatedData_.close();
+            if(connection_ != null) connection_.close();
         } catch(SQLException e) {
             log_.exception(e, "Failed to properly close the tier 2 DB connection");
         }
     }
 
+    // Must be called holding the object lock.
+    private void startFlushTimer() {
+        if(timer_ != null) return;
+        timer_ = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "telemetry-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long periodMs = Math.max(1L, flushIntervalMs_ / 4L);
+        timer_.scheduleWithFixedDelay(this::flushIfDue, periodMs, periodMs, TimeUnit.MILLISECONDS);
+    }
+
+    private synchronized void flushIfDue() {
+        if(pending_ == 0 || (System.nanoTime() - firstPendingNs_) < flushIntervalMs_ * 1_000_000L) return;
+        int count = pending_;
+        try {
+            flush();
+        } catch(DataStoreException e) {
+            // Reported to the next caller, like a failed flush of a full batch.
+            timedFlushFailure_ = new DataStoreException(String.format("Dropped %d rows of aggregated telemetry " +
+                    "after a timed flush failed", count), e);
+        }
+    }
+
+    private static Object[] slice(Object[] array, int count) {
+        return (count == array.length) ? array : Arrays.copyOf(array, count);
+    }
+
     private static final String storeTelementryProcedureName_ = "AggregatedEnvDataStore";
-    private static final Calendar gmt_ = Calendar.getInstance(TimeZone.getTimeZone("GMT"));
+    // Timestamps are passed as microseconds since the epoch so no time zone conversion happens in the driver.
+    private static final String BATCH_SQL = "SELECT " + storeTelementryProcedureName_ +
+            "(l, timestamptz 'epoch' + ts * interval '1 microsecond', t, mx, mn, av, at, w) FROM " +
+            "unnest(?::varchar[], ?::int8[], ?::varchar[], ?::float8[], ?::float8[], ?::float8[], ?::varchar[], " +
+            "?::int8[]) AS r(l, ts, t, mx, mn, av, at, w)";
+    private static final LatencyHistogram FLUSH_LATENCY = MetricsRegistry.getDefault().histogram(
+            "dai_telemetry_store_flush_seconds", "Time taken to write a batch of aggregated telemetry to Tier2");
+    private static final Counter FLUSHED_ROWS = MetricsRegistry.getDefault().counter(
+            "dai_telemetry_store_rows_total", "Aggregated telemetry rows written to Tier2");
+    private static final Counter FAILED_ROWS = MetricsRegistry.getDefault().counter(
+            "dai_telemetry_store_failed_rows_total", "Aggregated telemetry rows dropped because their batch failed");
+    private static final int DEFAULT_BATCH_SIZE = 500;
+    private static final long DEFAULT_FLUSH_INTERVAL_MS = 1_000L;
+
     protected Connection connection_ = null;
     protected PreparedStatement telemetryAggregatedData_ = null;
     private Logger log_;
+    private final int batchSize_;
+    private final long flushIntervalMs_;
+    private final String[] locations_;
+    private final Long[] timestamps_;
+    private final String[] types_;
+    private final Double[] maxValues_;
+    private final Double[] minValues_;
+    private final Double[] avgValues_;
+    private final String[] adapterTypes_;
+    private final Long[] workItemIds_;
+    private int pending_ = 0;
+    private long firstPendingNs_ = 0L;
+    private boolean closed_ = false;
+    private ScheduledExecutorService timer_ = null;
+    private DataStoreException timedFlushFailure_ = null;
+    private long flushCount_ = 0L;
+    private long flushedRows_ = 0L;
+    private long failedRows_ = 0L;
+    private long totalFlushMicros_ = 0L;
+    private long maxFlushMicros_ = 0L;
 }
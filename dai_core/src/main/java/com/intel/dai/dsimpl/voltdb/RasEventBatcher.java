@@ -0,0 +1,290 @@
+// Copyright (C) 2021 Intel Corporation
+//
+// SPDX-License-Identifier: Apache-2.0
+//
+package com.intel.dai.dsimpl.voltdb;
+
+import com.intel.logging.Logger;
+import org.voltdb.client.Client;
+import org.voltdb.client.ClientResponse;
+
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Buffers asynchronously logged RAS events and stores them with the RasEventStoreBatch stored procedure.
+ *
+ * Identical events (same DescriptiveName, InstanceData, Lctn, JobId and requester) logged while they are buffered are
+ * folded into one RasEvent row whose NumberRepeats is the number of additional occurrences, and the remaining events
+ * are sent with one stored procedure call per DescriptiveName (the RasEvent partition key). The buffer is flushed every
+ * flush interval and as soon as it holds the maximum number of distinct events; when it is full the caller is told to
+ * store the event itself. Events that could not be sent because the connection was down are kept for the next flush
+ * (as long as there is room for them) instead of blocking the caller. When the stored procedure fails the failure
+ * handler is told about it, so that it can log a RAS event the same way a failed RasEventStore call does.
+ */
+public final class RasEventBatcher {
+    public static final String StoredProcedure = "RasEventStoreBatch";
+    static final int MAX_EVENTS_PER_CALL = 1000;
+
+    /**
+     * Called (on the client's callback thread) when a RasEventStoreBatch call failed.
+     */
+    @FunctionalInterface
+    public interface FailureHandler {
+        /**
+         * @param sDescriptiveName The DescriptiveName of the events that were not stored.
+         * @param iNumEvents The number of distinct events that were not stored.
+         * @param sStatusString The status string of the failed call.
+         * @param sReqAdapterType The requester of the first event that was not stored.
+         * @param lReqWorkItemId The requester's work item of the first event that was not stored.
+         */
+        void storeFailed(String sDescriptiveName, int iNumEvents, String sStatusString, String sReqAdapterType,
+                         long lReqWorkItemId);
+    }
+
+    /**
+     * Create the batcher and start its flush timer.
+     *
+     * @param log The logger.
+     * @param client Supplies the client the batches are sent with.
+     * @param iMaxBufferedEvents The maximum number of distinct events in the buffer.
+     * @param lFlushIntervalMs The maximum time an event stays in the buffer.
+     * @param onFailure Told about the failed stored procedure calls, it must not store the events with this batcher.
+     */
+    public RasEventBatcher(Logger log, Supplier<Client> client, int iMaxBufferedEvents, long lFlushIntervalMs,
+                           FailureHandler onFailure) {
+        assert log != null:"Passed a null Logger to RasEventBatcher.ctor()!";
+        assert client != null:"Passed a null client supplier to RasEventBatcher.ctor()!";
+        assert onFailure != null:"Passed a null FailureHandler to RasEventBatcher.ctor()!";
+        if (iMaxBufferedEvents <= 0) throw new IllegalArgumentException("The maximum number of buffered events must be greater than 0!");
+        if (lFlushIntervalMs <= 0L) throw new IllegalArgumentException("The flush interval must be greater than 0!");
+        log_ = log;
+        client_ = client;
+        onFailure_ = onFailure;
+        maxBufferedEvents_ = iMaxBufferedEvents;
+        executor_ = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "RasEventBatcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor_.scheduleWithFixedDelay(this::flush, lFlushIntervalMs, lFlushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Buffer a RAS event (parameters are the same as the RasEventStore stored procedure's).
+     *
+     * @return False if the buffer is full, the caller has to store the event itself.
+     */
+    public boolean offer(String sDescriptiveName, String sInstanceData, String sLctn, String sJobId,
+                         long lTsInMicroSecs, String sReqAdapterType, long lReqWorkItemId) {
+        Event event = new Event(sDescriptiveName, sInstanceData, sLctn, sJobId, lTsInMicroSecs, sReqAdapterType,
+                lReqWorkItemId);
+        synchronized (this) {
+            if (closed_)
+                return false;
+            Event buffered = buffer_.get(event);
+            if (buffered != null) {
+                ++buffered.lNumRepeats;
+                ++numFolded_;
+                return true;
+            }
+            if (buffer_.size() >= maxBufferedEvents_) {
+                requestFlush();
+                return false;
+            }
+            buffer_.put(event, event);
+            if (buffer_.size() >= maxBufferedEvents_)
+                requestFlush();
+        }
+        return true;
+    }
+
+    /**
+     * Send all of the buffered events now.
+     */
+    public void flush() {
+        List<Event> events;
+        synchronized (this) {
+            flushRequested_ = false;
+            if (buffer_.isEmpty())
+                return;
+            events = new ArrayList<>(buffer_.values());
+            buffer_.clear();
+        }
+        synchronized (flushLock_) {
+            send(events);
+        }
+    }
+
+    /**
+     * Stop the flush timer and send the buffered events, later events are no longer buffered.
+     */
+    public void close() {
+        synchronized (this) {
+            closed_ = true;
+        }
+        executor_.shutdownNow();
+        flush();
+    }
+
+    // Number of events folded into an earlier buffered event.
+    synchronized long numFolded() { return numFolded_; }
+
+    // Number of stored procedure calls made.
+    synchronized long numCalls() { return numCalls_; }
+
+    synchronized int numBuffered() { return buffer_.size(); }
+
+    // Must be called holding the object lock.
+    private void requestFlush() {
+        if (flushRequested_)
+            return;
+        flushRequested_ = true;
+        try {
+            executor_.execute(this::flush);
+        } catch (RejectedExecutionException e) {
+            flushRequested_ = false;  // closed.
+        }
+    }
+
+    private void send(List<Event> events) {
+        Map<String, List<Event>> byDescriptiveName = new LinkedHashMap<>();
+        for (Event event: events)
+            byDescriptiveName.computeIfAbsent(event.sDescriptiveName, k -> new ArrayList<>()).add(event);
+        List<Event> unsent = new ArrayList<>();
+        for (Map.Entry<String, List<Event>> entry: byDescriptiveName.entrySet()) {
+            List<Event> descrEvents = entry.getValue();
+            for (int iStart = 0; iStart < descrEvents.size(); iStart += MAX_EVENTS_PER_CALL) {
+                List<Event> batch = descrEvents.subList(iStart, Math.min(descrEvents.size(), iStart + MAX_EVENTS_PER_CALL));
+                if (!unsent.isEmpty() || !callProcedure(entry.getKey(), batch))
+                    unsent.addAll(batch);  // don't keep trying once the connection is down.
+            }
+        }
+        if (!unsent.isEmpty())
+            requeue(unsent);
+    }
+
+    private boolean callProcedure(String sDescriptiveName, List<Event> batch) {
+        int iNumEvents = batch.size();
+        String[] aInstanceData = new String[iNumEvents];
+        String[] aLctn = new String[iNumEvents];
+        String[] aJobId = new String[iNumEvents];
+        long[] aTsInMicroSecs = new long[iNumEvents];
+        long[] aNumberRepeats = new long[iNumEvents];
+        String[] aReqAdapterType = new String[iNumEvents];
+        long[] aReqWorkItemId = new long[iNumEvents];
+        String sFirstReqAdapterType = batch.get(0).sReqAdapterType;
+        long lFirstReqWorkItemId = batch.get(0).lReqWorkItemId;
+        for (int i = 0; i < iNumEvents; i++) {
+            Event event = batch.get(i);
+            aInstanceData[i] = event.sInstanceData;
+            aLctn[i] = event.sLctn;
+            aJobId[i] = event.sJobId;
+            aTsInMicroSecs[i] = event.lTsInMicroSecs;
+            aNumberRepeats[i] = event.lNumRepeats;
+            aReqAdapterType[i] = event.sReqAdapterType;
+            aReqWorkItemId[i] = event.lReqWorkItemId;
+        }
+        try {
+            client_.get().callProcedure(response -> {
+                        if (response.getStatus() != ClientResponse.SUCCESS) {
+                            log_.error("RasEventBatcher - %s callback FAILED - Status=%s, StatusString='%s', DescriptiveName=%s, NumEvents=%d!!!",
+                                    StoredProcedure, VoltDbClient.statusByteAsString(response.getStatus()),
+                                    response.getStatusString(), sDescriptiveName, iNumEvents);
+                            onFailure_.storeFailed(sDescriptiveName, iNumEvents, response.getStatusString(),
+                                    sFirstReqAdapterType, lFirstReqWorkItemId);
+                        }
+                    }
+                    ,StoredProcedure, sDescriptiveName, aInstanceData, aLctn, aJobId, aTsInMicroSecs, aNumberRepeats
+                    ,aReqAdapterType, aReqWorkItemId);
+        } catch (Exception e) {
+            log_.exception(e, "RasEventBatcher - unable to call %s for %d %s RAS events", StoredProcedure, iNumEvents,
+                    sDescriptiveName);
+            return false;
+        }
+        synchronized (this) {
+            ++numCalls_;
+        }
+        return true;
+    }
+
+    // Put events that could not be sent back into the buffer, ahead of the events buffered since.
+    private synchronized void requeue(List<Event> events) {
+        LinkedHashMap<Event, Event> buffer = new LinkedHashMap<>();
+        int iNumDropped = 0;
+        for (Event event: events) {
+            if (buffer.size() < maxBufferedEvents_)
+                buffer.put(event, event);
+            else
+                ++iNumDropped;
+        }
+        for (Event event: buffer_.values()) {
+            Event earlier = buffer.get(event);
+            if (earlier != null)
+                earlier.lNumRepeats += event.lNumRepeats + 1L;
+            else if (buffer.size() < maxBufferedEvents_)
+                buffer.put(event, event);
+            else
+                ++iNumDropped;
+        }
+        buffer_.clear();
+        buffer_.putAll(buffer);
+        if (iNumDropped > 0)
+            log_.error("RasEventBatcher - the buffer is full, dropped %d RAS events that could not be stored!", iNumDropped);
+    }
+
+
+    private static final class Event {
+        Event(String sDescriptiveName, String sInstanceData, String sLctn, String sJobId, long lTsInMicroSecs,
+              String sReqAdapterType, long lReqWorkItemId) {
+            this.sDescriptiveName = sDescriptiveName;
+            this.sInstanceData = sInstanceData;
+            this.sLctn = sLctn;
+            this.sJobId = sJobId;
+            this.lTsInMicroSecs = lTsInMicroSecs;
+            this.sReqAdapterType = sReqAdapterType;
+            this.lReqWorkItemId = lReqWorkItemId;
+        }
+
+        // The timestamp is not part of an event's identity, a folded event keeps the timestamp of its first occurrence.
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) return true;
+            if (!(other instanceof Event)) return false;
+            Event event = (Event) other;
+            return lReqWorkItemId == event.lReqWorkItemId && Objects.equals(sDescriptiveName, event.sDescriptiveName) &&
+                    Objects.equals(sInstanceData, event.sInstanceData) && Objects.equals(sLctn, event.sLctn) &&
+                    Objects.equals(sJobId, event.sJobId) && Objects.equals(sReqAdapterType, event.sReqAdapterType);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(sDescriptiveName, sInstanceData, sLctn, sJobId, sReqAdapterType, lReqWorkItemId);
+        }
+
+        final String sDescriptiveName;
+        final String sInstanceData;
+        final String sLctn;
+        final String sJobId;
+        final long   lTsInMicroSecs;
+        final String sReqAdapterType;
+        final long   lReqWorkItemId;
+        long         lNumRepeats = 0L;
+    }   // End class Event
+
+    private final Logger log_;
+    private final Supplier<Client> client_;
+    private final FailureHandler onFailure_;
+    private final int maxBufferedEvents_;
+    private final ScheduledExecutorService executor_;
+    private final Object flushLock_ = new Object();
+    private final LinkedHashMap<Event, Event> buffer_ = new LinkedHashMap<>();
+    private boolean flushRequested_ = false;
+    private boolean closed_ = false;
+    private long numFolded_ = 0L;
+    private long numCalls_ = 0L;
+}
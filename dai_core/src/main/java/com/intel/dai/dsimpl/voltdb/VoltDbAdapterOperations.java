@@ -128,6 +128,8 @@ public class VoltDbAdapterOperations implements AdapterOperations {
         }
         tearDownAdapter();
         tearDownAdaptersBaseWorkItem(reason);
+        if(workQueue_ != null)
+            workQueue_.shutdown();
         adapter_.signalToShutdown();
         return result;
     }
@@ -14,6 +14,7 @@ import java.util.regex.Matcher;
 import com.intel.dai.dsapi.Location;
 import com.intel.dai.exceptions.DataStoreException;
 import com.intel.dai.exceptions.BadInputException;
+import com.intel.dai.locations.LocationIndex;
 import com.intel.logging.Logger;
 import com.intel.properties.PropertyMap;
 
@@ -66,8 +67,10 @@ public class VoltDbLocation implements Location {
     @Override
     public void reloadCache() throws DataStoreException {
         try {
-            updateFromProcedure("ComputeNodeListLctnHostnameAndBmcHostname");
-            updateFromProcedure("ServiceNodeListLctnHostnameAndBmcHostname");
+            LocationIndex index = new LocationIndex();
+            updateFromProcedure("ComputeNodeListLctnHostnameAndBmcHostname", index);
+            updateFromProcedure("ServiceNodeListLctnHostnameAndBmcHostname", index);
+            locationIndex_ = index;
             updateSystemLabel();
         }
         catch (IOException | ProcCallException  e) {
@@ -87,6 +90,11 @@ public class VoltDbLocation implements Location {
         return system_;
     }
 
+    @Override
+    public LocationIndex getLocationIndex() {
+        return locationIndex_;
+    }
+
     protected Client getClient() {
         return VoltDbClient.getVoltClientInstance();
     }
@@ -106,7 +114,7 @@ public class VoltDbLocation implements Location {
             system_ = vt.getString("Description");
     }
 
-    private void updateFromProcedure(String procedure)
+    private void updateFromProcedure(String procedure, LocationIndex index)
             throws IOException, ProcCallException, DataStoreException {
         ClientResponse response = voltDb_.callProcedure(procedure);
         if (response.getStatus() != ClientResponse.SUCCESS) {
@@ -123,6 +131,7 @@ public class VoltDbLocation implements Location {
             locationMap_.put(vt.getString("Lctn") + "-BMC", vt.getString("BmcHostName"));
             hostMap_.put(vt.getString("HostName"), vt.getString("Lctn"));
             hostMap_.put(vt.getString("BmcHostName"), vt.getString("Lctn") + "-BMC");
+            index.add(vt.getString("Lctn"));
         }
     }
 
@@ -139,6 +148,13 @@ public class VoltDbLocation implements Location {
                 continue;
             }
 
+            // A partial location (e.g. a rack or chassis) stands for all of the nodes under it.
+            Set<String> subtree = locationIndex_.locationsUnder(node);
+            if(!subtree.isEmpty()) {
+                locations.addAll(subtree);
+                continue;
+            }
+
             log_.error(node+ " is not a valid location or hostname of a node");
             throw new BadInputException(node + " is a Bad input. It isn't a location or hostname of a node");
         }
@@ -158,6 +174,13 @@ public class VoltDbLocation implements Location {
                 continue;
             }
 
+            Set<String> subtree = locationIndex_.locationsUnder(lctn);
+            if(!subtree.isEmpty()) {
+                for(String nodeLctn : subtree)
+                    nodes.add(locationMap_.get(nodeLctn));
+                continue;
+            }
+
             log_.error(lctn+ " is not a valid location or hostname of a node");
             throw new BadInputException(lctn + " is a Bad input. It isn't a location or hostname of a node");
         }
@@ -168,6 +191,7 @@ public class VoltDbLocation implements Location {
     private Logger log_;
     private Map<String, String> locationMap_;
     private Map<String, String> hostMap_;
+    private volatile LocationIndex locationIndex_ = new LocationIndex();
     private Pattern bmcPattern_;
     private String system_;
     private String[] servers_;
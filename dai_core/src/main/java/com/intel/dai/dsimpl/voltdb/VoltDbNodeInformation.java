@@ -16,10 +16,17 @@ import org.voltdb.client.ClientResponse;
 
 import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 
 /**
- * Description of class VoltDbStatus.
+ * Node information from the ComputeNode and ServiceNode tables.
+ *
+ * The information is cached in an immutable snapshot that is replaced (never modified) when a part of it is first
+ * used or when the newest ComputeNode_History or ServiceNode_History row shows that the node tables changed, so the
+ * lookups do not lock.
  */
 public class VoltDbNodeInformation implements NodeInformation {
     public VoltDbNodeInformation(Logger log, String[] servers) {
@@ -38,7 +45,7 @@ public class VoltDbNodeInformation implements NodeInformation {
     }
 
     @Override
-    public synchronized String getComputeNodeState(String location) throws DataStoreException {
+    public String getComputeNodeState(String location) throws DataStoreException {
         try {
             ClientResponse response = voltDb_.callProcedure("ComputeNodeState", location);
             log_.info("called stored procedure %s, Location=%s", "ComputeNodeState", location);
@@ -51,182 +58,305 @@ public class VoltDbNodeInformation implements NodeInformation {
     }
 
     @Override
-    public synchronized Map<String, String> getComputeHostnameFromLocationMap() throws DataStoreException {
-        if (locationToComputeNodeHostname_ == null) {
-            try {
-                locationToComputeNodeHostname_ = new HashMap<>();
-                hostnameToComputeNodeLocation_ = new HashMap<>();
-                ClientResponse response = voltDb_.callProcedure("ComputeNodeListLctnAndHostname");
-                fillMaps(response, locationToComputeNodeHostname_, hostnameToComputeNodeLocation_);
-            } catch(IOException | ProcCallException e) {
-                locationToComputeNodeHostname_ = null;
-                hostnameToComputeNodeLocation_ = null;
-                throw new DataStoreException("Failed to get compute node information", e);
-            }
-        }
-        return locationToComputeNodeHostname_;
+    public Map<String, String> getComputeHostnameFromLocationMap() throws DataStoreException {
+        return computeNodes().locationToHostname;
     }
 
     @Override
-    public synchronized Map<String, String> getServiceHostnameFromLocationMap() throws DataStoreException {
-        if (locationToServiceNodeHostname_ == null) {
-            try {
-                locationToServiceNodeHostname_ = new HashMap<>();
-                hostnameToServiceNodeLocation_ = new HashMap<>();
-                ClientResponse response = voltDb_.callProcedure("ServiceNodeListLctnAndHostname");
-                fillMaps(response, locationToServiceNodeHostname_, hostnameToServiceNodeLocation_);
-            } catch(IOException | ProcCallException e) {
-                locationToServiceNodeHostname_ = null;
-                hostnameToServiceNodeLocation_ = null;
-                throw new DataStoreException("Failed to get compute node information", e);
-            }
-        }
-        return locationToServiceNodeHostname_;
+    public Map<String, String> getServiceHostnameFromLocationMap() throws DataStoreException {
+        return serviceNodes().locationToHostname;
     }
 
     @Override
-    public synchronized Map<String, String> getComputeNodeLocationFromHostnameMap() throws DataStoreException {
-        getComputeHostnameFromLocationMap();
-        return hostnameToComputeNodeLocation_;
+    public Map<String, String> getComputeNodeLocationFromHostnameMap() throws DataStoreException {
+        return computeNodes().hostnameToLocation;
     }
 
     @Override
-    public synchronized Map<String, String> getServiceNodeLocationFromHostnameMap() throws DataStoreException {
-        getServiceHostnameFromLocationMap();
-        return hostnameToServiceNodeLocation_;
+    public Map<String, String> getServiceNodeLocationFromHostnameMap() throws DataStoreException {
+        return serviceNodes().hostnameToLocation;
     }
 
     @Override
-    public synchronized Map<String, Long> getComputeNodeSequenceNumberFromLocationMap() throws DataStoreException {
-        if (locationToSequenceNumber_ == null) {
-            try {
-                locationToSequenceNumber_ = new HashMap<>();
-                ClientResponse response = voltDb_.callProcedure("ComputeNodeListLctnAndSeqNum");
-                VoltTable result = response.getResults()[0];
-                for (int row = 0; row < result.getRowCount(); ++row) {
-                    result.advanceRow();
-                    locationToSequenceNumber_.put(result.getString("Lctn"), result.getLong("SequenceNumber"));
+    public Map<String, Long> getComputeNodeSequenceNumberFromLocationMap() throws DataStoreException {
+        Map<String, Long> sequenceNumbers = snapshot().locationToSequenceNumber;
+        if (sequenceNumbers == null) {
+            synchronized (loadLock_) {
+                sequenceNumbers = snapshot_.locationToSequenceNumber;
+                if (sequenceNumbers == null) {
+                    sequenceNumbers = loadSequenceNumbers();
+                    Snapshot current = snapshot_;
+                    snapshot_ = new Snapshot(current.version, current.computeNodes, current.serviceNodes,
+                            sequenceNumbers, current.locationToAggregator, current.ips, current.nodeLocationsSorted);
                 }
-            } catch(IOException | ProcCallException e) {
-                locationToSequenceNumber_ = null;
-                throw new DataStoreException("Failed to get the compute node sequence number data", e);
             }
         }
-        return locationToSequenceNumber_;
+        return sequenceNumbers;
     }
 
     @Override
-    public synchronized Map<String, String> getAggregatorLocationFromNodeLocationMap() throws DataStoreException {
-        if (locationToAggregator_ == null) {
-            locationToAggregator_ = new HashMap<>();
-            try {
-                ClientResponse response = voltDb_.callProcedure("ComputeNodesList");
-                VoltTable result = response.getResults()[0];
-                for (int row = 0; row < result.getRowCount(); ++row) {
-                    result.advanceRow();
-                    locationToAggregator_.put(result.getString("Lctn"), result.getString("Aggregator"));
-                }
-
-                response = voltDb_.callProcedure("ServiceNodesList");
-                result = response.getResults()[0];
-                for (int row = 0; row < result.getRowCount(); ++row) {
-                    result.advanceRow();
-                    locationToAggregator_.put(result.getString("Lctn"), result.getString("Aggregator"));
+    public Map<String, String> getAggregatorLocationFromNodeLocationMap() throws DataStoreException {
+        Map<String, String> aggregators = snapshot().locationToAggregator;
+        if (aggregators == null) {
+            synchronized (loadLock_) {
+                aggregators = snapshot_.locationToAggregator;
+                if (aggregators == null) {
+                    aggregators = loadAggregators();
+                    Snapshot current = snapshot_;
+                    snapshot_ = new Snapshot(current.version, current.computeNodes, current.serviceNodes,
+                            current.locationToSequenceNumber, aggregators, current.ips, current.nodeLocationsSorted);
                 }
-            } catch(IOException | ProcCallException e) {
-                locationToAggregator_ = null;
-                throw new DataStoreException("Failed to get the compute node aggregator data", e);
             }
         }
-        return locationToAggregator_;
+        return aggregators;
     }
 
     @Override
-    public synchronized Map<String, NodeIpAndBmcIp> getNodeAndBmcIPsFromLocationMap() throws DataStoreException {
-        if (locationToNodeIpAndBmcIP_ == null) {
-            locationToNodeIpAndBmcIP_ = new HashMap<>();
-            locationToComputeNodeIpAndBmcIP_ = new HashMap<>();
-            try {
-                ClientResponse response = voltDb_.callProcedure("ComputeNodesList");
-                VoltTable result = response.getResults()[0];
-                for (int row = 0; row < result.getRowCount(); ++row) {
-                    result.advanceRow();
-                    NodeIpAndBmcIp ips = new NodeIpAndBmcIp(result.getString("IpAddr"), result.getString("BmcIpAddr"));
-                    String location = result.getString("Lctn");
-                    locationToComputeNodeIpAndBmcIP_.put(location, ips);
-                    locationToNodeIpAndBmcIP_.put(location, ips);
-                }
-
-                response = voltDb_.callProcedure("ServiceNodesList");
-                result = response.getResults()[0];
-                for (int row = 0; row < result.getRowCount(); ++row) {
-                    result.advanceRow();
-                    NodeIpAndBmcIp ips = new NodeIpAndBmcIp(result.getString("IpAddr"), result.getString("BmcIpAddr"));
-                    locationToNodeIpAndBmcIP_.put(result.getString("Lctn"), ips);
-                }
-            } catch(IOException | ProcCallException e) {
-                locationToNodeIpAndBmcIP_ = null;
-                locationToComputeNodeIpAndBmcIP_ = null;
-                throw new DataStoreException("Failed to get the node's IP and its' BMC IP data", e);
-            }
-        }
-        return locationToNodeIpAndBmcIP_;
+    public Map<String, NodeIpAndBmcIp> getNodeAndBmcIPsFromLocationMap() throws DataStoreException {
+        return ips().locationToNodeIpAndBmcIp;
     }
 
     @Override
-    public synchronized Map<String, NodeIpAndBmcIp> getComputeNodeAndBmcIPsFromLocationMap() throws DataStoreException {
-        getNodeAndBmcIPsFromLocationMap();
-        return locationToComputeNodeIpAndBmcIP_;
+    public Map<String, NodeIpAndBmcIp> getComputeNodeAndBmcIPsFromLocationMap() throws DataStoreException {
+        return ips().locationToComputeNodeIpAndBmcIp;
     }
 
     @Override
-    public synchronized boolean isComputeNodeLocation(String location) throws DataStoreException {
-        return getComputeHostnameFromLocationMap().containsKey(location);
+    public boolean isComputeNodeLocation(String location) throws DataStoreException {
+        return computeNodes().locationToHostname.containsKey(location);
     }
 
     @Override
-    public synchronized boolean isServiceNodeLocation(String location) throws DataStoreException {
-        return getServiceHostnameFromLocationMap().containsKey(location);
+    public boolean isServiceNodeLocation(String location) throws DataStoreException {
+        return serviceNodes().locationToHostname.containsKey(location);
     }
 
     @Override
-    public synchronized String getNodesBmcIpAddress(String location) throws DataStoreException {
+    public String getNodesBmcIpAddress(String location) throws DataStoreException {
         return getNodeAndBmcIPsFromLocationMap().get(location).bmcIpAddress;
     }
 
     @Override
-    public synchronized String getNodesIpAddress(String location) throws DataStoreException {
+    public String getNodesIpAddress(String location) throws DataStoreException {
         return getNodeAndBmcIPsFromLocationMap().get(location).nodeIpAddress;
     }
 
     @Override
-    public synchronized List<String> getComputeNodeLocations() throws DataStoreException {
-        if(computeNodeLocationsSorted_ == null) {
-            Map<String, String> locationMap = getComputeHostnameFromLocationMap();
-            computeNodeLocationsSorted_ = new ArrayList<>(locationMap.keySet());
-            computeNodeLocationsSorted_.sort(this::compareStrings);
-        }
-        return computeNodeLocationsSorted_;
+    public List<String> getComputeNodeLocations() throws DataStoreException {
+        return computeNodes().locationsSorted;
     }
 
     @Override
-    public synchronized List<String> getServiceNodeLocations() throws DataStoreException {
-        if(serviceNodeLocationsSorted_ == null) {
-            Map<String, String> locationMap = getServiceHostnameFromLocationMap();
-            serviceNodeLocationsSorted_ = new ArrayList<>(locationMap.keySet());
-            serviceNodeLocationsSorted_.sort(this::compareStrings);
-        }
-        return serviceNodeLocationsSorted_;
+    public List<String> getServiceNodeLocations() throws DataStoreException {
+        return serviceNodes().locationsSorted;
     }
 
     @Override
-    public synchronized List<String> getNodeLocations() throws DataStoreException {
-        if(nodeLocationsSorted_ == null) {
-            nodeLocationsSorted_ = new ArrayList<>(getComputeNodeLocations());
-            nodeLocationsSorted_.addAll(getServiceNodeLocations());
-            nodeLocationsSorted_.sort(this::compareStrings);
+    public List<String> getNodeLocations() throws DataStoreException {
+        List<String> nodeLocations = snapshot().nodeLocationsSorted;
+        if (nodeLocations == null) {
+            NodeHostnames computeNodes = computeNodes();
+            NodeHostnames serviceNodes = serviceNodes();
+            synchronized (loadLock_) {
+                Snapshot current = snapshot_;
+                nodeLocations = current.nodeLocationsSorted;
+                if (nodeLocations == null) {
+                    // Use the sections of the current snapshot, they might have been refreshed since.
+                    if (current.computeNodes != null) computeNodes = current.computeNodes;
+                    if (current.serviceNodes != null) serviceNodes = current.serviceNodes;
+                    List<String> locations = new ArrayList<>(computeNodes.locationsSorted);
+                    locations.addAll(serviceNodes.locationsSorted);
+                    locations.sort(this::compareStrings);
+                    nodeLocations = Collections.unmodifiableList(locations);
+                    snapshot_ = new Snapshot(current.version, computeNodes, serviceNodes,
+                            current.locationToSequenceNumber, current.locationToAggregator, current.ips, nodeLocations);
+                }
+            }
+        }
+        return nodeLocations;
+    }
+
+    // Version of the node tables the cached information was loaded at, null until the first change check.
+    String cachedVersion() { return snapshot_.version; }
+
+    /**
+     * Check whether the node tables changed (the newest node history rows) and if they did reload the cached information and
+     * publish it as a new snapshot. Readers keep using the previous snapshot until then. This normally runs in the
+     * background, at most once every CHANGE_CHECK_INTERVAL_MS.
+     */
+    void refreshIfChanged() {
+        try {
+            String version = queryNodeTablesVersion();
+            if (version.equals(snapshot_.version))
+                return;
+            synchronized (loadLock_) {
+                Snapshot current = snapshot_;
+                snapshot_ = new Snapshot(version,
+                        (current.computeNodes != null) ? loadHostnames("ComputeNodeListLctnAndHostname") : null,
+                        (current.serviceNodes != null) ? loadHostnames("ServiceNodeListLctnAndHostname") : null,
+                        (current.locationToSequenceNumber != null) ? loadSequenceNumbers() : null,
+                        (current.locationToAggregator != null) ? loadAggregators() : null,
+                        (current.ips != null) ? loadIps() : null,
+                        null);
+                if (current.version != null)
+                    log_.info("VoltDbNodeInformation - the node tables changed, reloaded the cached node information");
+            }
+        } catch (DataStoreException | RuntimeException e) {
+            log_.exception(e, "VoltDbNodeInformation - failed to refresh the cached node information");
+        } finally {
+            lastChangeCheckNs_ = System.nanoTime();
+            refreshing_.set(false);
+        }
+    }
+
+    // Returns the current snapshot, starting a background change check when one is due.
+    private Snapshot snapshot() {
+        if (System.nanoTime() - lastChangeCheckNs_ >= CHANGE_CHECK_INTERVAL_NS && refreshing_.compareAndSet(false, true))
+            CompletableFuture.runAsync(this::refreshIfChanged);
+        return snapshot_;
+    }
+
+    private NodeHostnames computeNodes() throws DataStoreException {
+        NodeHostnames computeNodes = snapshot().computeNodes;
+        if (computeNodes == null) {
+            synchronized (loadLock_) {
+                computeNodes = snapshot_.computeNodes;
+                if (computeNodes == null) {
+                    computeNodes = loadHostnames("ComputeNodeListLctnAndHostname");
+                    Snapshot current = snapshot_;
+                    snapshot_ = new Snapshot(current.version, computeNodes, current.serviceNodes,
+                            current.locationToSequenceNumber, current.locationToAggregator, current.ips, null);
+                }
+            }
+        }
+        return computeNodes;
+    }
+
+    private NodeHostnames serviceNodes() throws DataStoreException {
+        NodeHostnames serviceNodes = snapshot().serviceNodes;
+        if (serviceNodes == null) {
+            synchronized (loadLock_) {
+                serviceNodes = snapshot_.serviceNodes;
+                if (serviceNodes == null) {
+                    serviceNodes = loadHostnames("ServiceNodeListLctnAndHostname");
+                    Snapshot current = snapshot_;
+                    snapshot_ = new Snapshot(current.version, current.computeNodes, serviceNodes,
+                            current.locationToSequenceNumber, current.locationToAggregator, current.ips, null);
+                }
+            }
+        }
+        return serviceNodes;
+    }
+
+    private NodeIps ips() throws DataStoreException {
+        NodeIps ips = snapshot().ips;
+        if (ips == null) {
+            synchronized (loadLock_) {
+                ips = snapshot_.ips;
+                if (ips == null) {
+                    ips = loadIps();
+                    Snapshot current = snapshot_;
+                    snapshot_ = new Snapshot(current.version, current.computeNodes, current.serviceNodes,
+                            current.locationToSequenceNumber, current.locationToAggregator, ips, current.nodeLocationsSorted);
+                }
+            }
+        }
+        return ips;
+    }
+
+    private NodeHostnames loadHostnames(String procedure) throws DataStoreException {
+        try {
+            Map<String, String> locationToHostname = new HashMap<>();
+            Map<String, String> hostnameToLocation = new HashMap<>();
+            ClientResponse response = voltDb_.callProcedure(procedure);
+            fillMaps(response, locationToHostname, hostnameToLocation);
+            return new NodeHostnames(locationToHostname, hostnameToLocation);
+        } catch(IOException | ProcCallException e) {
+            throw new DataStoreException("Failed to get compute node information", e);
+        }
+    }
+
+    private Map<String, Long> loadSequenceNumbers() throws DataStoreException {
+        try {
+            Map<String, Long> locationToSequenceNumber = new HashMap<>();
+            ClientResponse response = voltDb_.callProcedure("ComputeNodeListLctnAndSeqNum");
+            VoltTable result = response.getResults()[0];
+            for (int row = 0; row < result.getRowCount(); ++row) {
+                result.advanceRow();
+                locationToSequenceNumber.put(result.getString("Lctn"), result.getLong("SequenceNumber"));
+            }
+            return Collections.unmodifiableMap(locationToSequenceNumber);
+        } catch(IOException | ProcCallException e) {
+            throw new DataStoreException("Failed to get the compute node sequence number data", e);
+        }
+    }
+
+    private Map<String, String> loadAggregators() throws DataStoreException {
+        try {
+            Map<String, String> locationToAggregator = new HashMap<>();
+            ClientResponse response = voltDb_.callProcedure("ComputeNodesList");
+            VoltTable result = response.getResults()[0];
+            for (int row = 0; row < result.getRowCount(); ++row) {
+                result.advanceRow();
+                locationToAggregator.put(result.getString("Lctn"), result.getString("Aggregator"));
+            }
+
+            response = voltDb_.callProcedure("ServiceNodesList");
+            result = response.getResults()[0];
+            for (int row = 0; row < result.getRowCount(); ++row) {
+                result.advanceRow();
+                locationToAggregator.put(result.getString("Lctn"), result.getString("Aggregator"));
+            }
+            return Collections.unmodifiableMap(locationToAggregator);
+        } catch(IOException | ProcCallException e) {
+            throw new DataStoreException("Failed to get the compute node aggregator data", e);
+        }
+    }
+
+    private NodeIps loadIps() throws DataStoreException {
+        try {
+            Map<String, NodeIpAndBmcIp> locationToNodeIpAndBmcIp = new HashMap<>();
+            Map<String, NodeIpAndBmcIp> locationToComputeNodeIpAndBmcIp = new HashMap<>();
+            ClientResponse response = voltDb_.callProcedure("ComputeNodesList");
+            VoltTable result = response.getResults()[0];
+            for (int row = 0; row < result.getRowCount(); ++row) {
+                result.advanceRow();
+                NodeIpAndBmcIp ips = new NodeIpAndBmcIp(result.getString("IpAddr"), result.getString("BmcIpAddr"));
+                String location = result.getString("Lctn");
+                locationToComputeNodeIpAndBmcIp.put(location, ips);
+                locationToNodeIpAndBmcIp.put(location, ips);
+            }
+
+            response = voltDb_.callProcedure("ServiceNodesList");
+            result = response.getResults()[0];
+            for (int row = 0; row < result.getRowCount(); ++row) {
+                result.advanceRow();
+                NodeIpAndBmcIp ips = new NodeIpAndBmcIp(result.getString("IpAddr"), result.getString("BmcIpAddr"));
+                locationToNodeIpAndBmcIp.put(result.getString("Lctn"), ips);
+            }
+            return new NodeIps(locationToNodeIpAndBmcIp, locationToComputeNodeIpAndBmcIp);
+        } catch(IOException | ProcCallException e) {
+            throw new DataStoreException("Failed to get the node's IP and its' BMC IP data", e);
         }
-        return nodeLocationsSorted_;
+    }
+
+    // Every insert or update of a ComputeNode or ServiceNode row adds a history row, so the newest history timestamps
+    // change whenever the node tables do. Both are looked up through the DbUpdatedTimestamp indexes.
+    private String queryNodeTablesVersion() throws DataStoreException {
+        try {
+            return newestDbUpdatedTimestamp("ComputeNodeHistoryNewestDbUpdatedTimestamp") + "/" +
+                    newestDbUpdatedTimestamp("ServiceNodeHistoryNewestDbUpdatedTimestamp");
+        } catch(IOException | ProcCallException e) {
+            throw new DataStoreException("Failed to get the node history change timestamps", e);
+        }
+    }
+
+    private long newestDbUpdatedTimestamp(String procedure) throws IOException, ProcCallException {
+        VoltTable result = voltDb_.callProcedure(procedure).getResults()[0];
+        if(!result.advanceRow())
+            return 0L;
+        long timestamp = result.getTimestampAsLong(0);
+        return result.wasNull() ? 0L : timestamp;
     }
 
     private int compareStrings(String s1, String s2) {
@@ -243,19 +373,61 @@ public class VoltDbNodeInformation implements NodeInformation {
         }
     }
 
+    // Immutable view of the cached node information, a section is null until it is first used.
+    private static final class Snapshot {
+        Snapshot(String version, NodeHostnames computeNodes, NodeHostnames serviceNodes,
+                 Map<String, Long> locationToSequenceNumber, Map<String, String> locationToAggregator, NodeIps ips,
+                 List<String> nodeLocationsSorted) {
+            this.version = version;
+            this.computeNodes = computeNodes;
+            this.serviceNodes = serviceNodes;
+            this.locationToSequenceNumber = locationToSequenceNumber;
+            this.locationToAggregator = locationToAggregator;
+            this.ips = ips;
+            this.nodeLocationsSorted = nodeLocationsSorted;
+        }
+
+        final String version;
+        final NodeHostnames computeNodes;
+        final NodeHostnames serviceNodes;
+        final Map<String, Long> locationToSequenceNumber;
+        final Map<String, String> locationToAggregator;
+        final NodeIps ips;
+        final List<String> nodeLocationsSorted;
+    }
+
+    private final class NodeHostnames {
+        NodeHostnames(Map<String, String> locationToHostname, Map<String, String> hostnameToLocation) {
+            this.locationToHostname = Collections.unmodifiableMap(locationToHostname);
+            this.hostnameToLocation = Collections.unmodifiableMap(hostnameToLocation);
+            List<String> locations = new ArrayList<>(locationToHostname.keySet());
+            locations.sort(VoltDbNodeInformation.this::compareStrings);
+            this.locationsSorted = Collections.unmodifiableList(locations);
+        }
+
+        final Map<String, String> locationToHostname;
+        final Map<String, String> hostnameToLocation;
+        final List<String> locationsSorted;
+    }
+
+    private static final class NodeIps {
+        NodeIps(Map<String, NodeIpAndBmcIp> locationToNodeIpAndBmcIp,
+                Map<String, NodeIpAndBmcIp> locationToComputeNodeIpAndBmcIp) {
+            this.locationToNodeIpAndBmcIp = Collections.unmodifiableMap(locationToNodeIpAndBmcIp);
+            this.locationToComputeNodeIpAndBmcIp = Collections.unmodifiableMap(locationToComputeNodeIpAndBmcIp);
+        }
+
+        final Map<String, NodeIpAndBmcIp> locationToNodeIpAndBmcIp;
+        final Map<String, NodeIpAndBmcIp> locationToComputeNodeIpAndBmcIp;
+    }
+
     // Object state...
+    private static final long CHANGE_CHECK_INTERVAL_NS = TimeUnit.SECONDS.toNanos(10L);
     private Logger log_;
     private Client voltDb_;
     private String[] servers_;
-    Map<String, String> locationToComputeNodeHostname_ = null;
-    Map<String, String> locationToServiceNodeHostname_ = null;
-    Map<String, String> hostnameToComputeNodeLocation_ = null;
-    Map<String, String> hostnameToServiceNodeLocation_ = null;
-    Map<String, Long> locationToSequenceNumber_ = null;
-    Map<String, String> locationToAggregator_ = null;
-    Map<String, NodeIpAndBmcIp> locationToNodeIpAndBmcIP_ = null;
-    Map<String, NodeIpAndBmcIp> locationToComputeNodeIpAndBmcIP_ = null;
-    private List<String> computeNodeLocationsSorted_ = null;
-    private List<String> serviceNodeLocationsSorted_ = null;
-    private List<String> nodeLocationsSorted_ = null;
+    private volatile Snapshot snapshot_ = new Snapshot(null, null, null, null, null, null, null);
+    private final Object loadLock_ = new Object();  // serializes the loads, readers never take it.
+    private final AtomicBoolean refreshing_ = new AtomicBoolean(false);
+    private volatile long lastChangeCheckNs_ = System.nanoTime();
 }
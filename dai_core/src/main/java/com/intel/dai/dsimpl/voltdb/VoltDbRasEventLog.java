@@ -43,6 +43,8 @@ public class VoltDbRasEventLog implements RasEventLog {
     }};
     // Map that takes a RAS DescriptiveName and gives you its corresponding MetaData.
     private Map<String, MetaData> mRasDescNameToMetaDataMap = new HashMap<>();
+    // Buffers the asynchronously logged RAS events when batching is enabled, null when it is not.
+    private RasEventBatcher mRasEventBatcher = null;
 
     public VoltDbRasEventLog(String[] servers, IAdapter adapter, Logger logger) throws DataStoreException {
         this(servers, fromOldAdapter(adapter), logger);
@@ -95,6 +97,22 @@ public class VoltDbRasEventLog implements RasEventLog {
         loadRasMetadata();
     }
 
+    // Store the asynchronously logged RAS events in batches, folding identical events into one RasEvent row
+    // (see RasEventBatcher).
+    public void enableBatching(int iMaxBufferedEvents, long lFlushIntervalMs) {
+        if (mRasEventBatcher == null)
+            mRasEventBatcher = new RasEventBatcher(logger, () -> voltClient, iMaxBufferedEvents, lFlushIntervalMs,
+                    this::rasEventBatchFailed);
+    }
+
+    // Store the RAS events that are buffered for batching and stop batching.
+    public void disableBatching() {
+        if (mRasEventBatcher != null) {
+            mRasEventBatcher.close();
+            mRasEventBatcher = null;
+        }
+    }
+
     protected Client initializeVoltClient(String[] servers) {
         VoltDbClient.initializeVoltDbClient(servers);
         return VoltDbClient.getVoltClientInstance();
@@ -150,6 +168,14 @@ public class VoltDbRasEventLog implements RasEventLog {
     // Log the specified ras event used when the caller is certain that NO job was effected by the "event" whose occurrence caused the logging of this ras event.
     @Override
     public void logRasEventNoEffectedJob(String sEventType, String sInstanceData, String sLctn, long lTsInMicroSecs, String sReqAdapterType, long lReqWorkItemId)
+    {
+        if ((mRasEventBatcher != null) && mRasEventBatcher.offer(sEventType, sInstanceData, sLctn, null, lTsInMicroSecs, sReqAdapterType, lReqWorkItemId))
+            return;
+        storeRasEventNoEffectedJob(sEventType, sInstanceData, sLctn, lTsInMicroSecs, sReqAdapterType, lReqWorkItemId);
+    }   // End logRasEventNoEffectedJob(String sEventType, String sInstanceData, String sLctn, long lTsInMicroSecs, String sReqAdapterType, long lReqWorkItemId)
+
+    // Asynchronously store the specified ras event with the RasEventStore stored procedure (bypassing the batcher).
+    private void storeRasEventNoEffectedJob(String sEventType, String sInstanceData, String sLctn, long lTsInMicroSecs, String sReqAdapterType, long lReqWorkItemId)
     {
         String sTempStoredProcedure = "RasEventStore";
         try {
@@ -174,7 +200,21 @@ public class VoltDbRasEventLog implements RasEventLog {
             logger.error("logRasEventNoEffectedJob - exception occurred trying to log ras event %s!", sEventType);
             logger.exception(e, "logRasEventNoEffectedJob");
         }
-    }   // End logRasEventNoEffectedJob(String sEventType, String sInstanceData, String sLctn, long lTsInMicroSecs, String sReqAdapterType, long lReqWorkItemId)
+    }   // End storeRasEventNoEffectedJob(String sEventType, String sInstanceData, String sLctn, long lTsInMicroSecs, String sReqAdapterType, long lReqWorkItemId)
+
+    // A batch of buffered ras events could not be stored, log the generic callback failed RAS event (without batching
+    // it, so a batcher that keeps failing does not keep feeding itself).
+    private void rasEventBatchFailed(String sEventType, int iNumEvents, String sStatusString, String sReqAdapterType, long lReqWorkItemId)
+    {
+        storeRasEventNoEffectedJob("RasGenAdapterVoltDbCallBackForHouseKeepingFailed"
+                ,("AdapterName=" + adapterName + ", SpThisIsCallbackFor=" + RasEventBatcher.StoredProcedure + ", " +
+                        "PertinentInfo=" + sEventType + " (" + iNumEvents + " events), StatusString=" + sStatusString)
+                ,null                                  // Lctn
+                ,System.currentTimeMillis() * 1000L    // Time that the event that triggered this ras event occurred, in micro-seconds since epoch
+                ,sReqAdapterType                       // type of adapter that is generating this ras event
+                ,lReqWorkItemId                        // work item that is being worked on that resulted in the generation of this ras event
+        );
+    }
 
     // Log the specified ras event used when the caller is certain that NO job was effected by the "event" whose occurrence caused the logging of this ras event.
     // Note: this use synchronous data store updates!
@@ -205,6 +245,8 @@ public class VoltDbRasEventLog implements RasEventLog {
     public void logRasEventWithEffectedJob(String sEventType, String sInstanceData, String sLctn, String sJobId, long lTsInMicroSecs, String sReqAdapterType, long lReqWorkItemId)
     {
         String sTempStoredProcedure = "RasEventStore";
+        if ((mRasEventBatcher != null) && mRasEventBatcher.offer(sEventType, sInstanceData, sLctn, sJobId, lTsInMicroSecs, sReqAdapterType, lReqWorkItemId))
+            return;
         try {
             voltClient.callProcedure(new VoltDbCallBackForHouseKeeping(this, sReqAdapterType, adapterName, sTempStoredProcedure, sEventType, lReqWorkItemId, logger)  // asynchronously invoke the procedure
                     ,sTempStoredProcedure  // stored procedure name
@@ -236,6 +278,8 @@ public class VoltDbRasEventLog implements RasEventLog {
                 logRasEventNoEffectedJob(sEventType, sInstanceData, sLctn, lTsInMicroSecs, sReqAdapterType, lReqWorkItemId);
                 return;
             }
+            if ((mRasEventBatcher != null) && mRasEventBatcher.offer(sEventType, sInstanceData, sLctn, "?", lTsInMicroSecs, sReqAdapterType, lReqWorkItemId))
+                return;
             voltClient.callProcedure(new VoltDbCallBackForHouseKeeping(this, sReqAdapterType, adapterName, sTempStoredProcedure, sEventType, lReqWorkItemId, logger)  // asynchronously invoke the procedure
                     ,sTempStoredProcedure  // stored procedure name
                     ,sEventType            // type of ras event
@@ -27,6 +27,9 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
 import java.util.zip.*;
 
 public class VoltDbWorkQueue implements WorkQueue {
@@ -56,6 +59,7 @@ public class VoltDbWorkQueue implements WorkQueue {
     private String workingResults = null;
     private String[] servers;
     DataStoreFactory factory;
+    private WorkItemFinishedPoller workItemFinishedPoller = null;
 
     public VoltDbWorkQueue(String[] servers, IAdapter adapter, Logger logger) throws DataStoreException {
         this.servers = servers;
@@ -516,36 +520,40 @@ public class VoltDbWorkQueue implements WorkQueue {
     public String[] waitForWorkItemToFinishAndMarkDone(String sCmdForMsg, String sWaitingForAdapterType,
                                                 long lWaitingForWorkItemId, String sReqAdapterType, long lReqWorkItemId)
             throws IOException, InterruptedException
+    {
+        CompletableFuture<String[]> future = waitForWorkItemToFinishAndMarkDoneAsync(sCmdForMsg, sWaitingForAdapterType,
+                lWaitingForWorkItemId, sReqAdapterType, lReqWorkItemId);
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(false);
+            throw e;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException)
+                throw (IOException) cause;
+            if (cause instanceof RuntimeException)
+                throw (RuntimeException) cause;
+            throw new RuntimeException("An exception occurred when the WorkItemFinishedResults stored procedure was called", cause);
+        }
+    }
+
+    // Asynchronous version of waitForWorkItemToFinishAndMarkDone, all of the outstanding waits are checked by one shared poller (see
+    // WorkItemFinishedPoller) that backs off while the work items are still running.  The work item is marked as done (on the poller's worker
+    // threads, not the poller thread) before the returned future completes, cancelling the future stops waiting for the work item.
+    @Override
+    public CompletableFuture<String[]> waitForWorkItemToFinishAndMarkDoneAsync(String sCmdForMsg, String sWaitingForAdapterType,
+                                                                        long lWaitingForWorkItemId, String sReqAdapterType, long lReqWorkItemId)
     {
         logger.info("waitForWorkItemToFinishAndMarkDone - waiting for work item %s to finish, WaitingForAdapterType=%s, WaitingForWorkItemId=%d",
                 sCmdForMsg, sWaitingForAdapterType, lWaitingForWorkItemId);
-        String sa[] = new String[2];
-        ClientResponse response;
-        while (true) {
-            // Check & see if the work item has finished yet.
+        WorkItemFinishedPoller poller = getWorkItemFinishedPoller();
+        CompletableFuture<String[]> finished = poller.waitFor(sWaitingForAdapterType, lWaitingForWorkItemId);
+        CompletableFuture<String[]> result = finished.thenApplyAsync(stateAndResults -> {
+            String sa[] = new String[2];
+            sa[0] = stateAndResults[0];     // indicates whether the work item finished successfully or finished due to error
+            sa[1] = decompressResult(stateAndResults[1]);  // item's results
             try {
-                response = getVoltClient().callProcedure("WorkItemFinishedResults"
-                        ,sWaitingForAdapterType     // work item's adapter type (what type of adapter is working on this work item)
-                        ,lWaitingForWorkItemId      // work item's id (the id of the work item that we are waiting to)
-                );
-            } catch (ProcCallException ie) {
-                logger.error("waitForWorkItemToFinishAndMarkDone - WorkItemFinishedResults failed - %s", Adapter.stackTraceToString(ie));
-                throw new RuntimeException("An exception occurred when the WorkItemFinishedResults stored procedure was called");
-            }
-            if (response.getStatus() != ClientResponse.SUCCESS) {
-                // stored procedure failed.
-                logger.error("waitForWorkItemToFinishAndMarkDone - WorkItemFinishedResults of %d FAILED - Status=%s, StatusString=%s, AdapterType=%s," +
-                                " WorkItemId=%d!", lWaitingForWorkItemId, VoltDbClient.statusByteAsString(response.getStatus()),
-                        response.getStatusString(), sWaitingForAdapterType, lWaitingForWorkItemId);
-                throw new RuntimeException(response.getStatusString());
-            }
-            // Check & see if the work item has finished
-            if (response.getResults()[0].getRowCount() > 0) {
-                // Work item has finished
-                response.getResults()[0].advanceRow();
-                sa[0] = response.getResults()[0].getString("State");    // indicates whether the work item
-                // finished successfully or finished due to error
-                sa[1] = decompressResult(response.getResults()[0].getString("Results"));  // item's results
                 // Log appropriate success or failure message.
                 if (sa[0].equals("F")) {
                     // the work item's state is "F" (finished successfully, not finished due to an error)
@@ -566,13 +574,35 @@ public class VoltDbWorkQueue implements WorkQueue {
                 }
                 // Also mark this work item as done.
                 markWorkItemDone(sWaitingForAdapterType, lWaitingForWorkItemId);
-                logger.info("waitForWorkItemToFinishAndMarkDone - marked work item %s as done, DoneWorkItemId=%d", sCmdForMsg, lWaitingForWorkItemId);
-                return sa;
+            } catch (IOException e) {
+                throw new CompletionException(e);
             }
-            Thread.sleep(1);  // Give up the processor to let other work be done.
+            logger.info("waitForWorkItemToFinishAndMarkDone - marked work item %s as done, DoneWorkItemId=%d", sCmdForMsg, lWaitingForWorkItemId);
+            return sa;
+        }, poller.workers());
+        // Stop polling for the work item if the caller is no longer waiting for it.
+        result.whenComplete((sa, e) -> {
+            if (result.isCancelled())
+                finished.cancel(false);
+        });
+        return result;
+    }
+
+    // Stop the poller behind waitForWorkItemToFinishAndMarkDoneAsync, the waits that are still outstanding are cancelled.
+    @Override
+    public synchronized void shutdown() {
+        if (workItemFinishedPoller != null) {
+            workItemFinishedPoller.shutdown();
+            workItemFinishedPoller = null;
         }
     }
 
+    private synchronized WorkItemFinishedPoller getWorkItemFinishedPoller() {
+        if (workItemFinishedPoller == null)
+            workItemFinishedPoller = new WorkItemFinishedPoller(logger, this::getVoltClient);
+        return workItemFinishedPoller;
+    }
+
     static String compressResult(String data) {
         data = constrainInputForCompressor(data);
         try (ByteArrayOutputStream byteStream = new ByteArrayOutputStream()) {
@@ -0,0 +1,198 @@
+// Copyright (C) 2021 Intel Corporation
+//
+// SPDX-License-Identifier: Apache-2.0
+//
+package com.intel.dai.dsimpl.voltdb;
+
+import com.intel.logging.Logger;
+import org.voltdb.VoltTable;
+import org.voltdb.client.Client;
+import org.voltdb.client.ClientResponse;
+import org.voltdb.client.ProcCallException;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+
+/**
+ * Waits for work items to finish with a single poller thread shared by all of the outstanding waits.
+ *
+ * Every poll checks all of the waited for work items of an adapter type with one stored procedure call. The time
+ * between polls doubles (up to MAX_POLL_DELAY_MS) while nothing finishes and goes back to MIN_POLL_DELAY_MS when a
+ * work item finishes or a new wait starts, so long waits no longer keep the database busy. The follow up work of a
+ * finished wait (e.g., marking the work item done) runs on the workers() executor, so it cannot hold up the polling.
+ */
+final class WorkItemFinishedPoller {
+    static final long MIN_POLL_DELAY_MS = 1L;
+    static final long MAX_POLL_DELAY_MS = 256L;
+
+    WorkItemFinishedPoller(Logger log, Supplier<Client> client) {
+        assert log != null:"Passed a null Logger to WorkItemFinishedPoller.ctor()!";
+        assert client != null:"Passed a null client supplier to WorkItemFinishedPoller.ctor()!";
+        log_ = log;
+        client_ = client;
+        executor_ = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "WorkItemFinishedPoller");
+            thread.setDaemon(true);
+            return thread;
+        });
+        workers_ = Executors.newCachedThreadPool(task -> {
+            Thread thread = new Thread(task, "WorkItemFinishedWorker");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * The executor for the blocking work done once a wait finished, it is not the poller thread.
+     */
+    Executor workers() { return workers_; }
+
+    /**
+     * Start waiting for a work item to finish.
+     *
+     * @param sAdapterType The type of adapter working on the work item.
+     * @param lWorkItemId The work item's id.
+     * @return Completes with the work item's State and (still compressed) Results once it finished (State 'F' or
+     * 'E'). Cancelling it stops the wait.
+     */
+    CompletableFuture<String[]> waitFor(String sAdapterType, long lWorkItemId) {
+        CompletableFuture<String[]> future = new CompletableFuture<>();
+        synchronized (this) {
+            waits_.computeIfAbsent(sAdapterType, k -> new HashMap<>())
+                    .computeIfAbsent(lWorkItemId, k -> new ArrayList<>(1)).add(future);
+            delayMs_ = MIN_POLL_DELAY_MS;
+            if (!scheduled_) {
+                scheduled_ = true;
+                executor_.execute(this::poll);
+            }
+        }
+        return future;
+    }
+
+    // Number of work items being waited for.
+    synchronized int outstanding() {
+        int iCount = 0;
+        for (Map<Long, List<CompletableFuture<String[]>>> waits: waits_.values())
+            for (List<CompletableFuture<String[]>> futures: waits.values())
+                for (CompletableFuture<String[]> future: futures)
+                    if (!future.isDone()) ++iCount;
+        return iCount;
+    }
+
+    void shutdown() {
+        executor_.shutdownNow();
+        workers_.shutdown();
+        List<CompletableFuture<String[]>> futures = new ArrayList<>();
+        synchronized (this) {
+            for (Map<Long, List<CompletableFuture<String[]>>> waits: waits_.values())
+                for (List<CompletableFuture<String[]>> workItemFutures: waits.values())
+                    futures.addAll(workItemFutures);
+            waits_.clear();
+        }
+        for (CompletableFuture<String[]> future: futures)
+            future.cancel(false);
+    }
+
+    private void poll() {
+        Map<String, List<Long>> workItems = new HashMap<>();
+        synchronized (this) {
+            Iterator<Map.Entry<String, Map<Long, List<CompletableFuture<String[]>>>>> itTypes = waits_.entrySet().iterator();
+            while (itTypes.hasNext()) {
+                Map.Entry<String, Map<Long, List<CompletableFuture<String[]>>>> type = itTypes.next();
+                for (List<CompletableFuture<String[]>> futures: type.getValue().values())
+                    futures.removeIf(CompletableFuture::isDone);  // cancelled by the waiter.
+                type.getValue().values().removeIf(List::isEmpty);
+                if (type.getValue().isEmpty())
+                    itTypes.remove();
+                else
+                    workItems.put(type.getKey(), new ArrayList<>(type.getValue().keySet()));
+            }
+            if (workItems.isEmpty()) {
+                scheduled_ = false;
+                return;
+            }
+        }
+        boolean bAnyFinished = false;
+        for (Map.Entry<String, List<Long>> type: workItems.entrySet()) {
+            Map<Long, String[]> finished;
+            try {
+                finished = queryFinished(type.getKey(), type.getValue());
+            } catch (Exception e) {
+                log_.exception(e, "Failed to check whether the %s work items %s finished", type.getKey(), type.getValue());
+                for (CompletableFuture<String[]> future: remove(type.getKey(), type.getValue()))
+                    future.completeExceptionally(e);
+                bAnyFinished = true;
+                continue;
+            }
+            for (Map.Entry<Long, String[]> workItem: finished.entrySet()) {
+                for (CompletableFuture<String[]> future: remove(type.getKey(), Collections.singletonList(workItem.getKey())))
+                    future.complete(workItem.getValue());
+                bAnyFinished = true;
+            }
+        }
+        synchronized (this) {
+            if (waits_.isEmpty()) {
+                scheduled_ = false;
+                return;
+            }
+            delayMs_ = bAnyFinished ? MIN_POLL_DELAY_MS : Math.min(delayMs_ * 2L, MAX_POLL_DELAY_MS);
+            try {
+                executor_.schedule(this::poll, delayMs_, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                scheduled_ = false;  // shut down.
+            }
+        }
+    }
+
+    // Returns the State and Results of the work items that finished.
+    private Map<Long, String[]> queryFinished(String sAdapterType, List<Long> workItemIds) throws IOException,
+            ProcCallException {
+        ClientResponse response;
+        if (workItemIds.size() == 1)
+            response = client_.get().callProcedure("WorkItemFinishedResults", sAdapterType, workItemIds.get(0));
+        else {
+            long[] aWorkItemIds = new long[workItemIds.size()];
+            for (int i = 0; i < aWorkItemIds.length; i++)
+                aWorkItemIds[i] = workItemIds.get(i);
+            response = client_.get().callProcedure("WorkItemsFinishedResults", sAdapterType, aWorkItemIds);
+        }
+        if (response.getStatus() != ClientResponse.SUCCESS) {
+            log_.error("WorkItemFinishedPoller - checking the %s work items %s FAILED - Status=%s, StatusString=%s!",
+                    sAdapterType, workItemIds, VoltDbClient.statusByteAsString(response.getStatus()),
+                    response.getStatusString());
+            throw new RuntimeException(response.getStatusString());
+        }
+        VoltTable vt = response.getResults()[0];
+        Map<Long, String[]> finished = new HashMap<>();
+        while (vt.advanceRow()) {
+            long lWorkItemId = (workItemIds.size() == 1) ? workItemIds.get(0) : vt.getLong("Id");
+            finished.put(lWorkItemId, new String[] { vt.getString("State"), vt.getString("Results") });
+        }
+        return finished;
+    }
+
+    private synchronized List<CompletableFuture<String[]>> remove(String sAdapterType, List<Long> workItemIds) {
+        List<CompletableFuture<String[]>> removed = new ArrayList<>();
+        Map<Long, List<CompletableFuture<String[]>>> waits = waits_.get(sAdapterType);
+        if (waits == null)
+            return removed;
+        for (Long lWorkItemId: workItemIds) {
+            List<CompletableFuture<String[]>> futures = waits.remove(lWorkItemId);
+            if (futures != null)
+                removed.addAll(futures);
+        }
+        if (waits.isEmpty())
+            waits_.remove(sAdapterType);
+        return removed;
+    }
+
+    private final Logger log_;
+    private final Supplier<Client> client_;
+    private final ScheduledExecutorService executor_;
+    private final ExecutorService workers_;
+    private final Map<String, Map<Long, List<CompletableFuture<String[]>>>> waits_ = new HashMap<>();
+    private boolean scheduled_ = false;
+    private long delayMs_ = MIN_POLL_DELAY_MS;
+}
@@ -0,0 +1,191 @@
+// Copyright (C) 2021 Intel Corporation
+//
+// SPDX-License-Identifier: Apache-2.0
+//
+package com.intel.dai.locations;
+
+import java.util.*;
+
+/**
+ * Hierarchical index of DAI location strings (e.g. R2-CH03-N2, where each '-' separated part is one level).
+ *
+ * Every location added to the index, and every one of its ancestors, gets a small integer id (ids are dense and
+ * start at 0), so sets of locations can be handled as BitSets. The parent of a location is an array lookup and all of
+ * the added locations under a location (e.g. all of the nodes in R2-CH03) are found by walking its subtree instead of
+ * matching the prefix of every location string.
+ *
+ * Ancestors that were only created for the hierarchy are not members of the index: contains() is false for them and
+ * they are not returned by the subtree queries.
+ *
+ * The index is not thread safe while locations are being added, build it before sharing it.
+ */
+public final class LocationIndex {
+    public static final int NONE = -1;
+    public static final char SEPARATOR = '-';
+
+    public LocationIndex() {}
+
+    public LocationIndex(Collection<String> locations) {
+        for (String location: locations)
+            add(location);
+    }
+
+    /**
+     * Get the parent of a location string without splitting it.
+     *
+     * @param location The location.
+     * @return The parent location, or null for a top level location.
+     */
+    public static String parentLocation(String location) {
+        int separator = location.lastIndexOf(SEPARATOR);
+        return (separator > 0) ? location.substring(0, separator) : null;
+    }
+
+    /**
+     * Add a location (and its ancestors) to the index.
+     *
+     * @param location The location, can not be null or empty.
+     * @return The location's id.
+     */
+    public int add(String location) {
+        if (location == null || location.isEmpty())
+            throw new IllegalArgumentException("A location can not be null or empty!");
+        int id = addNode(location);
+        members_.set(id);
+        return id;
+    }
+
+    /**
+     * @return The id of a location (member or ancestor), NONE if the location is not in the index.
+     */
+    public int id(String location) {
+        Integer id = ids_.get(location);
+        return (id == null) ? NONE : id;
+    }
+
+    public String location(int id) { return locations_.get(id); }
+
+    public int parent(int id) { return parents_[id]; }
+
+    // Number of levels above a location, 0 for a top level location.
+    public int depth(int id) { return depths_[id]; }
+
+    public boolean contains(String location) {
+        int id = id(location);
+        return id != NONE && members_.get(id);
+    }
+
+    // Number of ids (members and ancestors).
+    public int size() { return locations_.size(); }
+
+    // Number of locations that were added.
+    public int members() { return members_.cardinality(); }
+
+    /**
+     * Get the ids of the added locations at or under a location.
+     *
+     * @param id The location's id.
+     * @return The ids, empty if there are none.
+     */
+    public BitSet subtree(int id) {
+        BitSet subtree = new BitSet(size());
+        int[] stack = new int[Math.max(8, maxDepth_ + 1)];
+        int top = 0;
+        stack[top++] = id;
+        while (top > 0) {
+            int node = stack[--top];
+            if (members_.get(node))
+                subtree.set(node);
+            for (int child = firstChild_[node]; child != NONE; child = nextSibling_[child]) {
+                if (top == stack.length)
+                    stack = Arrays.copyOf(stack, stack.length * 2);
+                stack[top++] = child;
+            }
+        }
+        return subtree;
+    }
+
+    /**
+     * Get the added locations at or under a location, e.g. all of the nodes in R2-CH03.
+     *
+     * @param location The location.
+     * @return The locations, empty if the location is not in the index.
+     */
+    public Set<String> locationsUnder(String location) {
+        int id = id(location);
+        return (id == NONE) ? Collections.emptySet() : locations(subtree(id));
+    }
+
+    /**
+     * Get the direct children (members or ancestors) of a location.
+     */
+    public List<String> children(String location) {
+        int id = id(location);
+        if (id == NONE)
+            return Collections.emptyList();
+        List<String> children = new ArrayList<>();
+        for (int child = firstChild_[id]; child != NONE; child = nextSibling_[child])
+            children.add(locations_.get(child));
+        return children;
+    }
+
+    /**
+     * Convert locations to ids, locations that are not in the index are ignored.
+     */
+    public BitSet ids(Collection<String> locations) {
+        BitSet ids = new BitSet(size());
+        for (String location: locations) {
+            int id = id(location);
+            if (id != NONE)
+                ids.set(id);
+        }
+        return ids;
+    }
+
+    /**
+     * Convert ids back to locations.
+     */
+    public Set<String> locations(BitSet ids) {
+        Set<String> locations = new HashSet<>(Math.max(16, ids.cardinality() * 2));
+        for (int id = ids.nextSetBit(0); id >= 0; id = ids.nextSetBit(id + 1))
+            locations.add(locations_.get(id));
+        return locations;
+    }
+
+    private int addNode(String location) {
+        Integer existing = ids_.get(location);
+        if (existing != null)
+            return existing;
+        String parentLocation = parentLocation(location);
+        int parent = (parentLocation == null) ? NONE : addNode(parentLocation);
+        int id = locations_.size();
+        if (id == parents_.length) {
+            int capacity = parents_.length * 2;
+            parents_ = Arrays.copyOf(parents_, capacity);
+            depths_ = Arrays.copyOf(depths_, capacity);
+            firstChild_ = Arrays.copyOf(firstChild_, capacity);
+            nextSibling_ = Arrays.copyOf(nextSibling_, capacity);
+        }
+        locations_.add(location);
+        ids_.put(location, id);
+        parents_[id] = parent;
+        depths_[id] = (parent == NONE) ? 0 : depths_[parent] + 1;
+        maxDepth_ = Math.max(maxDepth_, depths_[id]);
+        firstChild_[id] = NONE;
+        if (parent != NONE) {
+            nextSibling_[id] = firstChild_[parent];
+            firstChild_[parent] = id;
+        } else
+            nextSibling_[id] = NONE;
+        return id;
+    }
+
+    private final HashMap<String, Integer> ids_ = new HashMap<>();
+    private final ArrayList<String> locations_ = new ArrayList<>();
+    private final BitSet members_ = new BitSet();
+    private int[] parents_ = new int[64];
+    private int[] depths_ = new int[64];
+    private int[] firstChild_ = new int[64];
+    private int[] nextSibling_ = new int[64];
+    private int maxDepth_ = 0;
+}
@@ -11,6 +11,7 @@ import org.voltdb.VoltTable
 import org.voltdb.VoltType
 import org.voltdb.client.Client
 import org.voltdb.client.ClientResponse
+import org.voltdb.client.ProcedureCallback
 import spock.lang.Specification
 
 import java.util.concurrent.TimeoutException
@@ -421,6 +422,34 @@ class AdapterDaiMgrSpec extends Specification {
         then: thrown(RuntimeException)
     }
 
+    def "Test determineInitialNodeStates sets the node states in batches"() {
+        given:
+        client_.callProcedure("ComputeNodeCount") >> buildResultScalar(3L)
+        def response = Mock(ClientResponse)
+        response.getStatus() >> ClientResponse.SUCCESS
+        VoltTable table = new VoltTable(new VoltTable.ColumnInfo("Lctn", VoltType.STRING),
+                new VoltTable.ColumnInfo("IpAddr", VoltType.STRING), new VoltTable.ColumnInfo("State", VoltType.STRING))
+        table.addRow("R0-CN0", "10.0.0.1", "M")
+        table.addRow("R0-CN1", "10.0.0.2", "M")
+        table.addRow("R0-CN2", "10.0.0.3", "E")
+        response.getResults() >> [ table ]
+        client_.callProcedure("ComputeNodeListOfChildren", "SN0") >> response
+        def success = Mock(ClientResponse)
+        success.getStatus() >> ClientResponse.SUCCESS
+        underTest_.mNodeProber = new NodeReachabilityProber(logger_, 2, 1000,
+                NodeReachabilityProber.fakeHosts(["10.0.0.1", "10.0.0.3"] as Set, 0L))
+        underTest_.mAlreadyChkdInitialNodeStates = false
+
+        when: def result = underTest_.determineInitialNodeStates("SN0")
+
+        then:
+        result == 0L
+        1 * client_.callProcedure("ComputeNodeSetStates", { it as List == ["R0-CN0"] }, "A", _, _, _) >> success
+        1 * client_.callProcedure("ComputeNodeSetStates", { it as List == ["R0-CN1"] }, "M", _, _, _) >> success
+        1 * baseAdapter_.logRasEventNoEffectedJob("RasProvFoundNodeAlreadyActive", _, "R0-CN0", _, _, _)
+        0 * client_.callProcedure(_ as ProcedureCallback, *_)
+    }
+
     def "Test cleanupStaleAdapterInstancesOnThisServiceNode with exception"() {
         given:
         def response = Mock(ClientResponse)
@@ -28,13 +28,13 @@ class DbConnectionFactorySpec extends Specification {
 
 class JdbcStoreTelemetrySpec extends Specification {
     def "createConnection"() {
-        def ts = new JdbcStoreTelemetry()
+        def ts = new JdbcStoreTelemetry(Mock(Logger))
         ts.connection_ = Mock(Connection)
         when: ts.createConnection()
         then: notThrown Exception
     }
     def "createlogEnvDataAggregatedPreparedCall"() {
-        def ts = new JdbcStoreTelemetry()
+        def ts = new JdbcStoreTelemetry(Mock(Logger))
         ts.telemetryAggregatedData_ = Mock(PreparedStatement)
         when: ts.createlogEnvDataAggregatedPreparedCall()
         then: notThrown Exception
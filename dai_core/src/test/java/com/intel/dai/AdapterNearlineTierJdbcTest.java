@@ -9,6 +9,7 @@ import com.intel.dai.dsapi.DataStoreFactory;
 import com.intel.dai.dsapi.DataLoaderApi;
 import com.intel.dai.exceptions.AdapterException;
 import com.intel.dai.exceptions.DataStoreException;
+import com.intel.config_io.ConfigIOFactory;
 import com.intel.logging.Logger;
 import com.intel.logging.LoggerFactory;
 import com.rabbitmq.client.AMQP;
@@ -25,6 +26,7 @@ import org.voltdb.client.ClientResponse;
 
 import java.io.IOException;
 import java.sql.Connection;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.concurrent.TimeoutException;
@@ -270,6 +272,53 @@ public class AdapterNearlineTierJdbcTest {
         handler.handleDelivery("", envelope, basicProperties, makeBody(null));
     }
 
+    @Test
+    public void handleDeliveryWorkers() throws Exception {
+        IAdapter adapter = mock(IAdapter.class);
+        AdapterNearlineTierJdbc nearline = new MockAdapterNearlineTierJdbc(mockDsFactory);
+        when(adapter.jsonParser()).thenReturn(ConfigIOFactory.getInstance("json"));
+        Channel channel = mock(Channel.class);
+        when(mover.getChannel()).thenReturn(channel);
+        NearlineTableUpdater updater = mock(NearlineTableUpdater.class);
+        DataReceiverWorkerPool workers = new DataReceiverWorkerPool(mock(Logger.class), channel,
+                Arrays.asList(updater, updater), 10, null);
+        AdapterNearlineTierJdbc.AmqpDataReceiverMsgConsumer handler = new AdapterNearlineTierJdbc.AmqpDataReceiverMsgConsumer(
+                mover, 98L, adapter, mock(Logger.class), mock(NearlineTableUpdater.class), nearline, workers);
+        AMQP.BasicProperties basicProperties = new AMQP.BasicProperties("","",new HashMap<String, Object>(),
+                0,0,"","","","",
+                new Date(),"","","","");
+        byte[] body = new String(makeBody("Adapter")).replace("{\"AmqpMessageId\"", "{\"EOM\": false, \"AmqpMessageId\"").getBytes();
+        handler.handleDelivery("", new Envelope(1L, false, "exchange", "routing_key"), basicProperties, body);
+        handler.handleDelivery("", new Envelope(2L, false, "exchange", "routing_key"), basicProperties, makeBody(null));
+        workers.shutdown(5000L);
+        verify(updater).Update(eq("Adapter"), any(VoltTable.class));
+        verify(channel, never()).basicAck(anyLong(), eq(false));
+        verify(channel, atLeastOnce()).basicAck(2L, true);
+    }
+
+    @Test
+    public void handleDeliveryDuplicateIsSkipped() throws Exception {
+        IAdapter adapter = mock(IAdapter.class);
+        AdapterNearlineTierJdbc nearline = new MockAdapterNearlineTierJdbc(mockDsFactory);
+        when(adapter.jsonParser()).thenReturn(ConfigIOFactory.getInstance("json"));
+        when(adapter.workQueue()).thenReturn(mock(WorkQueue.class));
+        Channel channel = mock(Channel.class);
+        when(mover.getChannel()).thenReturn(channel);
+        NearlineTableUpdater updater = mock(NearlineTableUpdater.class);
+        AdapterNearlineTierJdbc.AmqpDataReceiverMsgConsumer handler = new AdapterNearlineTierJdbc.AmqpDataReceiverMsgConsumer(
+                mover, 98L, adapter, mock(Logger.class), updater, nearline);
+        AMQP.BasicProperties basicProperties = new AMQP.BasicProperties("","",new HashMap<String, Object>(),
+                0,0,"","","","",
+                new Date(),"","","","");
+        byte[] body = new String(makeBody("Adapter")).replace("{\"AmqpMessageId\"", "{\"EOM\": false, \"AmqpMessageId\"").getBytes();
+        handler.handleDelivery("", new Envelope(1L, false, "exchange", "routing_key"), basicProperties, body);
+        handler.handleDelivery("", new Envelope(2L, false, "exchange", "routing_key"), basicProperties, body);
+        verify(updater, times(1)).Update(eq("Adapter"), any(VoltTable.class));
+        verify(adapter, never()).logRasEventNoEffectedJob(anyString(), anyString(), any(), anyLong(), any(), anyLong());
+        verify(channel).basicAck(1L, false);
+        verify(channel).basicAck(2L, false);
+    }
+
     private DataReceiverAmqp mover = mock(DataReceiverAmqp.class);
     private DataLoaderApi mockDataLoader;
     private DataStoreFactory mockDsFactory;
@@ -5,6 +5,7 @@
 package com.intel.dai;
 
 import com.intel.dai.dsapi.WorkQueue;
+import com.intel.dai.dsimpl.voltdb.RasEventBatcher;
 import com.intel.dai.exceptions.AdapterException;
 import com.intel.logging.Logger;
 import com.intel.logging.LoggerFactory;
@@ -20,13 +21,13 @@ import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.Collection;
 
+import org.mockito.ArgumentCaptor;
 import org.mockito.ArgumentMatchers;
 import sun.misc.SignalHandler;
 
 import static org.junit.Assert.*;
-import static org.mockito.Mockito.doNothing;
-import static org.mockito.Mockito.mock;
-import static org.mockito.Mockito.when;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
 
 public class AdapterTest {
     class MockAdapter extends Adapter {
@@ -596,6 +597,50 @@ public class AdapterTest {
         adapter_.dontCallBase_ = false;
     }
 
+    @Test
+    public void rasEventBatchingIsDisabledByDefault() throws Exception {
+        ClientResponse noEntry = ucsConfigValueResponse(null);
+        when(client_.callProcedure(eq("UCSCONFIGVALUE.select"), anyString())).thenReturn(noEntry);
+        adapter_.configureRasEventBatching();
+        adapter_.logRasEventNoEffectedJob("RasTestEvent", "data", "Lctn", 1000L, "RAS", 9999L);
+        verify(client_).callProcedure(any(ProcedureCallback.class), eq("RasEventStore"), eq("RasTestEvent"),
+                eq("data"), eq("Lctn"), isNull(), eq(1000L), eq("RAS"), eq(9999L));
+    }
+
+    @Test
+    public void rasEventBatchingFromUcsConfigValue() throws Exception {
+        ClientResponse batchSize = ucsConfigValueResponse("10");
+        ClientResponse flushMs = ucsConfigValueResponse("10");
+        when(client_.callProcedure("UCSCONFIGVALUE.select", "UcsRasEventBatchSize")).thenReturn(batchSize);
+        when(client_.callProcedure("UCSCONFIGVALUE.select", "UcsRasEventBatchFlushMs")).thenReturn(flushMs);
+        adapter_.configureRasEventBatching();
+        adapter_.logRasEventNoEffectedJob("RasTestEvent", "data", "Lctn", 1000L, "RAS", 9999L);
+        adapter_.logRasEventNoEffectedJob("RasTestEvent", "data", "Lctn", 2000L, "RAS", 9999L);
+        ArgumentCaptor<ProcedureCallback> callback = ArgumentCaptor.forClass(ProcedureCallback.class);
+        verify(client_, timeout(5000L)).callProcedure(callback.capture(), eq(RasEventBatcher.StoredProcedure),
+                eq("RasTestEvent"), any(), any(), any(), any(), any(), any(), any());
+        verify(client_, never()).callProcedure(any(ProcedureCallback.class), eq("RasEventStore"), any(), any(),
+                any(), any(), any(), any(), any());
+
+        // A failed batch is reported with the generic callback failed RAS event.
+        ClientResponse failed = mock(ClientResponse.class);
+        when(failed.getStatus()).thenReturn(ClientResponse.GRACEFUL_FAILURE);
+        when(failed.getStatusString()).thenReturn("failed");
+        callback.getValue().clientCallback(failed);
+        verify(client_).callProcedure(any(ProcedureCallback.class), eq("RasEventStore"),
+                eq("RasGenAdapterMyCallbackForHouseKeepingLongRtrnValueFailed"), contains("StatusString=failed"),
+                isNull(), isNull(), anyLong(), eq("RAS"), eq(9999L));
+    }
+
+    private ClientResponse ucsConfigValueResponse(String value) {
+        VoltTable table = new VoltTable(new VoltTable.ColumnInfo("Value", VoltType.STRING));
+        if (value != null)
+            table.addRow(value);
+        ClientResponse response = mock(ClientResponse.class);
+        when(response.getResults()).thenReturn(new VoltTable[] { table });
+        return response;
+    }
+
     MockAdapter adapter_;
     WorkQueue workQueue_;
     Logger log_;
@@ -0,0 +1,61 @@
+// Copyright (C) 2021 Intel Corporation
+//
+// SPDX-License-Identifier: Apache-2.0
+//
+package com.intel.dai;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class AmqpMessageIdTrackerTest {
+    @Test
+    public void inOrder() {
+        AmqpMessageIdTracker tracker = new AmqpMessageIdTracker(0L);
+        for (long id = 1L; id <= 5L; id++)
+            assertEquals(0L, tracker.messageReceived(id, 1L));
+        assertEquals(5L, tracker.lastInOrderMessageId());
+    }
+
+    @Test
+    public void strictOrderWithoutIntervalFirstId() {
+        AmqpMessageIdTracker tracker = new AmqpMessageIdTracker(10L);
+        assertEquals(0L, tracker.messageReceived(11L, -1L));
+        assertEquals(2L, tracker.messageReceived(14L, -1L));
+        assertEquals(14L, tracker.lastInOrderMessageId());
+        assertEquals(-1L, tracker.messageReceived(12L, -1L));
+    }
+
+    @Test
+    public void reorderedWithinInterval() {
+        AmqpMessageIdTracker tracker = new AmqpMessageIdTracker(0L);
+        assertEquals(0L, tracker.messageReceived(3L, 1L));
+        assertEquals(0L, tracker.messageReceived(1L, 1L));
+        assertEquals(1L, tracker.lastInOrderMessageId());
+        assertEquals(0L, tracker.messageReceived(4L, 1L));
+        assertEquals(0L, tracker.messageReceived(2L, 1L));
+        assertEquals(4L, tracker.lastInOrderMessageId());
+    }
+
+    @Test
+    public void lostInEarlierInterval() {
+        AmqpMessageIdTracker tracker = new AmqpMessageIdTracker(0L);
+        assertEquals(0L, tracker.messageReceived(1L, 1L));
+        assertEquals(0L, tracker.messageReceived(3L, 1L));
+        // Interval 2 starts at id 5, ids 2 and 4 of interval 1 are lost, id 6 may still arrive.
+        assertEquals(2L, tracker.messageReceived(7L, 5L));
+        assertEquals(4L, tracker.lastInOrderMessageId());
+        assertEquals(0L, tracker.messageReceived(5L, 5L));
+        assertEquals(0L, tracker.messageReceived(6L, 5L));
+        assertEquals(7L, tracker.lastInOrderMessageId());
+    }
+
+    @Test
+    public void duplicate() {
+        AmqpMessageIdTracker tracker = new AmqpMessageIdTracker(0L);
+        assertEquals(0L, tracker.messageReceived(2L, 1L));
+        assertEquals(-1L, tracker.messageReceived(2L, 1L));
+        assertEquals(0L, tracker.messageReceived(1L, 1L));
+        assertEquals(-1L, tracker.messageReceived(1L, 1L));
+    }
+}
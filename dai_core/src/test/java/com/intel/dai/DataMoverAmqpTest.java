@@ -0,0 +1,121 @@
+// Copyright (C) 2021 Intel Corporation
+//
+// SPDX-License-Identifier: Apache-2.0
+//
+package com.intel.dai;
+
+import com.rabbitmq.client.*;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.io.IOException;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class DataMoverAmqpTest {
+    @Before
+    public void setUp() throws Exception {
+        channel_ = mock(Channel.class, withSettings().extraInterfaces(Recoverable.class));
+        when(channel_.getNextPublishSeqNo()).thenReturn(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L);
+        when(channel_.waitForConfirms(anyLong())).thenReturn(true);
+        connection_ = mock(Connection.class);
+        when(connection_.createChannel()).thenReturn(channel_);
+    }
+
+    @Test
+    public void publishWithoutConfirms() throws Exception {
+        DataMoverAmqp mover = new DataMoverAmqp(connection_, 1, 0, 100L);
+        assertFalse(mover.usingPublisherConfirms());
+        mover.publish("Job", null, BODY);
+        mover.waitForConfirms(100L);
+        verify(channel_, never()).confirmSelect();
+        verify(channel_).basicPublish("", Adapter.DataMoverQueueName, null, BODY);
+        verify(channel_, never()).waitForConfirms(anyLong());
+    }
+
+    @Test
+    public void publishWaitsForConfirms() throws Exception {
+        DataMoverAmqp mover = new DataMoverAmqp(connection_, 1, 2, 100L);
+        ConfirmListener listener = confirmListener();
+        mover.publish("Job", null, BODY);
+        mover.publish("Job", null, BODY);
+        listener.handleAck(2L, true);
+        mover.publish("Job", null, BODY);
+        mover.publish("Job", null, BODY);
+        mover.waitForConfirms(100L);
+        verify(channel_).confirmSelect();
+        verify(channel_, times(4)).basicPublish("", Adapter.DataMoverQueueName, null, BODY);
+    }
+
+    @Test(expected = IOException.class)
+    public void publishTimesOutWithoutConfirms() throws Exception {
+        DataMoverAmqp mover = new DataMoverAmqp(connection_, 1, 1, 10L);
+        mover.publish("Job", null, BODY);
+        mover.publish("Job", null, BODY);
+    }
+
+    @Test
+    public void nackedMessagesAreResent() throws Exception {
+        DataMoverAmqp mover = new DataMoverAmqp(connection_, 1, 2, 100L);
+        ConfirmListener listener = confirmListener();
+        mover.publish("Job", null, BODY);
+        mover.publish("Job", null, OTHER_BODY);
+        listener.handleAck(1L, false);
+        listener.handleNack(2L, false);
+        mover.waitForConfirms(100L);
+        verify(channel_, times(1)).basicPublish("", Adapter.DataMoverQueueName, null, BODY);
+        verify(channel_, times(2)).basicPublish("", Adapter.DataMoverQueueName, null, OTHER_BODY);
+    }
+
+    @Test
+    public void unconfirmedMessagesAreResentAfterRecovery() throws Exception {
+        DataMoverAmqp mover = new DataMoverAmqp(connection_, 1, 2, 100L);
+        ConfirmListener listener = confirmListener();
+        ArgumentCaptor<RecoveryListener> captor = ArgumentCaptor.forClass(RecoveryListener.class);
+        verify((Recoverable) channel_).addRecoveryListener(captor.capture());
+        mover.publish("Job", null, BODY);
+        mover.publish("Job", null, OTHER_BODY);
+        captor.getValue().handleRecovery((Recoverable) channel_);
+        mover.publish("Job", null, BODY);  // permits of the lost messages were freed up.
+        listener.handleAck(3L, false);
+        mover.waitForConfirms(100L);
+        verify(channel_, times(3)).basicPublish("", Adapter.DataMoverQueueName, null, BODY);
+        verify(channel_, times(2)).basicPublish("", Adapter.DataMoverQueueName, null, OTHER_BODY);
+    }
+
+    @Test
+    public void waitForConfirmsGivesUpOnRepeatedNacks() throws Exception {
+        DataMoverAmqp mover = new DataMoverAmqp(connection_, 1, 1, 100L);
+        ConfirmListener listener = confirmListener();
+        doAnswer(invocation -> { listener.handleNack(Long.MAX_VALUE, true); return null; })
+                .when(channel_).basicPublish(anyString(), anyString(), any(), any(byte[].class));
+        mover.publish("Job", null, BODY);
+        try {
+            mover.waitForConfirms(100L);
+            fail();
+        } catch(IOException e) {
+            verify(channel_, times(DataMoverAmqp.MaxResends + 1)).basicPublish("", Adapter.DataMoverQueueName,
+                    null, BODY);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void ctorBadChannels() throws Exception {
+        new DataMoverAmqp(connection_, 0, 0, 100L);
+    }
+
+    private ConfirmListener confirmListener() {
+        ArgumentCaptor<ConfirmListener> captor = ArgumentCaptor.forClass(ConfirmListener.class);
+        verify(channel_).addConfirmListener(captor.capture());
+        return captor.getValue();
+    }
+
+    private Channel channel_;
+    private Connection connection_;
+
+    private static final byte[] BODY = "{\"TableName\":\"Job\"}".getBytes();
+    private static final byte[] OTHER_BODY = "{\"TableName\":\"Job\",\"Part\":2}".getBytes();
+}
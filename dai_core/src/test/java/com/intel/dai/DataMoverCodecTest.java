@@ -0,0 +1,153 @@
+// Copyright (C) 2021 Intel Corporation
+//
+// SPDX-License-Identifier: Apache-2.0
+//
+package com.intel.dai;
+
+import com.intel.config_io.ConfigIO;
+import com.intel.config_io.ConfigIOFactory;
+import com.intel.properties.PropertyMap;
+import com.rabbitmq.client.AMQP;
+import com.rabbitmq.client.impl.LongStringHelper;
+import org.junit.Before;
+import org.junit.Test;
+import org.voltdb.VoltTable;
+import org.voltdb.VoltType;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class DataMoverCodecTest {
+    @Before
+    public void setUp() {
+        table_ = new VoltTable(new VoltTable.ColumnInfo("Lctn", VoltType.STRING),
+                new VoltTable.ColumnInfo("DbUpdatedTimestamp", VoltType.TIMESTAMP),
+                new VoltTable.ColumnInfo("Value", VoltType.FLOAT),
+                new VoltTable.ColumnInfo("Count", VoltType.BIGINT));
+        for(int i = 0; i < 500; i++)
+            table_.addRow("R0-CH0-CN" + i, 1_000_000L * i, i * 1.5, (i % 3 == 0) ? null : (long)i);
+        table_.setStatusCode((byte)3);
+        header_ = new HashMap<>();
+        header_.put("EOM", false);
+        header_.put("IntervalId", 7L);
+        header_.put("TableName", "ComputeNode");
+        header_.put("Part", 1L);
+        header_.put("Of", 2L);
+    }
+
+    @Test
+    public void formatFromString() {
+        assertEquals(DataMoverCodec.Format.BINARY, DataMoverCodec.Format.fromString(" Binary "));
+        assertEquals(DataMoverCodec.Format.BINARY_DEFLATE, DataMoverCodec.Format.fromString("binary_deflate"));
+        assertEquals(DataMoverCodec.Format.BINARY_DEFLATE, DataMoverCodec.Format.fromString("deflate"));
+        assertEquals(DataMoverCodec.Format.JSON, DataMoverCodec.Format.fromString("json"));
+        assertEquals(DataMoverCodec.Format.JSON, DataMoverCodec.Format.fromString("unknown"));
+        assertEquals(DataMoverCodec.Format.JSON, DataMoverCodec.Format.fromString(null));
+    }
+
+    @Test
+    public void roundTripBinary() throws IOException {
+        roundTrip(DataMoverCodec.Format.BINARY);
+    }
+
+    @Test
+    public void roundTripDeflate() throws IOException {
+        AMQP.BasicProperties properties = roundTrip(DataMoverCodec.Format.BINARY_DEFLATE);
+        assertEquals("deflate", properties.getContentEncoding());
+        int uncompressed = DataMoverCodec.encodeTable(table_, DataMoverCodec.Format.BINARY).length;
+        assertTrue(DataMoverCodec.encodeTable(table_, DataMoverCodec.Format.BINARY_DEFLATE).length < uncompressed);
+    }
+
+    @Test
+    public void roundTripEmptyTable() throws IOException {
+        VoltTable empty = new VoltTable(table_.getTableSchema());
+        AMQP.BasicProperties properties = DataMoverCodec.binaryProperties(header_, DataMoverCodec.Format.BINARY);
+        VoltTable result = DataMoverCodec.decodeTable(DataMoverCodec.encodeTable(empty,
+                DataMoverCodec.Format.BINARY), properties);
+        assertEquals(0, result.getRowCount());
+        assertEquals(4, result.getColumnCount());
+    }
+
+    @Test
+    public void isBinary() {
+        assertTrue(DataMoverCodec.isBinary(DataMoverCodec.binaryProperties(header_, DataMoverCodec.Format.BINARY)));
+        assertFalse(DataMoverCodec.isBinary(new AMQP.BasicProperties.Builder().build()));
+        assertFalse(DataMoverCodec.isBinary(null));
+    }
+
+    @Test
+    public void jsonMessage() throws Exception {
+        ConfigIO parser = ConfigIOFactory.getInstance("json");
+        assertNotNull(parser);
+        AMQP.BasicProperties properties = DataMoverCodec.binaryProperties(header_, DataMoverCodec.Format.BINARY);
+        PropertyMap message = DataMoverCodec.jsonMessage(DataMoverCodec.headerFromProperties(properties), table_,
+                parser);
+        assertFalse(message.containsKey(DataMoverCodec.FormatVersionHeader));
+        assertEquals("ComputeNode", message.getString("TableName"));
+        assertEquals(2L, message.getLong("Of"));
+        VoltTable result = VoltTable.fromJSONString(parser.toString(message));
+        assertEquals(table_.getRowCount(), result.getRowCount());
+        assertEquals(table_.getColumnCount(), result.getColumnCount());
+        result.advanceRow();
+        assertEquals("R0-CH0-CN0", result.getString("Lctn"));
+    }
+
+    @Test
+    public void headerFromProperties() throws IOException {
+        Map<String, Object> received = new HashMap<>(header_);
+        received.put("TableName", LongStringHelper.asLongString("ComputeNode"));
+        received.put(DataMoverCodec.FormatVersionHeader, DataMoverCodec.FormatVersion);
+        PropertyMap header = DataMoverCodec.headerFromProperties(new AMQP.BasicProperties.Builder()
+                .contentType(DataMoverCodec.BinaryContentType).headers(received).build());
+        assertFalse(header.getBooleanOrDefault("EOM", true));
+        assertEquals(7L, header.getLongOrDefault("IntervalId", 0L));
+        assertEquals("ComputeNode", header.getStringOrDefault("TableName", null));
+        assertEquals(2L, header.getLongOrDefault("Of", 0L));
+    }
+
+    @Test(expected = IOException.class)
+    public void headerFromPropertiesNewerVersion() throws IOException {
+        Map<String, Object> received = new HashMap<>(header_);
+        received.put(DataMoverCodec.FormatVersionHeader, DataMoverCodec.FormatVersion + 1L);
+        DataMoverCodec.headerFromProperties(new AMQP.BasicProperties.Builder().headers(received).build());
+    }
+
+    @Test(expected = IOException.class)
+    public void headerFromPropertiesMissingHeaders() throws IOException {
+        DataMoverCodec.headerFromProperties(new AMQP.BasicProperties.Builder().build());
+    }
+
+    @Test(expected = IOException.class)
+    public void decodeTruncated() throws IOException {
+        byte[] body = DataMoverCodec.encodeTable(table_, DataMoverCodec.Format.BINARY);
+        byte[] truncated = new byte[body.length - 10];
+        System.arraycopy(body, 0, truncated, 0, truncated.length);
+        DataMoverCodec.decodeTable(truncated, DataMoverCodec.binaryProperties(header_, DataMoverCodec.Format.BINARY));
+    }
+
+    private AMQP.BasicProperties roundTrip(DataMoverCodec.Format format) throws IOException {
+        AMQP.BasicProperties properties = DataMoverCodec.binaryProperties(header_, format);
+        assertEquals(DataMoverCodec.BinaryContentType, properties.getContentType());
+        assertEquals(2, (int)properties.getDeliveryMode()); // persistent
+        VoltTable result = DataMoverCodec.decodeTable(DataMoverCodec.encodeTable(table_, format), properties);
+        assertEquals(3, result.getStatusCode());
+        assertEquals(table_.getRowCount(), result.getRowCount());
+        table_.resetRowPosition();
+        while(table_.advanceRow()) {
+            assertTrue(result.advanceRow());
+            assertEquals(table_.getString("Lctn"), result.getString("Lctn"));
+            assertEquals(table_.getTimestampAsLong("DbUpdatedTimestamp"),
+                    result.getTimestampAsLong("DbUpdatedTimestamp"));
+            assertEquals(table_.getDouble("Value"), result.getDouble("Value"), 0.0);
+            assertEquals(table_.getLong("Count"), result.getLong("Count"));
+            assertEquals(table_.wasNull(), result.wasNull());
+        }
+        return properties;
+    }
+
+    private VoltTable table_;
+    private Map<String, Object> header_;
+}
@@ -0,0 +1,151 @@
+// Copyright (C) 2021 Intel Corporation
+//
+// SPDX-License-Identifier: Apache-2.0
+//
+package com.intel.dai;
+
+import com.intel.logging.Logger;
+import com.rabbitmq.client.Channel;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+public class DataReceiverWorkerPoolTest {
+    @Before
+    public void setUp() {
+        channel_ = mock(Channel.class);
+        updaters_ = Arrays.asList(mock(NearlineTableUpdater.class), mock(NearlineTableUpdater.class));
+        saved_ = Collections.synchronizedList(new ArrayList<>());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void ctorNoUpdaters() {
+        new DataReceiverWorkerPool(mock(Logger.class), channel_, new ArrayList<>(), 1, null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void ctorBadAckBatchSize() {
+        new DataReceiverWorkerPool(mock(Logger.class), channel_, updaters_, 0, null);
+    }
+
+    @Test
+    public void partitionsByTable() throws Exception {
+        DataReceiverWorkerPool pool = createPool(1);
+        assertEquals(2, pool.workers());
+        assertEquals(pool.partitionOf("ComputeNode"), pool.partitionOf("ComputeNode"));
+        assertEquals(0, pool.partitionOf(null));
+        pool.shutdown(1000L);
+    }
+
+    @Test
+    public void ackWaitsForEarlierDeliveries() throws Exception {
+        DataReceiverWorkerPool pool = createPool(10);
+        pool.delivered(1L, "restart1");
+        pool.delivered(2L, "restart2");
+        pool.delivered(3L, "restart3");
+        pool.completed(2L);
+        pool.completed(3L);
+        verify(channel_, never()).basicAck(anyLong(), anyBoolean());
+        pool.completed(1L);
+        verify(channel_, times(1)).basicAck(3L, true);
+        assertEquals(Collections.singletonList("restart3"), saved_);
+        pool.shutdown(1000L);
+    }
+
+    @Test
+    public void acksInBatchesWhileBusy() throws Exception {
+        DataReceiverWorkerPool pool = createPool(2);
+        for (long tag = 1L; tag <= 5L; tag++)
+            pool.delivered(tag, "restart" + tag);
+        pool.completed(1L);
+        verify(channel_, never()).basicAck(anyLong(), anyBoolean());
+        pool.completed(2L);
+        verify(channel_).basicAck(2L, true);
+        pool.completed(3L);
+        verify(channel_, never()).basicAck(eq(3L), anyBoolean());
+        pool.completed(5L);
+        pool.completed(4L);
+        verify(channel_).basicAck(5L, true);
+        assertEquals(Arrays.asList("restart2", "restart5"), saved_);
+        pool.shutdown(1000L);
+    }
+
+    @Test
+    public void completedWithoutDelivered() throws Exception {
+        DataReceiverWorkerPool pool = createPool(10);
+        pool.completed(1L);
+        verify(channel_).basicAck(1L, true);
+        assertTrue(saved_.isEmpty());
+        pool.shutdown(1000L);
+    }
+
+    @Test
+    public void submitRunsOnTableWorkerInOrder() throws Exception {
+        DataReceiverWorkerPool pool = createPool(100);
+        List<Integer> order = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch done = new CountDownLatch(20);
+        for (int i = 0; i < 20; i++) {
+            final int index = i;
+            pool.delivered(i + 1L, "restart" + i);
+            pool.submit("Job", i + 1L, updater -> {
+                assertSame(updaters_.get(pool.partitionOf("Job")), updater);
+                order.add(index);
+                done.countDown();
+            });
+        }
+        assertTrue(done.await(5L, TimeUnit.SECONDS));
+        pool.shutdown(5000L);
+        for (int i = 0; i < 20; i++)
+            assertEquals(i, (int) order.get(i));
+        verify(channel_, atLeastOnce()).basicAck(anyLong(), eq(true));
+        verify(channel_, atLeastOnce()).basicAck(20L, true);
+        assertEquals("restart19", saved_.get(saved_.size() - 1));
+    }
+
+    @Test
+    public void failedTaskIsStillAcknowledged() throws Exception {
+        DataReceiverWorkerPool pool = createPool(1);
+        pool.delivered(1L, "restart1");
+        pool.submit("Job", 1L, updater -> { throw new RuntimeException("failed"); });
+        pool.shutdown(5000L);
+        verify(channel_).basicAck(1L, true);
+    }
+
+    @Test
+    public void recoveredChannelStartsTheTagsOver() throws Exception {
+        DataReceiverWorkerPool pool = createPool(1);
+        pool.delivered(1L, "restart1");
+        pool.delivered(2L, "restart2");
+        pool.completed(1L);
+        verify(channel_).basicAck(1L, true);
+        CountDownLatch release = new CountDownLatch(1);
+        pool.submit("Job", 2L, updater -> release.await());
+        pool.channelRecovered();
+        pool.delivered(1L, "restart1b");
+        pool.completed(1L);
+        verify(channel_, times(2)).basicAck(1L, true);
+        release.countDown();
+        pool.shutdown(5000L);
+        verify(channel_, never()).basicAck(eq(2L), anyBoolean());
+        assertEquals(Arrays.asList("restart1", "restart1b"), saved_);
+    }
+
+    private DataReceiverWorkerPool createPool(int ackBatchSize) {
+        return new DataReceiverWorkerPool(mock(Logger.class), channel_, updaters_, ackBatchSize, saved_::add);
+    }
+
+    private Channel channel_;
+    private List<NearlineTableUpdater> updaters_;
+    private List<String> saved_;
+}
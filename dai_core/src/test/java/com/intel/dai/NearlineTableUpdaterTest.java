@@ -15,8 +15,8 @@ import org.voltdb.types.TimestampType;
 import java.sql.*;
 import java.time.Instant;
 
-import static org.mockito.Mockito.mock;
-import static org.mockito.Mockito.when;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.*;
 
 public class NearlineTableUpdaterTest {
     Logger log_ = mock(Logger.class);
@@ -50,6 +50,63 @@ public class NearlineTableUpdaterTest {
         catch (DataStoreException e){}
     }
 
+    @Test
+    public void updateBatched() throws Exception {
+        Connection connection = mock(Connection.class);
+        PreparedStatement stmt = mock(PreparedStatement.class);
+        NearlineTableUpdater updater = new NearlineTableUpdater(connection, log_, 2);
+        when(connection.prepareStatement(ArgumentMatchers.anyString())).thenReturn(stmt);
+        updater.Update("Adapter", makeTable());
+        verify(stmt, times(3)).addBatch();
+        verify(stmt, times(2)).executeBatch();
+        verify(stmt, never()).execute();
+        verify(connection, times(1)).commit();
+    }
+
+    @Test
+    public void updateBatchOfOneRow() throws Exception {
+        Connection connection = mock(Connection.class);
+        PreparedStatement stmt = mock(PreparedStatement.class);
+        NearlineTableUpdater updater = new NearlineTableUpdater(connection, log_, 1);
+        when(connection.prepareStatement(ArgumentMatchers.anyString())).thenReturn(stmt);
+        updater.Update("Adapter", makeTable());
+        verify(stmt, times(3)).addBatch();
+        verify(stmt, times(3)).executeBatch();
+        verify(connection, times(1)).commit();
+    }
+
+    @Test
+    public void updateBatchedError() throws Exception {
+        Connection connection = mock(Connection.class);
+        PreparedStatement stmt = mock(PreparedStatement.class);
+        when(stmt.executeBatch()).thenThrow(new BatchUpdateException());
+        NearlineTableUpdater updater = new NearlineTableUpdater(connection, log_);
+        when(connection.prepareStatement(ArgumentMatchers.anyString())).thenReturn(stmt);
+        try {
+            updater.Update("Adapter", makeTable());
+            fail();
+        } catch (DataStoreException e) {
+            verify(stmt, times(1)).clearBatch();
+            verify(connection, times(1)).rollback();
+        }
+    }
+
+    @Test
+    public void updateProcedureNotBatched() throws Exception {
+        Connection connection = mock(Connection.class);
+        CallableStatement stmt = mock(CallableStatement.class);
+        NearlineTableUpdater updater = new NearlineTableUpdater(connection, log_);
+        when(connection.prepareCall(ArgumentMatchers.anyString())).thenReturn(stmt);
+        updater.Update("RasMetaData", makeTable());
+        verify(stmt, times(3)).execute();
+        verify(stmt, never()).addBatch();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void ctorNegative() {
+        new NearlineTableUpdater(mock(Connection.class), log_, 0);
+    }
+
     private VoltTable makeTable() {
         VoltTable result = new VoltTable(new VoltTable.ColumnInfo[] {
                 new VoltTable.ColumnInfo("column1", VoltType.STRING),
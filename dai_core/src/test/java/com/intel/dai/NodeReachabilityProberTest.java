@@ -0,0 +1,131 @@
+// Copyright (C) 2021 Intel Corporation
+//
+// SPDX-License-Identifier: Apache-2.0
+//
+package com.intel.dai;
+
+import com.intel.logging.Logger;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.*;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+
+public class NodeReachabilityProberTest {
+    @Test
+    public void findsTheReachableNodes() throws Exception {
+        NodeReachabilityProber prober = new NodeReachabilityProber(mock(Logger.class), 4, 1000,
+                NodeReachabilityProber.fakeHosts(new HashSet<>(Arrays.asList("10.0.0.1", "10.0.0.3")), 0L));
+        Set<String> reachable = prober.probe(Arrays.asList("10.0.0.1", "10.0.0.2", "10.0.0.3", null, ""));
+        assertEquals(new HashSet<>(Arrays.asList("10.0.0.1", "10.0.0.3")), reachable);
+        assertTrue(prober.probe(Collections.emptyList()).isEmpty());
+    }
+
+    @Test
+    public void probeErrorsAreUnreachable() throws Exception {
+        NodeReachabilityProber prober = new NodeReachabilityProber(mock(Logger.class), 2, 1000, (address, timeoutMs) -> {
+            if (address.equals("bad"))
+                throw new IOException("unknown host");
+            return true;
+        });
+        assertEquals(Collections.singleton("good"), prober.probe(Arrays.asList("good", "bad")));
+    }
+
+    @Test
+    public void slowNodesAreUnreachable() throws Exception {
+        NodeReachabilityProber prober = new NodeReachabilityProber(mock(Logger.class), 2, 10,
+                NodeReachabilityProber.fakeHosts(Collections.singleton("10.0.0.1"), 50L));
+        assertTrue(prober.probe(Collections.singletonList("10.0.0.1")).isEmpty());
+    }
+
+    @Test
+    public void probesConcurrentlyWithinTheLimit() throws Exception {
+        AtomicInteger active = new AtomicInteger(0);
+        AtomicInteger maxActive = new AtomicInteger(0);
+        NodeReachabilityProber.Probe fake = NodeReachabilityProber.fakeHosts(Collections.emptySet(), 20L);
+        NodeReachabilityProber prober = new NodeReachabilityProber(mock(Logger.class), 8, 1000, (address, timeoutMs) -> {
+            maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+            try {
+                return fake.isReachable(address, timeoutMs);
+            } finally {
+                active.decrementAndGet();
+            }
+        });
+        List<String> addresses = new ArrayList<>();
+        for (int i = 0; i < 64; i++)
+            addresses.add("10.0.1." + i);
+        long start = System.currentTimeMillis();
+        prober.probe(addresses);
+        long elapsed = System.currentTimeMillis() - start;
+        assertTrue(maxActive.get() > 1);
+        assertTrue(maxActive.get() <= 8);
+        assertTrue("took " + elapsed + " ms", elapsed < 64 * 20L);
+    }
+
+    @Test
+    public void localHostIsReachable() throws Exception {
+        NodeReachabilityProber prober = new NodeReachabilityProber(mock(Logger.class), 1, 1000);
+        assertEquals(Collections.singleton("127.0.0.1"), prober.probe(Collections.singletonList("127.0.0.1")));
+    }
+
+    @Test
+    public void acceptedAndRefusedConnectionsAreReachable() throws Exception {
+        try (ServerSocket server = new ServerSocket(0, 50, InetAddress.getLoopbackAddress())) {
+            NodeReachabilityProber accepting = new NodeReachabilityProber(mock(Logger.class), 4, 1000,
+                    server.getLocalPort());
+            assertEquals(Collections.singleton("127.0.0.1"), accepting.probe(Collections.singletonList("127.0.0.1")));
+        }
+        int closedPort;
+        try (ServerSocket server = new ServerSocket(0, 50, InetAddress.getLoopbackAddress())) {
+            closedPort = server.getLocalPort();
+        }
+        NodeReachabilityProber refusing = new NodeReachabilityProber(mock(Logger.class), 4, 1000, closedPort);
+        assertEquals(Collections.singleton("127.0.0.1"), refusing.probe(Collections.singletonList("127.0.0.1")));
+    }
+
+    @Test
+    public void silentNodesShareOneTimeout() throws Exception {
+        // Once the accept queue of a listening socket is full, connection attempts to it are not answered.
+        try (ServerSocket server = new ServerSocket(0, 1)) {
+            List<Socket> queued = new ArrayList<>();
+            try {
+                for (int i = 0; i < 3; i++) {
+                    Socket socket = new Socket();
+                    queued.add(socket);
+                    try {
+                        socket.connect(new InetSocketAddress("127.0.0.1", server.getLocalPort()), 200);
+                    } catch (SocketTimeoutException e) {
+                        break;  // the queue is full.
+                    }
+                }
+                List<String> addresses = new ArrayList<>();
+                for (int i = 2; i < 34; i++)
+                    addresses.add("127.0.0." + i);
+                addresses.add("no.such.host.invalid");
+                NodeReachabilityProber prober = new NodeReachabilityProber(mock(Logger.class), 8, 200,
+                        server.getLocalPort());
+                long start = System.currentTimeMillis();
+                assertTrue(prober.probe(addresses).isEmpty());
+                long elapsed = System.currentTimeMillis() - start;
+                assertTrue("took " + elapsed + " ms", elapsed >= 200L && elapsed < 32 * 200L / 2);
+            } finally {
+                for (Socket socket: queued)
+                    socket.close();
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void ctorRejectsBadPort() {
+        new NodeReachabilityProber(mock(Logger.class), 1, 1000, 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void ctorRejectsNoConcurrency() {
+        new NodeReachabilityProber(mock(Logger.class), 0, 1000);
+    }
+}
@@ -11,6 +11,9 @@ import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.Types;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
 import org.junit.Test;
@@ -23,6 +26,9 @@ import org.mockito.stubbing.Answer;
 
 import com.intel.logging.Logger;
 import com.intel.dai.exceptions.DataStoreException;
+import org.voltdb.client.Client;
+import org.voltdb.client.ClientResponse;
+import org.voltdb.client.ProcedureCallback;
 
 public class DataLoaderApiJdbcTest {
     @Before
@@ -151,25 +157,22 @@ public class DataLoaderApiJdbcTest {
         // Must have stored data in the Online DB in each active (TABLES) and history table (HISTORY_TABLES)
         Mockito.verify(mockOnlineConn, Mockito.times(TABLES.length + HISTORY_TABLES.size()))
                 .prepareStatement(Mockito.anyString());
-        Mockito.verify(mockActiveStoreStmt, Mockito.times(TABLES.length)).execute(); // One record per table
-        Mockito.verify(mockHistoryStoreStmt, Mockito.times(HISTORY_TABLES.size())).execute(); // One record per table
+        Mockito.verify(mockActiveStoreStmt, Mockito.times(TABLES.length)).addBatch(); // One record per table
+        Mockito.verify(mockActiveStoreStmt, Mockito.times(TABLES.length)).executeBatch();
+        Mockito.verify(mockHistoryStoreStmt, Mockito.times(HISTORY_TABLES.size())).addBatch(); // One record per table
+        Mockito.verify(mockHistoryStoreStmt, Mockito.times(HISTORY_TABLES.size())).executeBatch();
+        Mockito.verify(mockActiveStoreStmt, Mockito.never()).execute();
+        // The Nearline tier rows must be fetched in chunks
+        Mockito.verify(mockLoadStmt, Mockito.times(TABLES.length)).setFetchSize(Mockito.intThat(size -> size > 0));
         // All the Nearline tier data must have been retrieved from result sets
         for (int i = 0; i < mockResultSets.length; i++) {
             // All the data from the result sets (data from Nearline tables) must have been retrieved (note: result
-            // sets have one row and all dummy tables have the same number of fields
-            if (HISTORY_TABLES.containsKey(TABLES[i])) { // Has a history table?
-                // Data is retrieved twice: once for active table and once for history table
-                Mockito.verify(
-                        mockResultSets[i],
-                        Mockito.times(DUMMY_TABLE_FIELDS.length * 2))
-                        .getObject(Mockito.anyString());
-            } else {
-                // Data is retrieved once
-                Mockito.verify(
-                        mockResultSets[i],
-                        Mockito.times(DUMMY_TABLE_FIELDS.length))
-                        .getObject(Mockito.anyString());
-            }
+            // sets have one row and all dummy tables have the same number of fields).  Data is retrieved once, even
+            // when it is also stored in a history table.
+            Mockito.verify(
+                    mockResultSets[i],
+                    Mockito.times(DUMMY_TABLE_FIELDS.length))
+                    .getObject(Mockito.anyInt());
         }
         // All the data must have been stored in the respective active and history tables
         for (int i = 1; i <= DUMMY_TABLE_FIELDS.length; i++) {
@@ -268,12 +271,247 @@ public class DataLoaderApiJdbcTest {
         preparePopulateOnlineTierFromNearlineTier(mockLoadStmt, mockActiveStoreStmt, mockHistoryStoreStmt, mockValue,
                 mockResultSets);
         // Throw exception when storing in Online tier
-        Mockito.when(mockActiveStoreStmt.execute()).thenThrow(new SQLException("Connection closed by server"));
+        Mockito.when(mockActiveStoreStmt.executeBatch()).thenThrow(new SQLException("Connection closed by server"));
 
         // Should handle exception and throw DataStoreException
         dataLoaderApi.populateOnlineTierFromNearlineTier();
     }
 
+    @Test
+    public void populateOnlineTierFromNearlineTierStoresRowsInBatches() throws Exception {
+        CallableStatement mockLoadStmt = Mockito.mock(CallableStatement.class);
+        PreparedStatement mockActiveStoreStmt = Mockito.mock(PreparedStatement.class);
+        PreparedStatement mockHistoryStoreStmt = Mockito.mock(PreparedStatement.class);
+        ResultSet[] mockResultSets = new ResultSet[TABLES.length];
+
+        preparePopulateOnlineTierFromNearlineTier(mockLoadStmt, mockActiveStoreStmt, mockHistoryStoreStmt, "value",
+                mockResultSets);
+        // Five records in each result set, stored two at a time
+        for (ResultSet mockResultSet : mockResultSets) {
+            Mockito.when(mockResultSet.next()).thenReturn(true, true, true, true, true, false);
+        }
+        dataLoaderApi.insertBatchSize = 2;
+
+        dataLoaderApi.populateOnlineTierFromNearlineTier();
+
+        Mockito.verify(mockActiveStoreStmt, Mockito.times(5 * TABLES.length)).addBatch();
+        Mockito.verify(mockActiveStoreStmt, Mockito.times(3 * TABLES.length)).executeBatch();
+        Mockito.verify(mockHistoryStoreStmt, Mockito.times(5 * HISTORY_TABLES.size())).addBatch();
+        Mockito.verify(mockHistoryStoreStmt, Mockito.times(3 * HISTORY_TABLES.size())).executeBatch();
+    }
+
+    @Test(expected = DataStoreException.class)
+    public void populateOnlineTierFromNearlineTierHandlesMissingColumn() throws Exception {
+        CallableStatement mockLoadStmt = Mockito.mock(CallableStatement.class);
+        PreparedStatement mockActiveStoreStmt = Mockito.mock(PreparedStatement.class);
+        PreparedStatement mockHistoryStoreStmt = Mockito.mock(PreparedStatement.class);
+        ResultSet[] mockResultSets = new ResultSet[TABLES.length];
+
+        preparePopulateOnlineTierFromNearlineTier(mockLoadStmt, mockActiveStoreStmt, mockHistoryStoreStmt, "value",
+                mockResultSets);
+        Map<String, String[]> tableFields = new HashMap<>(TABLE_FIELDS);
+        tableFields.put("DummyTable", new String[] {"field1", "noSuchField"});
+        dataLoaderApi.tableFields = tableFields;
+
+        // Should detect the missing column before storing anything and throw DataStoreException
+        try {
+            dataLoaderApi.populateOnlineTierFromNearlineTier();
+        } finally {
+            Mockito.verify(mockActiveStoreStmt, Mockito.never()).executeBatch();
+        }
+    }
+
+    @Test
+    public void populateOnlineTierFromNearlineTierLoadsTablesInParallel() throws Exception {
+        List<Connection> onlineConns = Collections.synchronizedList(new ArrayList<>());
+        List<Connection> nearlineConns = Collections.synchronizedList(new ArrayList<>());
+        List<PreparedStatement> storeStmts = Collections.synchronizedList(new ArrayList<>());
+        DbConnectionPool.ConnectionSource onlineSource = () -> {
+            Connection conn = mockOnlineConnection(storeStmts);
+            onlineConns.add(conn);
+            return conn;
+        };
+        DbConnectionPool.ConnectionSource nearlineSource = () -> {
+            Connection conn = mockNearlineConnection();
+            nearlineConns.add(conn);
+            return conn;
+        };
+        dataLoaderApi = new DataLoaderApiJdbc(onlineSource.createConnection(), nearlineSource.createConnection(),
+                onlineSource, nearlineSource, 3, mockLog);
+        String[] tables = {"DummyTable", "DummyTable2", "DummyTable3", "DummyTable4", "DummyTable5"};
+        Map<String, String[]> tableFields = new HashMap<>();
+        Map<String, String> tableToProcedure = new HashMap<>();
+        for (String table : tables) {
+            tableFields.put(table, DUMMY_TABLE_FIELDS);
+            tableToProcedure.put(table, "get_" + table + "_records()");
+        }
+        dataLoaderApi.tables = tables;
+        dataLoaderApi.tableFields = tableFields;
+        dataLoaderApi.historyTables = HISTORY_TABLES;
+        dataLoaderApi.tableToProcedure = tableToProcedure;
+        dataLoaderApi.historyTableFields = HISTORY_TABLE_FIELDS;
+
+        dataLoaderApi.populateOnlineTierFromNearlineTier();
+
+        // Each loader uses its own connections, the additional ones are closed once all the tables are loaded
+        Assert.assertEquals(3, onlineConns.size());
+        Assert.assertEquals(3, nearlineConns.size());
+        for (int i = 1; i < 3; i++) {
+            Mockito.verify(onlineConns.get(i)).close();
+            Mockito.verify(nearlineConns.get(i)).close();
+        }
+        Mockito.verify(onlineConns.get(0), Mockito.never()).close();
+        // Every table (and the one history table) must have been stored exactly once
+        Assert.assertEquals(tables.length + HISTORY_TABLES.size(), storeStmts.size());
+        for (PreparedStatement stmt : storeStmts) {
+            Mockito.verify(stmt).addBatch();
+            Mockito.verify(stmt).executeBatch();
+        }
+    }
+
+    @Test(expected = DataStoreException.class)
+    public void populateOnlineTierFromNearlineTierInParallelHandlesOnlineStoreException() throws Exception {
+        DbConnectionPool.ConnectionSource onlineSource = () -> mockOnlineConnection(new ArrayList<>());
+        dataLoaderApi = new DataLoaderApiJdbc(mockOnlineConn, mockNearlineConnection(), onlineSource,
+                this::mockNearlineConnection, 2, mockLog);
+        PreparedStatement mockStoreStmt = Mockito.mock(PreparedStatement.class);
+        Mockito.when(mockOnlineConn.prepareStatement(Mockito.anyString())).thenReturn(mockStoreStmt);
+        Mockito.when(mockStoreStmt.executeBatch()).thenThrow(new SQLException("Connection closed by server"));
+        dataLoaderApi.tables = TABLES;
+        dataLoaderApi.tableFields = TABLE_FIELDS;
+        dataLoaderApi.historyTables = HISTORY_TABLES;
+        dataLoaderApi.tableToProcedure = TABLE_TO_PROCEDURE;
+        dataLoaderApi.historyTableFields = HISTORY_TABLE_FIELDS;
+
+        // Should handle the exception of one of the loaders and throw DataStoreException
+        dataLoaderApi.populateOnlineTierFromNearlineTier();
+    }
+
+    @Test
+    public void populatesOnlineTierThroughVoltClient() throws Exception {
+        Client client = mockVoltClient(ClientResponse.SUCCESS);
+        dataLoaderApi = new DataLoaderApiJdbc(mockOnlineConn, mockNearlineConn, null, null, 1, client, mockLog);
+        CallableStatement mockLoadStmt = Mockito.mock(CallableStatement.class);
+        Object mockValue = Mockito.mock(Object.class);
+        preparePopulateOnlineTierFromNearlineTier(mockLoadStmt, Mockito.mock(PreparedStatement.class),
+                Mockito.mock(PreparedStatement.class), mockValue, new ResultSet[TABLES.length]);
+
+        dataLoaderApi.populateOnlineTierFromNearlineTier();
+
+        // One asynchronous insert per row of each active and history table, none through the JDBC connection
+        Mockito.verify(mockOnlineConn, Mockito.never()).prepareStatement(Mockito.anyString());
+        for (String table : new String[] {"DummyTable", "DummyTable2", "DummyTable_History"}) {
+            Mockito.verify(client, Mockito.times(1)).callProcedure(Mockito.any(ProcedureCallback.class),
+                    Mockito.eq("@AdHoc"),
+                    Mockito.eq("insert into " + table + " (field1, field2, field3) values (?, ?, ?);"),
+                    Mockito.eq(mockValue), Mockito.eq(mockValue), Mockito.eq(mockValue));
+        }
+        Mockito.verify(client, Mockito.times(TABLES.length + HISTORY_TABLES.size())).callProcedure(
+                Mockito.any(ProcedureCallback.class), Mockito.anyString(), Mockito.any());
+    }
+
+    @Test(expected = DataStoreException.class)
+    public void populateOnlineTierThroughVoltClientHandlesFailedInserts() throws Exception {
+        Client client = mockVoltClient(ClientResponse.GRACEFUL_FAILURE);
+        dataLoaderApi = new DataLoaderApiJdbc(mockOnlineConn, mockNearlineConn, null, null, 1, client, mockLog);
+        preparePopulateOnlineTierFromNearlineTier(Mockito.mock(CallableStatement.class),
+                Mockito.mock(PreparedStatement.class), Mockito.mock(PreparedStatement.class),
+                Mockito.mock(Object.class), new ResultSet[TABLES.length]);
+
+        dataLoaderApi.populateOnlineTierFromNearlineTier();
+    }
+
+    @Test
+    public void asyncInserterBoundsTheInsertsInFlight() throws Exception {
+        List<ProcedureCallback> callbacks = Collections.synchronizedList(new ArrayList<>());
+        Client client = Mockito.mock(Client.class);
+        Mockito.when(client.callProcedure(Mockito.any(ProcedureCallback.class), Mockito.anyString(), Mockito.any()))
+                .thenAnswer(invocation -> callbacks.add(invocation.getArgument(0)));
+        DataLoaderApiJdbc.AsyncInserter inserter = new DataLoaderApiJdbc.AsyncInserter(client, 2);
+        Object[] row = {null, "a"};
+        int[] columns = {1};
+        inserter.insert("insert", row, columns);
+        inserter.insert("insert", row, columns);
+        Thread third = new Thread(() -> {
+            try {
+                inserter.insert("insert", row, columns);
+            } catch (DataStoreException ex) {
+                throw new RuntimeException(ex);
+            }
+        });
+        third.start();
+        third.join(200L);
+        Assert.assertTrue(third.isAlive()); // Waits for one of the first two inserts
+        Assert.assertEquals(2, callbacks.size());
+
+        ClientResponse response = Mockito.mock(ClientResponse.class);
+        Mockito.when(response.getStatus()).thenReturn(ClientResponse.SUCCESS);
+        callbacks.get(0).clientCallback(response);
+        third.join(5000L);
+        Assert.assertFalse(third.isAlive());
+        callbacks.get(1).clientCallback(response);
+        callbacks.get(2).clientCallback(response);
+        inserter.finish();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void parallelLoadingRequiresConnectionSources() {
+        new DataLoaderApiJdbc(mockOnlineConn, mockNearlineConn, null, null, 2, mockLog);
+    }
+
+    // A client that completes every call at once with the given status
+    private Client mockVoltClient(byte status) throws Exception {
+        ClientResponse response = Mockito.mock(ClientResponse.class);
+        Mockito.when(response.getStatus()).thenReturn(status);
+        Mockito.when(response.getStatusString()).thenReturn("status " + status);
+        Client client = Mockito.mock(Client.class);
+        Mockito.when(client.callProcedure(Mockito.any(ProcedureCallback.class), Mockito.anyString(), Mockito.any()))
+                .thenAnswer(invocation -> {
+                    ((ProcedureCallback) invocation.getArgument(0)).clientCallback(response);
+                    return true;
+                });
+        return client;
+    }
+
+    private Connection mockOnlineConnection(List<PreparedStatement> storeStmts) throws DataStoreException {
+        try {
+            Connection conn = Mockito.mock(Connection.class);
+            Mockito.when(conn.prepareStatement(Mockito.anyString())).thenAnswer(invocation -> {
+                PreparedStatement stmt = Mockito.mock(PreparedStatement.class);
+                storeStmts.add(stmt);
+                return stmt;
+            });
+            return conn;
+        } catch (SQLException ex) {
+            throw new DataStoreException("Unable to mock the connection", ex);
+        }
+    }
+
+    private Connection mockNearlineConnection() throws DataStoreException {
+        try {
+            ResultSetMetaData metaData = Mockito.mock(ResultSetMetaData.class);
+            Mockito.when(metaData.getColumnCount()).thenReturn(DUMMY_TABLE_FIELDS.length);
+            for (int i = 0; i < DUMMY_TABLE_FIELDS.length; i++) {
+                Mockito.when(metaData.getColumnName(i + 1)).thenReturn(DUMMY_TABLE_FIELDS[i]);
+            }
+            Mockito.when(metaData.getColumnType(Mockito.anyInt())).thenReturn(SQL_DATA_TYPE);
+
+            Connection conn = Mockito.mock(Connection.class);
+            Mockito.when(conn.prepareCall(Mockito.anyString())).thenAnswer(invocation -> {
+                ResultSet resultSet = Mockito.mock(ResultSet.class);
+                Mockito.when(resultSet.getMetaData()).thenReturn(metaData);
+                Mockito.when(resultSet.next()).thenReturn(true).thenReturn(false); // One record in result set
+                Mockito.when(resultSet.getObject(Mockito.anyInt())).thenReturn("value");
+                CallableStatement stmt = Mockito.mock(CallableStatement.class);
+                Mockito.when(stmt.executeQuery()).thenReturn(resultSet);
+                return stmt;
+            });
+            return conn;
+        } catch (SQLException ex) {
+            throw new DataStoreException("Unable to mock the connection", ex);
+        }
+    }
+
     private void preparePopulateOnlineTierFromNearlineTier(CallableStatement mockLoadStmt,
                                                            PreparedStatement mockActiveStoreStmt,
                                                            PreparedStatement mockHistoryStoreStmt,
@@ -287,7 +525,7 @@ public class DataLoaderApiJdbcTest {
             mockResultSets[i] = Mockito.mock(ResultSet.class);
             Mockito.when(mockResultSets[i].getMetaData()).thenReturn(mockMetaData);
             Mockito.when(mockResultSets[i].next()).thenReturn(true).thenReturn(false); // One record in result set
-            Mockito.when(mockResultSets[i].getObject(Mockito.anyString())).thenReturn(mockValue);
+            Mockito.when(mockResultSets[i].getObject(Mockito.anyInt())).thenReturn(mockValue);
         }
         // Return a different result set per load (from Nearline connection)
         Mockito.when(mockLoadStmt.executeQuery()).thenAnswer(
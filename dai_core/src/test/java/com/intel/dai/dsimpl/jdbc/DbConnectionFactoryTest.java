@@ -62,6 +62,41 @@ public class DbConnectionFactoryTest {
         Assert.assertSame(mockConn, createdConn);
     }
 
+    @Test
+    public void poolUsesProvidedDbConfig() throws Exception {
+        HashMap<String, String> connParams = new HashMap<>();
+        connParams.put(USERNAME_KEY, USERNAME);
+        connParams.put(PASSWORD_KEY, PASSWORD);
+        connParams.put(URL_KEY, URL);
+        connParams.put("pool-size", "1");
+        connParams.put("pool-checkout-timeout-ms", "10");
+        Mockito.when(mockConfig.getDbConfig()).thenReturn(connParams);
+
+        DbConnectionPool pool = DbConnectionFactory.createPoolFromConfig(mockConfig);
+        pool.getConnection().close();
+        Connection pooledConn = pool.getConnection();
+
+        // Must've created a single connection and reused it
+        Mockito.verify(mockConnCreator, Mockito.times(1)).createConnection(URL, USERNAME, PASSWORD);
+        Mockito.verify(mockConn, Mockito.never()).close();
+        // Must've limited the pool to one connection
+        try {
+            pool.getConnection();
+            Assert.fail();
+        } catch (DataStoreException e) { /* Expected. */ }
+        pooledConn.close();
+    }
+
+    @Test(expected = DataStoreException.class)
+    public void poolRejectsBadDbConfig() throws Exception {
+        HashMap<String, String> connParams = new HashMap<>();
+        connParams.put(URL_KEY, URL);
+        connParams.put("pool-size", "none");
+        Mockito.when(mockConfig.getDbConfig()).thenReturn(connParams);
+
+        DbConnectionFactory.createPoolFromConfig(mockConfig);
+    }
+
     private static final String DRIVER = "com.intel.dai.dsimpl.jdbc.DbConnectionFactoryTest";
     private static final String USERNAME_KEY = "username";
     private static final String USERNAME = "test_user";
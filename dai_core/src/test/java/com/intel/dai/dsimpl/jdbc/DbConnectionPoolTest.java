@@ -0,0 +1,117 @@
+// Copyright (C) 2021 Intel Corporation
+//
+// SPDX-License-Identifier: Apache-2.0
+//
+package com.intel.dai.dsimpl.jdbc;
+
+import com.intel.dai.exceptions.DataStoreException;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+public class DbConnectionPoolTest {
+    @Before
+    public void setUp() {
+        created_ = new ArrayList<>();
+        source_ = () -> {
+            Connection connection = mock(Connection.class);
+            created_.add(connection);
+            return connection;
+        };
+    }
+
+    @Test
+    public void reusesReturnedConnections() throws Exception {
+        DbConnectionPool pool = new DbConnectionPool(source_, 2, 1000L, 60000L, 0);
+        Connection first = pool.getConnection();
+        first.close();
+        Connection second = pool.getConnection();
+        second.close();
+        assertEquals(1, created_.size());
+        assertEquals(1, pool.numIdle());
+        assertEquals(0, pool.numCheckedOut());
+        verify(created_.get(0), never()).close();
+        verify(created_.get(0), times(2)).rollback();
+        assertTrue(first.isClosed());
+    }
+
+    @Test(expected = SQLException.class)
+    public void returnedConnectionCanNotBeUsed() throws Exception {
+        DbConnectionPool pool = new DbConnectionPool(source_, 1, 1000L, 60000L, 0);
+        Connection connection = pool.getConnection();
+        connection.close();
+        connection.close();
+        connection.prepareCall("{call GetComputeNodeSummary()}");
+    }
+
+    @Test
+    public void checkoutTimesOutWhenExhausted() throws Exception {
+        DbConnectionPool pool = new DbConnectionPool(source_, 1, 10L, 60000L, 0);
+        Connection connection = pool.getConnection();
+        try {
+            pool.getConnection();
+            fail();
+        } catch (DataStoreException e) {
+            assertEquals(1, pool.numCheckedOut());
+        }
+        connection.close();
+        pool.getConnection().close();
+        assertEquals(1, created_.size());
+    }
+
+    @Test
+    public void invalidIdleConnectionsAreReplaced() throws Exception {
+        DbConnectionPool pool = new DbConnectionPool(source_, 1, 1000L, 0L, 0);
+        pool.getConnection().close();
+        when(created_.get(0).isValid(anyInt())).thenReturn(false);
+        pool.getConnection().close();
+        assertEquals(2, created_.size());
+        verify(created_.get(0)).close();
+    }
+
+    @Test
+    public void failedConnectionsAreNotReused() throws Exception {
+        DbConnectionPool pool = new DbConnectionPool(source_, 1, 1000L, 60000L, 0);
+        Connection connection = pool.getConnection();
+        doThrow(new SQLException("connection lost")).when(created_.get(0)).rollback();
+        connection.close();
+        assertEquals(0, pool.numIdle());
+        verify(created_.get(0)).close();
+    }
+
+    @Test
+    public void statementsGetTheQueryTimeout() throws Exception {
+        DbConnectionPool pool = new DbConnectionPool(source_, 1, 1000L, 60000L, 30);
+        try (Connection connection = pool.getConnection()) {
+            CallableStatement stmt = mock(CallableStatement.class);
+            when(created_.get(0).prepareCall(anyString())).thenReturn(stmt);
+            assertSame(stmt, connection.prepareCall("{call GetComputeNodeSummary()}"));
+            verify(stmt).setQueryTimeout(30);
+        }
+    }
+
+    @Test
+    public void closeDropsIdleConnections() throws Exception {
+        DbConnectionPool pool = new DbConnectionPool(source_, 2, 1000L, 60000L, 0);
+        Connection checkedOut = pool.getConnection();
+        pool.getConnection().close();
+        pool.close();
+        verify(created_.get(1)).close();
+        checkedOut.close();
+        verify(created_.get(0)).close();
+        assertEquals(0, pool.numIdle());
+    }
+
+    private List<Connection> created_;
+    private DbConnectionPool.ConnectionSource source_;
+}
@@ -10,13 +10,12 @@ import java.sql.PreparedStatement;
 import java.sql.SQLException;
 
 import static org.junit.Assert.*;
-import static org.mockito.Mockito.doThrow;
-import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.*;
 
 public class JdbcStoreTelemetryTest {
     class MockJdbcStoreTelemetry extends JdbcStoreTelemetry {
-        public MockJdbcStoreTelemetry(Logger log) {
-            super(log);
+        public MockJdbcStoreTelemetry(Logger log, int batchSize, long flushIntervalMs) {
+            super(log, batchSize, flushIntervalMs);
         }
 
         @Override
@@ -27,6 +26,7 @@ public class JdbcStoreTelemetryTest {
         @Override
         protected void createConnection() throws DataStoreException {
             connection_ = mock(Connection.class);
+            connections++;
             if(commitFail) {
                 try {
                     doThrow(SQLException.class).when(connection_).commit();
@@ -44,7 +44,8 @@ public class JdbcStoreTelemetryTest {
     public void setUp() {
         commitFail = false;
         rollbackFail = false;
-        store = new MockJdbcStoreTelemetry(mock(Logger.class));
+        connections = 0;
+        store = new MockJdbcStoreTelemetry(mock(Logger.class), 1, 60_000L);
     }
 
     @Test
@@ -78,7 +79,83 @@ public class JdbcStoreTelemetryTest {
         store.close();
     }
 
+    @Test
+    public void batchesRows() throws Exception {
+        store = new MockJdbcStoreTelemetry(mock(Logger.class), 3, 60_000L);
+        store.logEnvDataAggregated("TEST_DATA", "LOCATION", 1L, 0.0, 0.0, 0.0, "TYPE", 999L);
+        store.logEnvDataAggregated("TEST_DATA", "LOCATION", 2L, 0.0, 0.0, 0.0, "TYPE", 999L);
+        assertEquals(0, connections);
+        store.logEnvDataAggregated("TEST_DATA", "LOCATION", 3L, 0.0, 0.0, 0.0, "TYPE", 999L);
+        assertEquals(1, connections);
+        verify(store.telemetryAggregatedData_, times(1)).execute();
+        assertEquals(1L, store.getFlushCount());
+        assertEquals(3L, store.getFlushedRows());
+        assertTrue(store.getMaxFlushMicroseconds() >= store.getAverageFlushMicroseconds());
+    }
+
+    @Test
+    public void flushOnClose() throws Exception {
+        store = new MockJdbcStoreTelemetry(mock(Logger.class), 10, 60_000L);
+        store.logEnvDataAggregated("TEST_DATA", "LOCATION", 1L, 0.0, 0.0, 0.0, "TYPE", 999L);
+        store.close();
+        assertEquals(1L, store.getFlushedRows());
+    }
+
+    @Test(expected = DataStoreException.class)
+    public void logAfterClose() throws Exception {
+        store.close();
+        store.logEnvDataAggregated("TEST_DATA", "LOCATION", 1L, 0.0, 0.0, 0.0, "TYPE", 999L);
+    }
+
+    @Test
+    public void flushOnTime() throws Exception {
+        store = new MockJdbcStoreTelemetry(mock(Logger.class), 10, 20L);
+        store.logEnvDataAggregated("TEST_DATA", "LOCATION", 1L, 0.0, 0.0, 0.0, "TYPE", 999L);
+        for(int i = 0; i < 200 && store.getFlushedRows() == 0L; i++)
+            Thread.sleep(10L);
+        assertEquals(1L, store.getFlushedRows());
+        store.close();
+    }
+
+    @Test
+    public void failedRowsAreCounted() throws Exception {
+        commitFail = true;
+        try {
+            store.logEnvDataAggregated("TEST_DATA", "LOCATION", 1L, 0.0, 0.0, 0.0, "TYPE", 999L);
+            fail();
+        } catch(DataStoreException e) {
+            assertEquals(1L, store.getFailedRows());
+            assertEquals(0L, store.getFlushedRows());
+        }
+    }
+
+    @Test
+    public void failedTimedFlushIsReportedToTheNextCall() throws Exception {
+        commitFail = true;
+        store = new MockJdbcStoreTelemetry(mock(Logger.class), 10, 20L);
+        store.logEnvDataAggregated("TEST_DATA", "LOCATION", 1L, 0.0, 0.0, 0.0, "TYPE", 999L);
+        for(int i = 0; i < 200 && store.getFailedRows() == 0L; i++)
+            Thread.sleep(10L);
+        assertEquals(1L, store.getFailedRows());
+        try {
+            store.logEnvDataAggregated("TEST_DATA", "LOCATION", 2L, 0.0, 0.0, 0.0, "TYPE", 999L);
+            fail();
+        } catch(DataStoreException e) {
+            assertTrue(e.getMessage().contains("Dropped 1 rows"));
+        }
+        commitFail = false;
+        store.flush();
+        assertEquals(1L, store.getFlushedRows());
+        store.close();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void ctorNegative() {
+        new JdbcStoreTelemetry(mock(Logger.class), 0, 1L);
+    }
+
+    int connections = 0;
     boolean commitFail = false;
     boolean rollbackFail = false;
-    JdbcStoreTelemetry store;
+    MockJdbcStoreTelemetry store;
 }
\ No newline at end of file
@@ -0,0 +1,143 @@
+// Copyright (C) 2021 Intel Corporation
+//
+// SPDX-License-Identifier: Apache-2.0
+//
+package com.intel.dai.dsimpl.voltdb;
+
+import com.intel.logging.Logger;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.voltdb.client.Client;
+import org.voltdb.client.ClientResponse;
+import org.voltdb.client.ProcedureCallback;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class RasEventBatcherTest {
+    @Before
+    public void setUp() {
+        calls_ = Collections.synchronizedList(new ArrayList<>());
+        client_ = mock(Client.class, invocation -> {
+            if (invocation.getMethod().getName().equals("callProcedure")) {
+                if (failCalls_)
+                    throw new IOException("no connections");
+                calls_.add(invocation.getArguments());
+            }
+            return true;
+        });
+        failures_ = Collections.synchronizedList(new ArrayList<>());
+        batcher_ = new RasEventBatcher(mock(Logger.class), () -> client_, 4, 60000L,
+                (sDescriptiveName, iNumEvents, sStatusString, sReqAdapterType, lReqWorkItemId) ->
+                        failures_.add(String.format("%s,%d,%s,%s,%d", sDescriptiveName, iNumEvents, sStatusString,
+                                sReqAdapterType, lReqWorkItemId)));
+    }
+
+    @After
+    public void tearDown() {
+        batcher_.close();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void ctorBadMaxBufferedEvents() {
+        new RasEventBatcher(mock(Logger.class), () -> client_, 0, 1000L, mock(RasEventBatcher.FailureHandler.class));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void ctorBadFlushInterval() {
+        new RasEventBatcher(mock(Logger.class), () -> client_, 10, 0L, mock(RasEventBatcher.FailureHandler.class));
+    }
+
+    @Test
+    public void foldsIdenticalEvents() {
+        for (int i = 0; i < 1000; i++)
+            assertTrue(batcher_.offer("RasEvent1", "data", "R0-CH0-CN0", null, 100L + i, "RAS", 1L));
+        assertTrue(batcher_.offer("RasEvent1", "data", "R0-CH0-CN1", null, 2000L, "RAS", 1L));
+        assertEquals(2, batcher_.numBuffered());
+        assertEquals(999L, batcher_.numFolded());
+        batcher_.flush();
+        assertEquals(1, calls_.size());
+        Object[] args = calls_.get(0);
+        assertTrue(args[0] instanceof ProcedureCallback);
+        assertEquals(RasEventBatcher.StoredProcedure, args[1]);
+        assertEquals("RasEvent1", args[2]);
+        assertArrayEquals(new String[] {"R0-CH0-CN0", "R0-CH0-CN1"}, (String[]) args[4]);
+        assertArrayEquals(new long[] {100L, 2000L}, (long[]) args[6]);
+        assertArrayEquals(new long[] {999L, 0L}, (long[]) args[7]);
+        assertEquals(0, batcher_.numBuffered());
+    }
+
+    @Test
+    public void oneCallPerDescriptiveName() {
+        batcher_.offer("RasEvent1", "data", "R0", null, 1L, "RAS", 1L);
+        batcher_.offer("RasEvent2", "data", "R0", "?", 2L, "RAS", 1L);
+        batcher_.offer("RasEvent1", "other", "R0", null, 3L, "RAS", 1L);
+        batcher_.flush();
+        assertEquals(2, calls_.size());
+        assertEquals("RasEvent1", calls_.get(0)[2]);
+        assertArrayEquals(new String[] {"data", "other"}, (String[]) calls_.get(0)[3]);
+        assertEquals("RasEvent2", calls_.get(1)[2]);
+        assertArrayEquals(new String[] {"?"}, (String[]) calls_.get(1)[5]);
+        assertEquals(2L, batcher_.numCalls());
+    }
+
+    @Test
+    public void fullBufferRefusesNewEvents() {
+        for (int i = 0; i < 4; i++)
+            assertTrue(batcher_.offer("RasEvent1", "data" + i, "R0", null, i, "RAS", 1L));
+        batcher_.close();  // waits for nothing, the flush requested when full may already have run.
+        assertFalse(batcher_.offer("RasEvent1", "data", "R0", null, 5L, "RAS", 1L));
+        int iNumEvents = 0;
+        for (Object[] args: calls_)
+            iNumEvents += ((long[]) args[6]).length;
+        assertEquals(4, iNumEvents);
+    }
+
+    @Test
+    public void keepsEventsWhenConnectionIsDown() {
+        failCalls_ = true;
+        batcher_.offer("RasEvent1", "data", "R0", null, 1L, "RAS", 1L);
+        batcher_.flush();
+        assertEquals(1, batcher_.numBuffered());
+        batcher_.offer("RasEvent1", "data", "R0", null, 2L, "RAS", 1L);
+        assertEquals(1, batcher_.numBuffered());
+        failCalls_ = false;
+        batcher_.flush();
+        assertEquals(1, calls_.size());
+        assertArrayEquals(new long[] {1L}, (long[]) calls_.get(0)[7]);
+    }
+
+    @Test
+    public void failedCallIsReported() throws Exception {
+        batcher_.offer("RasEvent1", "data", "R0", null, 1L, "RAS", 7L);
+        batcher_.offer("RasEvent1", "other", "R0", null, 2L, "MONITOR", 8L);
+        batcher_.flush();
+        ClientResponse response = mock(ClientResponse.class);
+        when(response.getStatus()).thenReturn(ClientResponse.GRACEFUL_FAILURE);
+        when(response.getStatusString()).thenReturn("failed");
+        ((ProcedureCallback) calls_.get(0)[0]).clientCallback(response);
+        assertEquals(Collections.singletonList("RasEvent1,2,failed,RAS,7"), failures_);
+    }
+
+    @Test
+    public void successfulCallIsNotReported() throws Exception {
+        batcher_.offer("RasEvent1", "data", "R0", null, 1L, "RAS", 7L);
+        batcher_.flush();
+        ClientResponse response = mock(ClientResponse.class);
+        when(response.getStatus()).thenReturn(ClientResponse.SUCCESS);
+        ((ProcedureCallback) calls_.get(0)[0]).clientCallback(response);
+        assertTrue(failures_.isEmpty());
+    }
+
+    private Client client_;
+    private RasEventBatcher batcher_;
+    private List<Object[]> calls_;
+    private List<String> failures_;
+    private volatile boolean failCalls_ = false;
+}
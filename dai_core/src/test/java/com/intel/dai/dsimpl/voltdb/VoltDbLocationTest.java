@@ -4,6 +4,7 @@
 
 package com.intel.dai.dsimpl.voltdb;
 
+import com.intel.dai.exceptions.BadInputException;
 import com.intel.dai.exceptions.DataStoreException;
 import com.intel.logging.Logger;
 import org.junit.Before;
@@ -116,4 +117,40 @@ public class VoltDbLocationTest {
         VoltDbLocation lctn = new MockVoltDbLocation(log_, null);
         lctn.reloadCache();
     }
+
+    @Test
+    public void partialLocationsExpandToTheirNodes() throws Exception {
+        VoltTable[] voltArrayCompute = new VoltTable[1];
+        VoltTable computeNodesTable = new VoltTable(
+                new VoltTable.ColumnInfo("Lctn", VoltType.STRING),
+                new VoltTable.ColumnInfo("HostName", VoltType.STRING),
+                new VoltTable.ColumnInfo("BmcHostName", VoltType.STRING));
+        computeNodesTable.addRow("R0-CH0-CN0", "c00", "c00_bmc");
+        computeNodesTable.addRow("R0-CH0-CN1", "c01", "c01_bmc");
+        computeNodesTable.addRow("R0-CH1-CN0", "c10", "c10_bmc");
+        voltArrayCompute[0] = computeNodesTable;
+        when(computeNodesResponse_.getResults()).thenReturn(voltArrayCompute);
+        when(client_.callProcedure(eq("ComputeNodeListLctnHostnameAndBmcHostname"))).thenReturn(computeNodesResponse_);
+        when(client_.callProcedure(eq("ServiceNodeListLctnHostnameAndBmcHostname"))).thenReturn(emptyResponse_);
+        when(client_.callProcedure(eq("MachineDescription"))).thenReturn(emptyResponse_);
+        VoltDbLocation lctn = new MockVoltDbLocation(log_, null);
+
+        assertEquals(new HashSet<>(Arrays.asList("R0-CH0-CN0", "R0-CH0-CN1")),
+                lctn.getLocationsFromNodes(Collections.singleton("R0-CH0")));
+        assertEquals(new HashSet<>(Arrays.asList("c00", "c01", "c10")),
+                lctn.getNodesFromLocations(Collections.singleton("R0")));
+        assertEquals(new HashSet<>(Arrays.asList("R0-CH0-CN0", "R0-CH1-CN0")),
+                lctn.getLocationsFromNodes(new HashSet<>(Arrays.asList("c00", "R0-CH1"))));
+        assertTrue(lctn.getLocationIndex().contains("R0-CH1-CN0"));
+        assertFalse(lctn.getLocationIndex().contains("R0-CH1"));
+    }
+
+    @Test(expected = BadInputException.class)
+    public void unknownPartialLocation() throws Exception {
+        when(client_.callProcedure(eq("ComputeNodeListLctnHostnameAndBmcHostname"))).thenReturn(computeNodesResponse_);
+        when(client_.callProcedure(eq("ServiceNodeListLctnHostnameAndBmcHostname"))).thenReturn(serviceNodesResponse_);
+        when(client_.callProcedure(eq("MachineDescription"))).thenReturn(emptyResponse_);
+        VoltDbLocation lctn = new MockVoltDbLocation(log_, null);
+        lctn.getNodesFromLocations(Collections.singleton("R9"));
+    }
 }
@@ -262,6 +262,50 @@ public class VoltDbNodeInformationTest {
         assertEquals("10.193.0.2", nodeInfo_.getNodesBmcIpAddress("master"));
     }
 
+    @Test
+    public void refreshIfChanged() throws Exception {
+        long[] computeNodeHistoryTimestamp = new long[] {10L};
+        doAnswer(invocation -> newestTimestampResponse(computeNodeHistoryTimestamp[0]))
+                .when(client_).callProcedure("ComputeNodeHistoryNewestDbUpdatedTimestamp");
+        doAnswer(invocation -> newestTimestampResponse(null))
+                .when(client_).callProcedure("ServiceNodeHistoryNewestDbUpdatedTimestamp");
+        assertTrue(nodeInfo_.isComputeNodeLocation("location1"));
+        List<String> nodeLocations = nodeInfo_.getNodeLocations();
+        verify(client_, times(1)).callProcedure("ComputeNodeListLctnAndHostname");
+
+        nodeInfo_.refreshIfChanged();
+        assertEquals("10/0", nodeInfo_.cachedVersion());
+        verify(client_, times(2)).callProcedure("ComputeNodeListLctnAndHostname");
+        nodeInfo_.refreshIfChanged();
+        verify(client_, times(2)).callProcedure("ComputeNodeListLctnAndHostname");
+        verify(client_, never()).callProcedure("ComputeNodeListLctnAndSeqNum");  // never used, so never loaded.
+        verify(client_, never()).callProcedure("DbChgTimestamps");
+
+        computeNodeHistoryTimestamp[0] = 11L;
+        nodeInfo_.refreshIfChanged();
+        verify(client_, times(3)).callProcedure("ComputeNodeListLctnAndHostname");
+        assertNotSame(nodeLocations, nodeInfo_.getNodeLocations());
+        assertEquals(nodeLocations, nodeInfo_.getNodeLocations());
+    }
+
+    @Test
+    public void refreshFailureKeepsCache() throws Exception {
+        when(client_.callProcedure("ComputeNodeHistoryNewestDbUpdatedTimestamp")).thenThrow(ProcCallException.class);
+        Map<String,String> map = nodeInfo_.getServiceHostnameFromLocationMap();
+        nodeInfo_.refreshIfChanged();
+        assertSame(map, nodeInfo_.getServiceHostnameFromLocationMap());
+        assertNull(nodeInfo_.cachedVersion());
+    }
+
+    private ClientResponse newestTimestampResponse(Long timestamp) {
+        ClientResponse response = mock(ClientResponse.class);
+        when(response.getStatus()).thenReturn(ClientResponse.SUCCESS);
+        VoltTable table = new VoltTable(new VoltTable.ColumnInfo("C1", VoltType.TIMESTAMP));
+        table.addRow(timestamp);
+        when(response.getResults()).thenReturn(new VoltTable[] { table });
+        return response;
+    }
+
     @Test
     public void locationListTest() throws Exception {
         nodeInfo_.getComputeNodeLocations();
@@ -9,6 +9,7 @@ import com.intel.dai.exceptions.DataStoreException;
 import com.intel.logging.Logger;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.invocation.InvocationOnMock;
 import org.mockito.stubbing.Answer;
 import org.voltdb.VoltTable;
@@ -147,6 +148,39 @@ public class VoltDbRasEventLogTest {
                 9999L);
     }
 
+    @Test
+    public void batchedEventsAreStoredTogether() throws Exception {
+        VoltDbRasEventLog eventLog = new VoltDbRasEventLogMock();
+        eventLog.enableBatching(10, 60000L);
+        eventLog.logRasEventNoEffectedJob("RasTestEvent", "InstanceData", "Location", 1L, adapter_.adapterType(), 9999L);
+        eventLog.logRasEventNoEffectedJob("RasTestEvent", "InstanceData", "Location", 2L, adapter_.adapterType(), 9999L);
+        eventLog.logRasEventWithEffectedJob("RasTestEvent", "InstanceData", "Location", "JobId", 3L,
+                adapter_.adapterType(), 9999L);
+        eventLog.disableBatching();
+        verify(client_, never()).callProcedure(any(ProcedureCallback.class), eq("RasEventStore"), any(), any(), any(),
+                any(), any(), any(), any());
+        verify(client_, times(1)).callProcedure(any(ProcedureCallback.class), eq(RasEventBatcher.StoredProcedure),
+                eq("RasTestEvent"), any(), any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    public void failedBatchLogsRasEvent() throws Exception {
+        VoltDbRasEventLog eventLog = new VoltDbRasEventLogMock();
+        eventLog.enableBatching(10, 60000L);
+        eventLog.logRasEventNoEffectedJob("RasTestEvent", "InstanceData", "Location", 1L, adapter_.adapterType(), 9999L);
+        eventLog.disableBatching();
+        ArgumentCaptor<ProcedureCallback> callback = ArgumentCaptor.forClass(ProcedureCallback.class);
+        verify(client_).callProcedure(callback.capture(), eq(RasEventBatcher.StoredProcedure), eq("RasTestEvent"),
+                any(), any(), any(), any(), any(), any(), any());
+        ClientResponse failed = mock(ClientResponse.class);
+        when(failed.getStatus()).thenReturn(ClientResponse.GRACEFUL_FAILURE);
+        when(failed.getStatusString()).thenReturn("failed");
+        callback.getValue().clientCallback(failed);
+        verify(client_).callProcedure(any(ProcedureCallback.class), eq("RasEventStore"),
+                eq("RasGenAdapterVoltDbCallBackForHouseKeepingFailed"), contains("StatusString=failed"), isNull(),
+                isNull(), anyLong(), eq("TestType"), eq(9999L));
+    }
+
     private Client client_;
     private IAdapter adapter_;
     private ClientResponse response_;
@@ -21,6 +21,9 @@ import java.nio.file.Files;
 import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.Assert.*;
 import static org.mockito.Mockito.*;
@@ -119,6 +122,22 @@ public class VoltDbWorkQueueTest {
         rasEventMetaData_.delete();
     }
 
+    private ClientResponse finished(String results) {
+        VoltTable table = makeTable(new ArrayList<VoltDbWorkQueueTest.Pair<String,VoltType>>() {{
+            add(new VoltDbWorkQueueTest.Pair<>("State", VoltType.STRING));         // Column 0
+            add(new VoltDbWorkQueueTest.Pair<>("Results", VoltType.STRING));         // Column 1
+        }}, new ArrayList<ArrayList<Object>>() {{
+            add(new ArrayList<Object>() {{
+                add("F"); // State
+                add(VoltDbWorkQueue.compressResult(results)); // Results
+            }}); // Row 0
+        }});
+        ClientResponse response = mock(ClientResponse.class);
+        when(response.getStatus()).thenReturn(ClientResponse.SUCCESS);
+        when(response.getResults()).thenReturn(new VoltTable[] { table });
+        return response;
+    }
+
     private VoltTable makeTable(Collection<VoltDbWorkQueueTest.Pair<String, VoltType>> columns,
                                 Collection<? extends Collection<?>> data) {
         ArrayList<VoltTable.ColumnInfo> columnsList = new ArrayList<>();
@@ -457,6 +476,49 @@ public class VoltDbWorkQueueTest {
                 "RAS",9998L);
     }
 
+    @Test
+    public void slowMarkWorkItemDoneDoesNotStallPolling() throws Exception {
+        ClientResponse done = mock(ClientResponse.class);
+        when(done.getStatus()).thenReturn(ClientResponse.SUCCESS);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ClientResponse finished10 = finished("r10");
+        ClientResponse finished20 = finished("r20");
+        when(client_.callProcedure(eq("WorkItemFinishedResults"), eq("RAS"), eq(10L))).thenReturn(finished10);
+        when(client_.callProcedure(eq("WorkItemFinishedResults"), eq("RAS"), eq(20L))).thenReturn(finished20);
+        when(client_.callProcedure(eq("WorkItemDone"), eq("RAS"), eq(10L))).thenAnswer(invocation -> {
+            started.countDown();
+            release.await();  // a blocked Tier1 call.
+            return done;
+        });
+        when(client_.callProcedure(eq("WorkItemDone"), eq("RAS"), eq(20L))).thenReturn(done);
+        CompletableFuture<String[]> slow = workQueue_.waitForWorkItemToFinishAndMarkDoneAsync("CMD", "RAS", 10L,
+                "RAS", 9998L);
+        assertTrue(started.await(5L, TimeUnit.SECONDS));
+        CompletableFuture<String[]> other = workQueue_.waitForWorkItemToFinishAndMarkDoneAsync("CMD", "RAS", 20L,
+                "RAS", 9998L);
+        assertArrayEquals(new String[] { "F", "r20" }, other.get(5L, TimeUnit.SECONDS));
+        assertFalse(slow.isDone());
+        release.countDown();
+        assertArrayEquals(new String[] { "F", "r10" }, slow.get(5L, TimeUnit.SECONDS));
+        workQueue_.shutdown();
+    }
+
+    @Test
+    public void shutdownStopsWaitingForWorkItems() throws Exception {
+        VoltTable table = makeTable(new ArrayList<VoltDbWorkQueueTest.Pair<String,VoltType>>() {{
+            add(new VoltDbWorkQueueTest.Pair<>("State", VoltType.STRING));         // Column 0
+            add(new VoltDbWorkQueueTest.Pair<>("Results", VoltType.STRING));         // Column 1
+        }}, new ArrayList<ArrayList<Object>>()); // No rows
+        when(client_.callProcedure(ArgumentMatchers.anyString(), ArgumentMatchers.anyString(),
+                ArgumentMatchers.anyLong())).thenReturn(response_);
+        when(response_.getResults()).thenReturn(new VoltTable[] { table });
+        CompletableFuture<String[]> future = workQueue_.waitForWorkItemToFinishAndMarkDoneAsync("CMD", "RAS", 10L,
+                "RAS", 9998L);
+        workQueue_.shutdown();
+        assertTrue(future.isCompletedExceptionally());
+    }
+
     @Test
     public void workingResults() {
         workQueue_.workingResults();
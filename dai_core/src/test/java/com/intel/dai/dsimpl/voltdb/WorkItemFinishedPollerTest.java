@@ -0,0 +1,110 @@
+// Copyright (C) 2021 Intel Corporation
+//
+// SPDX-License-Identifier: Apache-2.0
+//
+package com.intel.dai.dsimpl.voltdb;
+
+import com.intel.logging.Logger;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.voltdb.VoltTable;
+import org.voltdb.VoltType;
+import org.voltdb.client.Client;
+import org.voltdb.client.ClientResponse;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class WorkItemFinishedPollerTest {
+    @Before
+    public void setUp() {
+        client_ = mock(Client.class);
+        poller_ = new WorkItemFinishedPoller(mock(Logger.class), () -> client_);
+    }
+
+    @After
+    public void tearDown() {
+        poller_.shutdown();
+    }
+
+    @Test
+    public void singleWorkItem() throws Exception {
+        ClientResponse notYet = response(ClientResponse.SUCCESS, singleTable());
+        ClientResponse finished = response(ClientResponse.SUCCESS, singleTable("F", "results"));
+        when(client_.callProcedure(eq("WorkItemFinishedResults"), eq("RAS"), eq(10L))).thenReturn(notYet, notYet, finished);
+        CompletableFuture<String[]> future = poller_.waitFor("RAS", 10L);
+        assertArrayEquals(new String[] { "F", "results" }, future.get(5L, TimeUnit.SECONDS));
+        verify(client_, times(3)).callProcedure(eq("WorkItemFinishedResults"), eq("RAS"), eq(10L));
+        assertEquals(0, poller_.outstanding());
+    }
+
+    @Test
+    public void multipleWorkItemsShareOneQuery() throws Exception {
+        VoltTable table = new VoltTable(new VoltTable.ColumnInfo("Id", VoltType.BIGINT),
+                new VoltTable.ColumnInfo("State", VoltType.STRING), new VoltTable.ColumnInfo("Results", VoltType.STRING));
+        table.addRow(11L, "F", "r11");
+        table.addRow(12L, "E", "r12");
+        ClientResponse finished = response(ClientResponse.SUCCESS, table);
+        when(client_.callProcedure(eq("WorkItemsFinishedResults"), eq("RAS"), any(long[].class))).thenReturn(finished);
+        CompletableFuture<String[]> future11;
+        CompletableFuture<String[]> future12;
+        CompletableFuture<String[]> future12Again;
+        synchronized (poller_) {  // register all three before the first poll.
+            future11 = poller_.waitFor("RAS", 11L);
+            future12 = poller_.waitFor("RAS", 12L);
+            future12Again = poller_.waitFor("RAS", 12L);
+        }
+        assertArrayEquals(new String[] { "F", "r11" }, future11.get(5L, TimeUnit.SECONDS));
+        assertArrayEquals(new String[] { "E", "r12" }, future12.get(5L, TimeUnit.SECONDS));
+        assertArrayEquals(new String[] { "E", "r12" }, future12Again.get(5L, TimeUnit.SECONDS));
+        verify(client_, times(1)).callProcedure(eq("WorkItemsFinishedResults"), eq("RAS"), any(long[].class));
+    }
+
+    @Test
+    public void failedQueryFailsTheWait() throws Exception {
+        ClientResponse failed = response(ClientResponse.OPERATIONAL_FAILURE, singleTable());
+        when(client_.callProcedure(anyString(), anyString(), anyLong())).thenReturn(failed);
+        try {
+            poller_.waitFor("RAS", 10L).get(5L, TimeUnit.SECONDS);
+            fail();
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof RuntimeException);
+        }
+    }
+
+    @Test
+    public void backsOffWhileNotFinished() throws Exception {
+        ClientResponse notYet = response(ClientResponse.SUCCESS, singleTable());
+        when(client_.callProcedure(anyString(), anyString(), anyLong())).thenReturn(notYet);
+        CompletableFuture<String[]> future = poller_.waitFor("RAS", 10L);
+        Thread.sleep(1000L);
+        // Without backing off this would have been about a thousand calls.
+        verify(client_, atMost(20)).callProcedure(anyString(), anyString(), anyLong());
+        future.cancel(false);
+        assertEquals(0, poller_.outstanding());
+    }
+
+    private static VoltTable singleTable(String... row) {
+        VoltTable table = new VoltTable(new VoltTable.ColumnInfo("State", VoltType.STRING),
+                new VoltTable.ColumnInfo("Results", VoltType.STRING));
+        if (row.length > 0)
+            table.addRow((Object[]) row);
+        return table;
+    }
+
+    private static ClientResponse response(byte status, VoltTable table) {
+        ClientResponse response = mock(ClientResponse.class);
+        when(response.getStatus()).thenReturn(status);
+        when(response.getResults()).thenAnswer(invocation -> { table.resetRowPosition(); return new VoltTable[] { table }; });
+        return response;
+    }
+
+    private Client client_;
+    private WorkItemFinishedPoller poller_;
+}
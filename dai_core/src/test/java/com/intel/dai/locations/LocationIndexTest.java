@@ -0,0 +1,81 @@
+// Copyright (C) 2021 Intel Corporation
+//
+// SPDX-License-Identifier: Apache-2.0
+//
+package com.intel.dai.locations;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class LocationIndexTest {
+    @Before
+    public void setUp() {
+        index_ = new LocationIndex(Arrays.asList("R0-CH0-CN0", "R0-CH0-CN1", "R0-CH1-CN0", "R1-CH0-CN0", "SN0"));
+    }
+
+    @Test
+    public void parentsAndDepths() {
+        int id = index_.id("R0-CH0-CN1");
+        assertEquals(2, index_.depth(id));
+        assertEquals("R0-CH0", index_.location(index_.parent(id)));
+        assertEquals("R0", index_.location(index_.parent(index_.parent(id))));
+        assertEquals(LocationIndex.NONE, index_.parent(index_.id("R0")));
+        assertEquals(LocationIndex.NONE, index_.id("R2"));
+        assertEquals("R0-CH0", LocationIndex.parentLocation("R0-CH0-CN1"));
+        assertNull(LocationIndex.parentLocation("R0"));
+    }
+
+    @Test
+    public void membersAndAncestors() {
+        assertTrue(index_.contains("R0-CH0-CN0"));
+        assertTrue(index_.contains("SN0"));
+        assertFalse(index_.contains("R0-CH0"));
+        assertFalse(index_.contains("R2"));
+        assertEquals(5, index_.members());
+        assertEquals(10, index_.size());
+        assertEquals(index_.id("R0-CH0-CN0"), index_.add("R0-CH0-CN0"));
+        assertEquals(10, index_.size());
+    }
+
+    @Test
+    public void subtrees() {
+        assertEquals(new HashSet<>(Arrays.asList("R0-CH0-CN0", "R0-CH0-CN1", "R0-CH1-CN0")),
+                index_.locationsUnder("R0"));
+        assertEquals(new HashSet<>(Arrays.asList("R0-CH0-CN0", "R0-CH0-CN1")), index_.locationsUnder("R0-CH0"));
+        assertEquals(Collections.singleton("R1-CH0-CN0"), index_.locationsUnder("R1-CH0-CN0"));
+        assertTrue(index_.locationsUnder("R2").isEmpty());
+        assertEquals(new HashSet<>(Arrays.asList("R0-CH0", "R0-CH1")), new HashSet<>(index_.children("R0")));
+        assertTrue(index_.children("SN0").isEmpty());
+    }
+
+    @Test
+    public void idSets() {
+        BitSet ids = index_.ids(Arrays.asList("R0-CH0-CN0", "SN0", "unknown"));
+        assertEquals(2, ids.cardinality());
+        assertEquals(new HashSet<>(Arrays.asList("R0-CH0-CN0", "SN0")), index_.locations(ids));
+        BitSet rack = index_.subtree(index_.id("R0"));
+        rack.and(ids);
+        assertEquals(Collections.singleton("R0-CH0-CN0"), index_.locations(rack));
+    }
+
+    @Test
+    public void growsPastInitialCapacity() {
+        LocationIndex index = new LocationIndex();
+        for (int i = 0; i < 500; i++)
+            index.add("R" + (i % 5) + "-CH" + (i % 10) + "-CN" + i);
+        assertEquals(500, index.members());
+        assertEquals(100, index.locationsUnder("R0").size());
+        assertEquals(50, index.locationsUnder("R0-CH5").size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void emptyLocation() {
+        index_.add("");
+    }
+
+    private LocationIndex index_;
+}
@@ -0,0 +1,103 @@
+// Copyright (C) 2021 Intel Corporation
+//
+// SPDX-License-Identifier: Apache-2.0
+//
+package com.intel.dai.network_listener;
+
+import com.intel.logging.Logger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs tasks on a fixed set of worker threads where the worker is chosen from the location of the data. All tasks
+ * for the same location run on the same worker in submission order, tasks for different locations run in parallel.
+ */
+class LocationPartitionedExecutor {
+    /**
+     * Create and start the workers.
+     *
+     * @param logger The logger for task failures.
+     * @param partitions The number of worker threads.
+     * @param queueCapacity The maximum number of pending tasks per worker before submit() blocks.
+     */
+    LocationPartitionedExecutor(Logger logger, int partitions, int queueCapacity) {
+        assert logger != null:"Passed a null Logger to LocationPartitionedExecutor.ctor()!";
+        if(partitions <= 0) throw new IllegalArgumentException("The partition count must be greater than 0!");
+        if(queueCapacity <= 0) throw new IllegalArgumentException("The queue capacity must be greater than 0!");
+        log_ = logger;
+        queues_ = new ArrayList<>(partitions);
+        workers_ = new Thread[partitions];
+        for(int i = 0; i < partitions; i++) {
+            BlockingQueue<Runnable> queue = new ArrayBlockingQueue<>(queueCapacity);
+            queues_.add(queue);
+            workers_[i] = new Thread(() -> runWorker(queue), "location-partition-" + i);
+            workers_[i].start();
+        }
+    }
+
+    /**
+     * Queue a task on the worker owning the location, blocking while that worker's queue is full.
+     *
+     * @param location The location used to choose the worker; null locations all go to the same worker.
+     * @param task The task to run.
+     */
+    void submit(String location, Runnable task) {
+        BlockingQueue<Runnable> queue = queues_.get(partitionOf(location));
+        boolean interrupted = false;
+        while(true) {
+            try {
+                queue.put(task);
+                break;
+            } catch(InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if(interrupted) Thread.currentThread().interrupt();
+    }
+
+    int partitionOf(String location) {
+        return (location == null) ? 0 : Math.floorMod(location.hashCode(), queues_.size());
+    }
+
+    int partitions() { return queues_.size(); }
+
+    /**
+     * Run all queued tasks then stop the workers.
+     */
+    void shutdown() {
+        stopping_ = true;
+        for(Thread worker: workers_) {
+            try {
+                worker.join();
+            } catch(InterruptedException e) { /* Interrupt is ignored and treated and joined */ }
+        }
+    }
+
+    private void runWorker(BlockingQueue<Runnable> queue) {
+        while(!stopping_ || !queue.isEmpty()) {
+            Runnable task;
+            try {
+                task = queue.poll(WAIT_MS, TimeUnit.MILLISECONDS);
+            } catch(InterruptedException e) {
+                continue;
+            }
+            if(task == null) continue;
+            try {
+                task.run();
+            } catch(RuntimeException e) {
+                log_.exception(e, "A partitioned task failed");
+            }
+        }
+    }
+
+    private final Logger log_;
+    private final List<BlockingQueue<Runnable>> queues_;
+    private final Thread[] workers_;
+    private volatile boolean stopping_ = false;
+
+    private static final long WAIT_MS = 100L;
+}
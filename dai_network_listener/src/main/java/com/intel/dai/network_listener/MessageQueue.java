@@ -0,0 +1,273 @@
+// Copyright (C) 2021 Intel Corporation
+//
+// SPDX-License-Identifier: Apache-2.0
+//
+package com.intel.dai.network_listener;
+
+import com.intel.logging.Logger;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded hand-off queue between the network sinks (producers) and the processing threads (consumers) of the
+ * NetworkListenerCore. Consumers block until a message arrives instead of polling. When the queue is full the
+ * configured OverflowPolicy decides what happens to the incoming message.
+ */
+class MessageQueue {
+    enum OverflowPolicy {
+        BLOCK,       // The sink thread waits for room in the queue (backpressure to the source).
+        DROP_OLDEST, // The oldest queued message is discarded to make room.
+        SPILL;       // Messages are appended to a spill file and read back in order as room becomes available.
+
+        static OverflowPolicy fromString(String name) {
+            if(name == null) return BLOCK;
+            switch(name.trim().toLowerCase()) {
+                case "dropoldest":
+                case "drop_oldest":
+                    return DROP_OLDEST;
+                case "spill":
+                    return SPILL;
+                default:
+                    return BLOCK;
+            }
+        }
+    }
+
+    static final class FullMessage {
+        FullMessage(String subject, String message) {
+            this.subject = subject;
+            this.message = message;
+            this.queuedNs = System.nanoTime();
+        }
+        final String subject;
+        final String message;
+        final long queuedNs;
+    }
+
+    /**
+     * Create the bounded queue.
+     *
+     * @param logger The logger for spill file errors.
+     * @param capacity The maximum number of in-memory messages.
+     * @param policy What to do when the in-memory queue is full.
+     * @param spillDirectory The folder for the spill file, only used for OverflowPolicy.SPILL.
+     */
+    MessageQueue(Logger logger, int capacity, OverflowPolicy policy, File spillDirectory) {
+        assert logger != null:"Passed a null Logger to MessageQueue.ctor()!";
+        if(capacity <= 0) throw new IllegalArgumentException("The queue capacity must be greater than 0!");
+        log_ = logger;
+        capacity_ = capacity;
+        policy_ = (policy == null) ? OverflowPolicy.BLOCK : policy;
+        spillDirectory_ = spillDirectory;
+        queue_ = new ArrayBlockingQueue<>(capacity);
+    }
+
+    /**
+     * Called by the sink threads to add a message. Depending on the policy this may block the caller.
+     *
+     * @param subject The subject of the message.
+     * @param message The raw message.
+     */
+    void offer(String subject, String message) {
+        FullMessage full = new FullMessage(subject, message);
+        if(closed_) {
+            dropped_.incrementAndGet(); // Nothing takes messages from a closed queue.
+            return;
+        }
+        switch(policy_) {
+            case DROP_OLDEST:
+                while(!queue_.offer(full))
+                    if(queue_.poll() != null)
+                        dropped_.incrementAndGet();
+                break;
+            case SPILL:
+                synchronized(spillLock_) {
+                    // Once spilling started all new messages go to the file until it is drained to keep the order.
+                    if(spillPending_ > 0 || !queue_.offer(full)) {
+                        spill(full);
+                        // Move spilled messages into any free room right away, this also wakes waiting consumers.
+                        if(queue_.remainingCapacity() > 0)
+                            refillFromSpill();
+                    }
+                }
+                break;
+            default:
+                boolean queued = queue_.offer(full);
+                if(!queued) {
+                    blocked_.incrementAndGet();
+                    try {
+                        while(!closed_ && !queued)
+                            queued = queue_.offer(full, BLOCK_CHECK_MS, TimeUnit.MILLISECONDS);
+                    } catch(InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    if(!queued)
+                        dropped_.incrementAndGet(); // Closed or interrupted while waiting for room.
+                }
+                break;
+        }
+        updateHighWaterMark();
+    }
+
+    /**
+     * Called by the processing threads to get the next message. Wakes as soon as a message is available.
+     *
+     * @param timeout The maximum time to wait.
+     * @param unit The unit of the timeout.
+     * @return The next message or null if the timeout expired.
+     * @throws InterruptedException When the waiting thread is interrupted.
+     */
+    FullMessage take(long timeout, TimeUnit unit) throws InterruptedException {
+        if(policy_ == OverflowPolicy.SPILL && spillPending_ > 0)
+            refillFromSpill();
+        FullMessage full = queue_.poll(timeout, unit);
+        if(full != null) {
+            // Refill the room just made so other consumers waiting on the queue are woken for the spilled messages.
+            if(policy_ == OverflowPolicy.SPILL && spillPending_ > 0)
+                refillFromSpill();
+            long waitNs = System.nanoTime() - full.queuedNs;
+            taken_.incrementAndGet();
+            totalWaitNs_.addAndGet(waitNs);
+            maxWaitNs_.accumulateAndGet(waitNs, Math::max);
+        }
+        return full;
+    }
+
+    /**
+     * Release any producers blocked on a full queue and remove the spill file. Spilled messages that were not taken
+     * yet are counted as dropped, later offers are dropped.
+     */
+    void close() {
+        closed_ = true;
+        synchronized(spillLock_) {
+            if(spillPending_ > 0) {
+                log_.warn("Dropping %d spilled messages that were not processed before the queue was closed",
+                        spillPending_);
+                dropped_.addAndGet(spillPending_);
+            }
+            closeSpillFile();
+        }
+    }
+
+    boolean isEmpty() { return depth() == 0; }
+    int capacity() { return capacity_; }
+    OverflowPolicy policy() { return policy_; }
+
+    long depth() {
+        synchronized(spillLock_) {
+            return queue_.size() + spillPending_;
+        }
+    }
+
+    long highWaterMark() { return highWaterMark_.get(); }
+    long droppedCount() { return dropped_.get(); }
+    long spilledCount() { return spilled_.get(); }
+    long blockedCount() { return blocked_.get(); }
+    long takenCount() { return taken_.get(); }
+    long maxWaitMicroseconds() { return maxWaitNs_.get() / 1_000L; }
+    long averageWaitMicroseconds() {
+        long count = taken_.get();
+        return (count == 0L) ? 0L : (totalWaitNs_.get() / count) / 1_000L;
+    }
+
+    private void updateHighWaterMark() {
+        long depth = queue_.size() + spillPending_;
+        highWaterMark_.accumulateAndGet(depth, Math::max);
+    }
+
+    // Must be called holding spillLock_.
+    private void spill(FullMessage full) {
+        try {
+            if(spillOut_ == null) {
+                spillFile_ = File.createTempFile("network_listener_", ".spill", spillDirectory_);
+                spillOut_ = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(spillFile_)));
+            }
+            writeString(spillOut_, full.subject);
+            writeString(spillOut_, full.message);
+            spillPending_++;
+            spilled_.incrementAndGet();
+        } catch(IOException e) {
+            log_.exception(e, "Failed to spill a message to disk, dropping the oldest message instead");
+            if(queue_.poll() != null)
+                dropped_.incrementAndGet();
+            queue_.offer(full);
+        }
+    }
+
+    private void refillFromSpill() {
+        synchronized(spillLock_) {
+            if(spillPending_ == 0) return;
+            try {
+                spillOut_.flush();
+                if(spillIn_ == null)
+                    spillIn_ = new DataInputStream(new BufferedInputStream(new FileInputStream(spillFile_)));
+                while(spillPending_ > 0 && queue_.remainingCapacity() > 0) {
+                    String subject = readString(spillIn_);
+                    String message = readString(spillIn_);
+                    queue_.offer(new FullMessage(subject, message));
+                    spillPending_--;
+                }
+            } catch(IOException e) {
+                log_.exception(e, "Failed to read the spill file, %d spilled messages were lost", spillPending_);
+                dropped_.addAndGet(spillPending_);
+                spillPending_ = 0;
+            }
+            if(spillPending_ == 0)
+                closeSpillFile();
+        }
+    }
+
+    // Must be called holding spillLock_.
+    private void closeSpillFile() {
+        try {
+            if(spillIn_ != null) spillIn_.close();
+            if(spillOut_ != null) spillOut_.close();
+        } catch(IOException e) {
+            log_.exception(e, "Failed to close the spill file");
+        }
+        if(spillFile_ != null && !spillFile_.delete())
+            log_.warn("Failed to remove the spill file '%s'", spillFile_.toString());
+        spillIn_ = null;
+        spillOut_ = null;
+        spillFile_ = null;
+        spillPending_ = 0;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private final Logger log_;
+    private final int capacity_;
+    private final OverflowPolicy policy_;
+    private final File spillDirectory_;
+    private final BlockingQueue<FullMessage> queue_;
+    private final Object spillLock_ = new Object();
+    private final AtomicLong highWaterMark_ = new AtomicLong(0L);
+    private final AtomicLong dropped_ = new AtomicLong(0L);
+    private final AtomicLong spilled_ = new AtomicLong(0L);
+    private final AtomicLong blocked_ = new AtomicLong(0L);
+    private final AtomicLong taken_ = new AtomicLong(0L);
+    private final AtomicLong totalWaitNs_ = new AtomicLong(0L);
+    private final AtomicLong maxWaitNs_ = new AtomicLong(0L);
+    private volatile boolean closed_ = false;
+    private File spillFile_ = null;
+    private DataOutputStream spillOut_ = null;
+    private DataInputStream spillIn_ = null;
+    private volatile long spillPending_ = 0L;
+
+    private static final long BLOCK_CHECK_MS = 100L;
+}
@@ -49,6 +49,15 @@ public class NetworkListenerConfig {
             if(!config_.containsKey(required))
                 throw new ConfigIOParseException(String.format("The key '%s' is missing", required));
         useBenchmarking_ = config_.getBooleanOrDefault("useBenchmarkingActions", false);
+        queueCapacity_ = config_.getIntOrDefault("queueCapacity", DEFAULT_QUEUE_CAPACITY);
+        if(queueCapacity_ <= 0)
+            throw new ConfigIOParseException("The key 'queueCapacity' must be greater than 0");
+        queueOverflowPolicy_ = config_.getStringOrDefault("queueOverflowPolicy", "block");
+        processingThreads_ = config_.getIntOrDefault("processingThreads", 0);
+        if(processingThreads_ < 0)
+            throw new ConfigIOParseException("The key 'processingThreads' cannot be negative");
+        queueSpillDirectory_ = config_.getStringOrDefault("queueSpillDirectory",
+                System.getProperty("java.io.tmpdir"));
         profiles_ = config_.getMapOrDefault("adapterProfiles", new PropertyMap());
         networkStreams_ = config_.getMapOrDefault("networkStreams", new PropertyMap());
         subjectMap_ = config_.getMapOrDefault("subjectMap", new PropertyMap());
@@ -64,6 +73,21 @@ public class NetworkListenerConfig {
     }
 
     public boolean useBenchmarking() { return useBenchmarking_; }
+    public int getQueueCapacity() { return queueCapacity_; }
+
+    /**
+     * Get the number of processing threads; a configured value of 0 (the default) means half of the logical
+     * hardware threads with a minimum of 1.
+     *
+     * @return The number of processing threads to use.
+     */
+    public int getProcessingThreads() {
+        if(processingThreads_ > 0) return processingThreads_;
+        return Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+    }
+
+    public String getQueueOverflowPolicy() { return queueOverflowPolicy_; }
+    public String getQueueSpillDirectory() { return queueSpillDirectory_; }
     public String getLoggerProvider() { return config_.getStringOrDefault("logProvider", "console"); }
     public AdapterInformation getAdapterInformation() { return adapter_; }
     public String getCurrentProfile() { return currentProfile_; }
@@ -229,6 +253,10 @@ public class NetworkListenerConfig {
     //////////////////////////////////////////////////////////////////////////
 
     private boolean useBenchmarking_;
+    private int queueCapacity_ = DEFAULT_QUEUE_CAPACITY;
+    private int processingThreads_ = 0;
+    private String queueOverflowPolicy_ = "block";
+    private String queueSpillDirectory_ = System.getProperty("java.io.tmpdir");
     private Logger log_;
     private ConfigIO parser_;
     private PropertyMap config_;
@@ -241,4 +269,6 @@ public class NetworkListenerConfig {
     private AdapterInformation adapter_;
 
     private boolean useDebugPrint_; // set to "true" on adapter launch to debug a configuration file.
+
+    static final int DEFAULT_QUEUE_CAPACITY = 10_000;
 }
@@ -18,11 +18,16 @@ import com.intel.networking.sink.NetworkDataSink;
 import com.intel.networking.sink.NetworkDataSinkEx;
 import com.intel.networking.sink.NetworkDataSinkFactory;
 import com.intel.perflogging.BenchmarkHelper;
+import com.intel.perflogging.Counter;
+import com.intel.perflogging.LatencyHistogram;
+import com.intel.perflogging.MetricsRegistry;
+import com.intel.perflogging.MetricsServer;
 import com.intel.properties.PropertyArray;
 import com.intel.properties.PropertyMap;
 import com.intel.properties.PropertyNotExpectedType;
 import org.voltdb.client.ProcCallException;
 
+import java.io.File;
 import java.io.IOException;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
@@ -30,16 +35,14 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 /**
  * This is the core code for this component. The adapter functionality and business logic for ALL providers using
  * this component.
  */
 public class NetworkListenerCore {
-    private static final int THREAD_COUNT = Runtime.getRuntime().availableProcessors(); // Logical hw threads.
-    private static final int MAX_THREADS = 3; // Maximum processing threads.
-
     @SuppressWarnings("serial")
     static class Exception extends java.lang.Exception {
         Exception(String message) { super(message); }
@@ -64,6 +67,29 @@ public class NetworkListenerCore {
         adapter_ = config_.getAdapterInformation();
         factory_ = factory;
         benchmarking_ = benchmarking;
+        int capacity = config_.getQueueCapacity();
+        if(capacity <= 0) capacity = NetworkListenerConfig.DEFAULT_QUEUE_CAPACITY;
+        String spillFolder = config_.getQueueSpillDirectory();
+        queue_ = new MessageQueue(log_, capacity,
+                MessageQueue.OverflowPolicy.fromString(config_.getQueueOverflowPolicy()),
+                new File((spillFolder == null) ? System.getProperty("java.io.tmpdir") : spillFolder));
+        registerQueueMetrics();
+    }
+
+    // The queue statistics are exported as functions of the current queue.
+    private void registerQueueMetrics() {
+        metrics_.gaugeFunction("dai_network_listener_queue_depth", "Messages waiting to be processed",
+                queue_::depth);
+        metrics_.gaugeFunction("dai_network_listener_queue_high_water_mark", "Largest number of waiting messages",
+                queue_::highWaterMark);
+        metrics_.counterFunction("dai_network_listener_queue_taken_total", "Messages taken from the queue",
+                queue_::takenCount);
+        metrics_.counterFunction("dai_network_listener_queue_dropped_total", "Messages dropped by the queue",
+                queue_::droppedCount);
+        metrics_.counterFunction("dai_network_listener_queue_spilled_total", "Messages spilled to disk",
+                queue_::spilledCount);
+        metrics_.counterFunction("dai_network_listener_queue_blocked_total", "Times a sink waited for room",
+                queue_::blockedCount);
     }
 
     /**
@@ -72,6 +98,27 @@ public class NetworkListenerCore {
      * @return a Linux shell compatible integer for the exit code if used.
      */
     public int run() {
+        startMetricsServer();
+        try {
+            return runAdapter();
+        } finally {
+            if(metricsServer_ != null)
+                metricsServer_.close();
+        }
+    }
+
+    // Serves the metrics when DAI_METRICS_PORT_<adapter type> is set, the adapter runs without the endpoint if it fails.
+    private void startMetricsServer() {
+        try {
+            metricsServer_ = MetricsServer.fromEnvironment(metrics_, adapter_.getType());
+            if(metricsServer_ != null)
+                log_.info("Serving the metrics at http://localhost:%d/metrics", metricsServer_.port());
+        } catch(IOException | IllegalArgumentException e) {
+            log_.exception(e, "Failed to start the metrics endpoint, continuing without it");
+        }
+    }
+
+    private int runAdapter() {
         int result;
         log_.info("Starting the adapter");
         if (setUpAdapter()) return 1;
@@ -86,7 +133,9 @@ public class NetworkListenerCore {
         }
 
         log_.info("Stopping capture from monitoring provider(s).");
+        queue_.close(); // Release any sink blocked on a full queue before stopping it.
         stopAllConnections();
+        logQueueStatistics();
         shutdownAdapter();
         return result;
     }
@@ -98,6 +147,7 @@ public class NetworkListenerCore {
         } catch(AdapterException e) {
             log_.exception(e, "Problem occurred while attempting to shutdown the adapter");
         }
+        workQueue_.shutdown();
         try { actions_.close(); } catch(IOException e) { log_.exception(e); }
     }
 
@@ -270,69 +320,138 @@ public class NetworkListenerCore {
             sink.stopListening();
     }
 
+    // The per subject counter, only looked up in the registry the first time the subject is seen.
+    private Counter subjectCounter(Map<String, Counter> bySubject, String name, String help, String subject) {
+        Counter counter = bySubject.get(subject);
+        if(counter == null)
+            counter = bySubject.computeIfAbsent(subject, s -> metrics_.counter(name, help, "subject", s));
+        return counter;
+    }
+
     // Receive raw message and queue it up for processing.
     private void processSinkMessage(String subject, String message) {
         log_.debug("Received message for subject: %s", subject);
-        queue_.add(new FullMessage(subject, message));
+        subjectCounter(messagesBySubject_, "dai_network_listener_messages_total", "Messages received per subject",
+                subject).increment();
+        queue_.offer(subject, message);
     }
 
     // On a thread, process the incoming queued messages.
     private void processDataQueueThreaded() {
-        int count = Math.min(THREAD_COUNT / 2, MAX_THREADS); // 1-MAX_THREADS threads for processing.
-        int extraThreads = count - 1;
-        Thread[] threads = new Thread[extraThreads];
-        log_.info("*** Using %d threads for monitoring...", count);
-        for(int i = 0; i < extraThreads; i++) {
-            threads[i] = new Thread(this::processDataQueue);
-            threads[i].start();
+        int count = config_.getProcessingThreads();
+        if(count <= 0) count = 1;
+        log_.info("*** Using %d threads for monitoring with a queue capacity of %d (overflow policy: %s)...",
+                count, queue_.capacity(), queue_.policy());
+        // With a single thread the messages are transformed and acted on inline. With more threads the messages are
+        // transformed in parallel, the transformed data is dispatched in queue order and the actions are partitioned
+        // by location, so each location is still handled in the order its messages were queued.
+        if(count > 1) {
+            partitions_ = new LocationPartitionedExecutor(log_, count, PARTITION_QUEUE_CAPACITY);
+            transformers_ = new OrderedResultExecutor<>(log_, count, count * TRANSFORMS_IN_FLIGHT_PER_THREAD,
+                    this::dispatchTransformed);
         }
-        baseThreadId_ = Thread.currentThread().getId();
-        processDataQueue(); // Use this thread (current thread) for one of the processing threads...
-        for(int i = 0; i < extraThreads; i++) { // wait for extraThreads...
-            try {
-                threads[i].join();
-            } catch(InterruptedException e) { /* Interrupt is ignored and treated and joined */ }
+        processDataQueue();
+        if(transformers_ != null) {
+            transformers_.shutdown();
+            transformers_ = null;
+        }
+        if(partitions_ != null) {
+            partitions_.shutdown();
+            partitions_ = null;
         }
     }
 
     // Called from threaded method above to process messages.
     private void processDataQueue() {
-        long backOffSleep = 1;
         while(!adapter_.isShuttingDown()) {
-            FullMessage full = queue_.poll();
+            MessageQueue.FullMessage full;
+            try {
+                full = queue_.take(QUEUE_WAIT_MS, TimeUnit.MILLISECONDS);
+            } catch(InterruptedException e) {
+                continue; // Interrupt is ignored, the shutdown flag is checked by the loop.
+            }
             if(full != null) {
-                processMessage(full.subject, full.message);
-                backOffSleep = 1;
-            } else {
-                safeSleep(backOffSleep);
-                if(backOffSleep < 25L) backOffSleep += 2;
-                if(Thread.currentThread().getId() == baseThreadId_) benchmarking_.tick();
+                queueWait_.recordSince(full.queuedNs);
+                long start = System.nanoTime();
+                if(transformers_ == null) {
+                    actOnMessage(full.subject, transformMessage(full.subject, full.message));
+                    processing_.recordSince(start);
+                } else {
+                    final MessageQueue.FullMessage message = full;
+                    transformers_.submit(() -> new TransformedMessage(message.subject,
+                            transformMessage(message.subject, message.message), start));
+                }
+            } else
+                benchmarking_.tick();
+            if(System.currentTimeMillis() >= nextQueueReport_) {
+                nextQueueReport_ = System.currentTimeMillis() + QUEUE_REPORT_MS;
+                logQueueStatistics();
             }
         }
         log_.debug("*** Ending processing loop...");
     }
 
-    // process a single message.
-    private void processMessage(String subject, String message) {
+    private void logQueueStatistics() {
+        log_.info("Queue statistics: depth=%d; highWaterMark=%d; taken=%d; avgWaitUs=%d; maxWaitUs=%d; " +
+                "dropped=%d; spilled=%d; blocked=%d", queue_.depth(), queue_.highWaterMark(), queue_.takenCount(),
+                queue_.averageWaitMicroseconds(), queue_.maxWaitMicroseconds(), queue_.droppedCount(),
+                queue_.spilledCount(), queue_.blockedCount());
+    }
+
+    // The transformed data of a message, handed back in queue order by the transformers.
+    private static final class TransformedMessage {
+        TransformedMessage(String subject, List<CommonDataFormat> dataList, long startNs) {
+            this.subject = subject;
+            this.dataList = dataList;
+            this.startNs = startNs;
+        }
+
+        final String subject;
+        final List<CommonDataFormat> dataList;
+        final long startNs;
+    }
+
+    // Runs on the transformers' dispatching thread in queue order.
+    private void dispatchTransformed(TransformedMessage transformed) {
+        actOnMessage(transformed.subject, transformed.dataList);
+        processing_.recordSince(transformed.startNs);
+    }
+
+    // Transform a single message, returns null when the message is dropped.
+    private List<CommonDataFormat> transformMessage(String subject, String message) {
         if(subjects_.contains(subject) || subjects_.contains("*")) {
             try {
                 benchmarking_.addNamedValue(subject + "_messages", 1);
                 log_.debug("Transforming data for subject '%s'...", subject);
-                List<CommonDataFormat> dataList = provider_.processRawStringData(message, config_);
-                if(dataList != null) {
-                    log_.debug("Performing actions...");
-                    for (CommonDataFormat data : dataList)
-                        provider_.actOnData(data, config_, actions_);
-                    benchmarking_.addNamedValue(subject + "_" + config_.getCurrentProfile(), dataList.size());
-                }
+                return provider_.processRawStringData(message, config_);
             } catch(NetworkListenerProviderException e) {
+                transformErrors_.increment();
                 log_.exception(e, "Dropping a message on the floor due to transformation error");
                 log_.debug("%s==>>%s", subject, message);
             }
         } else {
+            filtered_.increment();
             log_.debug("Dropping a message on the floor due to the subject filter.");
             log_.debug("%s==>>%s", subject, message);
         }
+        return null;
+    }
+
+    // Act on the transformed data of a single message.
+    private void actOnMessage(String subject, List<CommonDataFormat> dataList) {
+        if(dataList != null) {
+            log_.debug("Performing actions...");
+            LocationPartitionedExecutor partitions = partitions_;
+            for (CommonDataFormat data : dataList) {
+                if(partitions == null)
+                    provider_.actOnData(data, config_, actions_);
+                else
+                    partitions.submit(data.getLocation(), () -> provider_.actOnData(data, config_, actions_));
+            }
+            benchmarking_.addNamedValue(subject + "_" + config_.getCurrentProfile(), dataList.size());
+            subjectCounter(dataItemsBySubject_, "dai_network_listener_data_items_total",
+                    "Data items transformed per subject", subject).add(dataList.size());
+        }
     }
 
     // Shutting down the application.
@@ -480,18 +599,28 @@ public class NetworkListenerCore {
     private NetworkListenerProvider provider_ = null;
     private SystemActions actions_;
     private List<String> subjects_;
-            ConcurrentLinkedQueue<FullMessage> queue_ = new ConcurrentLinkedQueue<>();
-    private long baseThreadId_;
+            MessageQueue queue_;
+    private volatile LocationPartitionedExecutor partitions_ = null;
+    private OrderedResultExecutor<TransformedMessage> transformers_ = null;
+    private long nextQueueReport_ = 0L;
     private static long STABILIZATION_VALUE = 1500L;
     private final ConfigIO parser_ = ConfigIOFactory.getInstance("json");
     private PropertyMap streamLocations = null;
+    private MetricsServer metricsServer_ = null;
+    private final MetricsRegistry metrics_ = MetricsRegistry.getDefault();
+    private final LatencyHistogram queueWait_ = metrics_.histogram("dai_network_listener_queue_wait_seconds",
+            "Time messages waited in the queue");
+    private final LatencyHistogram processing_ = metrics_.histogram(
+            "dai_network_listener_message_processing_seconds", "Time to transform a message and act on its data");
+    private final Counter transformErrors_ = metrics_.counter("dai_network_listener_transform_errors_total",
+            "Messages dropped because they failed to transform");
+    private final Counter filtered_ = metrics_.counter("dai_network_listener_filtered_messages_total",
+            "Messages dropped by the subject filter");
+    private final Map<String, Counter> messagesBySubject_ = new ConcurrentHashMap<>();
+    private final Map<String, Counter> dataItemsBySubject_ = new ConcurrentHashMap<>();
 
-    private static final class FullMessage {
-        FullMessage(String subject, String message) {
-            this.subject = subject;
-            this.message = message;
-        }
-        final String subject;
-        final String message;
-    }
+    private static final long QUEUE_WAIT_MS = 100L; // Longest delay before noticing a shutdown request.
+    private static final long QUEUE_REPORT_MS = 60_000L;
+    private static final int PARTITION_QUEUE_CAPACITY = 1_000; // Pending actions per location partition.
+    private static final int TRANSFORMS_IN_FLIGHT_PER_THREAD = 64; // Messages being transformed or waiting for dispatch.
 }
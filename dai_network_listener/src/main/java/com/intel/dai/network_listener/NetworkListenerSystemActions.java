@@ -191,6 +191,7 @@ class NetworkListenerSystemActions implements SystemActions, Initializer {
 
     @Override
     public void close() throws IOException {
+        telemetryActions_.close(); // Writes any buffered aggregated telemetry.
         if(publisher_ != null)
             publisher_.close();
     }
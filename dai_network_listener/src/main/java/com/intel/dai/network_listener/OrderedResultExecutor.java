@@ -0,0 +1,133 @@
+// Copyright (C) 2021 Intel Corporation
+//
+// SPDX-License-Identifier: Apache-2.0
+//
+package com.intel.dai.network_listener;
+
+import com.intel.logging.Logger;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Runs tasks in parallel on a fixed set of worker threads and hands their results to a consumer in the order the
+ * tasks were submitted. The consumer runs on a single dispatching thread. Tasks must be submitted from one thread.
+ *
+ * @param <T> The type of the task results.
+ */
+class OrderedResultExecutor<T> {
+    /**
+     * Create and start the workers and the dispatching thread.
+     *
+     * @param logger The logger for task and consumer failures.
+     * @param threads The number of worker threads.
+     * @param maxInFlight The maximum number of submitted tasks whose result was not consumed yet before submit()
+     *                    blocks.
+     * @param consumer Receives the task results in submission order, a failed task has no result.
+     */
+    OrderedResultExecutor(Logger logger, int threads, int maxInFlight, Consumer<T> consumer) {
+        assert logger != null:"Passed a null Logger to OrderedResultExecutor.ctor()!";
+        assert consumer != null:"Passed a null Consumer to OrderedResultExecutor.ctor()!";
+        if(threads <= 0) throw new IllegalArgumentException("The thread count must be greater than 0!");
+        if(maxInFlight <= 0) throw new IllegalArgumentException("The in flight task limit must be greater than 0!");
+        log_ = logger;
+        consumer_ = consumer;
+        inFlight_ = new ArrayBlockingQueue<>(maxInFlight);
+        workers_ = Executors.newFixedThreadPool(threads, new NamedThreadFactory("ordered-worker-"));
+        dispatcher_ = new Thread(this::runDispatcher, "ordered-dispatcher");
+        dispatcher_.start();
+    }
+
+    /**
+     * Queue a task on the workers, blocking while too many results are waiting to be consumed.
+     *
+     * @param task The task to run.
+     */
+    void submit(Callable<T> task) {
+        FutureTask<T> future = new FutureTask<>(task);
+        boolean interrupted = false;
+        while(true) {
+            try {
+                inFlight_.put(future);
+                break;
+            } catch(InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if(interrupted) Thread.currentThread().interrupt();
+        workers_.execute(future);
+    }
+
+    /**
+     * Run all submitted tasks, consume their results then stop the threads.
+     */
+    void shutdown() {
+        stopping_ = true;
+        workers_.shutdown();
+        try {
+            dispatcher_.join();
+        } catch(InterruptedException e) { /* Interrupt is ignored and treated and joined */ }
+    }
+
+    private void runDispatcher() {
+        while(!stopping_ || !inFlight_.isEmpty()) {
+            Future<T> future;
+            try {
+                future = inFlight_.poll(WAIT_MS, TimeUnit.MILLISECONDS);
+            } catch(InterruptedException e) {
+                continue;
+            }
+            if(future == null) continue;
+            T result;
+            try {
+                result = getUninterruptibly(future);
+            } catch(ExecutionException e) {
+                log_.exception(e.getCause(), "An ordered task failed");
+                continue;
+            }
+            try {
+                consumer_.accept(result);
+            } catch(RuntimeException e) {
+                log_.exception(e, "Consuming an ordered task result failed");
+            }
+        }
+    }
+
+    private static <T> T getUninterruptibly(Future<T> future) throws ExecutionException {
+        while(true) {
+            try {
+                return future.get();
+            } catch(InterruptedException e) { /* The task still has to finish to keep the order */ }
+        }
+    }
+
+    private static final class NamedThreadFactory implements ThreadFactory {
+        NamedThreadFactory(String prefix) { prefix_ = prefix; }
+
+        @Override
+        public synchronized Thread newThread(Runnable task) {
+            return new Thread(task, prefix_ + next_++);
+        }
+
+        private final String prefix_;
+        private int next_ = 0;
+    }
+
+    private final Logger log_;
+    private final Consumer<T> consumer_;
+    private final BlockingQueue<Future<T>> inFlight_;
+    private final ExecutorService workers_;
+    private final Thread dispatcher_;
+    private volatile boolean stopping_ = false;
+
+    private static final long WAIT_MS = 100L;
+}
@@ -0,0 +1,69 @@
+// Copyright (C) 2021 Intel Corporation
+//
+// SPDX-License-Identifier: Apache-2.0
+//
+package com.intel.dai.network_listener;
+
+import com.intel.logging.Logger;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+
+public class LocationPartitionedExecutorTest {
+    @Before
+    public void setUp() {
+        log_ = mock(Logger.class);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void ctorNegative1() {
+        new LocationPartitionedExecutor(log_, 0, 10);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void ctorNegative2() {
+        new LocationPartitionedExecutor(log_, 2, 0);
+    }
+
+    @Test
+    public void partitionOf() {
+        LocationPartitionedExecutor executor = new LocationPartitionedExecutor(log_, 4, 10);
+        assertEquals(4, executor.partitions());
+        assertEquals(0, executor.partitionOf(null));
+        assertEquals(executor.partitionOf("R0-CH0-CN0"), executor.partitionOf("R0-CH0-CN0"));
+        assertTrue(executor.partitionOf("R0-CH0-CN1") < 4);
+        executor.shutdown();
+    }
+
+    @Test
+    public void perLocationOrderIsKept() {
+        LocationPartitionedExecutor executor = new LocationPartitionedExecutor(log_, 3, 2);
+        Map<String, List<Integer>> results = new HashMap<>();
+        String[] locations = new String[] { "R0-CH0-CN0", "R0-CH0-CN1", "R0-CH0-CN2", "R0-CH0-CN3" };
+        for(String location: locations)
+            results.put(location, Collections.synchronizedList(new ArrayList<>()));
+        for(int i = 0; i < 100; i++) {
+            final int value = i;
+            for(String location: locations)
+                executor.submit(location, () -> results.get(location).add(value));
+        }
+        executor.submit("R0-CH0-CN0", () -> { throw new RuntimeException("failed task"); });
+        executor.shutdown();
+        for(String location: locations) {
+            List<Integer> list = results.get(location);
+            assertEquals(100, list.size());
+            for(int i = 0; i < 100; i++)
+                assertEquals(i, list.get(i).intValue());
+        }
+    }
+
+    private Logger log_;
+}
@@ -0,0 +1,149 @@
+// Copyright (C) 2021 Intel Corporation
+//
+// SPDX-License-Identifier: Apache-2.0
+//
+package com.intel.dai.network_listener;
+
+import com.intel.logging.Logger;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+
+public class MessageQueueTest {
+    @Before
+    public void setUp() {
+        log_ = mock(Logger.class);
+        tmp_ = new File(System.getProperty("java.io.tmpdir"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void ctorNegative() {
+        new MessageQueue(log_, 0, MessageQueue.OverflowPolicy.BLOCK, tmp_);
+    }
+
+    @Test
+    public void policyFromString() {
+        assertEquals(MessageQueue.OverflowPolicy.BLOCK, MessageQueue.OverflowPolicy.fromString(null));
+        assertEquals(MessageQueue.OverflowPolicy.BLOCK, MessageQueue.OverflowPolicy.fromString("unknown"));
+        assertEquals(MessageQueue.OverflowPolicy.DROP_OLDEST, MessageQueue.OverflowPolicy.fromString("dropOldest"));
+        assertEquals(MessageQueue.OverflowPolicy.SPILL, MessageQueue.OverflowPolicy.fromString(" Spill "));
+    }
+
+    @Test
+    public void takeTimesOut() throws Exception {
+        MessageQueue queue = new MessageQueue(log_, 2, MessageQueue.OverflowPolicy.BLOCK, tmp_);
+        assertNull(queue.take(1, TimeUnit.MILLISECONDS));
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    public void dropOldest() throws Exception {
+        MessageQueue queue = new MessageQueue(log_, 2, MessageQueue.OverflowPolicy.DROP_OLDEST, tmp_);
+        queue.offer("subject", "1");
+        queue.offer("subject", "2");
+        queue.offer("subject", "3");
+        assertEquals(1L, queue.droppedCount());
+        assertEquals(2L, queue.highWaterMark());
+        assertEquals("2", queue.take(1, TimeUnit.MILLISECONDS).message);
+        assertEquals("3", queue.take(1, TimeUnit.MILLISECONDS).message);
+        assertEquals(2L, queue.takenCount());
+    }
+
+    @Test
+    public void spillKeepsOrder() throws Exception {
+        MessageQueue queue = new MessageQueue(log_, 2, MessageQueue.OverflowPolicy.SPILL, tmp_);
+        for(int i = 0; i < 5; i++)
+            queue.offer("subject", Integer.toString(i));
+        assertEquals(3L, queue.spilledCount());
+        assertEquals(5L, queue.depth());
+        assertEquals("0", queue.take(1, TimeUnit.MILLISECONDS).message);
+        queue.offer("subject", "5");
+        for(int i = 1; i < 6; i++)
+            assertEquals(Integer.toString(i), queue.take(1, TimeUnit.MILLISECONDS).message);
+        assertTrue(queue.isEmpty());
+        assertEquals(0L, queue.droppedCount());
+        queue.close();
+    }
+
+    @Test
+    public void blockWakesConsumerAndReleasesOnClose() throws Exception {
+        MessageQueue queue = new MessageQueue(log_, 1, MessageQueue.OverflowPolicy.BLOCK, tmp_);
+        queue.offer("subject", "1");
+        Thread producer = new Thread(() -> queue.offer("subject", "2"));
+        producer.start();
+        assertEquals("1", queue.take(1, TimeUnit.SECONDS).message);
+        assertEquals("2", queue.take(1, TimeUnit.SECONDS).message);
+        producer.join(1000L);
+        queue.offer("subject", "3");
+        Thread blocked = new Thread(() -> queue.offer("subject", "4"));
+        blocked.start();
+        queue.close();
+        blocked.join(1000L);
+        assertFalse(blocked.isAlive());
+        assertTrue(queue.maxWaitMicroseconds() >= queue.averageWaitMicroseconds());
+    }
+
+    @Test
+    public void blockCountsEachBlockedOfferOnce() throws Exception {
+        MessageQueue queue = new MessageQueue(log_, 1, MessageQueue.OverflowPolicy.BLOCK, tmp_);
+        queue.offer("subject", "1");
+        Thread producer = new Thread(() -> queue.offer("subject", "2"));
+        producer.start();
+        Thread.sleep(350L); // several wait slices
+        assertEquals("1", queue.take(1, TimeUnit.SECONDS).message);
+        producer.join(1000L);
+        assertEquals(1L, queue.blockedCount());
+        assertEquals(0L, queue.droppedCount());
+    }
+
+    @Test
+    public void closeCountsTheLostMessagesAsDropped() throws Exception {
+        MessageQueue queue = new MessageQueue(log_, 1, MessageQueue.OverflowPolicy.SPILL, tmp_);
+        for(int i = 0; i < 4; i++)
+            queue.offer("subject", Integer.toString(i));
+        queue.close();
+        assertEquals(3L, queue.droppedCount());
+        queue.offer("subject", "4");
+        assertEquals(4L, queue.droppedCount());
+        assertEquals(1L, queue.depth());
+    }
+
+    @Test
+    public void blockedOfferIsDroppedOnClose() throws Exception {
+        MessageQueue queue = new MessageQueue(log_, 1, MessageQueue.OverflowPolicy.BLOCK, tmp_);
+        queue.offer("subject", "1");
+        Thread blocked = new Thread(() -> queue.offer("subject", "2"));
+        blocked.start();
+        Thread.sleep(50L);
+        queue.close();
+        blocked.join(1000L);
+        assertEquals(1L, queue.droppedCount());
+    }
+
+    @Test
+    public void takeMovesTheSpilledMessagesIntoTheQueue() throws Exception {
+        File folder = spillFolder_.newFolder();
+        MessageQueue queue = new MessageQueue(log_, 1, MessageQueue.OverflowPolicy.SPILL, folder);
+        queue.offer("subject", "0");
+        queue.offer("subject", "1"); // spilled
+        assertEquals(1, folder.list().length);
+        assertEquals("0", queue.take(1, TimeUnit.MILLISECONDS).message);
+        // "1" was moved to the queue by the take (so a waiting consumer sees it) and the spill file is removed.
+        assertEquals(0, folder.list().length);
+        assertEquals("1", queue.take(1, TimeUnit.MILLISECONDS).message);
+        queue.close();
+    }
+
+    @Rule
+    public TemporaryFolder spillFolder_ = new TemporaryFolder();
+
+    private Logger log_;
+    private File tmp_;
+}
@@ -39,6 +39,51 @@ public class NetworkListenerConfigTest {
         assertFalse(config_.useBenchmarking());
     }
 
+    @Test
+    public void queueDefaults() {
+        assertEquals(NetworkListenerConfig.DEFAULT_QUEUE_CAPACITY, config_.getQueueCapacity());
+        assertEquals("block", config_.getQueueOverflowPolicy());
+        assertEquals(System.getProperty("java.io.tmpdir"), config_.getQueueSpillDirectory());
+        assertEquals(Math.max(1, Runtime.getRuntime().availableProcessors() / 2), config_.getProcessingThreads());
+    }
+
+    @Test
+    public void queueSettings() throws Exception {
+        PropertyMap map = parser_.fromString(json_).getAsMap();
+        map.put("queueCapacity", 50);
+        map.put("queueOverflowPolicy", "spill");
+        map.put("queueSpillDirectory", "/var/tmp");
+        map.put("processingThreads", 16);
+        NetworkListenerConfig config = new NetworkListenerConfig(info_, mock(Logger.class));
+        try (InputStream stream = new ByteArrayInputStream(parser_.toString(map).getBytes())) {
+            config.loadFromStream(stream);
+        }
+        assertEquals(50, config.getQueueCapacity());
+        assertEquals("spill", config.getQueueOverflowPolicy());
+        assertEquals("/var/tmp", config.getQueueSpillDirectory());
+        assertEquals(16, config.getProcessingThreads());
+    }
+
+    @Test(expected = ConfigIOParseException.class)
+    public void queueCapacityNegative() throws Exception {
+        PropertyMap map = parser_.fromString(json_).getAsMap();
+        map.put("queueCapacity", 0);
+        NetworkListenerConfig config = new NetworkListenerConfig(info_, mock(Logger.class));
+        try (InputStream stream = new ByteArrayInputStream(parser_.toString(map).getBytes())) {
+            config.loadFromStream(stream);
+        }
+    }
+
+    @Test(expected = ConfigIOParseException.class)
+    public void processingThreadsNegative() throws Exception {
+        PropertyMap map = parser_.fromString(json_).getAsMap();
+        map.put("processingThreads", -1);
+        NetworkListenerConfig config = new NetworkListenerConfig(info_, mock(Logger.class));
+        try (InputStream stream = new ByteArrayInputStream(parser_.toString(map).getBytes())) {
+            config.loadFromStream(stream);
+        }
+    }
+
     @Test(expected = RuntimeException.class)
     public void ctorNegative1() {
         new NetworkListenerConfig(null, mock(Logger.class));
@@ -0,0 +1,69 @@
+// Copyright (C) 2021 Intel Corporation
+//
+// SPDX-License-Identifier: Apache-2.0
+//
+package com.intel.dai.network_listener;
+
+import com.intel.logging.Logger;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+
+public class OrderedResultExecutorTest {
+    @Before
+    public void setUp() {
+        log_ = mock(Logger.class);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void ctorNegative1() {
+        new OrderedResultExecutor<Integer>(log_, 0, 10, result -> {});
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void ctorNegative2() {
+        new OrderedResultExecutor<Integer>(log_, 2, 0, result -> {});
+    }
+
+    @Test
+    public void resultsAreConsumedInSubmissionOrder() {
+        List<Integer> results = Collections.synchronizedList(new ArrayList<>());
+        OrderedResultExecutor<Integer> executor = new OrderedResultExecutor<>(log_, 4, 8, results::add);
+        for(int i = 0; i < 200; i++) {
+            final int value = i;
+            executor.submit(() -> {
+                Thread.sleep(ThreadLocalRandom.current().nextInt(3));
+                return value;
+            });
+        }
+        executor.submit(() -> { throw new RuntimeException("failed task"); });
+        executor.submit(() -> 200);
+        executor.shutdown();
+        assertEquals(201, results.size());
+        for(int i = 0; i <= 200; i++)
+            assertEquals(i, results.get(i).intValue());
+    }
+
+    @Test
+    public void tasksRunInParallel() {
+        List<String> threads = Collections.synchronizedList(new ArrayList<>());
+        OrderedResultExecutor<String> executor = new OrderedResultExecutor<>(log_, 3, 10, threads::add);
+        for(int i = 0; i < 30; i++)
+            executor.submit(() -> {
+                Thread.sleep(5);
+                return Thread.currentThread().getName();
+            });
+        executor.shutdown();
+        assertEquals(30, threads.size());
+        assertTrue(threads.stream().distinct().count() > 1);
+    }
+
+    private Logger log_;
+}
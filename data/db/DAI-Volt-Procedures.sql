@@ -204,6 +204,9 @@ CREATE PROCEDURE
    FROM CLASS com.intel.dai.procedures.ComputeNodeHistoryListOfStateAtTime;
 CREATE PROCEDURE ComputeNodeHistoryOldestTimestamp
    AS SELECT MIN(LastChgTimestamp) FROM ComputeNode_History;
+-- Get the time the ComputeNode_History table last changed (uses the ComputeNodeHistoryByDbUpdatedTimestamp index).
+CREATE PROCEDURE ComputeNodeHistoryNewestDbUpdatedTimestamp
+   AS SELECT MAX(DbUpdatedTimestamp) FROM ComputeNode_History;
 -- To check for duplicate mac address entry, get all nodes with given mac address
 CREATE PROCEDURE ComputeNodeCheckMacAddr
    AS SELECT COUNT(*) FROM ComputeNode WHERE Owner!='S' AND (MacAddr = ? OR BmcMacAddr = ? );
@@ -263,6 +266,9 @@ CREATE PROCEDURE
    FROM CLASS com.intel.dai.procedures.ServiceNodeHistoryListOfStateAtTime;
 CREATE PROCEDURE ServiceNodeHistoryOldestTimestamp
    AS SELECT MIN(LastChgTimestamp) FROM ServiceNode_History;
+-- Get the time the ServiceNode_History table last changed (uses the ServiceNodeHistoryByDbUpdatedTimestamp index).
+CREATE PROCEDURE ServiceNodeHistoryNewestDbUpdatedTimestamp
+   AS SELECT MAX(DbUpdatedTimestamp) FROM ServiceNode_History;
 CREATE PROCEDURE ServiceNodeOwner
    PARTITION ON TABLE ServiceNode COLUMN Lctn PARAMETER 0
    AS SELECT Owner FROM ServiceNode WHERE LCTN = ?;
@@ -359,6 +365,10 @@ CREATE PROCEDURE InternalCachedJobsGetCurrentlyActiveJobidForNodeLctn
 --       we want entries where the job's StartTimestamp <= the specified timestamp <= job's EndTimestamp)
 CREATE PROCEDURE InternalCachedJobsGetListOfActiveInternalCachedJobsUsingTimestamp
    AS SELECT * FROM InternalCachedJobs WHERE ((StartTimestamp<=?) AND ((EndTimestamp IS NULL) OR (? <= EndTimestamp))) ORDER BY NodeLctn, StartTimestamp;
+-- Get the list of InternalCachedJobs entries that were added or changed at or after the specified DbUpdatedTimestamp,
+-- this is used for keeping the RAS adapter's index of cached jobs up to date without re-reading all of the entries.
+CREATE PROCEDURE InternalCachedJobsListChangedSince
+   AS SELECT * FROM InternalCachedJobs WHERE DbUpdatedTimestamp >= ? ORDER BY NodeLctn, StartTimestamp;
 
 
 -- Handle processing that is necessary in the InternalJobInfo table so the JobInfo reflects that the job has started.
@@ -466,6 +476,10 @@ CREATE PROCEDURE WorkItemStateAndResults
 CREATE PROCEDURE WorkItemFinishedResults
    PARTITION ON TABLE WorkItem COLUMN WorkingAdapterType PARAMETER 0
    AS SELECT State, Results FROM WorkItem WHERE WorkingAdapterType = ? AND Id = ? AND (State = 'F' OR State = 'E') Order By WorkingAdapterType, Id;
+-- Same as WorkItemFinishedResults but for an array of work item ids, only the finished ones are returned.
+CREATE PROCEDURE WorkItemsFinishedResults
+   PARTITION ON TABLE WorkItem COLUMN WorkingAdapterType PARAMETER 0
+   AS SELECT Id, State, Results FROM WorkItem WHERE WorkingAdapterType = ? AND Id IN ? AND (State = 'F' OR State = 'E') Order By WorkingAdapterType, Id;
 -- Check & see if there are any work items queued for this type of adapter to HandleInputFromExternalComponent.
 -- Note: We only want to know those work items that are runnable (State of Queued, Working, Requeued)
 CREATE PROCEDURE WorkItemCountInputHandlers
@@ -584,6 +598,11 @@ CREATE PROCEDURE
    PARTITION ON TABLE RasEvent COLUMN DescriptiveName PARAMETER 0
    FROM CLASS com.intel.dai.procedures.RasEventStore;
 
+-- Store / insert a batch of RAS events that all have the same DescriptiveName into the data store.
+CREATE PROCEDURE
+   PARTITION ON TABLE RasEvent COLUMN DescriptiveName PARAMETER 0
+   FROM CLASS com.intel.dai.procedures.RasEventStoreBatch;
+
 -- Method that updates the specified RAS event's JobId, Done, and DbUpdatedTimestamp columns.
 CREATE PROCEDURE RasEventUpdate
   PARTITION ON TABLE RasEvent COLUMN DescriptiveName PARAMETER 2
@@ -284,6 +284,7 @@ CREATE UNIQUE INDEX InternalCachedJobsByNodeLctnAndJobId ON InternalCachedJobs(N
 CREATE INDEX InternalCachedJobsByDbUpdatedTimestamp      ON InternalCachedJobs(DbUpdatedTimestamp) WHERE EndTimestamp IS NOT NULL;
 CREATE INDEX InternalCachedJobsByJobId                   ON InternalCachedJobs(JobId);
 CREATE INDEX InternalCachedJobsByNodeLctnStartTsAndEndTs ON InternalCachedJobs(NodeLctn, StartTimestamp, EndTimestamp);
+CREATE INDEX InternalCachedJobsByDbUpdatedTimestampAll   ON InternalCachedJobs(DbUpdatedTimestamp);
 
 --------------------------------------------------------------
 -- Internal JobInfo Table
@@ -13,11 +13,9 @@ import com.intel.dai.exceptions.AdapterException;
 import com.intel.dai.exceptions.DataStoreException;
 import com.intel.dai.foreign_bus.CommonFunctions;
 import com.intel.dai.foreign_bus.ConversionException;
+import com.intel.dai.foreign_bus.SampleAccumulator;
 import com.intel.logging.Logger;
 import com.intel.logging.LoggerFactory;
-import com.intel.properties.PropertyArray;
-import com.intel.properties.PropertyMap;
-import com.intel.properties.PropertyNotExpectedType;
 import com.intel.xdg.XdgConfigFile;
 
 import java.io.File;
@@ -58,40 +56,22 @@ public final class FabricPerfTelemetryProvider extends FabricAdapter {
     @Override
     final protected void processRawMessage(String subject, String message) {
         if(matchSubject(subject)) {
-            PropertyArray items;
+            List<FabricTelemetryItem> sensors = new ArrayList<>();
             try {
-                items = CommonFunctions.parseForeignTelemetry(message);
+                CommonFunctions.parseForeignTelemetry(message, (name, location, timestamp, value) ->
+                        convertSensor(name, location, timestamp, value, sensors));
             } catch(ConfigIOParseException e) {
                 logException(e, "Failed to parse incoming message: %s",
                         message.substring(0, Math.min(INSTANCE_DATA_MAX, message.length())));
                 return;
             }
-            List<FabricTelemetryItem> sensors = new ArrayList<>();
-            for(int i = 0; i < items.size(); i++) {
-                PropertyMap sensor;
-                try {
-                    sensor = items.getMap(i);
-                } catch(PropertyNotExpectedType e) {
-                    logException(e, "Event was not a JSON object but some other type");
-                    continue;
-                }
-                try {
-                    convertSensor(sensor, sensors);
-                } catch(PropertyNotExpectedType e) {
-                    logException(e, "Failed to parse event: %s", parser_.toString(sensor));
-                }
-            }
             for(FabricTelemetryItem item: sensors)
                 processItem(item);
         }
     }
 
-    private void convertSensor(PropertyMap sensor, List<FabricTelemetryItem> results)
-            throws PropertyNotExpectedType {
-        String location = sensor.getString("Location");
-        String name = sensor.getString("__FullName__");
-        String timestamp = sensor.getString("Timestamp");
-        String sValue = sensor.getString("Value"); // The data examples had values as String types....
+    private void convertSensor(String name, String location, String timestamp, String sValue,
+                               List<FabricTelemetryItem> results) {
         if (name == null || name.trim().isEmpty()) {
             logError("'__FullName__' key was 'null' or empty from the sensor, skipping this sensor");
             return;
@@ -161,10 +141,8 @@ public final class FabricPerfTelemetryProvider extends FabricAdapter {
     @Override
     protected void processConfigItems(Map<String, String> config) {
         super.processConfigItems(config);
-        Accumulator.useTime_ = Boolean.parseBoolean(config.getOrDefault("aggregateUseTime", "false"));
-        Accumulator.count_ = Integer.parseInt(config.getOrDefault("aggregateCount", "25"));
-        Accumulator.moving_ = Boolean.parseBoolean(config.getOrDefault("aggregateUseMovingAverage", "false"));
-        Accumulator.us_ = Long.parseLong(config.getOrDefault("aggregateTimeWindowSeconds", "300")) * 1_000_000L;
+        window_ = Accumulator.windowFromConfig(config);
+        accumulators_.clear();
         aggregationEnabled_ = Boolean.parseBoolean(config.getOrDefault("aggregateEnabled", "true"));
     }
 
@@ -174,7 +152,7 @@ public final class FabricPerfTelemetryProvider extends FabricAdapter {
             String key = raw.getLocation() + ":" + raw.getName();
             Accumulator accum = accumulators_.getOrDefault(key, null);
             if (accum == null) {
-                accum = new Accumulator(log_);
+                accum = new Accumulator(log_, window_);
                 accumulators_.put(key, accum);
             }
             accum.addValue(raw);
@@ -229,5 +207,6 @@ public final class FabricPerfTelemetryProvider extends FabricAdapter {
 
     private boolean aggregationEnabled_ = true;
     private Map<String, Accumulator> accumulators_ = new HashMap<>();
+    private SampleAccumulator.Window window_ = Accumulator.DEFAULT_WINDOW;
     private static final String ADAPTER_TYPE = "FABRICPERF";
 }
@@ -10,7 +10,6 @@ import com.intel.dai.dsapi.RasEventLog
 import com.intel.dai.dsapi.StoreTelemetry
 import com.intel.dai.dsapi.WorkQueue
 import com.intel.logging.Logger
-import com.intel.properties.PropertyMap
 import spock.lang.Specification
 
 class FabricTelemetryProviderSpec extends Specification {
@@ -136,13 +135,8 @@ class FabricTelemetryProviderSpec extends Specification {
     }
 
     def "Test convertSensor"() {
-        PropertyMap sensor = new PropertyMap()
         List<FabricTelemetryItem> results = new ArrayList<>()
-        sensor.put("__FullName__", NAME)
-        sensor.put("Timestamp", TS)
-        sensor.put("Value", VALUE)
-        sensor.put("Location", "location")
-        underTest_.convertSensor(sensor, results)
+        underTest_.convertSensor(NAME, "location", TS, VALUE, results)
         expect: results.size() == RESULT
         where:
         NAME   | TS                             | VALUE || RESULT
@@ -8,6 +8,8 @@ import com.intel.config_io.ConfigIO;
 import com.intel.config_io.ConfigIOFactory;
 import com.intel.config_io.ConfigIOParseException;
 import com.intel.logging.Logger;
+import com.intel.perflogging.Counter;
+import com.intel.perflogging.MetricsRegistry;
 import com.intel.properties.PropertyArray;
 import com.intel.properties.PropertyMap;
 import com.intel.properties.PropertyNotExpectedType;
@@ -19,6 +21,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.text.ParseException;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -58,11 +61,19 @@ final public class CommonFunctions {
             return foreignLocation;
         String sensorName = (otherArgs.length > 0) ? otherArgs[0] : null;
         String extraLocation = (otherArgs.length > 1) ? otherArgs[1] : null;
+        CompiledTranslations compiled = compiled();
+        String key = cacheKey(foreignLocation, sensorName, extraLocation);
+        String location = compiled.foreignToLocation.get(key);
+        if(location != null) {
+            cacheHits_.increment();
+            return location;
+        }
+        cacheMisses_.increment();
         StringBuilder builder = new StringBuilder();
         try {
             if(nodeMap_.containsKey(foreignLocation)) {
                 builder.append(nodeMap_.getString(foreignLocation));
-                processName(builder, sensorName, extraLocation);
+                processName(compiled, builder, sensorName, extraLocation);
             } else
                 throw new ConversionException(String.format("The foreign '%s' was not in the conversion map (nodeMap.size()=%d)!",
                         foreignLocation, nodeMap_.size()));
@@ -70,7 +81,9 @@ final public class CommonFunctions {
             throw new ConversionException("Its possible the resource file for foreign translation has been corrupted",
                     e);
         }
-        return builder.toString();
+        location = builder.toString();
+        compiled.cache(compiled.foreignToLocation, key, location);
+        return location;
     }
 
     /**
@@ -85,11 +98,22 @@ final public class CommonFunctions {
             loadCall_.loadMaps();
         if(daiLocation.equals("all"))
             return daiLocation;
+        CompiledTranslations compiled = compiled();
+        String foreignLocation = compiled.locationToForeign.get(daiLocation);
+        if(foreignLocation != null) {
+            cacheHits_.increment();
+            return foreignLocation;
+        }
+        cacheMisses_.increment();
+        String key = daiLocation;
         daiLocation = reduceDaiLocation(daiLocation);
         try {
-            if (reverseNodeMap_.containsKey(daiLocation))
-                return reverseNodeMap_.getString(daiLocation);
-            else {
+            if (reverseNodeMap_.containsKey(daiLocation)) {
+                foreignLocation = reverseNodeMap_.getString(daiLocation);
+                if(foreignLocation != null)
+                    compiled.cache(compiled.locationToForeign, key, foreignLocation);
+                return foreignLocation;
+            } else {
                 throw new ConversionException(String.format("The DAI location string '%s' was not found " +
                         "in the conversion map (reverseNodeMap_.size()=%d)!",
                         daiLocation, reverseNodeMap_.size()));
@@ -100,6 +124,20 @@ final public class CommonFunctions {
         }
     }
 
+    /**
+     * Number of location conversions (both directions) answered from the conversion cache.
+     */
+    public static long locationCacheHits() {
+        return cacheHits_.get();
+    }
+
+    /**
+     * Number of location conversions (both directions) that had to be computed, including the failed ones.
+     */
+    public static long locationCacheMisses() {
+        return cacheMisses_.get();
+    }
+
     /**
      * Fetch all foreign locations mapped to DAI locations
      * @return all foreign location information
@@ -152,6 +190,19 @@ final public class CommonFunctions {
         return allLeafs;
     }
 
+    /**
+     * Parse a foreign stream down to the sensor level without building the intermediate PropertyMap tree, calling
+     * the handler once for each sensor. The handler is only called once the whole stream parsed, so nothing of a
+     * malformed stream is passed on. Will not parse state changes.
+     *
+     * @param jsonStream The JSON object from the stream of objects...
+     * @param handler The callback receiving each sensor in stream order.
+     * @throws ConfigIOParseException if any unexpected syntax or context is detected.
+     */
+    public static void parseForeignTelemetry(String jsonStream, SensorHandler handler) throws ConfigIOParseException {
+        new ForeignTelemetryStreamParser(handler).parse(jsonStream);
+    }
+
     private static void processMessage(PropertyMap message, PropertyArray allLeafs) throws ConfigIOParseException {
         if(message.containsKey("Events"))
             processEvents(message.getArrayOrDefault("Events", new PropertyArray()), allLeafs);
@@ -238,7 +289,7 @@ final public class CommonFunctions {
     }
 
     private static String reduceDaiLocation(String location) {
-        if(Pattern.compile("^R[0-9]+-CH[0-9]+-CN[0-9]+-.*").matcher(location).matches()) {
+        if(SUB_NODE_LOCATION_PATTERN.matcher(location).matches()) {
             String[] parts = location.split("-");
             return String.join("-", Arrays.copyOf(parts, 3));
         }
@@ -296,13 +347,14 @@ final public class CommonFunctions {
         /* Nothing to do if close fails. */
     }
 
-    private static void processName(StringBuilder builder, String sensorName, String extra) {
+    private static void processName(CompiledTranslations compiled, StringBuilder builder, String sensorName,
+                                    String extra) {
         if(sensorName == null) return;
-        NodeOrCpuInfo cpuInfo = matchCpu(sensorName);
+        NodeOrCpuInfo cpuInfo = matchCpu(compiled, sensorName);
         if(cpuInfo != null) {
             builder.append(String.format("-CPU%d", cpuInfo.number));
         }
-        DimmInfo dimmInfo = matchDimm(sensorName);
+        DimmInfo dimmInfo = matchDimm(compiled, sensorName);
         if(dimmInfo != null) {
             builder.append(String.format("-CH%d-DIMM%d", dimmInfo.dimmChannel, dimmInfo.dimmNumber));
         }
@@ -311,26 +363,48 @@ final public class CommonFunctions {
             builder.append("-").append(extra);
     }
 
-    private static NodeOrCpuInfo matchCpu(String str) {
-        Pattern regex = Pattern.compile(sensorCpuPattern_);
-        Matcher matcher = regex.matcher(str);
+    private static NodeOrCpuInfo matchCpu(CompiledTranslations compiled, String str) {
+        Matcher matcher = compiled.cpuPattern.matcher(str);
         if(!matcher.find()) return null;
         return new NodeOrCpuInfo(Integer.parseInt(str.substring(matcher.start() + 4, matcher.end())),
                 str.substring(0, matcher.start()) + str.substring(matcher.end()));
     }
 
-    private static DimmInfo matchDimm(String str) {
-        Pattern regex = Pattern.compile(sensorDimmPattern_);
-        Matcher dimmMatcher = regex.matcher(str);
+    private static DimmInfo matchDimm(CompiledTranslations compiled, String str) {
+        Matcher dimmMatcher = compiled.dimmPattern.matcher(str);
         if(!dimmMatcher.find()) return null;
-        Pattern regex2 = Pattern.compile(sensorChannelPattern_);
-        Matcher channelMatcher = regex2.matcher(str);
+        Matcher channelMatcher = compiled.channelPattern.matcher(str);
         if(!channelMatcher.find()) return null;
         return new DimmInfo(Integer.parseInt(str.substring(channelMatcher.start() + 3, channelMatcher.end())),
                 Integer.parseInt(str.substring(dimmMatcher.start() + 5, dimmMatcher.end())),
                 str.substring(0, channelMatcher.start()) + str.substring(dimmMatcher.end()));
     }
 
+    // Returns the compiled sensor patterns and conversion caches for the current conversion maps, they are rebuilt
+    // whenever the maps or patterns are replaced.
+    private static CompiledTranslations compiled() {
+        CompiledTranslations compiled = compiled_;
+        if(compiled == null || !compiled.isFor(nodeMap_, reverseNodeMap_, sensorCpuPattern_, sensorDimmPattern_,
+                sensorChannelPattern_)) {
+            compiled = new CompiledTranslations(nodeMap_, reverseNodeMap_, sensorCpuPattern_, sensorDimmPattern_,
+                    sensorChannelPattern_);
+            compiled_ = compiled;
+        }
+        return compiled;
+    }
+
+    private static String cacheKey(String foreignLocation, String sensorName, String extraLocation) {
+        if(sensorName == null && extraLocation == null)
+            return foreignLocation;
+        StringBuilder key = new StringBuilder(foreignLocation).append('\0');
+        if(sensorName != null)
+            key.append(sensorName);
+        key.append('\0');
+        if(extraLocation != null)
+            key.append(extraLocation).append('\0');
+        return key.toString();
+    }
+
     // For testing only....
     static void clearMaps() {
         nodeMap_ = null;
@@ -401,6 +475,22 @@ final public class CommonFunctions {
     static String sensorDimmPattern_ = null;
     static String sensorChannelPattern_ = null;
     static ConfigIO parser_ = ConfigIOFactory.getInstance("json");
+    static final int MAX_CACHED_CONVERSIONS = 65536;
+    private static final Pattern SUB_NODE_LOCATION_PATTERN = Pattern.compile("^R[0-9]+-CH[0-9]+-CN[0-9]+-.*");
+    private static volatile CompiledTranslations compiled_ = null;
+    private static final Counter cacheHits_ = MetricsRegistry.getDefault().counter(
+            "dai_foreign_bus_location_cache_hits_total", "Location conversions answered from the conversion cache");
+    private static final Counter cacheMisses_ = MetricsRegistry.getDefault().counter(
+            "dai_foreign_bus_location_cache_misses_total", "Location conversions that had to be computed");
+
+    /**
+     * Receives the sensors from {@link #parseForeignTelemetry(String, SensorHandler)}. Any value may be null if the
+     * key was missing or was not a string or number in the sensor object.
+     */
+    @FunctionalInterface
+    public interface SensorHandler {
+        void handleSensor(String fullName, String location, String timestamp, String value);
+    }
 
     @FunctionalInterface
     public interface IndirectCall_ {
@@ -408,6 +498,46 @@ final public class CommonFunctions {
     }
     static IndirectCall_ loadCall_ = CommonFunctions::loadConversionsMaps;
 
+    // The sensor patterns compiled once and the memoized conversions for one set of conversion maps. The cache is
+    // bounded by clearing it when it is full, the set of locations and sensor names seen is normally much smaller.
+    private static final class CompiledTranslations {
+        CompiledTranslations(PropertyMap nodeMap, PropertyMap reverseNodeMap, String cpuPattern, String dimmPattern,
+                             String channelPattern) {
+            this.nodeMap = nodeMap;
+            this.reverseNodeMap = reverseNodeMap;
+            this.cpuPatternString = cpuPattern;
+            this.dimmPatternString = dimmPattern;
+            this.channelPatternString = channelPattern;
+            this.cpuPattern = (cpuPattern != null) ? Pattern.compile(cpuPattern) : null;
+            this.dimmPattern = (dimmPattern != null) ? Pattern.compile(dimmPattern) : null;
+            this.channelPattern = (channelPattern != null) ? Pattern.compile(channelPattern) : null;
+        }
+
+        boolean isFor(PropertyMap nodeMap, PropertyMap reverseNodeMap, String cpuPattern, String dimmPattern,
+                      String channelPattern) {
+            return this.nodeMap == nodeMap && this.reverseNodeMap == reverseNodeMap &&
+                    this.cpuPatternString == cpuPattern && this.dimmPatternString == dimmPattern &&
+                    this.channelPatternString == channelPattern;
+        }
+
+        void cache(Map<String, String> conversions, String key, String value) {
+            if(conversions.size() >= MAX_CACHED_CONVERSIONS)
+                conversions.clear();
+            conversions.put(key, value);
+        }
+
+        final PropertyMap nodeMap;
+        final PropertyMap reverseNodeMap;
+        final String cpuPatternString;
+        final String dimmPatternString;
+        final String channelPatternString;
+        final Pattern cpuPattern;
+        final Pattern dimmPattern;
+        final Pattern channelPattern;
+        final Map<String, String> foreignToLocation = new ConcurrentHashMap<>();
+        final Map<String, String> locationToForeign = new ConcurrentHashMap<>();
+    }
+
     private static class NodeOrCpuInfo {
         String newString;
         int number;
@@ -0,0 +1,277 @@
+// Copyright (C) 2021 Intel Corporation
+//
+// SPDX-License-Identifier: Apache-2.0
+//
+package com.intel.dai.foreign_bus;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.intel.config_io.ConfigIOParseException;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Pull parser for the foreign telemetry stream. Walks metrics.messages[].Events[].Oem.Sensors[] once and passes
+ * each sensor to a callback without building the intermediate PropertyMap/PropertyArray tree. The validation and
+ * sensor naming rules are the same as {@link CommonFunctions#parseForeignTelemetry(String)}.
+ *
+ * Each object of the stream is parsed as strict JSON. The whole stream is validated before the callback sees the
+ * first sensor, so a stream that fails to parse passes no sensors at all.
+ */
+final class ForeignTelemetryStreamParser {
+    ForeignTelemetryStreamParser(CommonFunctions.SensorHandler handler) {
+        assert handler != null:"Passed a null SensorHandler to ForeignTelemetryStreamParser.ctor()!";
+        handler_ = handler;
+    }
+
+    void parse(String jsonStream) throws ConfigIOParseException {
+        sensors_.clear();
+        int start = skipWhitespace(jsonStream, 0);
+        while(start < jsonStream.length()) {
+            int end = endOfStreamObject(jsonStream, start);
+            // A strict reader per stream object; a lenient reader would also accept malformed JSON.
+            try (JsonReader reader = new JsonReader(new RangeReader(jsonStream, start, end))) {
+                parseStreamObject(reader);
+                if(reader.peek() != JsonToken.END_DOCUMENT)
+                    throw new ConfigIOParseException("Unexpected data after a stream object");
+            } catch(IOException | IllegalStateException | NumberFormatException e) {
+                throw new ConfigIOParseException("Failed to parse the foreign telemetry stream", e);
+            }
+            start = skipWhitespace(jsonStream, end);
+        }
+        for(String[] sensor: sensors_)
+            handler_.handleSensor(sensor[0], sensor[1], sensor[2], sensor[3]);
+        sensors_.clear();
+    }
+
+    // Returns the index after the brace closing the object starting at start, or after the first character if it
+    // is not an object. The parser reports the errors, this only has to find the end of a valid object.
+    private static int endOfStreamObject(String jsonStream, int start) {
+        int depth = 0;
+        boolean inString = false;
+        for(int index = start; index < jsonStream.length(); index++) {
+            char chr = jsonStream.charAt(index);
+            if(inString) {
+                if(chr == '\\')
+                    index++;
+                else if(chr == '"')
+                    inString = false;
+            } else if(chr == '"')
+                inString = true;
+            else if(chr == '{')
+                depth++;
+            else if(chr == '}')
+                depth--;
+            if(depth <= 0 && !inString)
+                return index + 1;
+        }
+        return jsonStream.length();
+    }
+
+    private static int skipWhitespace(String jsonStream, int index) {
+        while(index < jsonStream.length() && Character.isWhitespace(jsonStream.charAt(index)))
+            index++;
+        return index;
+    }
+
+    private void parseStreamObject(JsonReader reader) throws IOException, ConfigIOParseException {
+        expect(reader, JsonToken.BEGIN_OBJECT, "Stream object is not a JSON object");
+        reader.beginObject();
+        boolean haveMetrics = false;
+        while(reader.hasNext()) {
+            if(reader.nextName().equals("metrics")) {
+                haveMetrics = true;
+                if(reader.peek() == JsonToken.NULL)
+                    throw new ConfigIOParseException("The key 'metrics' is set to 'null'");
+                parseMetrics(reader);
+            } else
+                reader.skipValue();
+        }
+        reader.endObject();
+        if(!haveMetrics)
+            throw new ConfigIOParseException("Stream object is missing the 'metrics' key");
+    }
+
+    private void parseMetrics(JsonReader reader) throws IOException, ConfigIOParseException {
+        expect(reader, JsonToken.BEGIN_OBJECT, "The key 'metrics' is not an object");
+        reader.beginObject();
+        boolean haveMessages = false;
+        while(reader.hasNext()) {
+            if(reader.nextName().equals("messages")) {
+                haveMessages = true;
+                if(reader.peek() != JsonToken.BEGIN_ARRAY) {
+                    reader.skipValue();
+                    continue;
+                }
+                reader.beginArray();
+                while(reader.hasNext()) {
+                    expect(reader, JsonToken.BEGIN_OBJECT, "Expected only objects under 'messages'");
+                    parseMessage(reader);
+                }
+                reader.endArray();
+            } else
+                reader.skipValue();
+        }
+        reader.endObject();
+        if(!haveMessages)
+            throw new ConfigIOParseException("The key 'messages' does not exist in the 'metrics' object");
+    }
+
+    private void parseMessage(JsonReader reader) throws IOException, ConfigIOParseException {
+        reader.beginObject();
+        boolean haveEvents = false;
+        while(reader.hasNext()) {
+            if(reader.nextName().equals("Events")) {
+                haveEvents = true;
+                if(reader.peek() != JsonToken.BEGIN_ARRAY) {
+                    reader.skipValue();
+                    continue;
+                }
+                reader.beginArray();
+                while(reader.hasNext()) {
+                    expect(reader, JsonToken.BEGIN_OBJECT,
+                            "The event object in the 'Events' array is not a object");
+                    parseEvent(reader);
+                }
+                reader.endArray();
+            } else
+                reader.skipValue();
+        }
+        reader.endObject();
+        if(!haveEvents)
+            throw new ConfigIOParseException("Missing key 'Events' in the 'message' object");
+    }
+
+    private void parseEvent(JsonReader reader) throws IOException, ConfigIOParseException {
+        reader.beginObject();
+        String prefix = null;
+        boolean haveOem = false;
+        pending_.clear(); // The MessageId may follow the Oem object so sensors are emitted at the end of the event.
+        while(reader.hasNext()) {
+            switch(reader.nextName()) {
+                case "MessageId":
+                    prefix = nextStringOrNull(reader);
+                    break;
+                case "Oem":
+                    haveOem = true;
+                    if(reader.peek() == JsonToken.NULL)
+                        throw new ConfigIOParseException("The 'Oem' key is defined as 'null' in the event");
+                    parseOem(reader);
+                    break;
+                default:
+                    reader.skipValue();
+                    break;
+            }
+        }
+        reader.endObject();
+        if(!haveOem)
+            throw new ConfigIOParseException("Missing the 'Oem' key in the event in 'Events'");
+        if(prefix == null) prefix = "Missing.Id";
+        for(String[] sensor: pending_) {
+            String fullName = prefix;
+            if(sensor[PHYSICAL] != null)
+                fullName += "." + sensor[PHYSICAL];
+            if(sensor[DEVICE] != null)
+                fullName += "." + sensor[DEVICE];
+            sensors_.add(new String[] { fullName, sensor[LOCATION], sensor[TIMESTAMP], sensor[VALUE] });
+        }
+        pending_.clear();
+    }
+
+    private void parseOem(JsonReader reader) throws IOException, ConfigIOParseException {
+        expect(reader, JsonToken.BEGIN_OBJECT, "The 'Oem' key is not an object");
+        reader.beginObject();
+        boolean haveSensors = false;
+        while(reader.hasNext()) {
+            if(reader.nextName().equals("Sensors")) {
+                haveSensors = true;
+                if(reader.peek() != JsonToken.BEGIN_ARRAY) {
+                    reader.skipValue();
+                    continue;
+                }
+                reader.beginArray();
+                while(reader.hasNext()) {
+                    expect(reader, JsonToken.BEGIN_OBJECT,
+                            "The actual data under the 'Sensors' array was not an object");
+                    pending_.add(parseSensor(reader));
+                }
+                reader.endArray();
+            } else
+                reader.skipValue();
+        }
+        reader.endObject();
+        if(!haveSensors)
+            throw new ConfigIOParseException("Missing the 'Sensors' key in the 'Oem' key");
+    }
+
+    private String[] parseSensor(JsonReader reader) throws IOException {
+        String[] sensor = new String[FIELD_COUNT];
+        reader.beginObject();
+        while(reader.hasNext()) {
+            switch(reader.nextName()) {
+                case "Timestamp":             sensor[TIMESTAMP] = nextStringOrNull(reader); break;
+                case "Location":              sensor[LOCATION] = nextStringOrNull(reader); break;
+                case "PhysicalContext":       sensor[PHYSICAL] = nextStringOrNull(reader); break;
+                case "DeviceSpecificContext": sensor[DEVICE] = nextStringOrNull(reader); break;
+                case "Value":                 sensor[VALUE] = nextStringOrNull(reader); break;
+                default:                      reader.skipValue(); break;
+            }
+        }
+        reader.endObject();
+        return sensor;
+    }
+
+    private static String nextStringOrNull(JsonReader reader) throws IOException {
+        JsonToken token = reader.peek();
+        if(token == JsonToken.STRING || token == JsonToken.NUMBER)
+            return reader.nextString();
+        reader.skipValue();
+        return null;
+    }
+
+    private static void expect(JsonReader reader, JsonToken token, String message)
+            throws IOException, ConfigIOParseException {
+        if(reader.peek() != token)
+            throw new ConfigIOParseException(message);
+    }
+
+    // Reads part of a string without copying it.
+    private static final class RangeReader extends Reader {
+        RangeReader(String text, int start, int end) {
+            text_ = text;
+            position_ = start;
+            end_ = end;
+        }
+
+        @Override
+        public int read(char[] buffer, int offset, int length) {
+            if(position_ >= end_)
+                return -1;
+            int count = Math.min(length, end_ - position_);
+            text_.getChars(position_, position_ + count, buffer, offset);
+            position_ += count;
+            return count;
+        }
+
+        @Override
+        public void close() {}
+
+        private final String text_;
+        private int position_;
+        private final int end_;
+    }
+
+    private final CommonFunctions.SensorHandler handler_;
+    private final List<String[]> pending_ = new ArrayList<>();
+    private final List<String[]> sensors_ = new ArrayList<>(); // Named sensors waiting for the whole stream to parse.
+
+    private static final int TIMESTAMP = 0;
+    private static final int LOCATION = 1;
+    private static final int PHYSICAL = 2;
+    private static final int DEVICE = 3;
+    private static final int VALUE = 4;
+    private static final int FIELD_COUNT = 5;
+}
@@ -0,0 +1,157 @@
+// Copyright (C) 2021 Intel Corporation
+//
+// SPDX-License-Identifier: Apache-2.0
+//
+package com.intel.dai.foreign_bus;
+
+/**
+ * Windowed min/max/average aggregation of telemetry samples for one sensor at one location. Samples are stored in
+ * primitive ring buffers with a running sum and monotonic min/max queues so adding a sample, producing statistics,
+ * and dropping the oldest sample of a moving window are all O(1). This class is not thread safe.
+ */
+public final class SampleAccumulator {
+    /**
+     * Immutable window configuration shared by all accumulators of one provider.
+     */
+    public static final class Window {
+        /**
+         * Create a window configuration.
+         *
+         * @param useTime true for a time window; false for a sample count window.
+         * @param count The sample count of a count window.
+         * @param timeSpan The span of a time window in the same units as the sample timestamps.
+         * @param moving true for a moving window that drops only the oldest sample after producing statistics; false
+         *               for a simple window that starts over after producing statistics.
+         */
+        public Window(boolean useTime, int count, long timeSpan, boolean moving) {
+            if(!useTime && count <= 0) throw new IllegalArgumentException("The window count must be greater than 0!");
+            if(useTime && timeSpan < 0) throw new IllegalArgumentException("The window time span cannot be negative!");
+            this.useTime = useTime;
+            this.count = count;
+            this.timeSpan = timeSpan;
+            this.moving = moving;
+        }
+
+        public final boolean useTime;
+        public final int count;
+        public final long timeSpan;
+        public final boolean moving;
+    }
+
+    public SampleAccumulator(Window window) {
+        if(window == null) throw new NullPointerException("The window cannot be null!");
+        window_ = window;
+        int capacity = INITIAL_CAPACITY;
+        if(!window.useTime)
+            while(capacity < window.count) capacity <<= 1;
+        allocate(capacity);
+    }
+
+    /**
+     * Add a sample to the window.
+     *
+     * @param timestamp The sample timestamp, only used for time windows.
+     * @param value The sample value.
+     * @return true if the window was complete and new statistics are available from getMinimum(), getMaximum() and
+     * getAverage().
+     */
+    public boolean addValue(long timestamp, double value) {
+        if(size() == values_.length) grow();
+        long seq = tail_++;
+        int slot = (int)(seq & mask_);
+        values_[slot] = value;
+        timestamps_[slot] = timestamp;
+        sum_ += value;
+        while(maxTail_ > maxHead_ && values_[slotOf(maxQueue_, maxTail_ - 1)] <= value) maxTail_--;
+        maxQueue_[(int)(maxTail_++ & mask_)] = seq;
+        while(minTail_ > minHead_ && values_[slotOf(minQueue_, minTail_ - 1)] >= value) minTail_--;
+        minQueue_[(int)(minTail_++ & mask_)] = seq;
+
+        boolean complete = window_.useTime ? (timestamp - timestamps_[(int)(head_ & mask_)]) >= window_.timeSpan :
+                size() == window_.count;
+        if(!complete) return false;
+        minimum_ = values_[slotOf(minQueue_, minHead_)];
+        maximum_ = values_[slotOf(maxQueue_, maxHead_)];
+        average_ = sum_ / (double)size();
+        if(window_.moving)
+            removeOldest();
+        else
+            clear();
+        return true;
+    }
+
+    public int size() { return (int)(tail_ - head_); }
+    public double getMinimum() { return minimum_; }
+    public double getMaximum() { return maximum_; }
+    public double getAverage() { return average_; }
+
+    public void clear() {
+        head_ = tail_;
+        minHead_ = minTail_;
+        maxHead_ = maxTail_;
+        sum_ = 0.0;
+        removals_ = 0;
+    }
+
+    private void removeOldest() {
+        long seq = head_++;
+        sum_ -= values_[(int)(seq & mask_)];
+        if(maxQueue_[(int)(maxHead_ & mask_)] == seq) maxHead_++;
+        if(minQueue_[(int)(minHead_ & mask_)] == seq) minHead_++;
+        if(++removals_ >= values_.length) { // Recompute to stop floating point drift in long running moving windows.
+            removals_ = 0;
+            sum_ = 0.0;
+            for(long s = head_; s < tail_; s++)
+                sum_ += values_[(int)(s & mask_)];
+        }
+    }
+
+    private int slotOf(long[] queue, long position) {
+        return (int)(queue[(int)(position & mask_)] & mask_);
+    }
+
+    private void grow() {
+        double[] oldValues = values_;
+        long[] oldTimestamps = timestamps_;
+        long[] oldMin = minQueue_;
+        long[] oldMax = maxQueue_;
+        long oldMask = mask_;
+        allocate(oldValues.length << 1);
+        for(long s = head_; s < tail_; s++) {
+            values_[(int)(s & mask_)] = oldValues[(int)(s & oldMask)];
+            timestamps_[(int)(s & mask_)] = oldTimestamps[(int)(s & oldMask)];
+        }
+        for(long p = minHead_; p < minTail_; p++)
+            minQueue_[(int)(p & mask_)] = oldMin[(int)(p & oldMask)];
+        for(long p = maxHead_; p < maxTail_; p++)
+            maxQueue_[(int)(p & mask_)] = oldMax[(int)(p & oldMask)];
+    }
+
+    private void allocate(int capacity) {
+        values_ = new double[capacity];
+        timestamps_ = new long[capacity];
+        minQueue_ = new long[capacity];
+        maxQueue_ = new long[capacity];
+        mask_ = capacity - 1;
+    }
+
+    private final Window window_;
+    private double[] values_;
+    private long[] timestamps_;
+    private long[] minQueue_; // Sequence numbers of samples with increasing values.
+    private long[] maxQueue_; // Sequence numbers of samples with decreasing values.
+    private long mask_;
+    private long head_ = 0L;
+    private long tail_ = 0L;
+    private long minHead_ = 0L;
+    private long minTail_ = 0L;
+    private long maxHead_ = 0L;
+    private long maxTail_ = 0L;
+    private double sum_ = 0.0;
+    private int removals_ = 0;
+    private double minimum_ = 0.0;
+    private double maximum_ = 0.0;
+    private double average_ = 0.0;
+
+    private static final int INITIAL_CAPACITY = 16; // Must be a power of 2.
+}
@@ -2,6 +2,7 @@ package com.intel.dai.foreign_bus
 
 import spock.lang.Specification
 
+import com.intel.config_io.ConfigIOParseException
 import com.intel.logging.Logger
 import java.text.ParseException
 
@@ -92,6 +93,72 @@ class CommonFunctionsSpec extends Specification {
         expect: results.size() == 2
     }
 
+    def "Test parseForeignTelemetry streaming"() {
+        def sample = """{"metrics":{"messages":[{"Events":[{"Oem":{"Sensors":[
+    {"Timestamp":"2020-06-03T22:35:45Z","Location":"x3000c0s17b0","PhysicalContext":"Chassis",
+     "DeviceSpecificContext":"sensor","Index":0,"Value":"258","Extra":{"a":[1,2]}},
+    {"Timestamp":"2020-06-03T22:35:46Z","Location":"x3000c0s17b0","Value":12.5}
+  ],"TelemetrySource":"River"},"MessageId":"CrayTelemetry.Power"}]}]}}
+{"metrics":{"messages":[{"Events":[{"MessageId":null,"Oem":{"Sensors":[{"Location":"x3000c0s17b0"}]}}]}]}}"""
+        def results = []
+        CommonFunctions.parseForeignTelemetry(sample, { name, location, timestamp, value ->
+            results.add([name, location, timestamp, value])
+        } as CommonFunctions.SensorHandler)
+        expect:
+        results.size() == 3
+        results[0] == ["CrayTelemetry.Power.Chassis.sensor", "x3000c0s17b0", "2020-06-03T22:35:45Z", "258"]
+        results[1] == ["CrayTelemetry.Power", "x3000c0s17b0", "2020-06-03T22:35:46Z", "12.5"]
+        results[2] == ["Missing.Id", "x3000c0s17b0", null, null]
+    }
+
+    def "Test parseForeignTelemetry streaming matches tree parsing"() {
+        def sample = """{"metrics":{"messages":[{"Events":[{"MessageId":"Id","Oem":{"Sensors":[
+    {"Timestamp":"T","Location":"L","PhysicalContext":"P","Value":"1"},
+    {"Timestamp":"T","Location":"L","DeviceSpecificContext":"D","Value":"2"}]}}]}]}}"""
+        def tree = CommonFunctions.parseForeignTelemetry(sample)
+        def streamed = []
+        CommonFunctions.parseForeignTelemetry(sample, { name, location, timestamp, value ->
+            streamed.add(name)
+        } as CommonFunctions.SensorHandler)
+        expect: streamed == tree.collect { it.getString("__FullName__") }
+    }
+
+    def "Test parseForeignTelemetry streaming negative"() {
+        when: CommonFunctions.parseForeignTelemetry(SAMPLE, { a, b, c, d -> } as CommonFunctions.SensorHandler)
+        then: thrown(ConfigIOParseException)
+        where:
+        SAMPLE                                                                     || DUMMY
+        """{"other":{}}"""                                                         || _
+        """{"metrics":null}"""                                                     || _
+        """{"metrics":{}}"""                                                       || _
+        """{"metrics":{"messages":[1]}}"""                                         || _
+        """{"metrics":{"messages":[{}]}}"""                                        || _
+        """{"metrics":{"messages":[{"Events":[{}]}]}}"""                           || _
+        """{"metrics":{"messages":[{"Events":[{"Oem":null}]}]}}"""                 || _
+        """{"metrics":{"messages":[{"Events":[{"Oem":{}}]}]}}"""                   || _
+        """{"metrics":{"messages":[{"Events":[{"Oem":{"Sensors":["x"]}}]}]}}"""    || _
+        """{"metrics":{"messages":[{"Events":[{"Oem":{"Sensors":[{"a":1}"""        || _
+        """[]"""                                                                   || _
+        """{metrics:{"messages":[]}}"""                                            || _
+        """{'metrics':{"messages":[]}}"""                                          || _
+        """{"metrics":{"messages":[]}} # comment"""                                || _
+        """{"metrics"={"messages":[]}}"""                                          || _
+    }
+
+    def "Test parseForeignTelemetry streaming passes nothing of a malformed stream"() {
+        def sample = """{"metrics":{"messages":[{"Events":[{"MessageId":"Id","Oem":{"Sensors":[
+    {"Timestamp":"T","Location":"L","Value":"1"}]}}]}]}}
+{"metrics":{"messages":[{"Events":[{"MessageId":"Id","Oem":{"Sensors":[{"Location":"L"}]}},{}]}]}}"""
+        def results = []
+        when:
+        CommonFunctions.parseForeignTelemetry(sample, { name, location, timestamp, value ->
+            results.add(name)
+        } as CommonFunctions.SensorHandler)
+        then:
+        thrown(ConfigIOParseException)
+        results.isEmpty()
+    }
+
     def "Test haveErrorsInConversionMaps"() {
         when: CommonFunctions.haveErrorsInConversionMaps(Mock(Logger))
         then: notThrown Exception
@@ -0,0 +1,86 @@
+// Copyright (C) 2021 Intel Corporation
+//
+// SPDX-License-Identifier: Apache-2.0
+//
+package com.intel.dai.foreign_bus
+
+import spock.lang.Specification
+
+class SampleAccumulatorSpec extends Specification {
+    def "Test ctor Negative"() {
+        when: new SampleAccumulator(new SampleAccumulator.Window(USETIME, COUNT, SPAN, false))
+        then: thrown(IllegalArgumentException)
+        where:
+        USETIME | COUNT | SPAN
+        false   | 0     | 0L
+        true    | 0     | -1L
+    }
+
+    def "Test simple count window"() {
+        def underTest = new SampleAccumulator(new SampleAccumulator.Window(false, 3, 0L, false))
+        expect: !underTest.addValue(0L, -1.0)
+        and:    !underTest.addValue(0L, -3.0)
+        and:    underTest.addValue(0L, -2.0)
+        and:    underTest.minimum == -3.0
+        and:    underTest.maximum == -1.0
+        and:    underTest.average == -2.0
+        and:    underTest.size() == 0
+    }
+
+    def "Test simple time window"() {
+        def underTest = new SampleAccumulator(new SampleAccumulator.Window(true, 0, 10L, false))
+        for(long ts = 0L; ts < 10L; ts++)
+            assert !underTest.addValue(ts, (double)ts)
+        expect: underTest.addValue(10L, 10.0)
+        and:    underTest.average == 5.0
+        and:    underTest.minimum == 0.0
+        and:    underTest.maximum == 10.0
+        and:    underTest.size() == 0
+    }
+
+    def "Test moving count window matches a full rescan"() {
+        def window = 7
+        def underTest = new SampleAccumulator(new SampleAccumulator.Window(false, window, 0L, true))
+        def random = new Random(42L)
+        def history = []
+        for(int i = 0; i < 5_000; i++) {
+            double value = random.nextInt(100) - 50.0
+            history.add(value)
+            boolean ready = underTest.addValue(i, value)
+            assert ready == (history.size() >= window)
+            if(ready) {
+                def last = history.subList(history.size() - window, history.size())
+                assert underTest.minimum == last.min()
+                assert underTest.maximum == last.max()
+                assert Math.abs(underTest.average - (last.sum() / window)) < 1e-9
+                assert underTest.size() == window - 1
+            }
+        }
+        expect: underTest.size() == window - 1
+    }
+
+    def "Test moving time window grows past the initial capacity"() {
+        def underTest = new SampleAccumulator(new SampleAccumulator.Window(true, 0, 100L, true))
+        for(long ts = 0L; ts < 100L; ts++)
+            assert !underTest.addValue(ts, (double)(100L - ts))
+        expect: underTest.addValue(100L, 500.0)
+        and:    underTest.minimum == 1.0
+        and:    underTest.maximum == 500.0
+        and:    underTest.size() == 100
+        and:    underTest.addValue(101L, 0.0)
+        and:    underTest.minimum == 0.0
+        and:    underTest.maximum == 500.0
+        and:    underTest.size() == 100
+    }
+
+    def "Test clear"() {
+        def underTest = new SampleAccumulator(new SampleAccumulator.Window(false, 2, 0L, true))
+        underTest.addValue(0L, 100.0)
+        underTest.clear()
+        expect: underTest.size() == 0
+        and:    underTest.addValue(0L, 1.0) == false
+        and:    underTest.addValue(0L, 3.0)
+        and:    underTest.maximum == 3.0
+        and:    underTest.minimum == 1.0
+    }
+}
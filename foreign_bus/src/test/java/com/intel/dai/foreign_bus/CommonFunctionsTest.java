@@ -94,6 +94,33 @@ public class CommonFunctionsTest {
         CommonFunctions.convertLocationToForeign("R3-CH0-CN0");
     }
 
+    @Test
+    public void conversionsAreCached() throws Exception {
+        String expected = CommonFunctions.convertForeignToLocation("x0c0s1b0n0", "BC_I_NODE1_CPU2_CH1_DIMM3_YY");
+        long hits = CommonFunctions.locationCacheHits();
+        long misses = CommonFunctions.locationCacheMisses();
+        assertEquals(expected, CommonFunctions.convertForeignToLocation("x0c0s1b0n0", "BC_I_NODE1_CPU2_CH1_DIMM3_YY"));
+        assertEquals("R0-CH0-CN1-BC_I_NODE1_YY", CommonFunctions.convertForeignToLocation("x0c0s1b0n0", "BC_I_NODE1_YY"));
+        assertEquals("R0-CH0-CN1", CommonFunctions.convertForeignToLocation("x0c0s1b0n0"));
+        assertEquals("x0c0s3b0n0", CommonFunctions.convertLocationToForeign("R0-CH0-CN3-BC_I_NODE3_YY-EXTRA"));
+        assertEquals("x0c0s3b0n0", CommonFunctions.convertLocationToForeign("R0-CH0-CN3-BC_I_NODE3_YY-EXTRA"));
+        assertEquals(hits + 2, CommonFunctions.locationCacheHits());
+        assertEquals(misses + 3, CommonFunctions.locationCacheMisses());
+    }
+
+    @Test
+    public void cacheFollowsReplacedMaps() throws Exception {
+        assertEquals("R0-CH0-CN3", CommonFunctions.convertForeignToLocation("x0c0s3b0n0"));
+        PropertyMap nodeMap = new PropertyMap();
+        nodeMap.put("x0c0s3b0n0", "R9-CH9-CN9");
+        PropertyMap reverseNodeMap = new PropertyMap();
+        reverseNodeMap.put("R9-CH9-CN9", "x0c0s3b0n0");
+        CommonFunctions.nodeMap_ = nodeMap;
+        CommonFunctions.reverseNodeMap_ = reverseNodeMap;
+        assertEquals("R9-CH9-CN9", CommonFunctions.convertForeignToLocation("x0c0s3b0n0"));
+        assertEquals("x0c0s3b0n0", CommonFunctions.convertLocationToForeign("R9-CH9-CN9"));
+    }
+
     @Test
     public void testAllForeignNames() {
        assertTrue(CommonFunctions.getLocations().containsAll(CommonFunctions.nodeMap_ .values()));
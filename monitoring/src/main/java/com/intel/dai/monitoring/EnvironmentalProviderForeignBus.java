@@ -9,14 +9,15 @@ import com.intel.config_io.ConfigIOFactory;
 import com.intel.config_io.ConfigIOParseException;
 import com.intel.dai.foreign_bus.CommonFunctions;
 import com.intel.dai.foreign_bus.ConversionException;
+import com.intel.dai.foreign_bus.SampleAccumulator;
 import com.intel.dai.network_listener.*;
 import com.intel.logging.Logger;
-import com.intel.properties.PropertyArray;
 import com.intel.properties.PropertyMap;
-import com.intel.properties.PropertyNotExpectedType;
 
 import java.text.ParseException;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Specific provider for environmental data from foreign bus.
@@ -41,32 +42,24 @@ public class EnvironmentalProviderForeignBus implements NetworkListenerProvider,
         List<CommonDataFormat> results = new ArrayList<>();
         try {
             log_.debug("*** Message: %s", data);
-            PropertyArray items = CommonFunctions.parseForeignTelemetry(data);
-            items.iterator().forEachRemaining((o) -> {
-                PropertyMap item = (PropertyMap)o;
-                if(!item.keySet().containsAll(requiredInMessage_))
+            CommonFunctions.parseForeignTelemetry(data, (name, foreignLocation, timestamp, value) -> {
+                if(name == null || foreignLocation == null || timestamp == null || value == null)
                     log_.warn("Not all expected keys were found in one of the payload object!");
                 else {
                     try {
-                        long ts = CommonFunctions.convertISOToLongTimestamp(item.getString("Timestamp"));
-                        String location = CommonFunctions.convertForeignToLocation(item.getString("Location"));
-                        String name = item.getString("__FullName__");
+                        long ts = CommonFunctions.convertISOToLongTimestamp(timestamp);
+                        String location = CommonFunctions.convertForeignToLocation(foreignLocation);
                         CommonDataFormat common = new CommonDataFormat(ts, location, DataType.EnvironmentalData);
                         common.setDescription(name);
-                        common.setValueAndUnits(Double.parseDouble(item.getString("Value")), "", name);
+                        common.setValueAndUnits(Double.parseDouble(value), "", name);
                         aggregateData(common);
                         results.add(common);
-                    } catch(PropertyNotExpectedType e) {
-                        log_.warn("One or more of the expected keys was not the right type or malformed!");
                     } catch(ParseException e) {
-                        log_.warn("The incoming Timestamp was not valid: %s",
-                                item.getStringOrDefault("Timestamp", "<MISSING>"));
+                        log_.warn("The incoming Timestamp was not valid: %s", timestamp);
                     } catch(NumberFormatException e) {
-                        log_.warn("The incoming Value was not valid: '%s'",
-                                item.getStringOrDefault("Value", "<MISSING>"));
+                        log_.warn("The incoming Value was not valid: '%s'", value);
                     } catch(ConversionException e) {
-                        log_.warn("The incoming Location was not valid: %s",
-                                item.getStringOrDefault("Location", "<MISSING>"));
+                        log_.warn("The incoming Location was not valid: %s", foreignLocation);
                     }
                 }
             });
@@ -117,95 +110,134 @@ public class EnvironmentalProviderForeignBus implements NetworkListenerProvider,
         }
     }
 
-    private void setUpConfig(NetworkListenerConfig config) {
-        configDone_ = true;
+    private synchronized void setUpConfig(NetworkListenerConfig config) {
+        if(configDone_) return;
         PropertyMap myConfig = config.getProviderConfigurationFromClassName(getClass().getCanonicalName());
         if(myConfig != null) {
-            Accumulator.useTime_ = myConfig.getBooleanOrDefault("useTimeWindow", false);
-            Accumulator.count_ = myConfig.getIntOrDefault("windowSize", 25);
-            Accumulator.moving_ = myConfig.getBooleanOrDefault("useMovingAverage", false);
-            Accumulator.ns_ = myConfig.getLongOrDefault("timeWindowSeconds", 600) * 1_000_000_000;
+            window_ = new SampleAccumulator.Window(myConfig.getBooleanOrDefault("useTimeWindow", false),
+                    myConfig.getIntOrDefault("windowSize", 25),
+                    myConfig.getLongOrDefault("timeWindowSeconds", 600) * 1_000_000_000L,
+                    myConfig.getBooleanOrDefault("useMovingAverage", false));
             doAggregation_ = myConfig.getBooleanOrDefault("useAggregation", true);
+            idleEvictionNs_ = myConfig.getLongOrDefault("idleKeyEvictionSeconds", DEFAULT_IDLE_EVICTION_SECONDS) *
+                    1_000_000_000L;
         }
+        configDone_ = true; // Set last so other processing threads see the finished configuration.
     }
 
-    private synchronized CommonDataFormat aggregateData(CommonDataFormat raw) {
+    private CommonDataFormat aggregateData(CommonDataFormat raw) {
         if(doAggregation_) {
             log_.debug("Aggregating data...");
-            String key = raw.getLocation() + ":" + raw.getTelemetryDataType();
-            Accumulator accum = accumulators_.getOrDefault(key, null);
-            if (accum == null) {
-                accum = new Accumulator(log_);
-                accumulators_.put(key, accum);
-            }
+            AccumulatorKey key = new AccumulatorKey(raw.getLocation(), raw.getTelemetryDataType());
+            long now = System.nanoTime();
             //log_.debug("===RAW_DATA_VALUE: %s = %f", key, raw.getValue()); // Leave for debugging for developers.
-            accum.addValue(raw);
+            Accumulator accum = accumulators_.computeIfAbsent(key, k -> new Accumulator(log_, window_));
+            while(!accum.addValue(raw, now)) { // Lost a race with the eviction sweep, replace the evicted one.
+                accumulators_.remove(key, accum);
+                accum = accumulators_.computeIfAbsent(key, k -> new Accumulator(log_, window_));
+            }
+            evictIdleAccumulators(now);
         }
         return raw;
     }
 
+    // Only one caller at a time does the sweep and only when the check interval has passed.
+    private void evictIdleAccumulators(long now) {
+        long next = nextEvictionCheck_.get();
+        if(idleEvictionNs_ <= 0L || now - next < 0L || !nextEvictionCheck_.compareAndSet(next,
+                now + idleEvictionNs_ / 2L))
+            return;
+        int before = accumulators_.size();
+        for(Map.Entry<AccumulatorKey, Accumulator> entry: accumulators_.entrySet())
+            if(entry.getValue().evictIfIdle(now, idleEvictionNs_))
+                accumulators_.remove(entry.getKey(), entry.getValue());
+        log_.debug("Evicted %d idle aggregation keys", before - accumulators_.size());
+    }
+
     private Logger log_;
     private boolean configured_ = false;
     private boolean publish_ = false;
     private String rawTopic_ = "ucs_raw_data";
     private String aggregatedTopic_ = "ucs_aggregate_data";
     private ConfigIO parser_;
-    private Map<String, Accumulator> accumulators_ = new HashMap<>();
-            boolean configDone_ = false;
+    private Map<AccumulatorKey, Accumulator> accumulators_ = new ConcurrentHashMap<>();
+    private SampleAccumulator.Window window_ = Accumulator.DEFAULT_WINDOW;
+    volatile boolean configDone_ = false;
     private boolean doAggregation_ = true;
-    @SuppressWarnings("serial")
-    private static final List<String> requiredInMessage_ = new ArrayList<String>() {{
-        add("__FullName__");
-        add("Value");
-        add("Timestamp");
-        add("Location");
-    }};
+    private long idleEvictionNs_ = DEFAULT_IDLE_EVICTION_SECONDS * 1_000_000_000L;
+    private final AtomicLong nextEvictionCheck_ = new AtomicLong(System.nanoTime());
+
+    private static final long DEFAULT_IDLE_EVICTION_SECONDS = 3600L;
+
+    /**
+     * Aggregation key of one sensor at one location, avoids building a concatenated string for every sample.
+     */
+    static final class AccumulatorKey {
+        AccumulatorKey(String location, String type) {
+            location_ = location;
+            type_ = type;
+            hash_ = 31 * Objects.hashCode(location) + Objects.hashCode(type);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if(this == o) return true;
+            if(!(o instanceof AccumulatorKey)) return false;
+            AccumulatorKey other = (AccumulatorKey)o;
+            return hash_ == other.hash_ && Objects.equals(location_, other.location_) &&
+                    Objects.equals(type_, other.type_);
+        }
+
+        @Override
+        public int hashCode() { return hash_; }
+
+        @Override
+        public String toString() { return location_ + ":" + type_; }
+
+        private final String location_;
+        private final String type_;
+        private final int hash_;
+    }
 
     static class Accumulator {
-        Accumulator(Logger logger) { log_ = logger; }
+        Accumulator(Logger logger, SampleAccumulator.Window window) {
+            log_ = logger;
+            samples_ = new SampleAccumulator(window);
+        }
+
         void addValue(CommonDataFormat data) {
-            values_.add(data.getValue());
-            log_.debug("Accumulator: value count now %d compared to %d", values_.size(), count_);
-            timestamps_.add(data.getNanoSecondTimestamp());
-            if(useTime_ && timeExceeded())
-                doAggregation(data);
-            else if(!useTime_ && values_.size() == count_)
-                doAggregation(data);
+            addValue(data, System.nanoTime());
         }
 
-        void doAggregation(CommonDataFormat data) {
-            log_.debug("Generating aggregated data...");
-            double sum = 0.0;
-            double min = Double.MAX_VALUE;
-            double max = Double.MIN_VALUE;
-            for(double value: values_) {
-                sum += value;
-                max = Double.max(value, max);
-                min = Double.min(value, min);
-            }
-            double avg = sum / (double)values_.size();
-            data.setMinMaxAvg(min, max, avg);
-            if(moving_) { // moving average algorithm with window size = count_;
-                values_.remove(0);
-                timestamps_.remove(0);
-            } else { // window algorithm
-                values_.clear();
-                timestamps_.clear();
+        /**
+         * Add a sample holding this accumulator's lock, so different keys aggregate in parallel.
+         *
+         * @return false if the accumulator was evicted and the sample was not added.
+         */
+        synchronized boolean addValue(CommonDataFormat data, long now) {
+            if(evicted_) return false;
+            lastUsedNs_ = now;
+            if(samples_.addValue(data.getNanoSecondTimestamp(), data.getValue())) {
+                log_.debug("Generating aggregated data...");
+                data.setMinMaxAvg(samples_.getMinimum(), samples_.getMaximum(), samples_.getAverage());
             }
+            return true;
         }
 
-        boolean timeExceeded() {
-            return (timestamps_.get(timestamps_.size()-1) - timestamps_.get(0)) >= ns_;
+        synchronized boolean evictIfIdle(long now, long idleNs) {
+            if(now - lastUsedNs_ >= idleNs)
+                evicted_ = true;
+            return evicted_;
         }
 
-        List<Double> values_ = new ArrayList<>();
-        List<Long> timestamps_ = new ArrayList<>();
-        Logger log_;
+        synchronized int size() { return samples_.size(); }
+
+        private final SampleAccumulator samples_;
+        private final Logger log_;
+        private long lastUsedNs_ = System.nanoTime();
+        private boolean evicted_ = false;
 
-        static boolean useTime_ = false; // time window if true; count window if false.
-        static int count_ = 25;          // 25 sample count window.
-        static long ns_ = 600000000;     // 10 minutes default in nanoseconds.
-        static boolean moving_ = false;  // true will give a moving average with the count_ window;
-                                         // false is a simple window.
+        static final SampleAccumulator.Window DEFAULT_WINDOW = new SampleAccumulator.Window(false, 25,
+                600L * 1_000_000_000L, false); // 25 sample simple count window; 10 minute time window.
     }
 }
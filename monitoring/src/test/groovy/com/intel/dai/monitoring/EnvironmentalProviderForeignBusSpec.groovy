@@ -4,6 +4,7 @@
 //
 package com.intel.dai.monitoring
 
+import com.intel.dai.foreign_bus.SampleAccumulator
 import com.intel.dai.network_listener.CommonDataFormat
 import com.intel.dai.network_listener.DataType
 import com.intel.dai.network_listener.NetworkListenerConfig
@@ -51,10 +52,7 @@ class EnvironmentalProviderForeignBusSpec extends Specification {
         underTest_.configDone_ = true
         underTest_.doAggregation_ = true
         underTest_.publish_ = true
-        EnvironmentalProviderForeignBus.Accumulator.useTime_ = USETIME
-        EnvironmentalProviderForeignBus.Accumulator.moving_ = MOVING
-        EnvironmentalProviderForeignBus.Accumulator.count_ = 3
-        EnvironmentalProviderForeignBus.Accumulator.ns_ = 10
+        underTest_.window_ = new SampleAccumulator.Window(USETIME, 3, 10, MOVING)
 
         def data = new CommonDataFormat(timestamp_, "location", DataType.EnvironmentalData)
         data.setDescription("name")
@@ -97,10 +95,7 @@ class EnvironmentalProviderForeignBusSpec extends Specification {
 
     def "Test windows count accumulation"() {
         EnvironmentalProviderForeignBus.Accumulator accumulator =
-                new EnvironmentalProviderForeignBus.Accumulator(Mock(Logger))
-        EnvironmentalProviderForeignBus.Accumulator.count_ = 10
-        EnvironmentalProviderForeignBus.Accumulator.useTime_ = false
-        EnvironmentalProviderForeignBus.Accumulator.moving_ = false
+                new EnvironmentalProviderForeignBus.Accumulator(Mock(Logger), new SampleAccumulator.Window(false, 10, 0L, false))
         CommonDataFormat data
         for(int v = 1; v <= 10; v++) {
             data = new CommonDataFormat(1_000_000_000L * v, "loc", DataType.EnvironmentalData)
@@ -111,15 +106,12 @@ class EnvironmentalProviderForeignBusSpec extends Specification {
         and:    doubleEquals(data.average, 5.5)
         and:    doubleEquals(data.maximum, 10.0)
         and:    doubleEquals(data.minimum, 1.0)
-        and:    accumulator.values_.size() == 0
+        and:    accumulator.size() == 0
     }
 
     def "Test time window accumulation"() {
         EnvironmentalProviderForeignBus.Accumulator accumulator =
-                new EnvironmentalProviderForeignBus.Accumulator(Mock(Logger))
-        EnvironmentalProviderForeignBus.Accumulator.ns_ = 10_000_000_000L
-        EnvironmentalProviderForeignBus.Accumulator.useTime_ = true
-        EnvironmentalProviderForeignBus.Accumulator.moving_ = false
+                new EnvironmentalProviderForeignBus.Accumulator(Mock(Logger), new SampleAccumulator.Window(true, 0, 10_000_000_000L, false))
         CommonDataFormat data
         for(int v = 1; v <= 11; v++) {
             data = new CommonDataFormat(1_000_000_000L * v, "loc", DataType.EnvironmentalData)
@@ -130,15 +122,12 @@ class EnvironmentalProviderForeignBusSpec extends Specification {
         and:    doubleEquals(data.average, 6)
         and:    doubleEquals(data.maximum, 11.0)
         and:    doubleEquals(data.minimum, 1.0)
-        and:    accumulator.values_.size() == 0
+        and:    accumulator.size() == 0
     }
 
     def "Test count moving average accumulation"() {
         EnvironmentalProviderForeignBus.Accumulator accumulator =
-                new EnvironmentalProviderForeignBus.Accumulator(Mock(Logger))
-        EnvironmentalProviderForeignBus.Accumulator.count_ = 5
-        EnvironmentalProviderForeignBus.Accumulator.useTime_ = false
-        EnvironmentalProviderForeignBus.Accumulator.moving_ = true
+                new EnvironmentalProviderForeignBus.Accumulator(Mock(Logger), new SampleAccumulator.Window(false, 5, 0L, true))
         CommonDataFormat data
         for(int v = 1; v <= 10; v++) {
             data = new CommonDataFormat(1_000_000_000L * v, "loc", DataType.EnvironmentalData)
@@ -149,7 +138,61 @@ class EnvironmentalProviderForeignBusSpec extends Specification {
         and:    doubleEquals(data.average, 8)
         and:    doubleEquals(data.maximum, 10.0)
         and:    doubleEquals(data.minimum, 6.0)
-        and:    accumulator.values_.size() == 4
+        and:    accumulator.size() == 4
+    }
+
+    def "Test AccumulatorKey"() {
+        def key = new EnvironmentalProviderForeignBus.AccumulatorKey("loc", "type")
+        expect: key == new EnvironmentalProviderForeignBus.AccumulatorKey("loc", "type")
+        and:    key.hashCode() == new EnvironmentalProviderForeignBus.AccumulatorKey("loc", "type").hashCode()
+        and:    key != new EnvironmentalProviderForeignBus.AccumulatorKey("loc", "other")
+        and:    key != new EnvironmentalProviderForeignBus.AccumulatorKey(null, "type")
+        and:    key.toString() == "loc:type"
+    }
+
+    def "Test idle accumulators are evicted"() {
+        underTest_.configDone_ = true
+        underTest_.idleEvictionNs_ = 1L
+        underTest_.nextEvictionCheck_.set(System.nanoTime() + 1_000_000_000L)
+        def stale = new CommonDataFormat(timestamp_, "stale", DataType.EnvironmentalData)
+        stale.setValueAndUnits(1.0, "", "name")
+        underTest_.aggregateData(stale)
+        underTest_.nextEvictionCheck_.set(System.nanoTime())
+        Thread.sleep(2L)
+        def fresh = new CommonDataFormat(timestamp_, "fresh", DataType.EnvironmentalData)
+        fresh.setValueAndUnits(1.0, "", "name")
+        underTest_.aggregateData(fresh)
+        expect: underTest_.accumulators_.size() == 1
+        and:    underTest_.accumulators_.containsKey(new EnvironmentalProviderForeignBus.AccumulatorKey("fresh",
+                "name"))
+    }
+
+    def "Test evicted accumulator rejects samples"() {
+        def accumulator = new EnvironmentalProviderForeignBus.Accumulator(Mock(Logger),
+                new SampleAccumulator.Window(false, 2, 0L, false))
+        def data = new CommonDataFormat(timestamp_, "loc", DataType.EnvironmentalData)
+        data.setValue(1.0)
+        expect: !accumulator.evictIfIdle(System.nanoTime(), 60_000_000_000L)
+        and:    accumulator.evictIfIdle(System.nanoTime() + 60_000_000_000L, 60_000_000_000L)
+        and:    !accumulator.addValue(data, System.nanoTime())
+        and:    accumulator.size() == 0
+    }
+
+    def "Test concurrent aggregation"() {
+        underTest_.configDone_ = true
+        underTest_.window_ = new SampleAccumulator.Window(false, 10, 0L, false)
+        def threads = (0..<4).collect { t ->
+            Thread.start {
+                for(int i = 0; i < 1_000; i++) {
+                    def data = new CommonDataFormat(timestamp_ + i, "location" + (i % 8), DataType.EnvironmentalData)
+                    data.setValueAndUnits((double)i, "", "name")
+                    underTest_.aggregateData(data)
+                }
+            }
+        }
+        threads*.join()
+        expect: underTest_.accumulators_.size() == 8
+        and:    underTest_.accumulators_.values().every { it.size() == 0 }
     }
 
     def payload_ = """
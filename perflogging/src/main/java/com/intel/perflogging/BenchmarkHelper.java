@@ -95,9 +95,7 @@ public class BenchmarkHelper {
     public void addNamedValue(String name, long value) {
         if(doBenchmarking_) {
             commonAdd();
-            if(!values_.containsKey(name))
-                values_.put(name, new AtomicLong(0L));
-            values_.get(name).addAndGet(value);
+            values_.computeIfAbsent(name, key -> new AtomicLong(0L)).addAndGet(value);
         }
     }
 
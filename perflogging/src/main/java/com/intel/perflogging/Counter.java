@@ -0,0 +1,40 @@
+// Copyright (C) 2021 Intel Corporation
+//
+// SPDX-License-Identifier: Apache-2.0
+//
+package com.intel.perflogging;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A monotonic count in a MetricsRegistry (e.g. messages received). Safe to update from any number of threads.
+ */
+public final class Counter {
+    Counter() {}
+
+    /**
+     * Add one to the count.
+     */
+    public void increment() {
+        value_.increment();
+    }
+
+    /**
+     * Add to the count.
+     *
+     * @param value The amount to add, cannot be negative.
+     */
+    public void add(long value) {
+        if(value < 0L) throw new IllegalArgumentException("A counter cannot be decreased!");
+        value_.add(value);
+    }
+
+    /**
+     * @return The current count.
+     */
+    public long get() {
+        return value_.sum();
+    }
+
+    private final LongAdder value_ = new LongAdder();
+}
@@ -0,0 +1,37 @@
+// Copyright (C) 2021 Intel Corporation
+//
+// SPDX-License-Identifier: Apache-2.0
+//
+package com.intel.perflogging;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A value in a MetricsRegistry that can go up and down (e.g. the number of held events).
+ */
+public final class Gauge {
+    Gauge() {}
+
+    /**
+     * @param value The new value.
+     */
+    public void set(long value) {
+        value_.set(value);
+    }
+
+    /**
+     * @param delta The (possibly negative) amount to add to the value.
+     */
+    public void add(long delta) {
+        value_.addAndGet(delta);
+    }
+
+    /**
+     * @return The current value.
+     */
+    public long get() {
+        return value_.get();
+    }
+
+    private final AtomicLong value_ = new AtomicLong(0L);
+}
@@ -0,0 +1,134 @@
+// Copyright (C) 2021 Intel Corporation
+//
+// SPDX-License-Identifier: Apache-2.0
+//
+package com.intel.perflogging;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A latency distribution in a MetricsRegistry, recorded in nanoseconds.
+ *
+ * The buckets are log-linear like an HDR histogram: every power of two is split into 8 equal sub-buckets, so any
+ * recorded value is known to within 12.5% over the whole range of a long. Recording increments an atomic array
+ * element, adds to a LongAdder for the sum and, only when a new maximum is seen, updates the maximum with a CAS. It
+ * never locks or allocates, so it can be called on the hot path of any thread.
+ */
+public final class LatencyHistogram {
+    LatencyHistogram() {}
+
+    /**
+     * Record one latency.
+     *
+     * @param nanoseconds The latency, negative values are recorded as 0.
+     */
+    public void record(long nanoseconds) {
+        long value = Math.max(0L, nanoseconds);
+        counts_.incrementAndGet(bucketIndex(value));
+        sum_.add(value);
+        if(value > max_.get())
+            max_.accumulateAndGet(value, Math::max);
+    }
+
+    /**
+     * Record the time elapsed since a System.nanoTime() timestamp.
+     *
+     * @param startNanoTime The System.nanoTime() value when the timed operation started.
+     */
+    public void recordSince(long startNanoTime) {
+        record(System.nanoTime() - startNanoTime);
+    }
+
+    /**
+     * @return The number of recorded latencies.
+     */
+    public long count() {
+        long count = 0L;
+        for(int i = 0; i < counts_.length(); i++)
+            count += counts_.get(i);
+        return count;
+    }
+
+    /**
+     * @return The total of the recorded latencies in nanoseconds.
+     */
+    public long sumNanoseconds() {
+        return sum_.sum();
+    }
+
+    /**
+     * @return The largest recorded latency in nanoseconds.
+     */
+    public long maxNanoseconds() {
+        return max_.get();
+    }
+
+    /**
+     * The latency below which the percentile of the recorded latencies fall, rounded up to the end of its bucket.
+     *
+     * @param percentile The percentile (0.0 to 100.0).
+     * @return The latency in nanoseconds or 0 when nothing was recorded.
+     */
+    public long valueAtPercentile(double percentile) {
+        if(percentile < 0.0 || percentile > 100.0)
+            throw new IllegalArgumentException("The percentile must be between 0 and 100!");
+        long[] counts = snapshot();
+        long total = 0L;
+        for(long count: counts)
+            total += count;
+        if(total == 0L)
+            return 0L;
+        long target = Math.max(1L, (long)Math.ceil(percentile / 100.0 * total));
+        long seen = 0L;
+        for(int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if(seen >= target)
+                return Math.min(highestValueInBucket(i), max_.get());
+        }
+        return max_.get();
+    }
+
+    /**
+     * A copy of the bucket counts, used to export a consistent view of the distribution.
+     */
+    long[] snapshot() {
+        long[] counts = new long[counts_.length()];
+        for(int i = 0; i < counts.length; i++)
+            counts[i] = counts_.get(i);
+        return counts;
+    }
+
+    /**
+     * The first bucket of the values at or above 2^power (power >= SUB_BUCKET_BITS).
+     */
+    static int firstBucketOfPowerOfTwo(int power) {
+        return (power - SUB_BUCKET_BITS + 1) << SUB_BUCKET_BITS;
+    }
+
+    static int bucketIndex(long value) {
+        if(value < SUB_BUCKETS)
+            return (int)value;
+        int power = 63 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int)(value >>> (power - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return firstBucketOfPowerOfTwo(power) + subBucket;
+    }
+
+    static long highestValueInBucket(int index) {
+        if(index < SUB_BUCKETS)
+            return index;
+        int power = (index >>> SUB_BUCKET_BITS) + SUB_BUCKET_BITS - 1;
+        long subBucket = index & (SUB_BUCKETS - 1);
+        long width = 1L << (power - SUB_BUCKET_BITS);
+        return ((SUB_BUCKETS + subBucket + 1L) * width) - 1L; // Wraps around to Long.MAX_VALUE for the last bucket.
+    }
+
+    private final AtomicLongArray counts_ = new AtomicLongArray(BUCKETS);
+    private final LongAdder sum_ = new LongAdder();
+    private final AtomicLong max_ = new AtomicLong(0L);
+
+    static final int SUB_BUCKET_BITS = 3;
+    static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    static final int BUCKETS = firstBucketOfPowerOfTwo(63);
+}
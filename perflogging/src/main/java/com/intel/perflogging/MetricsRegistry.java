@@ -0,0 +1,194 @@
+// Copyright (C) 2021 Intel Corporation
+//
+// SPDX-License-Identifier: Apache-2.0
+//
+package com.intel.perflogging;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * Lightweight in-process metrics (counters, gauges and latency histograms) that are always recorded, unlike the
+ * BenchmarkHelper, and exported in the Prometheus text format (see MetricsServer).
+ *
+ * Each metric is identified by its name and optional label pairs, e.g. counter("dai_messages_total", "...",
+ * "subject", "events"). Asking for an existing metric returns the same instance, so callers can either keep the
+ * returned object or look it up each time. The "Function" variants register a callback instead, for values that are
+ * already kept elsewhere (e.g. a queue depth); registering the same name and labels again replaces the callback.
+ */
+public final class MetricsRegistry {
+    /**
+     * @return The registry shared by all components of this process.
+     */
+    public static MetricsRegistry getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Get or create a counter.
+     *
+     * @param name The metric name, by convention ending in "_total".
+     * @param help The description of the metric.
+     * @param labels The label name and value pairs of this series of the metric.
+     * @return The counter.
+     */
+    public Counter counter(String name, String help, String... labels) {
+        return getOrCreate(name, help, COUNTER, labels, Counter.class, Counter::new);
+    }
+
+    /**
+     * Get or create a gauge, see counter() for the parameters.
+     */
+    public Gauge gauge(String name, String help, String... labels) {
+        return getOrCreate(name, help, GAUGE, labels, Gauge.class, Gauge::new);
+    }
+
+    /**
+     * Get or create a latency histogram, see counter() for the parameters. The latencies are exported in seconds so
+     * by convention the name ends in "_seconds".
+     */
+    public LatencyHistogram histogram(String name, String help, String... labels) {
+        return getOrCreate(name, help, HISTOGRAM, labels, LatencyHistogram.class, LatencyHistogram::new);
+    }
+
+    /**
+     * Export a monotonic count that is kept outside of the registry.
+     */
+    public void counterFunction(String name, String help, LongSupplier value, String... labels) {
+        if(value == null) throw new IllegalArgumentException("The value supplier cannot be null!");
+        family(name, help, COUNTER).series.put(labelString(labels), value);
+    }
+
+    /**
+     * Export a value that is kept outside of the registry.
+     */
+    public void gaugeFunction(String name, String help, LongSupplier value, String... labels) {
+        if(value == null) throw new IllegalArgumentException("The value supplier cannot be null!");
+        family(name, help, GAUGE).series.put(labelString(labels), value);
+    }
+
+    /**
+     * @return All metrics in the Prometheus text exposition format (version 0.0.4), sorted by name.
+     */
+    public String scrape() {
+        StringBuilder out = new StringBuilder();
+        for(Map.Entry<String, Family> family: new TreeMap<>(families_).entrySet()) {
+            String name = family.getKey();
+            out.append("# HELP ").append(name).append(' ').append(escape(family.getValue().help, false)).append('\n');
+            out.append("# TYPE ").append(name).append(' ').append(family.getValue().type).append('\n');
+            for(Map.Entry<String, Object> series: new TreeMap<>(family.getValue().series).entrySet()) {
+                Object metric = series.getValue();
+                if(metric instanceof LatencyHistogram)
+                    writeHistogram(out, name, series.getKey(), (LatencyHistogram)metric);
+                else
+                    writeSample(out, name, series.getKey(), Long.toString(currentValue(metric)));
+            }
+        }
+        return out.toString();
+    }
+
+    private <T> T getOrCreate(String name, String help, String type, String[] labels, Class<T> kind,
+                              Supplier<T> create) {
+        Object metric = family(name, help, type).series.computeIfAbsent(labelString(labels), key -> create.get());
+        if(!kind.isInstance(metric))
+            throw new IllegalArgumentException(String.format("The metric '%s' is already registered with a value " +
+                    "function", name));
+        return kind.cast(metric);
+    }
+
+    private Family family(String name, String help, String type) {
+        if(name == null || !METRIC_NAME.matcher(name).matches())
+            throw new IllegalArgumentException(String.format("'%s' is not a valid metric name!", name));
+        Family family = families_.computeIfAbsent(name, key -> new Family(type, (help == null) ? "" : help));
+        if(!family.type.equals(type))
+            throw new IllegalArgumentException(String.format("The metric '%s' is already registered as a %s",
+                    name, family.type));
+        return family;
+    }
+
+    private static long currentValue(Object metric) {
+        if(metric instanceof Counter)
+            return ((Counter)metric).get();
+        if(metric instanceof Gauge)
+            return ((Gauge)metric).get();
+        return ((LongSupplier)metric).getAsLong();
+    }
+
+    // Only the power of two boundaries are exported, ~1us (2^10ns) to ~34s (2^35ns), as cumulative counts.
+    private static void writeHistogram(StringBuilder out, String name, String labels, LatencyHistogram histogram) {
+        long[] counts = histogram.snapshot();
+        long cumulative = 0L;
+        int bucket = 0;
+        for(int power = FIRST_EXPORTED_POWER; power <= LAST_EXPORTED_POWER; power++) {
+            int end = LatencyHistogram.firstBucketOfPowerOfTwo(power);
+            for(; bucket < end; bucket++)
+                cumulative += counts[bucket];
+            writeSample(out, name + "_bucket", withLabel(labels, "le", Double.toString((1L << power) / 1e9)),
+                    Long.toString(cumulative));
+        }
+        for(; bucket < counts.length; bucket++)
+            cumulative += counts[bucket];
+        writeSample(out, name + "_bucket", withLabel(labels, "le", "+Inf"), Long.toString(cumulative));
+        writeSample(out, name + "_sum", labels, Double.toString(histogram.sumNanoseconds() / 1e9));
+        writeSample(out, name + "_count", labels, Long.toString(cumulative));
+    }
+
+    private static void writeSample(StringBuilder out, String name, String labels, String value) {
+        out.append(name);
+        if(!labels.isEmpty())
+            out.append('{').append(labels).append('}');
+        out.append(' ').append(value).append('\n');
+    }
+
+    private static String withLabel(String labels, String name, String value) {
+        String label = name + "=\"" + value + "\"";
+        return labels.isEmpty() ? label : labels + "," + label;
+    }
+
+    private static String labelString(String[] labels) {
+        if(labels == null || labels.length == 0)
+            return "";
+        if(labels.length % 2 != 0)
+            throw new IllegalArgumentException("The labels must be name and value pairs!");
+        StringBuilder result = new StringBuilder();
+        for(int i = 0; i < labels.length; i += 2) {
+            if(labels[i] == null || !LABEL_NAME.matcher(labels[i]).matches() || labels[i].equals("le"))
+                throw new IllegalArgumentException(String.format("'%s' is not a valid label name!", labels[i]));
+            if(i > 0)
+                result.append(',');
+            result.append(labels[i]).append("=\"").append(escape(String.valueOf(labels[i + 1]), true)).append('"');
+        }
+        return result.toString();
+    }
+
+    private static String escape(String text, boolean quotes) {
+        String result = text.replace("\\", "\\\\").replace("\n", "\\n");
+        return quotes ? result.replace("\"", "\\\"") : result;
+    }
+
+    private static final class Family {
+        Family(String type, String help) {
+            this.type = type;
+            this.help = help;
+        }
+
+        final String type;
+        final String help;
+        final Map<String, Object> series = new ConcurrentHashMap<>();
+    }
+
+    private final Map<String, Family> families_ = new ConcurrentHashMap<>();
+
+    private static final MetricsRegistry DEFAULT = new MetricsRegistry();
+    private static final String COUNTER = "counter";
+    private static final String GAUGE = "gauge";
+    private static final String HISTOGRAM = "histogram";
+    private static final int FIRST_EXPORTED_POWER = 10;
+    private static final int LAST_EXPORTED_POWER = 35;
+    private static final Pattern METRIC_NAME = Pattern.compile("[a-zA-Z_:][a-zA-Z0-9_:]*");
+    private static final Pattern LABEL_NAME = Pattern.compile("[a-zA-Z_][a-zA-Z0-9_]*");
+}
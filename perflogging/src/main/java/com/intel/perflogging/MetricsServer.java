@@ -0,0 +1,126 @@
+// Copyright (C) 2021 Intel Corporation
+//
+// SPDX-License-Identifier: Apache-2.0
+//
+package com.intel.perflogging;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+
+/**
+ * Serves a MetricsRegistry at http://localhost:&lt;port&gt;/metrics in the Prometheus text format. The server only
+ * listens on the loopback interface and uses a single daemon thread.
+ *
+ * To enable the endpoint of an adapter set the DAI_METRICS_PORT_&lt;ADAPTER TYPE&gt; environment variable (e.g.,
+ * DAI_METRICS_PORT_RAS or DAI_METRICS_PORT_ONLINE_TIER) to the port it listens on, so that each of the adapters running
+ * on a host gets its own port. It is disabled by default.
+ */
+public final class MetricsServer implements AutoCloseable {
+    /**
+     * Start serving the registry on a loopback port.
+     *
+     * @param registry The metrics to serve.
+     * @param port The port to listen on, 0 picks a free port.
+     * @throws IOException When the port cannot be bound.
+     */
+    public MetricsServer(MetricsRegistry registry, int port) throws IOException {
+        if(registry == null) throw new IllegalArgumentException("The registry cannot be null!");
+        if(port < 0 || port > 65535) throw new IllegalArgumentException("The port must be between 0 and 65535!");
+        registry_ = registry;
+        server_ = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        server_.createContext(PATH, this::handle);
+        executor_ = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "MetricsServer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server_.setExecutor(executor_);
+        server_.start();
+    }
+
+    /**
+     * Start serving the registry when the adapter's DAI_METRICS_PORT_&lt;ADAPTER TYPE&gt; environment variable is set.
+     *
+     * @param registry The metrics to serve.
+     * @param adapterType The type of the adapter serving the metrics.
+     * @return The running server or null when the endpoint is not enabled.
+     * @throws IOException When the port cannot be bound.
+     * @throws IllegalArgumentException When the environment variable is not a valid port.
+     */
+    public static MetricsServer fromEnvironment(MetricsRegistry registry, String adapterType) throws IOException {
+        return fromEnvironment(registry, adapterType, System::getenv);
+    }
+
+    static MetricsServer fromEnvironment(MetricsRegistry registry, String adapterType,
+                                         Function<String, String> environment) throws IOException {
+        String port = environment.apply(portVariable(adapterType));
+        if(port == null || port.trim().isEmpty())
+            return null;
+        return new MetricsServer(registry, Integer.parseInt(port.trim()));
+    }
+
+    /**
+     * @return The name of the environment variable that holds the metrics port of the adapter type.
+     */
+    public static String portVariable(String adapterType) {
+        if(adapterType == null || adapterType.trim().isEmpty())
+            throw new IllegalArgumentException("The adapter type cannot be null or empty!");
+        return PORT_VARIABLE_PREFIX + adapterType.trim().toUpperCase(Locale.ROOT).replaceAll("[^A-Z0-9]", "_");
+    }
+
+    /**
+     * @return The port the server is listening on.
+     */
+    public int port() {
+        return server_.getAddress().getPort();
+    }
+
+    @Override
+    public void close() {
+        server_.stop(0);
+        executor_.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            if(!exchange.getRequestMethod().equals("GET") && !exchange.getRequestMethod().equals("HEAD")) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            if(!exchange.getRequestURI().getPath().equals(PATH)) {
+                exchange.sendResponseHeaders(404, -1);
+                return;
+            }
+            byte[] body = registry_.scrape().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+            if(exchange.getRequestMethod().equals("HEAD")) {
+                exchange.sendResponseHeaders(200, -1);
+                return;
+            }
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private final MetricsRegistry registry_;
+    private final HttpServer server_;
+    private final ExecutorService executor_;
+
+    private static final String PATH = "/metrics";
+    private static final String PORT_VARIABLE_PREFIX = "DAI_METRICS_PORT_";
+    private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+}
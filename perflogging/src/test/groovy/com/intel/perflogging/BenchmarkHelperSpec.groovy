@@ -60,6 +60,14 @@ class BenchmarkHelperSpec extends Specification {
         underTest_.values_.size() == 2
     }
 
+    def "Test AddNamedValue Benchmarking Concurrently"() {
+        underTest_.doBenchmarking_ = true
+        def threads = (1..8).collect { Thread.start { 1000.times { underTest_.addNamedValue("TestName", 1) } } }
+        threads*.join()
+        expect:
+        underTest_.values_.get("TestName").get() == 8000L
+    }
+
     def "Test Tick Benchmarking"() {
         underTest_.doBenchmarking_ = true
         underTest_.addDefaultValue(10)
@@ -0,0 +1,69 @@
+// Copyright (C) 2021 Intel Corporation
+//
+// SPDX-License-Identifier: Apache-2.0
+//
+package com.intel.perflogging;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class LatencyHistogramTest {
+    @Test
+    public void bucketsAreContiguous() {
+        assertEquals(0, LatencyHistogram.bucketIndex(0L));
+        assertEquals(7, LatencyHistogram.bucketIndex(7L));
+        for(int i = 0; i < LatencyHistogram.BUCKETS - 1; i++)
+            assertEquals(i + 1, LatencyHistogram.bucketIndex(LatencyHistogram.highestValueInBucket(i) + 1L));
+        assertEquals(LatencyHistogram.BUCKETS - 1, LatencyHistogram.bucketIndex(Long.MAX_VALUE));
+        assertEquals(Long.MAX_VALUE, LatencyHistogram.highestValueInBucket(LatencyHistogram.BUCKETS - 1));
+    }
+
+    @Test
+    public void percentilesAreWithinTheBucketPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for(long i = 1; i <= 1000; i++)
+            histogram.record(i * 1_000L); // 1us to 1ms
+        histogram.record(-5L);
+        assertEquals(1001L, histogram.count());
+        assertEquals(1_000_000L, histogram.maxNanoseconds());
+        assertEquals(500_500_000L, histogram.sumNanoseconds());
+        assertEquals(0L, histogram.valueAtPercentile(0.0));
+        long median = histogram.valueAtPercentile(50.0);
+        assertTrue(median >= 500_000L && median <= 500_000L * 1.125);
+        assertEquals(1_000_000L, histogram.valueAtPercentile(100.0));
+    }
+
+    @Test
+    public void emptyHistogram() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0L, histogram.count());
+        assertEquals(0L, histogram.valueAtPercentile(99.0));
+    }
+
+    @Test
+    public void recordsFromManyThreads() throws Exception {
+        LatencyHistogram histogram = new LatencyHistogram();
+        List<Thread> threads = new ArrayList<>();
+        for(int t = 0; t < 4; t++) {
+            Thread thread = new Thread(() -> {
+                for(int i = 0; i < 10_000; i++)
+                    histogram.record(i);
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for(Thread thread: threads)
+            thread.join();
+        assertEquals(40_000L, histogram.count());
+        assertEquals(4L * (9_999L * 10_000L / 2L), histogram.sumNanoseconds());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsAnInvalidPercentile() {
+        new LatencyHistogram().valueAtPercentile(101.0);
+    }
+}
@@ -0,0 +1,123 @@
+// Copyright (C) 2021 Intel Corporation
+//
+// SPDX-License-Identifier: Apache-2.0
+//
+package com.intel.perflogging;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class MetricsRegistryTest {
+    @Before
+    public void setUp() {
+        registry = new MetricsRegistry();
+    }
+
+    @Test
+    public void returnsTheSameMetricForTheSameNameAndLabels() {
+        Counter counter = registry.counter("dai_messages_total", "Messages", "subject", "events");
+        counter.increment();
+        registry.counter("dai_messages_total", "Messages", "subject", "events").add(2L);
+        registry.counter("dai_messages_total", "Messages", "subject", "logs").increment();
+        assertEquals(3L, counter.get());
+        assertSame(registry.gauge("dai_depth", "Depth"), registry.gauge("dai_depth", "Depth"));
+    }
+
+    @Test
+    public void scrapeUsesThePrometheusTextFormat() {
+        registry.counter("dai_messages_total", "Messages\nreceived", "subject", "a\"b").add(5L);
+        registry.gauge("dai_held", "Held").set(-2L);
+        registry.gaugeFunction("dai_depth", "Depth", () -> 42L);
+        registry.gaugeFunction("dai_depth", "Depth", () -> 43L); // replaces the first function
+        LatencyHistogram histogram = registry.histogram("dai_latency_seconds", "Latency");
+        histogram.record(500L);
+        histogram.record(3_000_000L);
+        histogram.record(100_000_000_000L);
+        String text = registry.scrape();
+        assertTrue(text.contains("# HELP dai_messages_total Messages\\nreceived\n# TYPE dai_messages_total counter\n" +
+                "dai_messages_total{subject=\"a\\\"b\"} 5\n"));
+        assertTrue(text.contains("# TYPE dai_held gauge\ndai_held -2\n"));
+        assertTrue(text.contains("dai_depth 43\n"));
+        assertTrue(text.contains("# TYPE dai_latency_seconds histogram\n"));
+        assertTrue(text.contains("dai_latency_seconds_bucket{le=\"1.024E-6\"} 1\n"));
+        assertTrue(text.contains("dai_latency_seconds_bucket{le=\"0.004194304\"} 2\n"));
+        assertTrue(text.contains("dai_latency_seconds_bucket{le=\"+Inf\"} 3\n"));
+        assertTrue(text.contains("dai_latency_seconds_count 3\n"));
+        assertTrue(text.indexOf("dai_depth") < text.indexOf("dai_held"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsADifferentTypeForTheSameName() {
+        registry.counter("dai_messages", "Messages");
+        registry.gauge("dai_messages", "Messages");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsACounterInPlaceOfAFunction() {
+        registry.counterFunction("dai_messages_total", "Messages", () -> 1L);
+        registry.counter("dai_messages_total", "Messages");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsAnInvalidName() {
+        registry.counter("dai-messages", "Messages");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsUnpairedLabels() {
+        registry.counter("dai_messages_total", "Messages", "subject");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsANegativeIncrement() {
+        registry.counter("dai_messages_total", "Messages").add(-1L);
+    }
+
+    @Test
+    public void serverServesTheMetricsOnLoopback() throws Exception {
+        registry.counter("dai_messages_total", "Messages").add(7L);
+        try (MetricsServer server = new MetricsServer(registry, 0)) {
+            HttpURLConnection connection = (HttpURLConnection)new URL("http://127.0.0.1:" + server.port() +
+                    "/metrics").openConnection();
+            assertEquals(200, connection.getResponseCode());
+            assertTrue(connection.getContentType().startsWith("text/plain; version=0.0.4"));
+            try (InputStream in = connection.getInputStream()) {
+                ByteArrayOutputStream body = new ByteArrayOutputStream();
+                in.transferTo(body);
+                assertTrue(body.toString(StandardCharsets.UTF_8).contains("dai_messages_total 7\n"));
+            }
+            connection = (HttpURLConnection)new URL("http://127.0.0.1:" + server.port() + "/other").openConnection();
+            assertEquals(404, connection.getResponseCode());
+        }
+    }
+
+    @Test
+    public void serverPortIsPerAdapterType() throws Exception {
+        assertEquals("DAI_METRICS_PORT_ONLINE_TIER", MetricsServer.portVariable("online-tier"));
+        Map<String, String> environment = new HashMap<>();
+        environment.put("DAI_METRICS_PORT", "9100");
+        environment.put("DAI_METRICS_PORT_RAS", " 0 ");
+        assertNull(MetricsServer.fromEnvironment(registry, "MONITORING", environment::get));
+        try (MetricsServer server = MetricsServer.fromEnvironment(registry, "RAS", environment::get)) {
+            assertNotNull(server);
+            assertTrue(server.port() > 0);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void serverPortNeedsAnAdapterType() {
+        MetricsServer.portVariable(" ");
+    }
+
+    private MetricsRegistry registry;
+}
@@ -0,0 +1,196 @@
+// Copyright (C) 2021 Intel Corporation
+//
+// SPDX-License-Identifier: Apache-2.0
+//
+package com.intel.dai.populate;
+
+import com.intel.logging.Logger;
+import org.voltdb.client.Client;
+import org.voltdb.client.ClientResponse;
+import org.voltdb.client.VoltBulkLoader.BulkLoaderFailureCallBack;
+import org.voltdb.client.VoltBulkLoader.BulkLoaderSuccessCallback;
+import org.voltdb.client.VoltBulkLoader.VoltBulkLoader;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Inserts whole rows into the Tier1 tables through VoltDB's bulk loader (one per table), which sends them to the
+ * database in multi-row batches instead of one TABLE.insert call per row. The rows have the same values, in the same
+ * order, as the TABLE.insert procedures take.
+ *
+ * At most maxInFlightRows rows are waiting for the database at any time (insert() sends the partial batches and blocks
+ * until earlier rows complete), and the progress is logged every progressInterval rows. finish() must be called once
+ * all of the rows were inserted, it waits for them to complete.
+ */
+class BulkRowLoader {
+    static final int  DEFAULT_BATCH_SIZE        = 500;
+    static final int  DEFAULT_MAX_IN_FLIGHT     = 20000;
+    static final long DEFAULT_PROGRESS_INTERVAL = 50000L;
+
+    // The bulk loader of a single table (a VoltBulkLoader on a real database).
+    interface TableLoader {
+        void insertRow(Object rowHandle, Object... row) throws InterruptedException;
+        void flush() throws ExecutionException, InterruptedException;
+        void drain() throws InterruptedException;
+        void close() throws Exception;
+    }
+
+    interface TableLoaderFactory {
+        TableLoader create(String table, int batchSize, BulkLoaderFailureCallBack failure,
+                           BulkLoaderSuccessCallback success) throws Exception;
+    }
+
+    BulkRowLoader(Logger log, Client client) {
+        this(log, voltLoaders(client), DEFAULT_BATCH_SIZE, DEFAULT_MAX_IN_FLIGHT, DEFAULT_PROGRESS_INTERVAL);
+    }
+
+    BulkRowLoader(Logger log, TableLoaderFactory factory, int batchSize, int maxInFlightRows, long progressInterval) {
+        assert log != null:"Passed a null Logger to BulkRowLoader.ctor()!";
+        if (factory == null) throw new IllegalArgumentException("The table loader factory can not be null!");
+        if (batchSize <= 0) throw new IllegalArgumentException("The batch size must be greater than 0!");
+        if (maxInFlightRows < batchSize)
+            throw new IllegalArgumentException("The number of rows in flight can not be less than the batch size!");
+        log_ = log;
+        factory_ = factory;
+        batchSize_ = batchSize;
+        inFlight_ = new Semaphore(maxInFlightRows);
+        progressInterval_ = progressInterval;
+    }
+
+    /**
+     * Insert a row.
+     *
+     * @param table The table name, e.g. "COMPUTENODE".
+     * @param pertinentInfo Describes the row in the log if it can not be inserted.
+     * @param row The values of all of the table's columns.
+     */
+    void insert(String table, String pertinentInfo, Object... row) throws IOException, InterruptedException {
+        TableLoader loader = loader(table);
+        if (!inFlight_.tryAcquire()) {
+            // The rows waiting for a full batch only complete once they are sent.
+            flush();
+            inFlight_.acquire();
+        }
+        loader.insertRow(new RowHandle(table, pertinentInfo), row);
+        long submitted = rowsSubmitted_.incrementAndGet();
+        if (progressInterval_ > 0L && submitted % progressInterval_ == 0L)
+            log_.info("BulkRowLoader - submitted %d rows, %d loaded and %d failed so far", submitted, rowsLoaded(),
+                      rowsFailed());
+    }
+
+    /**
+     * Wait for all of the rows to be loaded and close the table loaders.
+     *
+     * @return The number of rows that could not be inserted.
+     */
+    long finish() throws InterruptedException {
+        for (Map.Entry<String, TableLoader> entry: loaders_.entrySet()) {
+            entry.getValue().drain();
+            try {
+                entry.getValue().close();
+            } catch (InterruptedException e) {
+                throw e;
+            } catch (Exception e) {
+                log_.exception(e, "BulkRowLoader - unable to close the bulk loader for %s", entry.getKey());
+            }
+        }
+        loaders_.clear();
+        log_.info("BulkRowLoader - loaded %d rows, %d failed", rowsLoaded(), rowsFailed());
+        return rowsFailed();
+    }
+
+    /**
+     * Send the rows that are waiting for a full batch.
+     */
+    void flush() throws IOException, InterruptedException {
+        for (Map.Entry<String, TableLoader> entry: loaders_.entrySet()) {
+            try {
+                entry.getValue().flush();
+            } catch (ExecutionException e) {
+                throw new IOException("Unable to flush the bulk loader for " + entry.getKey(), e.getCause());
+            }
+        }
+    }
+
+    long rowsLoaded() { return rowsLoaded_.get(); }
+
+    long rowsFailed() { return rowsFailed_.get(); }
+
+    static TableLoaderFactory voltLoaders(Client client) {
+        return (table, batchSize, failure, success) -> {
+            VoltBulkLoader loader = client.getNewBulkLoader(table, batchSize, false, failure, success);
+            return new TableLoader() {
+                @Override
+                public void insertRow(Object rowHandle, Object... row) throws InterruptedException {
+                    loader.insertRow(rowHandle, row);
+                }
+
+                @Override
+                public void flush() throws ExecutionException, InterruptedException {
+                    loader.flush();
+                }
+
+                @Override
+                public void drain() throws InterruptedException {
+                    loader.drain();
+                }
+
+                @Override
+                public void close() throws Exception {
+                    loader.close();
+                }
+            };
+        };
+    }
+
+    private TableLoader loader(String table) throws IOException {
+        TableLoader loader = loaders_.get(table);
+        if (loader == null) {
+            try {
+                loader = factory_.create(table, batchSize_, this::failed, this::loaded);
+            } catch (Exception e) {
+                throw new IOException("Unable to create the bulk loader for " + table, e);
+            }
+            loaders_.put(table, loader);
+        }
+        return loader;
+    }
+
+    private void loaded(Object rowHandle, ClientResponse response) {
+        rowsLoaded_.incrementAndGet();
+        inFlight_.release();
+    }
+
+    private void failed(Object rowHandle, Object[] row, ClientResponse response) {
+        rowsFailed_.incrementAndGet();
+        inFlight_.release();
+        RowHandle handle = (RowHandle) rowHandle;
+        log_.error("BulkRowLoader - inserting into %s FAILED - StatusString='%s', PertinentInfo=%s!!!", handle.table,
+                   (response == null) ? null : response.getStatusString(), handle.pertinentInfo);
+    }
+
+    private static final class RowHandle {
+        RowHandle(String table, String pertinentInfo) {
+            this.table = table;
+            this.pertinentInfo = pertinentInfo;
+        }
+
+        final String table;
+        final String pertinentInfo;
+    }   // End class RowHandle
+
+    private final Logger log_;
+    private final TableLoaderFactory factory_;
+    private final int batchSize_;
+    private final Semaphore inFlight_;
+    private final long progressInterval_;
+    private final Map<String, TableLoader> loaders_ = new LinkedHashMap<>();
+    private final AtomicLong rowsSubmitted_ = new AtomicLong(0L);
+    private final AtomicLong rowsLoaded_ = new AtomicLong(0L);
+    private final AtomicLong rowsFailed_ = new AtomicLong(0L);
+}
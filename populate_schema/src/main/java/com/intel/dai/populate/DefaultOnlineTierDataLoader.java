@@ -169,95 +169,89 @@ public class DefaultOnlineTierDataLoader {
             return;
         }
 
-        String sTempStoredProcedure;
+        String sTempTable;
         String sPertinentInfo;
         switch ( (String)jsonDefObj.get("type") ) {
             case "Rack":
                 // Insert this object into the table.
-                sTempStoredProcedure = "RACK.insert";
+                sTempTable = "RACK";
                 sPertinentInfo = "Inserting Rack value - Lctn=" + sTempLctn;
-                client_.callProcedure(createHouseKeepingCallbackNoRtrnValue(sTempStoredProcedure, sPertinentInfo)  // asynchronously invoke the procedure
-                                     ,sTempStoredProcedure
-                                     ,sTempLctn
-                                     ,"M"
-                                     ,null
-                                     ,sDef
-                                     ,null
-                                     ,System.currentTimeMillis() * 1000L
-                                     ,System.currentTimeMillis() * 1000L
-                                     ,"G"                                // this piece of hardware's owning subsystem is the "general system"
-                                     );
-                sTempStoredProcedure = "RACK_HISTORY.insert";
+                insertRow(sTempTable, sPertinentInfo
+                         ,sTempLctn
+                         ,"M"
+                         ,null
+                         ,sDef
+                         ,null
+                         ,System.currentTimeMillis() * 1000L
+                         ,System.currentTimeMillis() * 1000L
+                         ,"G"                                // this piece of hardware's owning subsystem is the "general system"
+                         );
+                sTempTable = "RACK_HISTORY";
                 sPertinentInfo = "Inserting Rack_History value - Lctn=" + sTempLctn;
-                client_.callProcedure(createHouseKeepingCallbackNoRtrnValue(sTempStoredProcedure, sPertinentInfo)  // asynchronously invoke the procedure
-                                     ,sTempStoredProcedure
-                                     ,sTempLctn
-                                     ,"M"
-                                     ,null
-                                     ,sDef
-                                     ,null
-                                     ,System.currentTimeMillis() * 1000L
-                                     ,System.currentTimeMillis() * 1000L
-                                     ,"G"                                // this piece of hardware's owning subsystem is the "general system"
-                                     );
+                insertRow(sTempTable, sPertinentInfo
+                         ,sTempLctn
+                         ,"M"
+                         ,null
+                         ,sDef
+                         ,null
+                         ,System.currentTimeMillis() * 1000L
+                         ,System.currentTimeMillis() * 1000L
+                         ,"G"                                // this piece of hardware's owning subsystem is the "general system"
+                         );
 
                 break;
             case "Chassis":
                 // Insert this object into the table.
-                sTempStoredProcedure = "CHASSIS.insert";
+                sTempTable = "CHASSIS";
                 sPertinentInfo = "Inserting Chassis value - Lctn=" + sTempLctn;
-                client_.callProcedure(createHouseKeepingCallbackNoRtrnValue(sTempStoredProcedure, sPertinentInfo)  // asynchronously invoke the procedure
-                                     ,sTempStoredProcedure
-                                     ,sTempLctn
-                                     ,"M"
-                                     ,null
-                                     ,sDef
-                                     ,null
-                                     ,System.currentTimeMillis() * 1000L
-                                     ,System.currentTimeMillis() * 1000L
-                                     ,"G"                                // this piece of hardware's owning subsystem is the "general system"
-                                     );
-                sTempStoredProcedure = "CHASSIS_HISTORY.insert";
+                insertRow(sTempTable, sPertinentInfo
+                         ,sTempLctn
+                         ,"M"
+                         ,null
+                         ,sDef
+                         ,null
+                         ,System.currentTimeMillis() * 1000L
+                         ,System.currentTimeMillis() * 1000L
+                         ,"G"                                // this piece of hardware's owning subsystem is the "general system"
+                         );
+                sTempTable = "CHASSIS_HISTORY";
                 sPertinentInfo = "Inserting Chassis_History value - Lctn=" + sTempLctn;
-                client_.callProcedure(createHouseKeepingCallbackNoRtrnValue(sTempStoredProcedure, sPertinentInfo)  // asynchronously invoke the procedure
-                                     ,sTempStoredProcedure
-                                     ,sTempLctn
-                                     ,"M"
-                                     ,null
-                                     ,sDef
-                                     ,null
-                                     ,System.currentTimeMillis() * 1000L
-                                     ,System.currentTimeMillis() * 1000L
-                                     ,"G"                                // this piece of hardware's owning subsystem is the "general system"
-                                     );
+                insertRow(sTempTable, sPertinentInfo
+                         ,sTempLctn
+                         ,"M"
+                         ,null
+                         ,sDef
+                         ,null
+                         ,System.currentTimeMillis() * 1000L
+                         ,System.currentTimeMillis() * 1000L
+                         ,"G"                                // this piece of hardware's owning subsystem is the "general system"
+                         );
 
                 break;
             case "Switch":
                 // Insert this object into the table.
-                sTempStoredProcedure = "SWITCH.insert";
+                sTempTable = "SWITCH";
                 sPertinentInfo = "Inserting Switch value - Lctn=" + sTempLctn;
-                client_.callProcedure(createHouseKeepingCallbackNoRtrnValue(sTempStoredProcedure, sPertinentInfo)  // asynchronously invoke the procedure
-                                     ,sTempStoredProcedure
-                                     ,sTempLctn
-                                     ,"A"
-                                     ,null
-                                     ,sDef
-                                     ,System.currentTimeMillis() * 1000L
-                                     ,System.currentTimeMillis() * 1000L
-                                     ,"G"                                // this piece of hardware's owning subsystem is the "general system"
-                                     );
-                sTempStoredProcedure = "SWITCH_HISTORY.insert";
+                insertRow(sTempTable, sPertinentInfo
+                         ,sTempLctn
+                         ,"A"
+                         ,null
+                         ,sDef
+                         ,System.currentTimeMillis() * 1000L
+                         ,System.currentTimeMillis() * 1000L
+                         ,"G"                                // this piece of hardware's owning subsystem is the "general system"
+                         );
+                sTempTable = "SWITCH_HISTORY";
                 sPertinentInfo = "Inserting Switch_History value - Lctn=" + sTempLctn;
-                client_.callProcedure(createHouseKeepingCallbackNoRtrnValue(sTempStoredProcedure, sPertinentInfo)  // asynchronously invoke the procedure
-                                     ,sTempStoredProcedure
-                                     ,sTempLctn
-                                     ,"A"
-                                     ,null
-                                     ,sDef
-                                     ,System.currentTimeMillis() * 1000L
-                                     ,System.currentTimeMillis() * 1000L
-                                     ,"G"                                // this piece of hardware's owning subsystem is the "general system"
-                                     );
+                insertRow(sTempTable, sPertinentInfo
+                         ,sTempLctn
+                         ,"A"
+                         ,null
+                         ,sDef
+                         ,System.currentTimeMillis() * 1000L
+                         ,System.currentTimeMillis() * 1000L
+                         ,"G"                                // this piece of hardware's owning subsystem is the "general system"
+                         );
                 break;
             case "ServiceNode":
                 {
@@ -284,29 +278,29 @@ public class DefaultOnlineTierDataLoader {
                     sBootImageId        = sMapEntry.mBootImageId;
                     sAggregator         = sMapEntry.mAggregator;
                     // Insert this object into the table.
-                    sTempStoredProcedure = "SERVICENODE.insert";
+                    sTempTable = "SERVICENODE";
                     sPertinentInfo = "Inserting ServiceNode - Lctn=" + sTempLctn;
-                    client_.callProcedure(createHouseKeepingCallbackNoRtrnValue(sTempStoredProcedure, sPertinentInfo),  // asynchronously invoke the procedure
-                                          sTempStoredProcedure, sTempLctn, iNextServiceNodeSeqNum, sHostName, "M", sBootImageId, sIpAddr, sMacAddr.toLowerCase(),
-                                          sBmcAddr, sBmcMacAddr.toLowerCase(), sBmcHostName, System.currentTimeMillis() * 1000L, System.currentTimeMillis() * 1000L, "POPULATE", -1,
-                                          "G", sAggregator, null, sConstraintId, lProofOfLifeTimestamp);
-                    sTempStoredProcedure = "SERVICENODE_HISTORY.insert";
+                    insertRow(sTempTable, sPertinentInfo,
+                              sTempLctn, iNextServiceNodeSeqNum, sHostName, "M", sBootImageId, sIpAddr, sMacAddr.toLowerCase(),
+                              sBmcAddr, sBmcMacAddr.toLowerCase(), sBmcHostName, System.currentTimeMillis() * 1000L, System.currentTimeMillis() * 1000L, "POPULATE", -1,
+                              "G", sAggregator, null, sConstraintId, lProofOfLifeTimestamp);
+                    sTempTable = "SERVICENODE_HISTORY";
                     sPertinentInfo = "Inserting ServiceNode_History - Lctn=" + sTempLctn;
-                    client_.callProcedure(createHouseKeepingCallbackNoRtrnValue(sTempStoredProcedure, sPertinentInfo),  // asynchronously invoke the procedure
-                                          sTempStoredProcedure, sTempLctn, iNextServiceNodeSeqNum, sHostName, "M", sBootImageId, sIpAddr, sMacAddr.toLowerCase(),
-                                          sBmcAddr, sBmcMacAddr.toLowerCase(), sBmcHostName, System.currentTimeMillis() * 1000L, System.currentTimeMillis() * 1000L, "POPULATE", -1,
-                                          "G", sAggregator, null, sConstraintId, lProofOfLifeTimestamp);
+                    insertRow(sTempTable, sPertinentInfo,
+                              sTempLctn, iNextServiceNodeSeqNum, sHostName, "M", sBootImageId, sIpAddr, sMacAddr.toLowerCase(),
+                              sBmcAddr, sBmcMacAddr.toLowerCase(), sBmcHostName, System.currentTimeMillis() * 1000L, System.currentTimeMillis() * 1000L, "POPULATE", -1,
+                              "G", sAggregator, null, sConstraintId, lProofOfLifeTimestamp);
                     ++iNextServiceNodeSeqNum;
                     // Insert the cache info into the CacheMacAddrToLctn table.
-                    sTempStoredProcedure = "CACHEMACADDRTOLCTN.insert";
+                    sTempTable = "CACHEMACADDRTOLCTN";
                     sPertinentInfo = "Inserting CachedMacaddrToLctn - Lctn=" + sTempLctn + ",MacAddr=" + sMacAddr.toLowerCase();
-                    client_.callProcedure(createHouseKeepingCallbackNoRtrnValue(sTempStoredProcedure, sPertinentInfo),  // asynchronously invoke the procedure
-                                          sTempStoredProcedure, sMacAddr.toLowerCase(), sTempLctn);
+                    insertRow(sTempTable, sPertinentInfo,
+                              sMacAddr.toLowerCase(), sTempLctn);
                     // Insert the cache info into the CacheIpAddrToLctn table.
-                    sTempStoredProcedure = "CACHEIPADDRTOLCTN.insert";
+                    sTempTable = "CACHEIPADDRTOLCTN";
                     sPertinentInfo = "Inserting CachedIpaddrToLctn - Lctn=" + sTempLctn + ",IpAddr=" + sIpAddr;
-                    client_.callProcedure(createHouseKeepingCallbackNoRtrnValue(sTempStoredProcedure, sPertinentInfo),  // asynchronously invoke the procedure
-                                          sTempStoredProcedure, sIpAddr, sTempLctn);
+                    insertRow(sTempTable, sPertinentInfo,
+                              sIpAddr, sTempLctn);
                 }
                 break;
             case "ComputeNode":
@@ -336,29 +330,29 @@ public class DefaultOnlineTierDataLoader {
                     environment         = sMapEntry.environment;
                     sAggregator         = sMapEntry.mAggregator;
                     // Insert this object into the ComputeNode table.
-                    sTempStoredProcedure = "COMPUTENODE.insert";
+                    sTempTable = "COMPUTENODE";
                     sPertinentInfo = "Inserting ComputeNode - Lctn=" + sTempLctn;
-                    client_.callProcedure(createHouseKeepingCallbackNoRtrnValue(sTempStoredProcedure, sPertinentInfo),  // asynchronously invoke the procedure
-                                          sTempStoredProcedure, sTempLctn, iNextComputeNodeSeqNum, "M", sHostName, sBootImageId, environment, sIpAddr, sMacAddr.toLowerCase(),
-                                          sBmcAddr, sBmcMacAddr.toLowerCase(), sBmcHostName, System.currentTimeMillis() * 1000L, System.currentTimeMillis() * 1000L, "POPULATE", -1,
-                                          "W", sAggregator, null, "U", sConstraintId, lProofOfLifeTimestamp);
-                    sTempStoredProcedure = "COMPUTENODE_HISTORY.insert";
+                    insertRow(sTempTable, sPertinentInfo,
+                              sTempLctn, iNextComputeNodeSeqNum, "M", sHostName, sBootImageId, environment, sIpAddr, sMacAddr.toLowerCase(),
+                              sBmcAddr, sBmcMacAddr.toLowerCase(), sBmcHostName, System.currentTimeMillis() * 1000L, System.currentTimeMillis() * 1000L, "POPULATE", -1,
+                              "W", sAggregator, null, "U", sConstraintId, lProofOfLifeTimestamp);
+                    sTempTable = "COMPUTENODE_HISTORY";
                     sPertinentInfo = "Inserting ComputeNode_History - Lctn=" + sTempLctn;
-                    client_.callProcedure(createHouseKeepingCallbackNoRtrnValue(sTempStoredProcedure, sPertinentInfo),  // asynchronously invoke the procedure
-                                          sTempStoredProcedure, sTempLctn, iNextComputeNodeSeqNum, "M", sHostName, sBootImageId, environment, sIpAddr, sMacAddr.toLowerCase(),
-                                          sBmcAddr, sBmcMacAddr.toLowerCase(), sBmcHostName, System.currentTimeMillis() * 1000L, System.currentTimeMillis() * 1000L, "POPULATE", -1,
-                                          "W", sAggregator, null, "U", sConstraintId, lProofOfLifeTimestamp);
+                    insertRow(sTempTable, sPertinentInfo,
+                              sTempLctn, iNextComputeNodeSeqNum, "M", sHostName, sBootImageId, environment, sIpAddr, sMacAddr.toLowerCase(),
+                              sBmcAddr, sBmcMacAddr.toLowerCase(), sBmcHostName, System.currentTimeMillis() * 1000L, System.currentTimeMillis() * 1000L, "POPULATE", -1,
+                              "W", sAggregator, null, "U", sConstraintId, lProofOfLifeTimestamp);
                     ++iNextComputeNodeSeqNum;
                     // Insert the cache info into the CacheMacAddrToLctn table.
-                    sTempStoredProcedure = "CACHEMACADDRTOLCTN.insert";
+                    sTempTable = "CACHEMACADDRTOLCTN";
                     sPertinentInfo = "Inserting CachedMacaddrToLctn - Lctn=" + sTempLctn + ",MacAddr=" + sMacAddr.toLowerCase();
-                    client_.callProcedure(createHouseKeepingCallbackNoRtrnValue(sTempStoredProcedure, sPertinentInfo),  // asynchronously invoke the procedure
-                                          sTempStoredProcedure, sMacAddr.toLowerCase(), sTempLctn);
+                    insertRow(sTempTable, sPertinentInfo,
+                              sMacAddr.toLowerCase(), sTempLctn);
                     // Insert the cache info into the CacheIpAddrToLctn table.
-                    sTempStoredProcedure = "CACHEIPADDRTOLCTN.insert";
+                    sTempTable = "CACHEIPADDRTOLCTN";
                     sPertinentInfo = "Inserting CachedIpaddrToLctn - Lctn=" + sTempLctn + ",IpAddr=" + sIpAddr;
-                    client_.callProcedure(createHouseKeepingCallbackNoRtrnValue(sTempStoredProcedure, sPertinentInfo),  // asynchronously invoke the procedure
-                                          sTempStoredProcedure, sIpAddr, sTempLctn);
+                    insertRow(sTempTable, sPertinentInfo,
+                              sIpAddr, sTempLctn);
                 }
                 break;
             case "SuperNode":
@@ -385,44 +379,42 @@ public class DefaultOnlineTierDataLoader {
                     String sHostName    = sMapEntry.mHostName;
                     String sAggregator  = sMapEntry.mAggregator;
                     // Insert this object into the table.
-                    sTempStoredProcedure = "NONNODEHW.insert";
+                    sTempTable = "NONNODEHW";
                     sPertinentInfo = "Inserting " + sTypeOfHw + " value - Lctn=" + sTempLctn;
-                    client_.callProcedure(createHouseKeepingCallbackNoRtrnValue(sTempStoredProcedure, sPertinentInfo)  // asynchronously invoke the procedure
-                                         ,sTempStoredProcedure
-                                         ,sTempLctn
-                                         ,iNextNonNodeHwSeqNum                  // sequence number
-                                         ,sTypeOfHw                             // type of hardware
-                                         ,"U"                                   // state - unknown
-                                         ,sHostName                             // hostname
-                                         ,sIpAddr                               // ip addr
-                                         ,sMacAddr                              // mac addr
-                                         ,System.currentTimeMillis() * 1000L    // DbUpdatedTimestamp
-                                         ,System.currentTimeMillis() * 1000L    // LastChgTimestamp
-                                         ,"POPULATE"                            // LastChgAdapterType
-                                         ,-1                                    // LastChgWorkItemId
-                                         ,"G"                                   // Owner - this piece of hardware's owning subsystem is the "general system"
-                                         ,sAggregator                           // Aggregator
-                                         ,null                                  // InventoryTimestamp
-                                         );
-                    sTempStoredProcedure = "NONNODEHW_HISTORY.insert";
+                    insertRow(sTempTable, sPertinentInfo
+                             ,sTempLctn
+                             ,iNextNonNodeHwSeqNum                  // sequence number
+                             ,sTypeOfHw                             // type of hardware
+                             ,"U"                                   // state - unknown
+                             ,sHostName                             // hostname
+                             ,sIpAddr                               // ip addr
+                             ,sMacAddr                              // mac addr
+                             ,System.currentTimeMillis() * 1000L    // DbUpdatedTimestamp
+                             ,System.currentTimeMillis() * 1000L    // LastChgTimestamp
+                             ,"POPULATE"                            // LastChgAdapterType
+                             ,-1                                    // LastChgWorkItemId
+                             ,"G"                                   // Owner - this piece of hardware's owning subsystem is the "general system"
+                             ,sAggregator                           // Aggregator
+                             ,null                                  // InventoryTimestamp
+                             );
+                    sTempTable = "NONNODEHW_HISTORY";
                     sPertinentInfo = "Inserting " + sTypeOfHw + "_History value - Lctn=" + sTempLctn;
-                    client_.callProcedure(createHouseKeepingCallbackNoRtrnValue(sTempStoredProcedure, sPertinentInfo)  // asynchronously invoke the procedure
-                                         ,sTempStoredProcedure
-                                         ,sTempLctn
-                                         ,iNextNonNodeHwSeqNum                  // sequence number
-                                         ,sTypeOfHw                             // type of hardware
-                                         ,"U"                                   // state - unknown
-                                         ,sHostName                             // hostname
-                                         ,sIpAddr                               // ip addr
-                                         ,sMacAddr                              // mac addr
-                                         ,System.currentTimeMillis() * 1000L    // DbUpdatedTimestamp
-                                         ,System.currentTimeMillis() * 1000L    // LastChgTimestamp
-                                         ,"POPULATE"                            // LastChgAdapterType
-                                         ,-1                                    // LastChgWorkItemId
-                                         ,"G"                                   // Owner - this piece of hardware's owning subsystem is the "general system"
-                                         ,sAggregator                           // Aggregator
-                                         ,null                                  // InventoryTimestamp
-                                         );
+                    insertRow(sTempTable, sPertinentInfo
+                             ,sTempLctn
+                             ,iNextNonNodeHwSeqNum                  // sequence number
+                             ,sTypeOfHw                             // type of hardware
+                             ,"U"                                   // state - unknown
+                             ,sHostName                             // hostname
+                             ,sIpAddr                               // ip addr
+                             ,sMacAddr                              // mac addr
+                             ,System.currentTimeMillis() * 1000L    // DbUpdatedTimestamp
+                             ,System.currentTimeMillis() * 1000L    // LastChgTimestamp
+                             ,"POPULATE"                            // LastChgAdapterType
+                             ,-1                                    // LastChgWorkItemId
+                             ,"G"                                   // Owner - this piece of hardware's owning subsystem is the "general system"
+                             ,sAggregator                           // Aggregator
+                             ,null                                  // InventoryTimestamp
+                             );
 
                     ++iNextNonNodeHwSeqNum;
                 }
@@ -442,36 +434,34 @@ public class DefaultOnlineTierDataLoader {
                     String[] aTemp = sTempLctn.split("-");
                     int iNumLevelInNodeLctn = aTemp.length - 1;
                     // Insert this object into the table.
-                    sTempStoredProcedure = "DIMM.insert";
+                    sTempTable = "DIMM";
                     sPertinentInfo = "Inserting " + sTypeOfHw + " value - Lctn=" + sTempLctn;
-                    client_.callProcedure(createHouseKeepingCallbackNoRtrnValue(sTempStoredProcedure, sPertinentInfo)  // asynchronously invoke the procedure
-                                         ,sTempStoredProcedure
-                                         ,DefaultLocations.extractFruLocation(sTempLctn, iNumLevelInNodeLctn)
-                                         ,sTempLctn
-                                         ,"U"                                   // State - unknown
-                                         ,0L                                    // SizeMB - size of this dimm in MBs
-                                         ,sModuleLocator                        // ModuleLocator
-                                         ,sBankLocator                          // BankLocator
-                                         ,System.currentTimeMillis() * 1000L    // DbUpdatedTimestamp
-                                         ,System.currentTimeMillis() * 1000L    // LastChgTimestamp
-                                         ,"POPULATE"                            // LastChgAdapterType
-                                         ,-1                                    // LastChgWorkItemId
-                                         );
-                    sTempStoredProcedure = "DIMM_HISTORY.insert";
+                    insertRow(sTempTable, sPertinentInfo
+                             ,DefaultLocations.extractFruLocation(sTempLctn, iNumLevelInNodeLctn)
+                             ,sTempLctn
+                             ,"U"                                   // State - unknown
+                             ,0L                                    // SizeMB - size of this dimm in MBs
+                             ,sModuleLocator                        // ModuleLocator
+                             ,sBankLocator                          // BankLocator
+                             ,System.currentTimeMillis() * 1000L    // DbUpdatedTimestamp
+                             ,System.currentTimeMillis() * 1000L    // LastChgTimestamp
+                             ,"POPULATE"                            // LastChgAdapterType
+                             ,-1                                    // LastChgWorkItemId
+                             );
+                    sTempTable = "DIMM_HISTORY";
                     sPertinentInfo = "Inserting " + sTypeOfHw + "_History value - Lctn=" + sTempLctn;
-                    client_.callProcedure(createHouseKeepingCallbackNoRtrnValue(sTempStoredProcedure, sPertinentInfo)  // asynchronously invoke the procedure
-                                         ,sTempStoredProcedure
-                                         ,DefaultLocations.extractFruLocation(sTempLctn, iNumLevelInNodeLctn)
-                                         ,sTempLctn
-                                         ,"U"                                   // State - unknown
-                                         ,0L                                    // SizeMB - size of this dimm in MBs
-                                         ,sModuleLocator                        // ModuleLocator
-                                         ,sBankLocator                          // BankLocator
-                                         ,System.currentTimeMillis() * 1000L    // DbUpdatedTimestamp
-                                         ,System.currentTimeMillis() * 1000L    // LastChgTimestamp
-                                         ,"POPULATE"                            // LastChgAdapterType
-                                         ,-1                                    // LastChgWorkItemId
-                                         );
+                    insertRow(sTempTable, sPertinentInfo
+                             ,DefaultLocations.extractFruLocation(sTempLctn, iNumLevelInNodeLctn)
+                             ,sTempLctn
+                             ,"U"                                   // State - unknown
+                             ,0L                                    // SizeMB - size of this dimm in MBs
+                             ,sModuleLocator                        // ModuleLocator
+                             ,sBankLocator                          // BankLocator
+                             ,System.currentTimeMillis() * 1000L    // DbUpdatedTimestamp
+                             ,System.currentTimeMillis() * 1000L    // LastChgTimestamp
+                             ,"POPULATE"                            // LastChgAdapterType
+                             ,-1                                    // LastChgWorkItemId
+                             );
                 }
                 break;
 
@@ -488,32 +478,30 @@ public class DefaultOnlineTierDataLoader {
                     String[] aTemp = sTempLctn.split("-");
                     int iNumLevelInNodeLctn = aTemp.length - 1;
                     // Insert this object into the table.
-                    sTempStoredProcedure = "PROCESSOR.insert";
+                    sTempTable = "PROCESSOR";
                     sPertinentInfo = "Inserting " + sTypeOfHw + " value - Lctn=" + sTempLctn;
-                    client_.callProcedure(createHouseKeepingCallbackNoRtrnValue(sTempStoredProcedure, sPertinentInfo)  // asynchronously invoke the procedure
-                                         ,sTempStoredProcedure
-                                         ,DefaultLocations.extractFruLocation(sTempLctn, iNumLevelInNodeLctn)
-                                         ,sTempLctn
-                                         ,"U"                                   // State - unknown
-                                         ,sSocketDesignation                    // SocketDesignation
-                                         ,System.currentTimeMillis() * 1000L    // DbUpdatedTimestamp
-                                         ,System.currentTimeMillis() * 1000L    // LastChgTimestamp
-                                         ,"POPULATE"                            // LastChgAdapterType
-                                         ,-1                                    // LastChgWorkItemId
-                                         );
-                    sTempStoredProcedure = "PROCESSOR_HISTORY.insert";
+                    insertRow(sTempTable, sPertinentInfo
+                             ,DefaultLocations.extractFruLocation(sTempLctn, iNumLevelInNodeLctn)
+                             ,sTempLctn
+                             ,"U"                                   // State - unknown
+                             ,sSocketDesignation                    // SocketDesignation
+                             ,System.currentTimeMillis() * 1000L    // DbUpdatedTimestamp
+                             ,System.currentTimeMillis() * 1000L    // LastChgTimestamp
+                             ,"POPULATE"                            // LastChgAdapterType
+                             ,-1                                    // LastChgWorkItemId
+                             );
+                    sTempTable = "PROCESSOR_HISTORY";
                     sPertinentInfo = "Inserting " + sTypeOfHw + "_History value - Lctn=" + sTempLctn;
-                    client_.callProcedure(createHouseKeepingCallbackNoRtrnValue(sTempStoredProcedure, sPertinentInfo)  // asynchronously invoke the procedure
-                                         ,sTempStoredProcedure
-                                         ,DefaultLocations.extractFruLocation(sTempLctn, iNumLevelInNodeLctn)
-                                         ,sTempLctn
-                                         ,"U"                                   // State - unknown
-                                         ,sSocketDesignation                    // SocketDesignation
-                                         ,System.currentTimeMillis() * 1000L    // DbUpdatedTimestamp
-                                         ,System.currentTimeMillis() * 1000L    // LastChgTimestamp
-                                         ,"POPULATE"                            // LastChgAdapterType
-                                         ,-1                                    // LastChgWorkItemId
-                                         );
+                    insertRow(sTempTable, sPertinentInfo
+                             ,DefaultLocations.extractFruLocation(sTempLctn, iNumLevelInNodeLctn)
+                             ,sTempLctn
+                             ,"U"                                   // State - unknown
+                             ,sSocketDesignation                    // SocketDesignation
+                             ,System.currentTimeMillis() * 1000L    // DbUpdatedTimestamp
+                             ,System.currentTimeMillis() * 1000L    // LastChgTimestamp
+                             ,"POPULATE"                            // LastChgAdapterType
+                             ,-1                                    // LastChgWorkItemId
+                             );
                 }
                 break;
 
@@ -533,42 +521,40 @@ public class DefaultOnlineTierDataLoader {
                     String[] aTemp = sTempLctn.split("-");
                     int iNumLevelInNodeLctn = aTemp.length - 1;
                     // Insert this object into the table.
-                    String sTempHistoryStoredProcedure;
+                    String sTempHistoryTable;
                     if (sTypeOfHw.equals("Accelerator")) {
-                        sTempStoredProcedure = "ACCELERATOR.insert";
-                        sTempHistoryStoredProcedure = "ACCELERATOR_HISTORY.insert";
+                        sTempTable = "ACCELERATOR";
+                        sTempHistoryTable = "ACCELERATOR_HISTORY";
                     }
                     else {
-                        sTempStoredProcedure = "HFI.insert";
-                        sTempHistoryStoredProcedure = "HFI_HISTORY.insert";
+                        sTempTable = "HFI";
+                        sTempHistoryTable = "HFI_HISTORY";
                     }
                     sPertinentInfo = "Inserting " + sTypeOfHw + " value - Lctn=" + sTempLctn;
-                    client_.callProcedure(createHouseKeepingCallbackNoRtrnValue(sTempStoredProcedure, sPertinentInfo)  // asynchronously invoke the procedure
-                                         ,sTempStoredProcedure
-                                         ,DefaultLocations.extractFruLocation(sTempLctn, iNumLevelInNodeLctn)
-                                         ,sTempLctn
-                                         ,"U"                                   // State - unknown
-                                         ,null                                  // BusAddr
-                                         ,sSlot                                 // Slot
-                                         ,System.currentTimeMillis() * 1000L    // DbUpdatedTimestamp
-                                         ,System.currentTimeMillis() * 1000L    // LastChgTimestamp
-                                         ,"POPULATE"                            // LastChgAdapterType
-                                         ,-1                                    // LastChgWorkItemId
-                                         );
-                    sTempStoredProcedure = sTempHistoryStoredProcedure;
+                    insertRow(sTempTable, sPertinentInfo
+                             ,DefaultLocations.extractFruLocation(sTempLctn, iNumLevelInNodeLctn)
+                             ,sTempLctn
+                             ,"U"                                   // State - unknown
+                             ,null                                  // BusAddr
+                             ,sSlot                                 // Slot
+                             ,System.currentTimeMillis() * 1000L    // DbUpdatedTimestamp
+                             ,System.currentTimeMillis() * 1000L    // LastChgTimestamp
+                             ,"POPULATE"                            // LastChgAdapterType
+                             ,-1                                    // LastChgWorkItemId
+                             );
+                    sTempTable = sTempHistoryTable;
                     sPertinentInfo = "Inserting " + sTypeOfHw + "_History value - Lctn=" + sTempLctn;
-                    client_.callProcedure(createHouseKeepingCallbackNoRtrnValue(sTempStoredProcedure, sPertinentInfo)  // asynchronously invoke the procedure
-                                         ,sTempStoredProcedure
-                                         ,DefaultLocations.extractFruLocation(sTempLctn, iNumLevelInNodeLctn)
-                                         ,sTempLctn
-                                         ,"U"                                   // State - unknown
-                                         ,null                                  // BusAddr
-                                         ,sSlot                                 // Slot
-                                         ,System.currentTimeMillis() * 1000L    // DbUpdatedTimestamp
-                                         ,System.currentTimeMillis() * 1000L    // LastChgTimestamp
-                                         ,"POPULATE"                            // LastChgAdapterType
-                                         ,-1                                    // LastChgWorkItemId
-                                         );
+                    insertRow(sTempTable, sPertinentInfo
+                             ,DefaultLocations.extractFruLocation(sTempLctn, iNumLevelInNodeLctn)
+                             ,sTempLctn
+                             ,"U"                                   // State - unknown
+                             ,null                                  // BusAddr
+                             ,sSlot                                 // Slot
+                             ,System.currentTimeMillis() * 1000L    // DbUpdatedTimestamp
+                             ,System.currentTimeMillis() * 1000L    // LastChgTimestamp
+                             ,"POPULATE"                            // LastChgAdapterType
+                             ,-1                                    // LastChgWorkItemId
+                             );
                 }
                 break;
 
@@ -731,6 +717,29 @@ public class DefaultOnlineTierDataLoader {
         return new MyCallbackForHouseKeepingNoRtrnValue(sSpThisIsCallbackFor, sPertinentInfo);
     }
 
+
+    //--------------------------------------------------------------------------
+    // Insert a row (the values of all of the table's columns) into the specified table.
+    // - While doPopulate() is running the row is sent in a batch with the other rows for this table (see BulkRowLoader),
+    //   otherwise it is inserted by asynchronously invoking the table's insert procedure.
+    //--------------------------------------------------------------------------
+    private void insertRow(String sTable, String sPertinentInfo, Object... aRow) throws IOException {
+        if (bulkLoader_ == null) {
+            String sStoredProcedure = sTable + ".insert";
+            client_.callProcedure(createHouseKeepingCallbackNoRtrnValue(sStoredProcedure, sPertinentInfo)  // asynchronously invoke the procedure
+                                 ,sStoredProcedure
+                                 ,aRow);
+            return;
+        }
+        try {
+            bulkLoader_.insert(sTable, sPertinentInfo, aRow);
+        }
+        catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while inserting into " + sTable + " - " + sPertinentInfo, ie);
+        }
+    }
+
     public void populateRasEventMetaData(String sRasEventMetaDataFileName)
             throws ProcCallException, PropertyNotExpectedType, IOException {
         PropertyMap pmRasMetaData;
@@ -752,34 +761,32 @@ public class DefaultOnlineTierDataLoader {
                 throw new RuntimeException("'event' cannot be null!");
             // Check & see if the ControlOperation field is really null (note: this is different than a string value of "null").
             String operation = event.getStringOrDefault("ControlOperation", null);
-            String sTempStoredProcedure = "RASMETADATA.insert";
+            String sTempTable = "RASMETADATA";
             String sPertinentInfo = "Inserting RAS Event Meta Data - DescriptiveName=" + event.getString("DescriptiveName");
 
             if (operation == null) {
-                client_.callProcedure(createHouseKeepingCallbackNoRtrnValue(sTempStoredProcedure, sPertinentInfo)
-                                     ,sTempStoredProcedure
-                                     ,event.getString("DescriptiveName")
-                                     ,event.getString("Severity")
-                                     ,event.getString("Category")
-                                     ,event.getString("Component")
-                                     ,null
-                                     ,event.getString("Msg")
-                                     ,(System.currentTimeMillis() * 1000)
-                                     ,event.getStringOrDefault("GenerateAlert", "N")
-                                     );
+                insertRow(sTempTable, sPertinentInfo
+                         ,event.getString("DescriptiveName")
+                         ,event.getString("Severity")
+                         ,event.getString("Category")
+                         ,event.getString("Component")
+                         ,null
+                         ,event.getString("Msg")
+                         ,(System.currentTimeMillis() * 1000)
+                         ,event.getStringOrDefault("GenerateAlert", "N")
+                         );
             }
             else {
-                client_.callProcedure(createHouseKeepingCallbackNoRtrnValue(sTempStoredProcedure, sPertinentInfo)
-                                     ,sTempStoredProcedure
-                                     ,event.getString("DescriptiveName")
-                                     ,event.getString("Severity")
-                                     ,event.getString("Category")
-                                     ,event.getString("Component")
-                                     ,event.getString("ControlOperation")
-                                     ,event.getString("Msg")
-                                     ,(System.currentTimeMillis() * 1000)
-                                     ,event.getStringOrDefault("GenerateAlert", "N")
-                                     );
+                insertRow(sTempTable, sPertinentInfo
+                         ,event.getString("DescriptiveName")
+                         ,event.getString("Severity")
+                         ,event.getString("Category")
+                         ,event.getString("Component")
+                         ,event.getString("ControlOperation")
+                         ,event.getString("Msg")
+                         ,(System.currentTimeMillis() * 1000)
+                         ,event.getStringOrDefault("GenerateAlert", "N")
+                         );
             }
         }
     }
@@ -801,6 +808,7 @@ public class DefaultOnlineTierDataLoader {
             log_.info("connecting to VoltDB servers - %s", DbServers);
             client_ = connectToVoltDB(DbServers);
             log_.info("connected to VoltDB servers - %s", DbServers);
+            bulkLoader_ = createBulkRowLoader();
 
             //---------------------------------------------------------------------
             // Ensure that the schema does not already have information in it
@@ -1173,6 +1181,14 @@ public class DefaultOnlineTierDataLoader {
             }
 
 
+            //------------------------------------------------------------------
+            // Wait for the rows that are still being loaded and for the outstanding asynchronous procedure invocations.
+            //------------------------------------------------------------------
+            mNumberOfErrors += (int) bulkLoader_.finish();
+            bulkLoader_ = null;
+            client_.drain();
+            log_.info("Populated the data store in %d millisecs", System.currentTimeMillis() - TimeDbPopulateStartedMilliSecs);
+
             //------------------------------------------------------------------
             // Check & see if too many errors occurred during this populate.
             //------------------------------------------------------------------
@@ -1251,6 +1267,11 @@ public class DefaultOnlineTierDataLoader {
     }   // End doPopulate(String[] args)
 
 
+    BulkRowLoader createBulkRowLoader() {
+        return new BulkRowLoader(log_, client_);
+    }
+
+
     void fillInMachineCfgEntries(PropertyMap pmMachCfg, String sSctnName, Boolean bThrowExcptnIfSctnMissing)
          throws ConfigIOParseException
     {
@@ -1300,6 +1321,7 @@ public class DefaultOnlineTierDataLoader {
 
     private AtomicBoolean shuttingDown_ = new AtomicBoolean(false);
     private Client client_;
+    private BulkRowLoader bulkLoader_ = null;  // only used while doPopulate() is running.
     private Logger log_;
     private ConfigIO jsonParser_;
     private ArrayList<MachineConfigWiInfo> alWorkItems_ = new ArrayList<>();
@@ -0,0 +1,185 @@
+// Copyright (C) 2021 Intel Corporation
+//
+// SPDX-License-Identifier: Apache-2.0
+//
+package com.intel.dai.populate;
+
+import com.intel.logging.Logger;
+import org.junit.Before;
+import org.junit.Test;
+import org.voltdb.client.ClientResponse;
+import org.voltdb.client.VoltBulkLoader.BulkLoaderFailureCallBack;
+import org.voltdb.client.VoltBulkLoader.BulkLoaderSuccessCallback;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class BulkRowLoaderTest {
+    // Keeps the rows of a table until they are sent, like VoltBulkLoader does.
+    class FakeTableLoader implements BulkRowLoader.TableLoader {
+        FakeTableLoader(int batchSize, BulkLoaderFailureCallBack failure, BulkLoaderSuccessCallback success) {
+            this.batchSize = batchSize;
+            this.failure = failure;
+            this.success = success;
+        }
+
+        @Override
+        public synchronized void insertRow(Object rowHandle, Object... row) {
+            pending.put(rowHandle, row);
+            if (pending.size() >= batchSize && !holdBatches)
+                flush();
+        }
+
+        @Override
+        public synchronized void flush() {
+            for (Map.Entry<Object, Object[]> entry: pending.entrySet()) {
+                rows.add(entry.getValue());
+                if (entry.getValue()[0] == null)
+                    failure.failureCallback(entry.getKey(), entry.getValue(), mock(ClientResponse.class));
+                else
+                    success.success(entry.getKey(), mock(ClientResponse.class));
+            }
+            pending.clear();
+            batches++;
+        }
+
+        @Override
+        public void drain() {
+            flush();
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+
+        final int batchSize;
+        final BulkLoaderFailureCallBack failure;
+        final BulkLoaderSuccessCallback success;
+        final Map<Object, Object[]> pending = new LinkedHashMap<>();
+        final List<Object[]> rows = new ArrayList<>();
+        int batches = 0;
+        boolean closed = false;
+        boolean holdBatches = false;
+    }
+
+    @Before
+    public void setUp() {
+        log = mock(Logger.class);
+        tables = new HashMap<>();
+        factory = (table, batchSize, failure, success) -> {
+            FakeTableLoader loader = new FakeTableLoader(batchSize, failure, success);
+            tables.put(table, loader);
+            return loader;
+        };
+    }
+
+    @Test
+    public void insertsTheRowsInBatchesPerTable() throws Exception {
+        BulkRowLoader loader = new BulkRowLoader(log, factory, 10, 100, 0L);
+        for (int i = 0; i < 25; i++) {
+            loader.insert("COMPUTENODE", "node " + i, "R0-CN" + i, i);
+            loader.insert("COMPUTENODE_HISTORY", "node " + i, "R0-CN" + i, i);
+        }
+        loader.insert("RACK", "rack", "R0");
+        assertEquals(0L, loader.finish());
+
+        assertEquals(51L, loader.rowsLoaded());
+        assertEquals(3, tables.size());
+        assertEquals(25, tables.get("COMPUTENODE").rows.size());
+        assertEquals(3, tables.get("COMPUTENODE").batches);
+        assertEquals("R0-CN24", tables.get("COMPUTENODE").rows.get(24)[0]);
+        assertEquals(24, tables.get("COMPUTENODE").rows.get(24)[1]);
+        assertTrue(tables.get("RACK").closed);
+    }
+
+    @Test
+    public void countsAndLogsTheFailedRows() throws Exception {
+        BulkRowLoader loader = new BulkRowLoader(log, factory, 10, 100, 0L);
+        loader.insert("RACK", "rack R0", "R0");
+        loader.insert("RACK", "rack R1", (Object) null);
+        assertEquals(1L, loader.finish());
+        assertEquals(1L, loader.rowsLoaded());
+        verify(log).error(anyString(), eq("RACK"), any(), eq("rack R1"));
+    }
+
+    @Test
+    public void sendsThePartialBatchesWhenTheWindowIsFull() throws Exception {
+        BulkRowLoader loader = new BulkRowLoader(log, (table, batchSize, failure, success) -> {
+            FakeTableLoader fake = new FakeTableLoader(batchSize, failure, success);
+            fake.holdBatches = true;
+            tables.put(table, fake);
+            return fake;
+        }, 10, 10, 0L);
+        for (int i = 0; i < 25; i++)
+            loader.insert("DIMM", "dimm " + i, "R0-CN0-D" + i);
+        assertEquals(20, tables.get("DIMM").rows.size());
+        loader.finish();
+        assertEquals(25L, loader.rowsLoaded());
+    }
+
+    @Test
+    public void insertBlocksWhileTheWindowIsFull() throws Exception {
+        List<BulkLoaderSuccessCallback> callbacks = new ArrayList<>();
+        List<Object> handles = Collections.synchronizedList(new ArrayList<>());
+        BulkRowLoader loader = new BulkRowLoader(log, (table, batchSize, failure, success) -> {
+            callbacks.add(success);
+            return new BulkRowLoader.TableLoader() {
+                @Override public void insertRow(Object rowHandle, Object... row) { handles.add(rowHandle); }
+                @Override public void flush() { }
+                @Override public void drain() { }
+                @Override public void close() { }
+            };
+        }, 2, 2, 0L);
+        loader.insert("RACK", "rack R0", "R0");
+        loader.insert("RACK", "rack R1", "R1");
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> third = executor.submit(() -> {
+                loader.insert("RACK", "rack R2", "R2");
+                return null;
+            });
+            try {
+                third.get(200L, TimeUnit.MILLISECONDS);
+                fail();
+            } catch (TimeoutException e) {
+                // expected, no row completed yet.
+            }
+            callbacks.get(0).success(handles.get(0), mock(ClientResponse.class));
+            third.get(5L, TimeUnit.SECONDS);
+            assertEquals(3, handles.size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void logsTheProgress() throws Exception {
+        BulkRowLoader loader = new BulkRowLoader(log, factory, 10, 100, 5L);
+        for (int i = 0; i < 12; i++)
+            loader.insert("RACK", "rack", "R" + i);
+        verify(log, times(2)).info(startsWith("BulkRowLoader - submitted"), any(), any(), any());
+    }
+
+    @Test(expected = IOException.class)
+    public void reportsWhenTheTableCanNotBeLoaded() throws Exception {
+        BulkRowLoader loader = new BulkRowLoader(log, (table, batchSize, failure, success) -> {
+            throw new IllegalArgumentException("no such table");
+        }, 10, 100, 0L);
+        loader.insert("NOSUCHTABLE", "row", "value");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void ctorRejectsAWindowSmallerThanABatch() {
+        new BulkRowLoader(log, factory, 10, 5, 0L);
+    }
+
+    private Logger log;
+    private Map<String, FakeTableLoader> tables;
+    private BulkRowLoader.TableLoaderFactory factory;
+}
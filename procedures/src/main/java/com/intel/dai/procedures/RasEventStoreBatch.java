@@ -0,0 +1,139 @@
+// Copyright (C) 2021 Intel Corporation
+//
+// SPDX-License-Identifier: Apache-2.0
+//
+package com.intel.dai.procedures;
+
+import java.lang.*;
+import org.voltdb.*;
+
+/**
+ * Handle the database processing that is necessary to store a batch of RAS events that all have the same
+ * DescriptiveName (so all of them are in the same partition).
+ * This does the same thing as RasEventStore for each of the events, but it allocates all of the events' ids and looks
+ * up the event's Control Operation only once.
+ *
+ *  Returns: long lNumEvents = The number of RAS events that were stored.  NOTE: it will be a negative number (-1 * lNumEvents) if there IS a Control Operation associated with these ras events!
+ *
+ *  Input parameter:
+ *      String   sDescriptiveName = Identifies which type of event occurred, e.g., "RasGenAdapterAbend", "RasWorkItemFindAndOwnFailed"
+ *      String[] aInstanceData    = Data specific to each instance of the event
+ *      String[] aLctn            = Location of the hardware that each event occurred on.  Note: string of "" indicates Lctn should be set to NULL in db
+ *      String[] aJobId           = Job Id of each event - Note: value of null, indicates that JobId in data store record should be set to null.
+ *      long[]   aTsInMicroSecs   = Time that the event that triggered each RAS Event occurred
+ *      long[]   aNumberRepeats   = Number of additional times each event occurred (identical events folded into one row by the caller)
+ *      String[] aReqAdapterType  = Type of adapter that requested each event be stored
+ *      long[]   aReqWorkItemId   = Work Item Id that the requesting adapter was performing when it requested each event be stored
+ *
+ */
+
+public class RasEventStoreBatch extends VoltProcedure {
+
+    static final int MaxInsertsPerSqlBatch = 200;
+
+    public final SQLStmt selectUniqueIdSql = new SQLStmt("SELECT NextValue FROM UniqueValues WHERE Entity = ? Order By Entity;");
+    public final SQLStmt updateUniqueIdSql = new SQLStmt("UPDATE UniqueValues SET NextValue = NextValue + ?, DbUpdatedTimestamp = ? WHERE Entity = ?;");
+    public final SQLStmt insertUniqueIdSql = new SQLStmt("INSERT INTO UniqueValues (Entity, NextValue, DbUpdatedTimestamp) VALUES (?, ?, ?);");
+
+    public final SQLStmt selectRasEventControlOperationSql = new SQLStmt("SELECT ControlOperation FROM RasMetaData WHERE DescriptiveName = ?;");
+    public final SQLStmt insertRasEventSql = new SQLStmt("INSERT INTO RasEvent (Id, DescriptiveName, Lctn, JobId, NumberRepeats, ControlOperation, Done, InstanceData, DbUpdatedTimestamp, LastChgTimestamp, LastChgAdapterType, LastChgWorkItemId) " +
+                                                         "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?);");
+
+
+
+    public long run(String sDescriptiveName, String[] aInstanceData, String[] aLctn, String[] aJobId, long[] aTsInMicroSecs,
+                    long[] aNumberRepeats, String[] aReqAdapterType, long[] aReqWorkItemId) throws VoltAbortException
+    {
+        int iNumEvents = aTsInMicroSecs.length;
+        if ((aInstanceData.length != iNumEvents) || (aLctn.length != iNumEvents) || (aJobId.length != iNumEvents) ||
+            (aNumberRepeats.length != iNumEvents) || (aReqAdapterType.length != iNumEvents) || (aReqWorkItemId.length != iNumEvents))
+        {
+            throw new VoltAbortException("RasEventStoreBatch - all of the event arrays must have the same length - DescriptiveName=" + sDescriptiveName + "!");
+        }
+        if (iNumEvents == 0)
+            return 0L;
+
+        //--------------------------------------------------
+        // Generate the unique ids for these new RAS events and get their Control Operation from the meta data.
+        //--------------------------------------------------
+        voltQueueSQL(selectUniqueIdSql, EXPECT_ZERO_OR_ONE_ROW, sDescriptiveName);
+        voltQueueSQL(selectRasEventControlOperationSql, EXPECT_ZERO_OR_ONE_ROW, sDescriptiveName);
+        VoltTable[] aResults = voltExecuteSQL();
+        long lFirstUniqueId;
+        int iNumQueued = 0;
+        if (aResults[0].getRowCount() == 0) {
+            // No matching record for the specified entity - add a new row for the specified entity
+            voltQueueSQL(insertUniqueIdSql, sDescriptiveName, 1, this.getTransactionTime());
+            ++iNumQueued;
+            lFirstUniqueId = 1L;
+        }
+        else
+            lFirstUniqueId = aResults[0].asScalarLong();
+        // Bump the current "next unique id" past all of the ids used by this batch.
+        voltQueueSQL(updateUniqueIdSql, EXPECT_ONE_ROW, iNumEvents, this.getTransactionTime(), sDescriptiveName);
+        ++iNumQueued;
+
+        boolean bCntrlActnPrsnt = false;
+        String sEventsControlOperation = null;
+        if (aResults[1].getRowCount() == 0) {
+            // There is NO meta data for this RAS DescriptiveName
+            sEventsControlOperation = "@@@Unknown-NoMetaData@@@";  // there is no meta data, so don't know what the Control Operations are for this RAS Event
+        } else {
+            aResults[1].advanceRow();
+            sEventsControlOperation = aResults[1].getString("ControlOperation");
+            if (aResults[1].wasNull())
+                sEventsControlOperation = null;
+            else
+                // there was a control operation for this ras event
+                bCntrlActnPrsnt = true;
+        }
+        if ((sEventsControlOperation != null) && (sEventsControlOperation.length() == 0))
+            sEventsControlOperation = null;
+
+        //---------------------------------------------------------------------
+        // Insert the new rows into the RasEvent table (a limited number of statements per sql batch).
+        //---------------------------------------------------------------------
+        for (int i = 0; i < iNumEvents; ++i) {
+            String sLctn = aLctn[i];
+            if ((sLctn != null) && (sLctn.length() == 0))
+                sLctn  = null;
+            String sJobId = aJobId[i];
+            if ((sJobId != null) && ((sJobId.length() == 0) || (sJobId.equals("null"))))
+                sJobId = null;
+            String sInstanceData = aInstanceData[i];
+            if (sInstanceData != null)
+                sInstanceData = sInstanceData.substring(0, Math.min(sInstanceData.length(), 500));
+            // Determine if there is anything more that the RAS adapter has to do with this event (or is this event done).
+            String sDone;
+            if ((sEventsControlOperation != null) ||        // Need to run a ControlOperation.
+                ((sJobId != null) && (sJobId.equals("?")))) // Need to fill-in job id.
+                sDone = "N";
+            else
+                sDone = "Y";
+            voltQueueSQL(insertRasEventSql
+                        ,lFirstUniqueId + i         // Ras Event Id
+                        ,sDescriptiveName           // DescriptiveName
+                        ,sLctn                      // Lctn
+                        ,sJobId                     // JobId
+                        ,aNumberRepeats[i]          // NumberRepeats
+                        ,sEventsControlOperation    // ControlOperation
+                        ,sDone                      // Done
+                        ,sInstanceData              // InstanceData
+                        ,this.getTransactionTime()  // Time that this record was inserted into data store (DbUpdatedTimestamp)
+                        ,aTsInMicroSecs[i]          // Time that this RAS Event was triggered (LastChgTimestamp)
+                        ,aReqAdapterType[i]         // LastChgAdapterType
+                        ,aReqWorkItemId[i]          // LastChgWorkItemId
+                        );
+            if ((++iNumQueued == MaxInsertsPerSqlBatch) && (i + 1 < iNumEvents)) {
+                voltExecuteSQL();
+                iNumQueued = 0;
+            }
+        }
+        voltExecuteSQL(true);
+
+        if (bCntrlActnPrsnt)
+            return -iNumEvents;  // Since there was a control operation associated with these ras events, send back the negative form of the count.
+        else
+            return iNumEvents;
+    }
+}
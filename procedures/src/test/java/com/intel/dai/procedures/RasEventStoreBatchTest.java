@@ -0,0 +1,107 @@
+// Copyright (C) 2021 Intel Corporation
+//
+// SPDX-License-Identifier: Apache-2.0
+//
+package com.intel.dai.procedures;
+
+import org.junit.Test;
+import org.voltdb.Expectation;
+import org.voltdb.SQLStmt;
+import org.voltdb.VoltProcedure;
+import org.voltdb.VoltTable;
+import org.voltdb.VoltType;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class RasEventStoreBatchTest {
+    class MockRasEventStoreBatch extends RasEventStoreBatch {
+        @Override
+        public void voltQueueSQL(final SQLStmt stmt, Expectation expectation, Object... args) { queued_.add(args); }
+
+        @Override
+        public void voltQueueSQL(final SQLStmt stmt, Object... args) { queued_.add(args); }
+
+        @Override
+        public VoltTable[] voltExecuteSQL() { return voltExecuteSQL(false); }
+
+        @Override
+        public VoltTable[] voltExecuteSQL(boolean value) {
+            ++executes_;
+            if (executes_ > 1)
+                return new VoltTable[0];
+            VoltTable uniqueId = new VoltTable(new VoltTable.ColumnInfo("NextValue", VoltType.BIGINT));
+            if (!noUniqueId_)
+                uniqueId.addRow(12L);
+            VoltTable control = new VoltTable(new VoltTable.ColumnInfo("ControlOperation", VoltType.STRING));
+            control.addRow(controlOperation_);
+            return new VoltTable[] { uniqueId, control };
+        }
+
+        @Override
+        public Date getTransactionTime() {
+            return Date.from(Instant.now());
+        }
+        private List<Object[]> queued_ = new ArrayList<>();
+        private int executes_ = 0;
+        private boolean noUniqueId_ = false;
+        private String controlOperation_ = null;
+    }
+
+    @Test
+    public void run() {
+        MockRasEventStoreBatch proc = new MockRasEventStoreBatch();
+        long lResult = proc.run("Type", new String[] {"Data1", "Data2"}, new String[] {"Lctn", ""},
+                new String[] {null, "?"}, new long[] {1000L, 2000L}, new long[] {5L, 0L}, new String[] {"RAS", "RAS"},
+                new long[] {9999L, 9999L});
+        assertEquals(2L, lResult);
+        // select id, select control op, update NextValue, 2 inserts.
+        assertEquals(5, proc.queued_.size());
+        assertEquals(2, proc.queued_.get(2)[0]);
+        assertEquals(12L, proc.queued_.get(3)[0]);
+        assertEquals(5L, proc.queued_.get(3)[4]);
+        assertEquals("Y", proc.queued_.get(3)[6]);
+        assertEquals(13L, proc.queued_.get(4)[0]);
+        assertNull(proc.queued_.get(4)[2]);
+        assertEquals("N", proc.queued_.get(4)[6]);
+    }
+
+    @Test
+    public void runNoUniqueIdControlOperation() {
+        MockRasEventStoreBatch proc = new MockRasEventStoreBatch();
+        proc.noUniqueId_ = true;
+        proc.controlOperation_ = "ErrorOnNode";
+        long lResult = proc.run("Type", new String[] {"Data"}, new String[] {"Lctn"}, new String[] {null},
+                new long[] {1000L}, new long[] {0L}, new String[] {"RAS"}, new long[] {9999L});
+        assertEquals(-1L, lResult);
+        assertEquals(1L, proc.queued_.get(4)[0]);
+        assertEquals("N", proc.queued_.get(4)[6]);
+    }
+
+    @Test
+    public void runManyEvents() {
+        MockRasEventStoreBatch proc = new MockRasEventStoreBatch();
+        int iNumEvents = RasEventStoreBatch.MaxInsertsPerSqlBatch * 2;
+        String[] aStrings = new String[iNumEvents];
+        long[] aLongs = new long[iNumEvents];
+        assertEquals(iNumEvents, proc.run("Type", aStrings, aStrings, aStrings, aLongs, aLongs, aStrings, aLongs));
+        assertEquals(4, proc.executes_);
+    }
+
+    @Test
+    public void runNoEvents() {
+        MockRasEventStoreBatch proc = new MockRasEventStoreBatch();
+        assertEquals(0L, proc.run("Type", new String[0], new String[0], new String[0], new long[0], new long[0],
+                new String[0], new long[0]));
+    }
+
+    @Test(expected = VoltProcedure.VoltAbortException.class)
+    public void runMismatchedArrays() {
+        MockRasEventStoreBatch proc = new MockRasEventStoreBatch();
+        proc.run("Type", new String[1], new String[1], new String[1], new long[2], new long[2], new String[2], new long[2]);
+    }
+}
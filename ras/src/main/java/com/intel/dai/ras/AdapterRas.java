@@ -11,12 +11,17 @@ import com.intel.dai.control.*;
 import com.intel.dai.exceptions.AdapterException;
 import org.voltdb.client.*;
 import org.voltdb.VoltTable;
-import org.voltdb.VoltTableRow;
 import com.intel.dai.Adapter;
+import com.intel.perflogging.Counter;
+import com.intel.perflogging.Gauge;
+import com.intel.perflogging.LatencyHistogram;
+import com.intel.perflogging.MetricsRegistry;
+import com.intel.perflogging.MetricsServer;
 import java.util.regex.Pattern;
 import java.io.*;
 import java.lang.*;
 import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.text.SimpleDateFormat;
 
 
@@ -40,7 +45,9 @@ public class AdapterRas {
         log_ = logger;
         adapter_ = adapter;
         lastTimeInMsDidChkForExpiredJobs_ = System.currentTimeMillis();
-        mCachedJobInfoMap = null;
+        mCachedJobIndex = new CachedJobIndex();
+        mComputeNodeLctns = null;
+        lastTimeInMsDidFullCachedJobIndexLoad_ = 0L;
         mNodesInServiceArraylist = new ArrayList<String>();
     }   // ctor
 
@@ -50,8 +57,24 @@ public class AdapterRas {
     private ControlApi  controlHandler_;
     private Logger      log_;
     private long        lastTimeInMsDidChkForExpiredJobs_;  // the last time (in milliseconds) that we checked for expired jobs.
-    private HashMap<String, ArrayList<VoltTableRow>> mCachedJobInfoMap = null;
+    private long        lastTimeInMsDidFullCachedJobIndexLoad_;  // the last time (in milliseconds) that the cached job index was completely reloaded.
+    private CachedJobIndex  mCachedJobIndex;           // index of the InternalCachedJobs entries, kept up to date with the entries that changed.
+    private HashSet<String> mComputeNodeLctns = null;  // lctns of the ComputeNodes defined in this machine.
     private ArrayList<String> mNodesInServiceArraylist;
+    private boolean     mStreamingMode = false;  // hold the RAS events in a delay queue rather than only querying for the ones that are old enough.
+    private long        mJobIndexOverlapSecs = DefaultJobIndexOverlapSecs;  // how far back before the cached job index's watermark the changed entries are re-read.
+    private final RasEventDelayQueue<RasEventData> mRasEventQueue = new RasEventDelayQueue<>(MaxMsToWaitForJobInfo);
+    private final ConcurrentLinkedQueue<String> mFailedRasEventUpdates = new ConcurrentLinkedQueue<>();  // keys of the streamed events whose RasEventUpdate failed.
+    private static final long MaxMsToWaitForJobInfo = 4 * 1000L;      // see the note in fillInJobIdAndRunControlOps().
+    private static final long StreamingModePollIntervalMs = 50L;      // how often the streaming mode checks for RAS events that need work done.
+    private static final long DefaultJobIndexOverlapSecs = 60L;       // allowed clock skew between the WLM adapters, see updateCachedJobIndex().
+    // Metrics exported by the metrics endpoint (see mainProcessingFlow()).
+    private final MetricsRegistry  mMetrics = MetricsRegistry.getDefault();
+    private final Counter          mNumRasEventsFinished = mMetrics.counter("dai_ras_events_finished_total", "RAS events whose job id and control operation were handled");
+    private final Counter          mNumControlOperations = mMetrics.counter("dai_ras_control_operations_total", "Control operations run for RAS events");
+    private final LatencyHistogram mFinishLatency = mMetrics.histogram("dai_ras_event_finish_seconds", "Time to fill in the job id, run the control operation and update a RAS event");
+    private final LatencyHistogram mEventAge      = mMetrics.histogram("dai_ras_event_age_seconds", "Time from a RAS event's timestamp until it was finished");
+    private final Gauge            mNumHeldRasEvents = mMetrics.gauge("dai_ras_held_events", "RAS events held waiting for job information (streaming mode)");
 
 
     private boolean isNodeInResetRecursion(String sNodeLctn) throws InterruptedException, IOException, ProcCallException {
@@ -137,50 +160,34 @@ public class AdapterRas {
     //     }   // End binarySearchCachedJobInfo(HashMap<String, VoltTableRow> mCachedJobInfoMap, String sLctn)
 
 
-    // Use a stored procedure to get this RAS events associated job id (if any).
-    private String getThisEventsJobIdFromCachedJobInfo(String sRasEventDescrName, String sRasEventLctn, long lRasEventId, long lRasEventTsInMicroSecs, HashMap<String, ArrayList<VoltTableRow>> mCachedJobInfoMap) {
+    // Get this RAS event's associated job id (if any) from the cached job index.
+    private String getThisEventsJobIdFromCachedJobInfo(String sRasEventDescrName, String sRasEventLctn, long lRasEventId, long lRasEventTsInMicroSecs) {
         String sFndJobId = null;
-        // Get the ArrayList of volt table rows for this lctn's cached job information.
-        ArrayList<VoltTableRow> alVoltTableRow = mCachedJobInfoMap.get(sRasEventLctn);
-        if ((alVoltTableRow == null) || (alVoltTableRow.isEmpty())) {
-            // there wasn't any cached job information for this lctn.
+        // Get the jobs that were active on this lctn when this ras event occurred.
+        List<String> alJobIds = mCachedJobIndex.jobsActiveAt(sRasEventLctn, lRasEventTsInMicroSecs);
+        if (alJobIds.isEmpty()) {
+            // there wasn't any cached job information for this lctn at this time.
             log_.debug("Did NOT find %s in the cached job info, so there is no JobId for this event", sRasEventLctn);
         }
         else {
-            // we have the array list of entries for this lctn - loop through checking for the associated job id.
-            // Step through the entries for this lctn, in the cached job info, looking for a matching job id.
-            for (VoltTableRow vtRow : alVoltTableRow) {
-                // Check & see if this job was started before this ras event occurred.
-                if (vtRow.getTimestampAsLong("StartTimestamp") <= lRasEventTsInMicroSecs) {
-                    // this job's start timestamp was before this ras event occurred.
-                    // Check & see if this job was still active when this ras event occurred.
-                    long lCachedJobsEndTs = vtRow.getTimestampAsLong("EndTimestamp");
-                    if ((vtRow.wasNull()) || (lCachedJobsEndTs >= lRasEventTsInMicroSecs)) {
-                        // found the job - this job was still active when this ras event occurred.
-                        if (sFndJobId != null) {
-                            // we already found a job id for this RAS event
-                            // Problem occurred there should not be 2 jobs active on the same node at same time.
-                            String sInstanceData = "OrigRasEventDescrName=" + sRasEventDescrName + ", OrigRasEventId=" + lRasEventId + ", Lctn=" + sRasEventLctn +
-                                                   ", 1stJobId=" + sFndJobId + ", 2ndJobId=" + vtRow.getString("JobId");
-                            log_.error("Detected that there were multiple jobs using the same ComputeNode - " + sInstanceData);
-                            adapter_.logRasEventNoEffectedJob("RasMultipleJobsUsingSameNode"
-                                                             ,sInstanceData
-                                                             ,sRasEventLctn
-                                                             ,System.currentTimeMillis() * 1000L
-                                                             ,adapter_.adapterType()
-                                                             ,workQueue_.baseWorkItemId()
-                                                             );
-                        }
-                        else {
-                            // Found the job id, save it away.
-                            sFndJobId = vtRow.getString("JobId");
-                        }
-                    }
-                }
+            // Found the job id, save it away.
+            sFndJobId = alJobIds.get(0);
+            for (int iJobCntr = 1; iJobCntr < alJobIds.size(); ++iJobCntr) {
+                // Problem occurred there should not be 2 jobs active on the same node at same time.
+                String sInstanceData = "OrigRasEventDescrName=" + sRasEventDescrName + ", OrigRasEventId=" + lRasEventId + ", Lctn=" + sRasEventLctn +
+                                       ", 1stJobId=" + sFndJobId + ", 2ndJobId=" + alJobIds.get(iJobCntr);
+                log_.error("Detected that there were multiple jobs using the same ComputeNode - " + sInstanceData);
+                adapter_.logRasEventNoEffectedJob("RasMultipleJobsUsingSameNode"
+                                                 ,sInstanceData
+                                                 ,sRasEventLctn
+                                                 ,System.currentTimeMillis() * 1000L
+                                                 ,adapter_.adapterType()
+                                                 ,workQueue_.baseWorkItemId()
+                                                 );
             }
         }
         return sFndJobId;
-    }   // End getThisEventsJobIdFromCachedJobInfo(String sRasEventDescrName, String sRasEventLctn, long lRasEventId, long lRasEventTsInMicroSecs, HashMap<String, ArrayList<VoltTableRow>> mCachedJobInfoMap)
+    }   // End getThisEventsJobIdFromCachedJobInfo(String sRasEventDescrName, String sRasEventLctn, long lRasEventId, long lRasEventTsInMicroSecs)
 
 
     //--------------------------------------------------------------------------
@@ -241,7 +248,7 @@ public class AdapterRas {
                 // - a Control Operation run
                 // - both a Job ID filled in and a Control Operation run
                 //--------------------------------------------------------------
-                long lWorkDoneThisIteration = fillInJobIdAndRunControlOps(sqlDateFormat);
+                long lWorkDoneThisIteration = mStreamingMode ? streamJobIdAndRunControlOps(sqlDateFormat) : fillInJobIdAndRunControlOps(sqlDateFormat);
                 //-------------------------------------------------------------
                 // Check & see if there was any work to do this iteration.
                 //-------------------------------------------------------------
@@ -253,7 +260,11 @@ public class AdapterRas {
                 else {
                     // we did NOT do any work this iteration.
                     ++lNumIterationsWithoutWork;  // bump the number of iterations without having any work to do.
-                    Thread.sleep( Math.min(lNumIterationsWithoutWork, 5) * 100);
+                    if (mStreamingMode)
+                        // check again shortly, but don't sleep past the time that a held RAS event has to be handled.
+                        Thread.sleep( Math.max(1L, Math.min(StreamingModePollIntervalMs, mRasEventQueue.nextDeadlineMs() - System.currentTimeMillis())) );
+                    else
+                        Thread.sleep( Math.min(lNumIterationsWithoutWork, 5) * 100);
                 }
             }   // End try
             catch (NoConnectionsException nce) {
@@ -276,61 +287,65 @@ public class AdapterRas {
     }   // End handleFillingInJobIdsAndControlOps()
 
 
-    private HashMap<String, ArrayList<VoltTableRow>> createCachedJobInfoMap() throws IOException, ProcCallException {
-        // Create an entry in the hash map for each compute node lctn defined in this machine.
-        log_.debug("Creating HashMap of ArrayList<VoltTableRow> ");
+    private HashSet<String> createComputeNodeLctnSet() throws IOException, ProcCallException {
         // Get the list of ComputeNodes defined in the system.
         ClientResponse response = adapter_.client().callProcedure("ComputeNodeListLctnAndSeqNum");
         VoltTable vt = response.getResults()[0];
-        // Create the Map object (of the size equal to number of compute nodes).
-        HashMap<String, ArrayList<VoltTableRow>> tempCachedJobInfoMap = new HashMap<String, ArrayList<VoltTableRow>>(vt.getRowCount());
-        // Loop through each of the ComputeNodes defined in the ComputeNode table
-        // (initializing the hashmap entries).
+        HashSet<String> tempComputeNodeLctns = new HashSet<String>(vt.getRowCount() * 2);
         for (int iCnCntr = 0; iCnCntr < vt.getRowCount(); ++iCnCntr) {
             vt.advanceRow();
-            // Create the array list for this lctn w/ room for 3 entries.
-            ArrayList<VoltTableRow> alVt = new ArrayList<VoltTableRow>(3);
-            // Create the HashMap entry for this lctn and associating it with its ArrayList.
-            tempCachedJobInfoMap.put(vt.getString("Lctn"), alVt);
+            tempComputeNodeLctns.add(vt.getString("Lctn"));
         }
-        log_.debug("Created  HashMap of ArrayList<VoltTableRow> - CachedJobInfoMap.size() = %d", tempCachedJobInfoMap.size());
-        return tempCachedJobInfoMap;
-    }   // End createCachedJobInfoMap()
+        log_.debug("Created set of ComputeNode lctns - size() = %d", tempComputeNodeLctns.size());
+        return tempComputeNodeLctns;
+    }   // End createComputeNodeLctnSet()
 
 
-    private int fillInCachedJobInfoMap(VoltTable vtListRasEventsThatNeedWorkDoneMaxTs, ClientResponse response) throws IOException, ProcCallException {
-        // There are RAS events that need work done - fill in the cached job info (because we don't want to have to call volt for each individual RAS event).
-        int tempNumEntriesInCachedJobInfoMap = 0;
-        vtListRasEventsThatNeedWorkDoneMaxTs.advanceRow();  // advance to the VoltTable row that has the maximum LastChgTimestamp value within this list of RAS events.
-        // Get the list of cached job info entries.
-        response = adapter_.client().callProcedure("InternalCachedJobsGetListOfActiveInternalCachedJobsUsingTimestamp", vtListRasEventsThatNeedWorkDoneMaxTs.getTimestampAsTimestamp(0), vtListRasEventsThatNeedWorkDoneMaxTs.getTimestampAsTimestamp(0));
+    //--------------------------------------------------------------------------
+    // Bring the cached job index up to date with the InternalCachedJobs table (because we don't want to have to call volt for each individual RAS event).
+    // Only the entries that changed since the last update are read. The entries are re-read starting mJobIndexOverlapSecs before the newest
+    // DbUpdatedTimestamp already in the index (capped at the current time), as the job updates are stamped with the WLM adapters' clocks.
+    // Entries stamped by a clock that is further behind, and entries deleted from the table by others, are only seen by the periodic full reload.
+    // Returns:
+    //      Number of entries in the cached job index.
+    //--------------------------------------------------------------------------
+    private int updateCachedJobIndex() throws IOException, ProcCallException {
+        final long NumSecsBetweenFullReloads = 5L * 60L;
+        if (System.currentTimeMillis() > (lastTimeInMsDidFullCachedJobIndexLoad_ + (NumSecsBetweenFullReloads * 1000L))) {
+            mCachedJobIndex.clear();
+            lastTimeInMsDidFullCachedJobIndexLoad_ = System.currentTimeMillis();
+        }
+        long lChangedSinceTs = mCachedJobIndex.changedSinceTs(System.currentTimeMillis() * 1000L, mJobIndexOverlapSecs * 1000L * 1000L);
+        // Get the list of cached job info entries that changed.
+        ClientResponse response = adapter_.client().callProcedure("InternalCachedJobsListChangedSince", lChangedSinceTs);
         VoltTable vtCachedJobInfo = response.getResults()[0];
-        // Spin through putting this cached job info into our map.
+        // Spin through putting this cached job info into our index.
         for (int i=0; i < vtCachedJobInfo.getRowCount(); ++i) {
             vtCachedJobInfo.advanceRow();
-            // Get this node's array list object out of the map of cached job info.
-            ArrayList<VoltTableRow> alVoltTableRow = mCachedJobInfoMap.get(vtCachedJobInfo.getString("NodeLctn"));
-            if (alVoltTableRow != null) {
-                // Add this cached job info entry into the array list.
-                alVoltTableRow.add( vtCachedJobInfo.cloneRow() );
-                ++tempNumEntriesInCachedJobInfoMap; // bump the number of entries in the cached map.
+            String sNodeLctn = vtCachedJobInfo.getString("NodeLctn");
+            if (mComputeNodeLctns.contains(sNodeLctn)) {
+                long lEndTs = vtCachedJobInfo.getTimestampAsLong("EndTimestamp");
+                if (vtCachedJobInfo.wasNull())
+                    lEndTs = CachedJobIndex.ACTIVE;
+                mCachedJobIndex.put(sNodeLctn, vtCachedJobInfo.getString("JobId"), vtCachedJobInfo.getTimestampAsLong("StartTimestamp"), lEndTs,
+                                    vtCachedJobInfo.getTimestampAsLong("DbUpdatedTimestamp"));
             }
             else {
-                // Could not add this cached job lctn into the CachedJobInfo map because it is an unexpected lctn.
-                log_.error("While filling in the CachedJobInfo map we found an unexpected lctn (%s), this lctn does not have an entry in the pre-built CachedJobInfoMap object - skipping this entry!",
-                           vtCachedJobInfo.getString("NodeLctn"));
+                // Could not add this cached job lctn into the cached job index because it is an unexpected lctn.
+                log_.error("While updating the cached job index we found an unexpected lctn (%s), this lctn is not a ComputeNode - skipping this entry!",
+                           sNodeLctn);
                 adapter_.logRasEventNoEffectedJob("RasUnableToAddLctnToCachedjobinfomap"
                                                  ,null
-                                                 ,vtCachedJobInfo.getString("NodeLctn") // Lctn associated with this ras event
+                                                 ,sNodeLctn                             // Lctn associated with this ras event
                                                  ,System.currentTimeMillis() * 1000L    // Current time, in micro-seconds since epoch
                                                  ,adapter_.adapterType()                // type of adapter_ that is generating this ras event
                                                  ,workQueue_.workItemId()               // work item that is being worked on that resulted in the generation of this ras event
                                                  );
             }
         }
-        log_.info("Put %d entries into the cached job information map", tempNumEntriesInCachedJobInfoMap);
-        return tempNumEntriesInCachedJobInfoMap;
-    }   // End fillInCachedJobInfoMap(VoltTable vtListRasEventsThatNeedWorkDoneMaxTs, ClientResponse response)
+        log_.info("Put %d changed entries into the cached job index, it has %d entries", vtCachedJobInfo.getRowCount(), mCachedJobIndex.size());
+        return mCachedJobIndex.size();
+    }   // End updateCachedJobIndex()
 
 
     //----------------------------------------------------------------------
@@ -587,7 +602,7 @@ public class AdapterRas {
             // this is a fully qualified ComputeNode location - it IS capable of having a job associated with it.
             // Get the JobId (if any) that was running on this event's lctn at the specified time.
             sFndJobId = getThisEventsJobIdFromCachedJobInfo(event.sRasEventDescrName, event.sRasEventLctn, event.lRasEventId,
-                                                            event.lRasEventLastChgTsInMicroSecs, mCachedJobInfoMap);
+                                                            event.lRasEventLastChgTsInMicroSecs);
         }
 
         // See if this is a fully qualified ServiceNode location - service nodes can't have an associated job id.
@@ -625,12 +640,11 @@ public class AdapterRas {
     //-------------------------------------------------------------
     private long fillInJobIdAndRunControlOps(SimpleDateFormat sqlDateFormat) throws IOException, ProcCallException, InterruptedException, AdapterException
     {
-        ClientResponse response = null;
         //----------------------------------------------------------------------
-        // Ensure that the CachedJobInfo map (w/ entry for each possible ComputeNode Lctn) has already been setup.
+        // Ensure that the set of possible ComputeNode Lctns (the lctns that can have cached job info) has already been setup.
         //----------------------------------------------------------------------
-        if (mCachedJobInfoMap == null)
-            mCachedJobInfoMap = createCachedJobInfoMap();
+        if (mComputeNodeLctns == null)
+            mComputeNodeLctns = createComputeNodeLctnSet();
 
         //----------------------------------------------------------------------
         // Get a list of RAS events that still need work to be done (by the RAS adapter), for instance
@@ -643,16 +657,8 @@ public class AdapterRas {
         //      NOTE2: There is nothing scientific about the number 4 seconds, it was chosen simple because it seemed reasonable at the time.
         //----------------------------------------------------------------------
         long lTempSaveStartingTsInMs = System.currentTimeMillis();  // save the time that we began this iteration of filling in JobIds.
-        long lTempDelayedTsInMs = lTempSaveStartingTsInMs - (4 * 1000L);  // calculate the delayed timestamp, current time minus 4 seconds (see note above).
-        response = adapter_.client().callProcedure("RasEventListThatNeedToBeDone", (lTempDelayedTsInMs * 1000L));
-        if (response.getStatus() != ClientResponse.SUCCESS) {
-            // stored procedure failed.
-            log_.error("Stored procedure RasEventListThatNeedToBeDone FAILED - Status=%s, StatusString=%s, AdapterType=%s, ThisAdapterId=%d!",
-                       IAdapter.statusByteAsString(response.getStatus()), response.getStatusString(), adapter_.adapterType(), adapter_.adapterId());
-            throw new RuntimeException(response.getStatusString());
-        }
-        VoltTable vtListRasEventsThatNeedWorkDone      = response.getResults()[0];  // List of RasEvents which need to be finished.
-        VoltTable vtListRasEventsThatNeedWorkDoneMaxTs = response.getResults()[1];  // Maximum LastChgTimestamp column value within the list returned above.
+        long lTempDelayedTsInMs = lTempSaveStartingTsInMs - MaxMsToWaitForJobInfo;  // calculate the delayed timestamp, current time minus 4 seconds (see note above).
+        VoltTable vtListRasEventsThatNeedWorkDone = listRasEventsThatNeedWorkDone(lTempDelayedTsInMs * 1000L);  // List of RasEvents which need to be finished.
 
         //----------------------------------------------------------------------
         // Check & see if there are any RAS events that need any work done for them.
@@ -660,99 +666,21 @@ public class AdapterRas {
         if (vtListRasEventsThatNeedWorkDone.getRowCount() > 0)
         {   // at least 1 ras event needs work done.
             log_.info("Found %d RAS events that need to be finished", vtListRasEventsThatNeedWorkDone.getRowCount());
-            // Fill in the CachedJobInfo map.
-            int iNumEntriesInCachedJobInfoMap = fillInCachedJobInfoMap(vtListRasEventsThatNeedWorkDoneMaxTs, response);
+            // Bring the cached job index up to date.
+            int iNumEntriesInCachedJobInfoMap = updateCachedJobIndex();
             // Fill in the list of nodes that are currently being serviced.
-            fillInCachedNodesBeingServicedList(response);
+            fillInCachedNodesBeingServicedList(null);
 
             //----------------------------------------------------------------------
             // Loop through each of the RAS events in the list and handle any work they need done.
             //----------------------------------------------------------------------
             for (int iRasEventCntr = 0; iRasEventCntr < vtListRasEventsThatNeedWorkDone.getRowCount(); ++iRasEventCntr) {
                 vtListRasEventsThatNeedWorkDone.advanceRow();
-                RasEventData event = new RasEventData(vtListRasEventsThatNeedWorkDone);
-
-                //------------------------------------------------------------------
-                // Find the appropriate job id for this RAS event.
-                //------------------------------------------------------------------
-                if ((event.sRasEventJobid != null) && event.sRasEventJobid.equals("?"))
-                    event.sRasEventJobid = findJobidForThisEvent(event, iNumEntriesInCachedJobInfoMap);
-
-                //------------------------------------------------------------------
-                // Handle the specified ControlOperation for this RAS event.
-                //------------------------------------------------------------------
-                if (event.sRasEventControlOperation != null)
-                    handleControlOperationForThisEvent(event);
-
-                //------------------------------------------------------------------
-                // Update the RAS event's JobId, Done, and DbUpdatedTimestamp columns.
-                //------------------------------------------------------------------
-                String sTempStoredProcedure = "RasEventUpdate";
-                final String RasEventDone = "Y";  // indicate that we have finished everything for this ras event.
-                String sPertinentInfo = "DescrName=" + event.sRasEventDescrName + ",EventId=" + event.sRasEventId + ",Lctn=" + event.sRasEventLctn + "," +
-                                        "JobId=" + event.sRasEventJobid + ",ControlOperation=" + event.sRasEventControlOperation + ",Done=" + RasEventDone;
-                adapter_.client().callProcedure(adapter_.createHouseKeepingCallbackNoRtrnValue(adapter_.adapterType(), adapter_.adapterName(), sTempStoredProcedure, sPertinentInfo, workQueue_.workItemId()) // asynchronously invoke the procedure
-                                               ,sTempStoredProcedure     // stored procedure name
-                                               ,event.sRasEventJobid     // this event's JobId
-                                               ,RasEventDone             // flag indicating whether we are finished with this ras event
-                                               ,event.sRasEventDescrName // this event's descriptive name
-                                               ,event.lRasEventId        // this event's event id
-                                               );
-                log_.info("Called stored procedure %s - EventDescrName=%s, EventId=%d, JobId=%s, Done=%s",
-                          sTempStoredProcedure, event.sRasEventDescrName, event.lRasEventId, event.sRasEventJobid, RasEventDone);
+                finishRasEvent(new RasEventData(vtListRasEventsThatNeedWorkDone), iNumEntriesInCachedJobInfoMap);
             }   // Loop through each of these RAS events and handle any work they need done.
             log_.info("Finished %d RAS events that needed work done", vtListRasEventsThatNeedWorkDone.getRowCount());
 
-            //----------------------------------------------------------------------
-            // Clean up the CachedJobInfo map (map of cached job info) since we are done processing this invocation's data.
-            //----------------------------------------------------------------------
-            if (iNumEntriesInCachedJobInfoMap > 0) {
-                // we did put some entries into the map this iteration - so we need to clean up the map.
-                log_.debug("Cleaning up the HashMap of ArrayList<VoltTableRow> ");
-                // Remove any entries from each of this map's ArrayLists.
-                mCachedJobInfoMap.forEach((key,value)->{
-                    //log_.info("Clearing %s ArrayList in the Cached Job Info map", key);
-                    value.clear();
-                });
-                log_.debug("Cleaned  up the HashMap of ArrayList<VoltTableRow> ");
-            }
-
-            //----------------------------------------------------------------------
-            // Clean up the list of nodes that are currently being serviced since we are done with this iteration's data.
-            //----------------------------------------------------------------------
-            if (!mNodesInServiceArraylist.isEmpty()) {
-                log_.debug("Cleaning up the list of the nodes that are in service");
-                mNodesInServiceArraylist.clear();
-                log_.debug("Cleaned  up the list of the nodes that are in service");
-            }
-
-            //----------------------------------------------------------------------
-            // Periodically cleanup/delete expired entries in the InternalCachedJobs table once they are no longer needed
-            // (we consider a job as "expired" if it has been more than "NumSecsBeforeJobIsExpired" seconds since the job was marked as terminated).
-            // Note: Make sure and use the DbUpdatedTimestamp rather than EndTimestamp as we have sometimes seen delays before the job information appears for us to process!
-            //----------------------------------------------------------------------
-            final long NumSecsBeforeJobIsExpired = 30L;
-            final long NumSecsBetweenChecksForExpiredJobs = 15L;
-            if (System.currentTimeMillis() > (lastTimeInMsDidChkForExpiredJobs_ + (NumSecsBetweenChecksForExpiredJobs * 1000L))) {
-                // it has been at least "NumSecsBetweenChecksForExpiredJobs" seconds since the last time we checked for expired jobs.
-                long   lExpirationTs = System.currentTimeMillis() - (NumSecsBeforeJobIsExpired * 1000L);  // calculate the time to use when removing entries from the InternalCachedJobs table (entries that were marked terminated 30 secs before we began this processing iteration).
-                Date   dTempDate     = new Date(lExpirationTs);
-                String sExpirationTs = sqlDateFormat.format(dTempDate);
-                String sTempStoredProcedure = "InternalCachedJobsRemoveExpiredJobs";
-                adapter_.client().callProcedure(adapter_.createHouseKeepingCallbackNoRtrnValue(adapter_.adapterType(), adapter_.adapterName(), sTempStoredProcedure, sExpirationTs, workQueue_.workItemId())  // asynchronously invoke the procedure
-                                               ,sTempStoredProcedure  // stored procedure name
-                                               ,lExpirationTs * 1000L // Expiration time in micro-seconds since epoch
-                                               );
-                log_.info("Called stored procedure %s - ExpirationTs=%s", sTempStoredProcedure, sExpirationTs);
-                // Update the timestamp value since we just finished checking.
-                lastTimeInMsDidChkForExpiredJobs_ = System.currentTimeMillis();
-            }   // periodically cleanup/delete expired entries in the InternalCachedJobs table once they are no longer needed.
-
-            //--------------------------------------------------------------
-            // Save restart data indicating the current timestamp.
-            //--------------------------------------------------------------
-            String sRestartData = "Finished the processing for " + vtListRasEventsThatNeedWorkDone.getRowCount() + " RAS events, " + sqlDateFormat.format(new Date());
-            workQueue_.saveWorkItemsRestartData(workQueue_.workItemId(), sRestartData, false);  // false means to update this workitem's history record rather than doing an insert of another history record - this is "unusual" (only used when a workitem is updating its working results fields very often)
+            finishIteration(sqlDateFormat, vtListRasEventsThatNeedWorkDone.getRowCount());
         }   // at least 1 ras event needs work done.
 
         // Return an indication of whether or not there was any work done this invocation.
@@ -760,10 +688,202 @@ public class AdapterRas {
     }   // End fillInJobIdAndRunControlOps(SimpleDateFormat sqlDateFormat)
 
 
+    //-------------------------------------------------------------
+    // Streaming mode version of fillInJobIdAndRunControlOps().
+    // All of the RAS events that need work done are queried for without the 4 second delay and put into the delay queue. The events that need
+    // a job id are held there until the cached job index has caught up with the event's timestamp and has the job that was running on the
+    // event's node (or for at most the 4 seconds), the other events are handled right away. Since an event on a node running a job is
+    // released as soon as that job's information has arrived, control operations like ErrorOnComputeNode normally run without waiting out
+    // the full delay. Events on nodes without a job still wait the full delay, in case the job information is late.
+    // Returns:
+    //      Number of RAS events that we finished.
+    //-------------------------------------------------------------
+    private long streamJobIdAndRunControlOps(SimpleDateFormat sqlDateFormat) throws IOException, ProcCallException, InterruptedException, AdapterException
+    {
+        if (mComputeNodeLctns == null)
+            mComputeNodeLctns = createComputeNodeLctnSet();
+
+        //----------------------------------------------------------------------
+        // Queue the RAS events that need work done (the ones already in the queue are skipped).
+        //----------------------------------------------------------------------
+        long lNowMs = System.currentTimeMillis();
+        VoltTable vtListRasEventsThatNeedWorkDone = listRasEventsThatNeedWorkDone(lNowMs * 1000L);
+        HashSet<String> hsRasEventsThatNeedWorkDone = new HashSet<String>(vtListRasEventsThatNeedWorkDone.getRowCount() * 2);
+        int iNumNewRasEvents = 0;
+        for (int iRasEventCntr = 0; iRasEventCntr < vtListRasEventsThatNeedWorkDone.getRowCount(); ++iRasEventCntr) {
+            vtListRasEventsThatNeedWorkDone.advanceRow();
+            RasEventData event = new RasEventData(vtListRasEventsThatNeedWorkDone);
+            String sKey = event.sRasEventDescrName + "/" + event.sRasEventId;
+            hsRasEventsThatNeedWorkDone.add(sKey);
+            boolean bNeedsJobId = (event.sRasEventJobid != null) && event.sRasEventJobid.equals("?");
+            if (mRasEventQueue.offer(sKey, event, event.lRasEventLastChgTsInMicroSecs, bNeedsJobId, lNowMs))
+                ++iNumNewRasEvents;
+        }
+        // Forget the events that have been finished (they are no longer in the list) and the ones whose update failed.
+        mRasEventQueue.retainKnown(hsRasEventsThatNeedWorkDone);
+        for (String sFailedKey = mFailedRasEventUpdates.poll(); sFailedKey != null; sFailedKey = mFailedRasEventUpdates.poll())
+            mRasEventQueue.forget(sFailedKey);
+        mNumHeldRasEvents.set(mRasEventQueue.numHeld());
+        if (!mRasEventQueue.hasReady() && mRasEventQueue.numHeld() == 0)
+            return 0L;
+        if (iNumNewRasEvents > 0)
+            log_.info("Queued %d RAS events that need to be finished, %d are waiting for job information", iNumNewRasEvents, mRasEventQueue.numHeld());
+
+        //----------------------------------------------------------------------
+        // Handle the RAS events that are ready.
+        //----------------------------------------------------------------------
+        int iNumEntriesInCachedJobInfoMap = updateCachedJobIndex();
+        List<RasEventData> alReadyRasEvents = mRasEventQueue.release(mCachedJobIndex.watermark(), this::cachedJobInfoHasAnswer, System.currentTimeMillis());
+        mNumHeldRasEvents.set(mRasEventQueue.numHeld());
+        if (alReadyRasEvents.isEmpty())
+            return 0L;
+        fillInCachedNodesBeingServicedList(null);
+        for (RasEventData event : alReadyRasEvents)
+            finishRasEvent(event, iNumEntriesInCachedJobInfoMap);
+        log_.info("Finished %d RAS events that needed work done", alReadyRasEvents.size());
+
+        finishIteration(sqlDateFormat, alReadyRasEvents.size());
+        return alReadyRasEvents.size();
+    }   // End streamJobIdAndRunControlOps(SimpleDateFormat sqlDateFormat)
+
+
+    //-------------------------------------------------------------
+    // Whether looking up this RAS event's job id in the cached job index would find it now: a job was active on the event's node at the
+    // event's time, or the event is not on a compute node (so it has no job). Otherwise the job's information may still be on its way.
+    //-------------------------------------------------------------
+    private boolean cachedJobInfoHasAnswer(RasEventData event) {
+        if (event.sRasEventLctn == null || !adapter_.isComputeNodeLctn(event.sRasEventLctn))
+            return true;
+        return !mCachedJobIndex.jobsActiveAt(event.sRasEventLctn, event.lRasEventLastChgTsInMicroSecs).isEmpty();
+    }   // End cachedJobInfoHasAnswer(RasEventData event)
+
+
+    //-------------------------------------------------------------
+    // Get the list of RAS events that still need work to be done, the ones that need their JobId filled in are only included if they were
+    // stored at or before the specified timestamp.
+    //-------------------------------------------------------------
+    private VoltTable listRasEventsThatNeedWorkDone(long lDelayedTsInMicroSecs) throws IOException, ProcCallException
+    {
+        ClientResponse response = adapter_.client().callProcedure("RasEventListThatNeedToBeDone", lDelayedTsInMicroSecs);
+        if (response.getStatus() != ClientResponse.SUCCESS) {
+            // stored procedure failed.
+            log_.error("Stored procedure RasEventListThatNeedToBeDone FAILED - Status=%s, StatusString=%s, AdapterType=%s, ThisAdapterId=%d!",
+                       IAdapter.statusByteAsString(response.getStatus()), response.getStatusString(), adapter_.adapterType(), adapter_.adapterId());
+            throw new RuntimeException(response.getStatusString());
+        }
+        return response.getResults()[0];
+    }   // End listRasEventsThatNeedWorkDone(long lDelayedTsInMicroSecs)
+
+
+    //-------------------------------------------------------------
+    // Fill in the job id of this RAS event, run its control operation and mark it as done.
+    //-------------------------------------------------------------
+    private void finishRasEvent(RasEventData event, int iNumEntriesInCachedJobInfoMap) throws IOException, ProcCallException, InterruptedException
+    {
+        long lStartNs = System.nanoTime();
+        //------------------------------------------------------------------
+        // Find the appropriate job id for this RAS event.
+        //------------------------------------------------------------------
+        if ((event.sRasEventJobid != null) && event.sRasEventJobid.equals("?"))
+            event.sRasEventJobid = findJobidForThisEvent(event, iNumEntriesInCachedJobInfoMap);
+
+        //------------------------------------------------------------------
+        // Handle the specified ControlOperation for this RAS event.
+        //------------------------------------------------------------------
+        if (event.sRasEventControlOperation != null) {
+            handleControlOperationForThisEvent(event);
+            mNumControlOperations.increment();
+        }
+
+        //------------------------------------------------------------------
+        // Update the RAS event's JobId, Done, and DbUpdatedTimestamp columns.
+        //------------------------------------------------------------------
+        String sTempStoredProcedure = "RasEventUpdate";
+        final String RasEventDone = "Y";  // indicate that we have finished everything for this ras event.
+        String sPertinentInfo = "DescrName=" + event.sRasEventDescrName + ",EventId=" + event.sRasEventId + ",Lctn=" + event.sRasEventLctn + "," +
+                                "JobId=" + event.sRasEventJobid + ",ControlOperation=" + event.sRasEventControlOperation + ",Done=" + RasEventDone;
+        ProcedureCallback houseKeepingCallback = adapter_.createHouseKeepingCallbackNoRtrnValue(adapter_.adapterType(), adapter_.adapterName(), sTempStoredProcedure, sPertinentInfo, workQueue_.workItemId());
+        String sQueueKey = mStreamingMode ? (event.sRasEventDescrName + "/" + event.sRasEventId) : null;
+        // The streaming mode queues an event whose update failed again (it is still not done).
+        // The event only counts as finished once its update succeeded.
+        boolean bQueued = adapter_.client().callProcedure(response -> {  // asynchronously invoke the procedure
+                                            if (response.getStatus() == ClientResponse.SUCCESS) {
+                                                mNumRasEventsFinished.increment();
+                                                mFinishLatency.recordSince(lStartNs);
+                                                mEventAge.record(((System.currentTimeMillis() * 1000L) - event.lRasEventLastChgTsInMicroSecs) * 1000L);
+                                            }
+                                            else if (sQueueKey != null)
+                                                mFailedRasEventUpdates.add(sQueueKey);
+                                            houseKeepingCallback.clientCallback(response);
+                                        }
+                                       ,sTempStoredProcedure     // stored procedure name
+                                       ,event.sRasEventJobid     // this event's JobId
+                                       ,RasEventDone             // flag indicating whether we are finished with this ras event
+                                       ,event.sRasEventDescrName // this event's descriptive name
+                                       ,event.lRasEventId        // this event's event id
+                                       );
+        if (!bQueued) {
+            log_.error("Unable to queue stored procedure %s - EventDescrName=%s, EventId=%d", sTempStoredProcedure, event.sRasEventDescrName, event.lRasEventId);
+            if (sQueueKey != null)
+                mFailedRasEventUpdates.add(sQueueKey);
+            return;
+        }
+        log_.info("Called stored procedure %s - EventDescrName=%s, EventId=%d, JobId=%s, Done=%s",
+                  sTempStoredProcedure, event.sRasEventDescrName, event.lRasEventId, event.sRasEventJobid, RasEventDone);
+    }   // End finishRasEvent(RasEventData event, int iNumEntriesInCachedJobInfoMap)
+
+
+    //-------------------------------------------------------------
+    // Clean up after handling a batch of RAS events and save the restart data.
+    //-------------------------------------------------------------
+    private void finishIteration(SimpleDateFormat sqlDateFormat, long lNumRasEventsFinished) throws IOException
+    {
+        //----------------------------------------------------------------------
+        // Clean up the list of nodes that are currently being serviced since we are done with this iteration's data.
+        //----------------------------------------------------------------------
+        if (!mNodesInServiceArraylist.isEmpty()) {
+            log_.debug("Cleaning up the list of the nodes that are in service");
+            mNodesInServiceArraylist.clear();
+            log_.debug("Cleaned  up the list of the nodes that are in service");
+        }
+
+        //----------------------------------------------------------------------
+        // Periodically cleanup/delete expired entries in the InternalCachedJobs table once they are no longer needed
+        // (we consider a job as "expired" if it has been more than "NumSecsBeforeJobIsExpired" seconds since the job was marked as terminated).
+        // Note: Make sure and use the DbUpdatedTimestamp rather than EndTimestamp as we have sometimes seen delays before the job information appears for us to process!
+        //----------------------------------------------------------------------
+        final long NumSecsBeforeJobIsExpired = 30L;
+        final long NumSecsBetweenChecksForExpiredJobs = 15L;
+        if (System.currentTimeMillis() > (lastTimeInMsDidChkForExpiredJobs_ + (NumSecsBetweenChecksForExpiredJobs * 1000L))) {
+            // it has been at least "NumSecsBetweenChecksForExpiredJobs" seconds since the last time we checked for expired jobs.
+            long   lExpirationTs = System.currentTimeMillis() - (NumSecsBeforeJobIsExpired * 1000L);  // calculate the time to use when removing entries from the InternalCachedJobs table (entries that were marked terminated 30 secs before we began this processing iteration).
+            Date   dTempDate     = new Date(lExpirationTs);
+            String sExpirationTs = sqlDateFormat.format(dTempDate);
+            String sTempStoredProcedure = "InternalCachedJobsRemoveExpiredJobs";
+            adapter_.client().callProcedure(adapter_.createHouseKeepingCallbackNoRtrnValue(adapter_.adapterType(), adapter_.adapterName(), sTempStoredProcedure, sExpirationTs, workQueue_.workItemId())  // asynchronously invoke the procedure
+                                           ,sTempStoredProcedure  // stored procedure name
+                                           ,lExpirationTs * 1000L // Expiration time in micro-seconds since epoch
+                                           );
+            log_.info("Called stored procedure %s - ExpirationTs=%s", sTempStoredProcedure, sExpirationTs);
+            // Also remove them from the cached job index.
+            mCachedJobIndex.removeExpired(lExpirationTs * 1000L);
+            // Update the timestamp value since we just finished checking.
+            lastTimeInMsDidChkForExpiredJobs_ = System.currentTimeMillis();
+        }   // periodically cleanup/delete expired entries in the InternalCachedJobs table once they are no longer needed.
+
+        //--------------------------------------------------------------
+        // Save restart data indicating the current timestamp.
+        //--------------------------------------------------------------
+        String sRestartData = "Finished the processing for " + lNumRasEventsFinished + " RAS events, " + sqlDateFormat.format(new Date());
+        workQueue_.saveWorkItemsRestartData(workQueue_.workItemId(), sRestartData, false);  // false means to update this workitem's history record rather than doing an insert of another history record - this is "unusual" (only used when a workitem is updating its working results fields very often)
+    }   // End finishIteration(SimpleDateFormat sqlDateFormat, long lNumRasEventsFinished)
+
+
     //--------------------------------------------------------------------------
     // This method handles the general processing flow for RAS adapters (regardless of specific implementation).
     //--------------------------------------------------------------------------
     private void mainProcessingFlow(String[] args) {
+        MetricsServer metricsServer = null;
         try {
             log_.info("Starting");
 
@@ -776,6 +896,15 @@ public class AdapterRas {
             workQueue_ = adapter_.setUpAdapter(DbServers, SnLctn);
 
             controlHandler_ = new ControlApi(adapter_.adapterName(), adapter_.adapterType(), workQueue_, log_);
+            // Serve the metrics when DAI_METRICS_PORT_<adapter type> is set (the adapter runs without the endpoint if it fails).
+            try {
+                metricsServer = MetricsServer.fromEnvironment(mMetrics, adapter_.adapterType());
+                if (metricsServer != null)
+                    log_.info("Serving the metrics at http://localhost:%d/metrics", metricsServer.port());
+            }
+            catch (IOException | IllegalArgumentException e) {
+                log_.exception(e, "Failed to start the metrics endpoint, continuing without it");
+            }
 
             //-----------------------------------------------------------------
             // Main processing loop
@@ -790,6 +919,22 @@ public class AdapterRas {
                         long rc = -99999;
                         switch(workQueue_.workToBeDone()) {
                             case "HandleFillingInJobIdsAndControlOps":
+                                // JobFillMode=streaming selects the streaming mode (see streamJobIdAndRunControlOps()).
+                                // JobIndexOverlapSecs=n sets the clock skew allowed between the WLM adapters (see updateCachedJobIndex()).
+                                if (aWiParms != null) {
+                                    for (String sParm : aWiParms) {
+                                        if (sParm.startsWith("JobFillMode="))
+                                            mStreamingMode = sParm.substring(sParm.indexOf("=")+1).trim().equalsIgnoreCase("streaming");
+                                        else if (sParm.startsWith("JobIndexOverlapSecs=")) {
+                                            try {
+                                                mJobIndexOverlapSecs = Math.max(0L, Long.parseLong(sParm.substring(sParm.indexOf("=")+1).trim()));
+                                            }
+                                            catch (NumberFormatException nfe) {
+                                                log_.error("Ignoring the invalid work item parameter '%s'", sParm);
+                                            }
+                                        }
+                                    }
+                                }
                                 //---------------------------------------------------------
                                 // Handles processing of filling in job ids, running control operations, or both while MINIMIZING DB updates (so fewer updates need to flow to Tier2)
                                 // Note: This work item is different than most in that this one work item will run for the length of time that the system is active.
@@ -835,6 +980,10 @@ public class AdapterRas {
         catch (Exception e) {
             adapter_.handleMainlineAdapterException(e);
         }
+        finally {
+            if (metricsServer != null)
+                metricsServer.close();
+        }
     }   // End mainProcessingFlow(String[] args)
 
 
@@ -0,0 +1,179 @@
+// Copyright (C) 2021 Intel Corporation
+//
+// SPDX-License-Identifier: Apache-2.0
+//
+package com.intel.dai.ras;
+
+import java.util.*;
+
+//--------------------------------------------------------------------------
+// Per node index of the start and end times of the jobs in the InternalCachedJobs table.
+//
+// The index is kept up to date with the rows that changed since the last update (see watermark()) rather than being
+// rebuilt for every batch of RAS events. The jobs of a node are kept sorted by start time, and the node remembers the
+// longest of its jobs that ended. A job that ended and was running at a given time started at most that long before
+// it, so finding the jobs running at a time only checks the jobs that started in that window plus the jobs that are
+// still running, not every job that started before the time.
+//--------------------------------------------------------------------------
+final class CachedJobIndex {
+    static final long ACTIVE = Long.MAX_VALUE;  // end timestamp of a job that has not ended yet.
+
+    /**
+     * Add a job's entry for a node, or replace the node's existing entry for that job.
+     *
+     * @param sNodeLctn The node's location.
+     * @param sJobId The job id.
+     * @param lStartTsInMicroSecs The time the job started.
+     * @param lEndTsInMicroSecs The time the job ended or ACTIVE if it is still running.
+     * @param lDbUpdatedTsInMicroSecs The entry's DbUpdatedTimestamp.
+     */
+    void put(String sNodeLctn, String sJobId, long lStartTsInMicroSecs, long lEndTsInMicroSecs,
+             long lDbUpdatedTsInMicroSecs) {
+        NodeJobs node = mNodes.computeIfAbsent(sNodeLctn, k -> new NodeJobs());
+        node.remove(sJobId);
+        node.add(new JobEntry(sJobId, lStartTsInMicroSecs, lEndTsInMicroSecs, lDbUpdatedTsInMicroSecs));
+        mWatermarkTsInMicroSecs = Math.max(mWatermarkTsInMicroSecs, lDbUpdatedTsInMicroSecs);
+    }
+
+    /**
+     * Get the jobs that were running on a node at the specified time, most recently started first.
+     *
+     * Only the jobs that started within the node's longest ended job before that time and the jobs that are still
+     * running are checked.
+     */
+    List<String> jobsActiveAt(String sNodeLctn, long lTsInMicroSecs) {
+        NodeJobs node = mNodes.get(sNodeLctn);
+        if (node == null)
+            return Collections.emptyList();
+        List<String> jobs = null;
+        long lWindowStartTs = lTsInMicroSecs - node.lMaxEndedDurationInMicroSecs;
+        for (List<JobEntry> entries: node.byStartTs.subMap(lWindowStartTs, true, lTsInMicroSecs, true).descendingMap().values()) {
+            for (JobEntry entry: entries) {
+                if (entry.lEndTsInMicroSecs >= lTsInMicroSecs) {
+                    if (jobs == null)
+                        jobs = new ArrayList<>(1);
+                    jobs.add(entry.sJobId);
+                }
+            }
+        }
+        // The jobs that started before the window and ended were no longer running, only the active ones can be.
+        for (List<JobEntry> entries: node.activeByStartTs.headMap(lWindowStartTs, false).descendingMap().values()) {
+            for (JobEntry entry: entries) {
+                if (jobs == null)
+                    jobs = new ArrayList<>(1);
+                jobs.add(entry.sJobId);
+            }
+        }
+        return (jobs == null) ? Collections.emptyList() : jobs;
+    }
+
+    /**
+     * Remove the entries of the jobs that ended and whose DbUpdatedTimestamp is before the expiration time (same
+     * rule as the InternalCachedJobsRemoveExpiredJobs stored procedure).
+     *
+     * @return The number of entries removed.
+     */
+    int removeExpired(long lExpirationTsInMicroSecs) {
+        int iRemoved = 0;
+        Iterator<NodeJobs> itNodes = mNodes.values().iterator();
+        while (itNodes.hasNext()) {
+            NodeJobs node = itNodes.next();
+            Iterator<JobEntry> itEntries = node.byJobId.values().iterator();
+            while (itEntries.hasNext()) {
+                JobEntry entry = itEntries.next();
+                if (entry.lEndTsInMicroSecs != ACTIVE && entry.lDbUpdatedTsInMicroSecs < lExpirationTsInMicroSecs) {
+                    itEntries.remove();
+                    node.removeByStartTs(entry);
+                    ++iRemoved;
+                }
+            }
+            if (node.byJobId.isEmpty())
+                itNodes.remove();
+        }
+        mNumEntries -= iRemoved;
+        return iRemoved;
+    }
+
+    void clear() {
+        mNodes.clear();
+        mNumEntries = 0;
+        mWatermarkTsInMicroSecs = 0L;
+    }
+
+    // Number of job entries in the index (a job running on n nodes has n entries).
+    int size() { return mNumEntries; }
+
+    // The highest DbUpdatedTimestamp put into the index, 0 when it is empty.
+    long watermark() { return mWatermarkTsInMicroSecs; }
+
+    /**
+     * Get the DbUpdatedTimestamp to read the changed entries from, 0 when the index is empty.
+     *
+     * The DbUpdatedTimestamps are stamped with the clocks of the adapters that wrote the entries. The watermark is
+     * capped at the current time, so a writer with a fast clock cannot move it ahead of the other writers, and the
+     * entries are re-read from the overlap before it to pick up the entries of writers with a slower clock.
+     */
+    long changedSinceTs(long lNowTsInMicroSecs, long lOverlapInMicroSecs) {
+        if (mWatermarkTsInMicroSecs == 0L)
+            return 0L;
+        return Math.max(0L, Math.min(mWatermarkTsInMicroSecs, lNowTsInMicroSecs) - lOverlapInMicroSecs);
+    }
+
+
+    private static final class JobEntry {
+        JobEntry(String sJobId, long lStartTsInMicroSecs, long lEndTsInMicroSecs, long lDbUpdatedTsInMicroSecs) {
+            this.sJobId = sJobId;
+            this.lStartTsInMicroSecs = lStartTsInMicroSecs;
+            this.lEndTsInMicroSecs = lEndTsInMicroSecs;
+            this.lDbUpdatedTsInMicroSecs = lDbUpdatedTsInMicroSecs;
+        }
+
+        final String sJobId;
+        final long   lStartTsInMicroSecs;
+        final long   lEndTsInMicroSecs;
+        final long   lDbUpdatedTsInMicroSecs;
+    }   // End class JobEntry
+
+    private final class NodeJobs {
+        void add(JobEntry entry) {
+            byJobId.put(entry.sJobId, entry);
+            byStartTs.computeIfAbsent(entry.lStartTsInMicroSecs, k -> new ArrayList<>(1)).add(entry);
+            if (entry.lEndTsInMicroSecs == ACTIVE)
+                activeByStartTs.computeIfAbsent(entry.lStartTsInMicroSecs, k -> new ArrayList<>(1)).add(entry);
+            else
+                lMaxEndedDurationInMicroSecs = Math.max(lMaxEndedDurationInMicroSecs,
+                        entry.lEndTsInMicroSecs - entry.lStartTsInMicroSecs);
+            ++mNumEntries;
+        }
+
+        void remove(String sJobId) {
+            JobEntry entry = byJobId.remove(sJobId);
+            if (entry != null) {
+                removeByStartTs(entry);
+                --mNumEntries;
+            }
+        }
+
+        void removeByStartTs(JobEntry entry) {
+            removeFrom(byStartTs, entry);
+            if (entry.lEndTsInMicroSecs == ACTIVE)
+                removeFrom(activeByStartTs, entry);
+        }
+
+        private void removeFrom(TreeMap<Long, List<JobEntry>> map, JobEntry entry) {
+            List<JobEntry> entries = map.get(entry.lStartTsInMicroSecs);
+            entries.remove(entry);
+            if (entries.isEmpty())
+                map.remove(entry.lStartTsInMicroSecs);
+        }
+
+        final HashMap<String, JobEntry> byJobId = new HashMap<>(4);
+        final TreeMap<Long, List<JobEntry>> byStartTs = new TreeMap<>();  // more than one job only if they started at the same time.
+        final TreeMap<Long, List<JobEntry>> activeByStartTs = new TreeMap<>();  // the entries of byStartTs that have not ended.
+        long lMaxEndedDurationInMicroSecs = 0L;  // never shrinks, removing a job only makes the scan wider than needed.
+    }   // End class NodeJobs
+
+    private final HashMap<String, NodeJobs> mNodes = new HashMap<>();
+    private int  mNumEntries = 0;
+    private long mWatermarkTsInMicroSecs = 0L;
+}   // End class CachedJobIndex
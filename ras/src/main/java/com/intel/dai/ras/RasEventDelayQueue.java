@@ -0,0 +1,153 @@
+// Copyright (C) 2021 Intel Corporation
+//
+// SPDX-License-Identifier: Apache-2.0
+//
+package com.intel.dai.ras;
+
+import java.util.*;
+import java.util.function.Predicate;
+
+//--------------------------------------------------------------------------
+// Holds the RAS events that the RAS adapter still has to finish until they can be handled.
+//
+// Events that do not need their job id filled in are ready right away. Events that do need a job id are held until
+// the job information for the event is known or until they have been held for the maximum delay. The newest
+// DbUpdatedTimestamp of the job information passing the event's timestamp only says that some job information up to
+// that time has arrived, not that the job of the event's node has, so from then on the event is released as soon as
+// the job information has an answer for it (see release()) and otherwise waits out the maximum delay.
+//
+// The events stay known to the queue after they have been released until the database no longer lists them as
+// needing work, so an event is not queued again while its update is still in flight. An event whose update failed is
+// forgotten right away, so it is queued again.
+//--------------------------------------------------------------------------
+final class RasEventDelayQueue<E> {
+    RasEventDelayQueue(long lMaxDelayMs) {
+        if (lMaxDelayMs < 0L) throw new IllegalArgumentException("The maximum delay can not be negative!");
+        mMaxDelayMs = lMaxDelayMs;
+    }
+
+    /**
+     * Queue an event that needs work done.
+     *
+     * @param sKey Uniquely identifies the event.
+     * @param event The event.
+     * @param lEventTsInMicroSecs The time the event occurred.
+     * @param bNeedsJobId True if the event has to wait for the job information.
+     * @param lNowMs The current time.
+     * @return False if this event is already known to the queue.
+     */
+    boolean offer(String sKey, E event, long lEventTsInMicroSecs, boolean bNeedsJobId, long lNowMs) {
+        if (mKnownKeys.contains(sKey))
+            return false;
+        mKnownKeys.add(sKey);
+        Entry<E> entry = new Entry<>(event, lEventTsInMicroSecs, lNowMs + mMaxDelayMs);
+        if (bNeedsJobId) {
+            mHeldByEventTs.add(entry);
+            mHeldByDeadline.add(entry);
+            ++mNumHeld;
+        }
+        else
+            mReady.add(entry);
+        return true;
+    }
+
+    /**
+     * Forget the events that no longer need work done (they were finished).
+     *
+     * @param stillNeedingWork The keys of all of the events that the database still lists as needing work.
+     */
+    void retainKnown(Set<String> stillNeedingWork) {
+        mKnownKeys.retainAll(stillNeedingWork);
+    }
+
+    /**
+     * Forget a released event whose update failed, so it is queued again the next time the database lists it.
+     *
+     * @param sKey The key of the event.
+     */
+    void forget(String sKey) {
+        mKnownKeys.remove(sKey);
+    }
+
+    /**
+     * Remove and return the events that can be handled now, events not needing a job id first, then the held events
+     * in order of their timestamp.
+     *
+     * @param lJobInfoWatermarkInMicroSecs How far the cached job information has caught up.
+     * @param hasJobInfo True if the cached job information has the job of the event.
+     * @param lNowMs The current time.
+     */
+    List<E> release(long lJobInfoWatermarkInMicroSecs, Predicate<E> hasJobInfo, long lNowMs) {
+        List<E> released = new ArrayList<>(mReady.size());
+        for (Entry<E> entry: mReady)
+            released.add(entry.event);
+        mReady.clear();
+        List<Entry<E>> releasedHeld = new ArrayList<>();
+        // Release the held events that are past their maximum delay (the deadlines are in the order the events were offered).
+        while (!mHeldByDeadline.isEmpty() && (mHeldByDeadline.peekFirst().bReleased || mHeldByDeadline.peekFirst().lDeadlineMs <= lNowMs)) {
+            Entry<E> entry = mHeldByDeadline.pollFirst();
+            if (!entry.bReleased) {
+                entry.bReleased = true;
+                releasedHeld.add(entry);
+            }
+        }
+        // Check the held events the job information has caught up with, until their job is found or their deadline passes.
+        while (!mHeldByEventTs.isEmpty() && (mHeldByEventTs.peek().bReleased || mHeldByEventTs.peek().lEventTsInMicroSecs <= lJobInfoWatermarkInMicroSecs)) {
+            Entry<E> entry = mHeldByEventTs.poll();
+            if (!entry.bReleased)
+                mCaughtUp.add(entry);
+        }
+        Iterator<Entry<E>> itCaughtUp = mCaughtUp.iterator();
+        while (itCaughtUp.hasNext()) {
+            Entry<E> entry = itCaughtUp.next();
+            if (entry.bReleased)
+                itCaughtUp.remove();
+            else if (hasJobInfo.test(entry.event)) {
+                entry.bReleased = true;
+                releasedHeld.add(entry);
+                itCaughtUp.remove();
+            }
+        }
+        releasedHeld.sort(Comparator.comparingLong(entry -> entry.lEventTsInMicroSecs));
+        for (Entry<E> entry: releasedHeld)
+            released.add(entry.event);
+        mNumHeld -= releasedHeld.size();
+        return released;
+    }
+
+    /**
+     * The time at which the next held event has to be released even if the job information has not caught up with it,
+     * Long.MAX_VALUE if no events are held.
+     */
+    long nextDeadlineMs() {
+        while (!mHeldByDeadline.isEmpty() && mHeldByDeadline.peekFirst().bReleased)
+            mHeldByDeadline.pollFirst();
+        return mHeldByDeadline.isEmpty() ? Long.MAX_VALUE : mHeldByDeadline.peekFirst().lDeadlineMs;
+    }
+
+    int numHeld() { return mNumHeld; }
+
+    boolean hasReady() { return !mReady.isEmpty(); }
+
+
+    private static final class Entry<E> {
+        Entry(E event, long lEventTsInMicroSecs, long lDeadlineMs) {
+            this.event = event;
+            this.lEventTsInMicroSecs = lEventTsInMicroSecs;
+            this.lDeadlineMs = lDeadlineMs;
+        }
+
+        final E       event;
+        final long    lEventTsInMicroSecs;
+        final long    lDeadlineMs;
+        boolean       bReleased = false;
+    }   // End class Entry
+
+    private final long mMaxDelayMs;
+    private final HashSet<String> mKnownKeys = new HashSet<>();
+    private final ArrayList<Entry<E>> mReady = new ArrayList<>();
+    private final PriorityQueue<Entry<E>> mHeldByEventTs = new PriorityQueue<>(Comparator.comparingLong(entry -> entry.lEventTsInMicroSecs));
+    private final ArrayDeque<Entry<E>> mHeldByDeadline = new ArrayDeque<>();
+    private final ArrayList<Entry<E>> mCaughtUp = new ArrayList<>();  // held events the watermark passed but whose job was not found yet.
+    private int mNumHeld = 0;
+}   // End class RasEventDelayQueue
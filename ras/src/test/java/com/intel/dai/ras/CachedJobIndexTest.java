@@ -0,0 +1,99 @@
+// Copyright (C) 2021 Intel Corporation
+//
+// SPDX-License-Identifier: Apache-2.0
+//
+package com.intel.dai.ras;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+public class CachedJobIndexTest {
+    @Before
+    public void setUp() {
+        index_ = new CachedJobIndex();
+        index_.put("R0-CH0-CN0", "job1", 100L, 200L, 1000L);
+        index_.put("R0-CH0-CN0", "job2", 300L, CachedJobIndex.ACTIVE, 1100L);
+        index_.put("R0-CH0-CN1", "job2", 300L, CachedJobIndex.ACTIVE, 1100L);
+    }
+
+    @Test
+    public void jobsActiveAt() {
+        assertEquals(Collections.emptyList(), index_.jobsActiveAt("R0-CH0-CN0", 50L));
+        assertEquals(Collections.singletonList("job1"), index_.jobsActiveAt("R0-CH0-CN0", 100L));
+        assertEquals(Collections.singletonList("job1"), index_.jobsActiveAt("R0-CH0-CN0", 200L));
+        assertEquals(Collections.emptyList(), index_.jobsActiveAt("R0-CH0-CN0", 250L));
+        assertEquals(Collections.singletonList("job2"), index_.jobsActiveAt("R0-CH0-CN0", 5000L));
+        assertEquals(Collections.emptyList(), index_.jobsActiveAt("R0-CH0-CN1", 200L));
+        assertEquals(Collections.emptyList(), index_.jobsActiveAt("R0-CH0-CN2", 200L));
+        assertEquals(3, index_.size());
+        assertEquals(1100L, index_.watermark());
+    }
+
+    @Test
+    public void putReplacesJobEntry() {
+        index_.put("R0-CH0-CN0", "job2", 300L, 400L, 1200L);
+        assertEquals(Collections.emptyList(), index_.jobsActiveAt("R0-CH0-CN0", 5000L));
+        assertEquals(Collections.singletonList("job2"), index_.jobsActiveAt("R0-CH0-CN0", 400L));
+        assertEquals(3, index_.size());
+        assertEquals(1200L, index_.watermark());
+    }
+
+    @Test
+    public void overlappingJobs() {
+        index_.put("R0-CH0-CN1", "job3", 500L, CachedJobIndex.ACTIVE, 1300L);
+        index_.put("R0-CH0-CN1", "job4", 500L, 600L, 1300L);
+        assertEquals(Arrays.asList("job3", "job4", "job2"), index_.jobsActiveAt("R0-CH0-CN1", 550L));
+        assertEquals(Arrays.asList("job3", "job2"), index_.jobsActiveAt("R0-CH0-CN1", 700L));
+    }
+
+    @Test
+    public void longJobOverlapsEndedJob() {
+        index_.put("R0-CH0-CN2", "long", 100L, CachedJobIndex.ACTIVE, 1300L);
+        index_.put("R0-CH0-CN2", "short", 200L, 300L, 1300L);
+        assertEquals(Arrays.asList("short", "long"), index_.jobsActiveAt("R0-CH0-CN2", 250L));
+        assertEquals(Collections.singletonList("long"), index_.jobsActiveAt("R0-CH0-CN2", 400L));
+    }
+
+    @Test
+    public void longEndedJobWidensTheScan() {
+        index_.put("R0-CH0-CN2", "long", 100L, 10000L, 1300L);
+        index_.put("R0-CH0-CN2", "short", 9000L, 9100L, 1300L);
+        index_.put("R0-CH0-CN2", "active", 50L, CachedJobIndex.ACTIVE, 1300L);
+        assertEquals(Arrays.asList("long", "active"), index_.jobsActiveAt("R0-CH0-CN2", 5000L));
+        assertEquals(Arrays.asList("short", "long", "active"), index_.jobsActiveAt("R0-CH0-CN2", 9050L));
+        assertEquals(Collections.singletonList("active"), index_.jobsActiveAt("R0-CH0-CN2", 20000L));
+    }
+
+    @Test
+    public void changedSinceTs() {
+        assertEquals(1000L, index_.changedSinceTs(5000L, 100L));
+        assertEquals(400L, index_.changedSinceTs(500L, 100L));  // a writer's clock is ahead of ours.
+        assertEquals(0L, index_.changedSinceTs(5000L, 2000L));
+        index_.clear();
+        assertEquals(0L, index_.changedSinceTs(5000L, 100L));
+    }
+
+    @Test
+    public void removeExpired() {
+        assertEquals(1, index_.removeExpired(1100L));
+        assertEquals(Collections.emptyList(), index_.jobsActiveAt("R0-CH0-CN0", 150L));
+        assertEquals(Collections.singletonList("job2"), index_.jobsActiveAt("R0-CH0-CN0", 5000L));
+        assertEquals(2, index_.size());
+        assertEquals(0, index_.removeExpired(Long.MAX_VALUE - 1L));
+    }
+
+    @Test
+    public void clear() {
+        index_.clear();
+        assertEquals(0, index_.size());
+        assertEquals(0L, index_.watermark());
+        assertEquals(Collections.emptyList(), index_.jobsActiveAt("R0-CH0-CN0", 5000L));
+    }
+
+    private CachedJobIndex index_;
+}
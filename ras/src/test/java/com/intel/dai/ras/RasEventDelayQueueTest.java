@@ -0,0 +1,102 @@
+// Copyright (C) 2021 Intel Corporation
+//
+// SPDX-License-Identifier: Apache-2.0
+//
+package com.intel.dai.ras;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import static org.junit.Assert.*;
+
+public class RasEventDelayQueueTest {
+    @Before
+    public void setUp() {
+        queue_ = new RasEventDelayQueue<>(4000L);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void ctorNegativeDelay() {
+        new RasEventDelayQueue<String>(-1L);
+    }
+
+    @Test
+    public void eventsNotNeedingJobIdAreReady() {
+        assertTrue(queue_.offer("A/1", "A1", 500L, false, 0L));
+        assertTrue(queue_.hasReady());
+        assertEquals(0, queue_.numHeld());
+        assertEquals(Collections.singletonList("A1"), queue_.release(0L, ALL_FOUND, 0L));
+        assertFalse(queue_.hasReady());
+        assertEquals(Long.MAX_VALUE, queue_.nextDeadlineMs());
+    }
+
+    @Test
+    public void heldUntilWatermarkPassesThem() {
+        queue_.offer("A/2", "A2", 2000L, true, 0L);
+        queue_.offer("A/1", "A1", 1000L, true, 0L);
+        queue_.offer("A/3", "A3", 3000L, true, 0L);
+        assertEquals(3, queue_.numHeld());
+        assertEquals(Collections.emptyList(), queue_.release(999L, ALL_FOUND, 100L));
+        assertEquals(Arrays.asList("A1", "A2"), queue_.release(2000L, ALL_FOUND, 100L));
+        assertEquals(1, queue_.numHeld());
+        assertEquals(4000L, queue_.nextDeadlineMs());
+    }
+
+    @Test
+    public void heldUntilJobInfoIsFound() {
+        queue_.offer("A/1", "A1", 1000L, true, 0L);
+        queue_.offer("A/2", "A2", 2000L, true, 0L);
+        Set<String> found = new HashSet<>();
+        assertEquals(Collections.emptyList(), queue_.release(5000L, found::contains, 100L));
+        found.add("A2");
+        assertEquals(Collections.singletonList("A2"), queue_.release(5000L, found::contains, 200L));
+        assertEquals(1, queue_.numHeld());
+        assertEquals(Collections.singletonList("A1"), queue_.release(5000L, found::contains, 4000L));
+        assertEquals(0, queue_.numHeld());
+        assertEquals(Collections.emptyList(), queue_.release(5000L, ALL_FOUND, 4001L));
+    }
+
+    @Test
+    public void releasedAtDeadline() {
+        queue_.offer("A/1", "A1", 1000L, true, 0L);
+        queue_.offer("A/2", "A2", 500L, true, 10L);
+        queue_.offer("B/1", "B1", 100L, false, 20L);
+        assertEquals(Collections.singletonList("B1"), queue_.release(0L, ALL_FOUND, 3999L));
+        assertEquals(Collections.singletonList("A1"), queue_.release(0L, ALL_FOUND, 4000L));
+        assertEquals(4010L, queue_.nextDeadlineMs());
+        assertEquals(Collections.singletonList("A2"), queue_.release(500L, ALL_FOUND, 4001L));
+        assertEquals(0, queue_.numHeld());
+        assertEquals(Long.MAX_VALUE, queue_.nextDeadlineMs());
+        assertEquals(Collections.emptyList(), queue_.release(Long.MAX_VALUE, ALL_FOUND, Long.MAX_VALUE));
+    }
+
+    @Test
+    public void knownEventsAreNotQueuedAgain() {
+        assertTrue(queue_.offer("A/1", "A1", 1000L, false, 0L));
+        queue_.release(0L, ALL_FOUND, 0L);
+        assertFalse(queue_.offer("A/1", "A1", 1000L, false, 0L));
+        queue_.retainKnown(new HashSet<>(Collections.singletonList("A/1")));
+        assertFalse(queue_.offer("A/1", "A1", 1000L, false, 0L));
+        queue_.retainKnown(new HashSet<>());
+        assertTrue(queue_.offer("A/1", "A1", 1000L, false, 0L));
+    }
+
+    @Test
+    public void forgottenEventsAreQueuedAgain() {
+        assertTrue(queue_.offer("A/1", "A1", 1000L, false, 0L));
+        assertEquals(Collections.singletonList("A1"), queue_.release(0L, ALL_FOUND, 0L));
+        queue_.forget("A/1");
+        assertTrue(queue_.offer("A/1", "A1", 1000L, false, 10L));
+        assertEquals(Collections.singletonList("A1"), queue_.release(0L, ALL_FOUND, 10L));
+    }
+
+    private RasEventDelayQueue<String> queue_;
+
+    private static final Predicate<String> ALL_FOUND = event -> true;
+}
@@ -9,8 +9,14 @@ import java.nio.charset.Charset;
 import org.apache.http.NameValuePair;
 import org.apache.http.client.utils.URLEncodedUtils;
 import java.util.*;
+import java.io.BufferedWriter;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.concurrent.TimeoutException;
+import java.util.zip.GZIPOutputStream;
 
 import com.intel.properties.*;
 import com.intel.config_io.*;
@@ -20,6 +26,7 @@ import com.intel.dai.AdapterSingletonFactory;
 import com.intel.dai.exceptions.ProviderException;
 import com.intel.logging.Logger;
 import com.intel.logging.LoggerFactory;
+import com.intel.perflogging.MetricsRegistry;
 
 import spark.Request;
 import static spark.Spark.*;
@@ -36,10 +43,36 @@ public class AdapterUIRest extends AdapterUI {
      */
     private String rabbitMQHost;
     ResponseCreator responseCreator;
+    // Shared by all of the requests, they check out a pooled database connection per request.
+    CannedAPI cannedApi;
+    QueryAPI queryApi;
+    // Answers canned_cmds(), the cache in front of cannedApi (streamed requests are not cached).
+    CannedDataSource cannedData;
+    private JsonResultSetWriter.DerivedColumn hostnameColumn_;
+    private static final int STREAM_BUFFER_SIZE = 64 * 1024;
+    private static final int CACHE_MAX_ENTRIES = 256;
+    private static final long CACHE_TIME_TO_LIVE_MS = 30000L;
+    private static final long CACHE_CHECK_INTERVAL_MS = 2000L;
 
     AdapterUIRest(String[] args, Logger logger) throws ProviderException, IOException, TimeoutException {
         super(args, logger);
         responseCreator = new ResponseCreator();
+        cannedApi = new CannedAPI(log_, locationApi);
+        queryApi = new QueryAPI();
+        CannedResponseCache cache = new CannedResponseCache(log_, cannedApi, cannedApi::getChangeTimestamps,
+                CACHE_MAX_ENTRIES, CACHE_TIME_TO_LIVE_MS, CACHE_CHECK_INTERVAL_MS);
+        MetricsRegistry metrics = MetricsRegistry.getDefault();
+        metrics.counterFunction("dai_ui_canned_cache_hits_total", "Canned UI requests answered from the cache",
+                cache::hits);
+        metrics.counterFunction("dai_ui_canned_cache_misses_total", "Canned UI requests read and then cached",
+                cache::misses);
+        metrics.counterFunction("dai_ui_canned_cache_uncached_total", "Canned UI requests passed through uncached",
+                cache::uncached);
+        metrics.gaugeFunction("dai_ui_canned_cache_entries", "Results held in the canned UI request cache",
+                cache::size);
+        cannedData = cache;
+        hostnameColumn_ = new JsonResultSetWriter.DerivedColumn("hostname", Arrays.asList("lctn", "location"),
+                this::hostnamesOfLocation);
         rabbitMQHost = (args.length >= 4) ? args[3] : "localhost";
     }
 
@@ -82,6 +115,14 @@ public class AdapterUIRest extends AdapterUI {
             uiRest.log_.debug("Received Request " + req.url());
             String sub_cmd = req.params(":sub_cmd");
             Map<String, String> parameters = convertHttpRequestToMap(req);
+            if (uiRest.cannedApi.isStreamed(sub_cmd)) {
+                boolean gzip = acceptsGzip(req);
+                if (gzip)
+                    res.header("Content-Encoding", "gzip");
+                // The response is committed once it was written, so Spark does not write the returned body.
+                uiRest.stream_canned_cmds(sub_cmd, parameters, res.raw().getOutputStream(), gzip);
+                return "";
+            }
             return uiRest.canned_cmds(sub_cmd, parameters);
         });
         get("/groups", (req, res) -> {
@@ -145,6 +186,11 @@ public class AdapterUIRest extends AdapterUI {
         return parameters;
     }
 
+    private static boolean acceptsGzip(Request req) {
+        String encodings = req.headers("Accept-Encoding");
+        return encodings != null && encodings.contains("gzip");
+    }
+
     private static Set<String> convertToSet(String devices)
     {
         Set<String> deviceSet = new HashSet<>(Arrays.asList(devices.split(",")));
@@ -227,9 +273,8 @@ public class AdapterUIRest extends AdapterUI {
     @Override
     public String query_cmds(String cmd, HashMap<String, String> params) {
         String[] results_array = new String[2];
-        QueryAPI mGUI_Updater = new QueryAPI();
         try {
-            String return_result = mGUI_Updater.getData(cmd, params);
+            String return_result = queryApi.getData(cmd, params);
             results_array[0] = "F";
             results_array[1] = return_result;
         } catch (Exception e) {
@@ -243,23 +288,10 @@ public class AdapterUIRest extends AdapterUI {
 
     @Override
     public String canned_cmds(String cmd, Map<String, String> params) {
-        CannedAPI mCLI_Updater = new CannedAPI(log_, locationApi);
         String[] results_array = new String[2];
         try {
-            String lctn_param = params.getOrDefault("Lctn", "");
-            if (!lctn_param.equals("")){
-                try {
-                    Set<String> nodeLocations = locationApi.convertHostnamesToLocations(lctn_param);
-                    String lctn = String.join(",", nodeLocations);
-                    params.put("Lctn", lctn);
-                } catch (BadInputException e){
-                    // If the list contains items that are not compute nodes, default to using a simple list
-                    // NOTE: This may be temporary until a better solution is available
-                    log_.info(e.getMessage() + " : Falling back to comma separated list.");
-                    params.put("Lctn", lctn_param);
-                }
-            }
-            PropertyMap return_result = mCLI_Updater.getData(cmd, params);
+            convertLctnParameter(params);
+            PropertyMap return_result = cannedData.getData(cmd, params);
             results_array[0] = "F";
             results_array[1] = responseCreator.toString(mapLocationstoHostnames(return_result));
         } catch (SQLException | DataStoreException | ProviderException e) {
@@ -271,6 +303,66 @@ public class AdapterUIRest extends AdapterUI {
         return responseCreator.createJsonResult(results_array);
     }
 
+    /**
+     * Same as canned_cmds() but the result is written to out while it is read from the database (see
+     * CannedAPI.streamData()), so large results are never held in memory. The response has the same format as the
+     * one of canned_cmds(), except that "Status" follows "Result" so it can be "FE" when reading the result fails part
+     * way (the partial result then has a "result-status-code" of 1).
+     */
+    void stream_canned_cmds(String cmd, Map<String, String> params, OutputStream out, boolean gzip)
+            throws IOException {
+        OutputStream stream = gzip ? new GZIPOutputStream(out, STREAM_BUFFER_SIZE) : out;
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8), STREAM_BUFFER_SIZE)) {
+            boolean[] opened = new boolean[1];
+            String status = "F";
+            try {
+                convertLctnParameter(params);
+                cannedApi.streamData(cmd, params, new JsonResultSetWriter(hostnameColumn_), () -> {
+                    opened[0] = true;
+                    writer.write("{\"Result\":\"");
+                    return new JsonResultSetWriter.StringContentWriter(writer);
+                });
+            } catch (SQLException | DataStoreException | ProviderException e) {
+                log_.exception(e, "[CannedAPI]");
+                if (!opened[0]) {
+                    ErrorCreation errorObj = new ErrorCreation(e.getMessage());
+                    writer.write(responseCreator.createJsonResult(new String[] {"FE",
+                            responseCreator.toString(errorObj.constructErrorResult())}));
+                    return;
+                }
+                status = "FE";
+            }
+            writer.write("\",\"Status\":\"");
+            writer.write(status);
+            writer.write("\"}");
+        }
+    }
+
+    private void convertLctnParameter(Map<String, String> params) {
+        String lctn_param = params.getOrDefault("Lctn", "");
+        if (!lctn_param.equals("")){
+            try {
+                Set<String> nodeLocations = locationApi.convertHostnamesToLocations(lctn_param);
+                String lctn = String.join(",", nodeLocations);
+                params.put("Lctn", lctn);
+            } catch (BadInputException e){
+                // If the list contains items that are not compute nodes, default to using a simple list
+                // NOTE: This may be temporary until a better solution is available
+                log_.info(e.getMessage() + " : Falling back to comma separated list.");
+                params.put("Lctn", lctn_param);
+            }
+        }
+    }
+
+    private String hostnamesOfLocation(String lctn) {
+        try {
+            return String.join(" ", locationApi.convertLocationsToHostnames(lctn));
+        }
+        catch (BadInputException e) {
+            return "";
+        }
+    }
+
     private PropertyMap mapLocationstoHostnames(PropertyMap jsonResult)  {
         try {
             Integer lctn_pos = null;
@@ -309,12 +401,7 @@ public class AdapterUIRest extends AdapterUI {
                                 items.add("");
                             }
                             else {
-                                try {
-                                    items.add(String.join(" ", locationApi.convertLocationsToHostnames(lctn)));
-                                }
-                                catch (BadInputException e) {
-                                    items.add("");
-                                }
+                                items.add(hostnamesOfLocation(lctn));
                             }
                         }
                     }
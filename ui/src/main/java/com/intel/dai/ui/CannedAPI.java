@@ -15,17 +15,20 @@ import com.intel.properties.PropertyMap;
 import com.intel.properties.PropertyNotExpectedType;
 import com.intel.dai.exceptions.BadInputException;
 
+import java.io.IOException;
 import java.sql.*;
 import java.util.*;
 
 @SuppressWarnings("serial")
-public class CannedAPI {
-    private Connection conn = null;
+public class CannedAPI implements CannedDataSource {
     public LocationApi locationApi_;
     JsonConverter jsonConverter = new JsonConverter();
     private static ConfigIO jsonParser = ConfigIOFactory.getInstance("json");
     private final Logger log_;
 
+    private static final String RAS_EVENTS_WITH_FILTERS = "{call GetRasEventsWithFilters(?, ?, ?, ?, ?, ?, ?, ?)}";
+    private static final String ENV_DATA_WITH_FILTERS = "{call GetAggregatedEvnDataWithFilters(?, ?, ?, ?)}";
+
     private static final Map<String, String> owner_map = Collections.unmodifiableMap(
             new HashMap<String,String>() {{
                 put("W", "WLM");
@@ -72,15 +75,16 @@ public class CannedAPI {
         locationApi_ = locationApi;
     }
 
+    // Checks out a pooled connection, CannedAPI is shared by all of the requests and holds no connection itself.
     public Connection get_connection() throws DataStoreException {
-        return DbConnectionFactory.createDefaultConnection();
+        return DbConnectionFactory.getPooledDefaultConnection();
     }
 
-    public synchronized PropertyMap getData(String requestKey, Map<String, String> params_map)
+    @Override
+    public PropertyMap getData(String requestKey, Map<String, String> params_map)
             throws SQLException, DataStoreException, ProviderException {
         assert params_map != null : "Input parameters should be provided";
-        conn = get_connection();
-        try {
+        try (Connection conn = get_connection()) {
             Timestamp[] times = new Timestamp[2];
             times[0] = getTimestamp(getStartEndTime(params_map, "StartTime"));
             times[1] = getTimestamp(getStartEndTime(params_map, "EndTime"));
@@ -90,19 +94,13 @@ public class CannedAPI {
             PropertyMap jsonResult;
             switch (requestKey) {
                 case "getraswithfilters": {
-                    vars = new String[5];
-                    vars[0] = params_map.getOrDefault("Lctn", null);
-                    vars[1] = params_map.getOrDefault("EventType", "%");
-                    vars[2] = params_map.getOrDefault("Severity", "%");
-                    vars[3] = params_map.getOrDefault("JobId", null);
-                    vars[4] = params_map.getOrDefault("Exclude", "%");
-                    jsonResult = executeProcedure("{call GetRasEventsWithFilters(?, ?, ?, ?, ?, ?, ?, ?)}", times, vars, limit);
+                    vars = rasEventFilters(params_map);
+                    jsonResult = executeProcedure(conn, RAS_EVENTS_WITH_FILTERS, times, vars, limit);
                     break;
                 }
                 case "getenvwithfilters": {
-                    vars = new String[1];
-                    vars[0] = params_map.getOrDefault("Lctn", "%");
-                    jsonResult = executeProcedure("{call GetAggregatedEvnDataWithFilters(?, ?, ?, ?)}", times, vars, limit);
+                    vars = envDataFilters(params_map);
+                    jsonResult = executeProcedure(conn, ENV_DATA_WITH_FILTERS, times, vars, limit);
                     break;
                 }
                 case "getinvspecificlctn": {
@@ -110,18 +108,18 @@ public class CannedAPI {
                     vars = new String[1];
                     vars[0] = params_map.getOrDefault("Lctn", "%");
                     if (params_map.getOrDefault("subfru", null) == null) {
-                        jsonResult = executeProcedure("{call GetInventoryDataForLctn(?, ?, ?, ?)}", times, vars, limit);
+                        jsonResult = executeProcedure(conn, "{call GetInventoryDataForLctn(?, ?, ?, ?)}", times, vars, limit);
                         jsonResult = map_state_values(jsonResult);
                     }
                     else {
-                        jsonResult.put("state", map_state_values(executeProcedure("{call GetInventoryDataForLctn(?, ?, ?, ?)}", times, vars, limit)));
+                        jsonResult.put("state", map_state_values(executeProcedure(conn, "{call GetInventoryDataForLctn(?, ?, ?, ?)}", times, vars, limit)));
                         times = new Timestamp[0];
                         vars = new String[2];
                         vars[0] = params_map.getOrDefault("Lctn", "%");
                         vars[1] = params_map.getOrDefault("subfru", null);
                         limit = "";
                         log_.info("GetSubfruState procedure called with Lctn = %s and subfru = %s", vars[0], vars[1]);
-                        jsonResult.put("subfru_state", map_state_values(executeProcedure("{call GetSubfruState(?, ?)}", times, vars, limit)));
+                        jsonResult.put("subfru_state", map_state_values(executeProcedure(conn, "{call GetSubfruState(?, ?)}", times, vars, limit)));
                     }
                     break;
                 }
@@ -136,7 +134,7 @@ public class CannedAPI {
                     times[1] = getTimestamp(getStartEndTime(params_map, "EndTime"));
                     times[2] = getTimestamp(getStartEndTime(params_map, "AtTime"));
                     log_.info("GetJobInfo procedure called with Jobid = %s and Username = %s", vars[0], vars[1]);
-                    jsonResult = executeProcedure("{call GetJobInfo(?, ?, ?, ?, ?, ?, ?, ?)}", times, vars, limit);
+                    jsonResult = executeProcedure(conn, "{call GetJobInfo(?, ?, ?, ?, ?, ?, ?, ?)}", times, vars, limit);
                     jsonResult = map_job_values(jsonResult);
                     break;
                 }
@@ -145,7 +143,7 @@ public class CannedAPI {
                     vars[0] = params_map.getOrDefault("Name", null);
                     vars[1] = params_map.getOrDefault("Username", null);
                     log_.info("GetReservationInfo procedure called with Reservation Name = %s and Username = %s", vars[0], vars[1]);
-                    jsonResult = executeProcedure("{call GetReservationInfo(?, ?, ?, ?, ?)}", times, vars, limit);
+                    jsonResult = executeProcedure(conn, "{call GetReservationInfo(?, ?, ?, ?, ?)}", times, vars, limit);
                     String lctn = params_map.getOrDefault("Lctn", null);
                     jsonResult = filterLocations(jsonResult, lctn);
                     break;
@@ -156,28 +154,28 @@ public class CannedAPI {
                     vars = new String[0];
                     limit = "";
                     log_.info("GetComputeNodeSummary procedure called");
-                    jsonResult.put("compute", map_state_values(executeProcedure("{call GetComputeNodeSummary()}", times, vars, limit)));
+                    jsonResult.put("compute", map_state_values(executeProcedure(conn, "{call GetComputeNodeSummary()}", times, vars, limit)));
 
                     log_.info("GetServiceNodeSummary procedure called");
-                    jsonResult.put("service", map_state_values(executeProcedure("{call GetServiceNodeSummary()}", times, vars, limit)));
+                    jsonResult.put("service", map_state_values(executeProcedure(conn, "{call GetServiceNodeSummary()}", times, vars, limit)));
                     break;
                 }
                 case "getfrumigrationhistory": {
                     vars = new String[1];
                     vars[0] = params_map.getOrDefault("Lctn", "%");
-                    jsonResult = executeProcedure("{call MigrationHistoryOfFru(?, ?, ?, ?)}", times, vars, limit);
+                    jsonResult = executeProcedure(conn, "{call MigrationHistoryOfFru(?, ?, ?, ?)}", times, vars, limit);
                     break;
                 }
                 case "getinvchanges": {
                     vars = new String[1];
                     vars[0] = params_map.getOrDefault("Lctn", null);
-                    jsonResult = executeProcedure("{call GetInventoryChange(?, ?, ?, ?)}", times, vars, limit);
+                    jsonResult = executeProcedure(conn, "{call GetInventoryChange(?, ?, ?, ?)}", times, vars, limit);
                     break;
                 }
                 case "getinvhislctn": {
                     vars = new String[1];
                     vars[0] = params_map.getOrDefault("Lctn", "%");
-                    jsonResult = executeProcedure("{call GetInventoryHistoryForLctn(?, ?, ?, ?)}", times, vars, limit);
+                    jsonResult = executeProcedure(conn, "{call GetInventoryHistoryForLctn(?, ?, ?, ?)}", times, vars, limit);
                     jsonResult = map_state_values(jsonResult);
                     break;
                 }
@@ -185,18 +183,91 @@ public class CannedAPI {
                     times = new Timestamp[0];
                     vars = new String[1];
                     vars[0] = params_map.getOrDefault("Lctn", "%");
-                    jsonResult = executeProcedure("{call GetInventoryInfoForLctn(?, ?)}", times, vars, limit);
+                    jsonResult = executeProcedure(conn, "{call GetInventoryInfoForLctn(?, ?)}", times, vars, limit);
                     break;
                 }
                 default:
                     throw new ProviderException("Invalid request, request key: '" + requestKey + "' : Not Found");
             }
             return jsonResult;
-        } finally {
-            conn.close();
         }
     }
 
+    /**
+     * Get the newest change timestamps of the Tier2 tables (the dbchgtimestamps() function) by their name, e.g.
+     * "Ras_Max_DbUpdatedTimestamp". The timestamp is null while a table is empty.
+     */
+    Map<String, String> getChangeTimestamps() throws SQLException, DataStoreException {
+        Map<String, String> changes = new HashMap<>();
+        try (Connection conn = get_connection();
+             CallableStatement stmt = conn.prepareCall("{call DbChgTimestamps()}");
+             ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                Timestamp timestamp = rs.getTimestamp(2);
+                changes.put(rs.getString(1), (timestamp == null) ? null : timestamp.toString());
+            }
+        }
+        return changes;
+    }
+
+    boolean isStreamed(String requestKey) {
+        return "getraswithfilters".equals(requestKey) || "getenvwithfilters".equals(requestKey);
+    }
+
+    /**
+     * Write the result of a request as JSON while it is being read from the database (see JsonResultSetWriter), for
+     * the requests that can return a lot of rows and whose values are not mapped (isStreamed()).
+     *
+     * @param output Opened once the query succeeded.
+     * @return The number of rows written.
+     */
+    public long streamData(String requestKey, Map<String, String> params_map, JsonResultSetWriter resultWriter,
+                           JsonResultSetWriter.Output output)
+            throws SQLException, DataStoreException, ProviderException, IOException {
+        assert params_map != null : "Input parameters should be provided";
+        Timestamp[] times = new Timestamp[2];
+        times[0] = getTimestamp(getStartEndTime(params_map, "StartTime"));
+        times[1] = getTimestamp(getStartEndTime(params_map, "EndTime"));
+        String limit = params_map.getOrDefault("Limit", null);
+        String procedure;
+        String[] vars;
+        switch (requestKey) {
+            case "getraswithfilters":
+                procedure = RAS_EVENTS_WITH_FILTERS;
+                vars = rasEventFilters(params_map);
+                break;
+            case "getenvwithfilters":
+                procedure = ENV_DATA_WITH_FILTERS;
+                vars = envDataFilters(params_map);
+                break;
+            default:
+                throw new ProviderException("Invalid request, request key: '" + requestKey + "' : Can not be streamed");
+        }
+        try (Connection conn = get_connection();
+             CallableStatement stmt = prepareProcedure(conn, procedure, times, vars, limit)) {
+            stmt.setFetchSize(JsonResultSetWriter.FETCH_SIZE);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return resultWriter.write(rs, output.open());
+            }
+        }
+    }
+
+    private static String[] rasEventFilters(Map<String, String> params_map) {
+        String[] vars = new String[5];
+        vars[0] = params_map.getOrDefault("Lctn", null);
+        vars[1] = params_map.getOrDefault("EventType", "%");
+        vars[2] = params_map.getOrDefault("Severity", "%");
+        vars[3] = params_map.getOrDefault("JobId", null);
+        vars[4] = params_map.getOrDefault("Exclude", "%");
+        return vars;
+    }
+
+    private static String[] envDataFilters(Map<String, String> params_map) {
+        String[] vars = new String[1];
+        vars[0] = params_map.getOrDefault("Lctn", "%");
+        return vars;
+    }
+
     private PropertyMap map_state_values(PropertyMap jsonResult)
     {
         try {
@@ -350,9 +421,18 @@ private PropertyMap filterLocations(PropertyMap jsonResult, String lctn)
         return new_time;
     }
 
-    private PropertyMap executeProcedure(String prepProcedure, Timestamp[] times, String[] vars, String Limit) throws SQLException {
+    private PropertyMap executeProcedure(Connection conn, String prepProcedure, Timestamp[] times, String[] vars, String Limit) throws SQLException {
+
+        try (CallableStatement stmt = prepareProcedure(conn, prepProcedure, times, vars, Limit)) {
+            try (ResultSet rs = stmt.executeQuery()) {
+                return jsonConverter.convertToJsonResultSet(rs);
+            }
+        }
+    }
 
-        try (CallableStatement stmt = conn.prepareCall(prepProcedure)) {
+    private CallableStatement prepareProcedure(Connection conn, String prepProcedure, Timestamp[] times, String[] vars, String Limit) throws SQLException {
+        CallableStatement stmt = conn.prepareCall(prepProcedure);
+        try {
             int pos = 1;
             for(int i = 0; i < times.length; i++) {
                 stmt.setTimestamp(pos, times[i]);
@@ -367,10 +447,10 @@ private PropertyMap filterLocations(PropertyMap jsonResult, String lctn)
             if (!"".equals(Limit)) {
                 handleLimit(Limit, stmt, pos);
             }
-
-            try (ResultSet rs = stmt.executeQuery()) {
-                return jsonConverter.convertToJsonResultSet(rs);
-            }
+            return stmt;
+        } catch (SQLException | RuntimeException e) {
+            stmt.close();
+            throw e;
         }
     }
 
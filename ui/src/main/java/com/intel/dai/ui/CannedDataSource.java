@@ -0,0 +1,20 @@
+// Copyright (C) 2021 Intel Corporation
+//
+// SPDX-License-Identifier: Apache-2.0
+//
+package com.intel.dai.ui;
+
+import com.intel.dai.exceptions.DataStoreException;
+import com.intel.dai.exceptions.ProviderException;
+import com.intel.properties.PropertyMap;
+
+import java.sql.SQLException;
+import java.util.Map;
+
+/**
+ * Answers the canned UI requests (CannedAPI, or a layer in front of it like CannedResponseCache).
+ */
+interface CannedDataSource {
+    PropertyMap getData(String requestKey, Map<String, String> params_map)
+            throws SQLException, DataStoreException, ProviderException;
+}
@@ -0,0 +1,190 @@
+// Copyright (C) 2021 Intel Corporation
+//
+// SPDX-License-Identifier: Apache-2.0
+//
+package com.intel.dai.ui;
+
+import com.intel.dai.exceptions.DataStoreException;
+import com.intel.dai.exceptions.ProviderException;
+import com.intel.logging.Logger;
+import com.intel.properties.PropertyMap;
+
+import java.sql.SQLException;
+import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Caches the results of the canned UI requests in front of another CannedDataSource (normally CannedAPI).
+ *
+ * Results are cached by request key and parameters (in any order). A cached result is used until it is older than the
+ * time to live or until the tables it was read from changed, according to the change timestamps of the Tier2 tables
+ * (dbchgtimestamps()). The change timestamps are read at most once per check interval no matter how many requests
+ * are made. Requests that do not depend on known tables are not cached, and nothing is cached while the change
+ * timestamps can not be read. The least recently used results are dropped when the cache is full.
+ *
+ * The cached results are copied in and out, callers can modify the results they get.
+ */
+final class CannedResponseCache implements CannedDataSource {
+    // Reads the change timestamps by table name (see CannedAPI.getChangeTimestamps()).
+    interface ChangeTimestamps {
+        Map<String, String> read() throws SQLException, DataStoreException;
+    }
+
+    /**
+     * Create the cache.
+     *
+     * @param log The logger.
+     * @param source Answers the requests that are not cached.
+     * @param changes Reads the change timestamps.
+     * @param maxEntries The maximum number of cached results.
+     * @param timeToLiveMs The maximum age of a cached result.
+     * @param checkIntervalMs The minimum time between reads of the change timestamps.
+     */
+    CannedResponseCache(Logger log, CannedDataSource source, ChangeTimestamps changes, int maxEntries,
+                        long timeToLiveMs, long checkIntervalMs) {
+        assert log != null:"Passed a null Logger to CannedResponseCache.ctor()!";
+        if (source == null) throw new IllegalArgumentException("The canned data source can not be null!");
+        if (changes == null) throw new IllegalArgumentException("The change timestamps can not be null!");
+        if (maxEntries <= 0) throw new IllegalArgumentException("The maximum number of entries must be greater than 0!");
+        log_ = log;
+        source_ = source;
+        changes_ = changes;
+        maxEntries_ = maxEntries;
+        timeToLiveMs_ = timeToLiveMs;
+        checkIntervalMs_ = checkIntervalMs;
+        entries_ = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries_;
+            }
+        };
+    }
+
+    @Override
+    public PropertyMap getData(String requestKey, Map<String, String> params_map)
+            throws SQLException, DataStoreException, ProviderException {
+        List<String> tables = DEPENDENCIES.get(requestKey);
+        Map<String, String> changes = (tables == null) ? null : currentChanges();
+        if (changes == null) {
+            uncached_.increment();
+            return source_.getData(requestKey, params_map);
+        }
+        String key = cacheKey(requestKey, params_map);
+        List<String> version = new ArrayList<>(tables.size());
+        for (String table: tables)
+            version.add(changes.get(table));
+        long now = System.currentTimeMillis();
+        synchronized (entries_) {
+            Entry entry = entries_.get(key);
+            if (entry != null && entry.version.equals(version) && now - entry.createdMs < timeToLiveMs_) {
+                hits_.increment();
+                return new PropertyMap(entry.result);
+            }
+        }
+        misses_.increment();
+        // The version is the one from before the query, if the tables change while it runs the result is read again.
+        PropertyMap result = source_.getData(requestKey, params_map);
+        synchronized (entries_) {
+            entries_.put(key, new Entry(new PropertyMap(result), version, now));
+        }
+        return result;
+    }
+
+    /**
+     * Drop all of the cached results.
+     */
+    void clear() {
+        synchronized (entries_) {
+            entries_.clear();
+        }
+    }
+
+    long hits() { return hits_.sum(); }
+
+    long misses() { return misses_.sum(); }
+
+    // Requests that were passed through without being cached.
+    long uncached() { return uncached_.sum(); }
+
+    int size() {
+        synchronized (entries_) {
+            return entries_.size();
+        }
+    }
+
+    // Parameters are sorted so their order does not matter.
+    static String cacheKey(String requestKey, Map<String, String> params_map) {
+        StringBuilder key = new StringBuilder(requestKey);
+        for (Map.Entry<String, String> param: new TreeMap<>(params_map).entrySet()) {
+            key.append('\u0000').append(param.getKey()).append('=');
+            if (param.getValue() != null)
+                key.append(param.getValue());
+        }
+        return key.toString();
+    }
+
+    // Returns null if the change timestamps could not be read.
+    private Map<String, String> currentChanges() {
+        synchronized (changesLock_) {
+            long now = System.currentTimeMillis();
+            if (!changesRead_ || now - changesReadMs_ >= checkIntervalMs_) {
+                try {
+                    currentChanges_ = changes_.read();
+                } catch (SQLException | DataStoreException e) {
+                    log_.exception(e, "CannedResponseCache - unable to read the change timestamps, not caching");
+                    currentChanges_ = null;
+                }
+                changesRead_ = true;
+                changesReadMs_ = now;
+            }
+            return currentChanges_;
+        }
+    }
+
+    private static final class Entry {
+        Entry(PropertyMap result, List<String> version, long createdMs) {
+            this.result = result;
+            this.version = version;
+            this.createdMs = createdMs;
+        }
+
+        final PropertyMap  result;
+        final List<String> version;    // The change timestamps of the tables the result was read from.
+        final long         createdMs;
+    }   // End class Entry
+
+    // The dbchgtimestamps() entries of the tables each cached request reads from.
+    private static final Map<String, List<String>> DEPENDENCIES;
+    static {
+        Map<String, List<String>> dependencies = new HashMap<>();
+        dependencies.put("getraswithfilters", Collections.singletonList("Ras_Max_DbUpdatedTimestamp"));
+        dependencies.put("getenvwithfilters", Collections.singletonList("Env_Max_Timestamp"));
+        dependencies.put("getinvspecificlctn", Arrays.asList("Inv_Max_Timestamp", "Node_Max_DbUpdatedTimestamp",
+                "Service_Node_LastChg_Timestamp"));
+        dependencies.put("getjobinfo", Arrays.asList("Job_Max_DbUpdatedTimestamp", "Job_Max_LastChgTimestamp"));
+        dependencies.put("getreservationinfo", Collections.singletonList("Reservation_Max_DbUpdatedTimestamp"));
+        dependencies.put("system_summary", Arrays.asList("Node_Max_DbUpdatedTimestamp",
+                "Compute_Node_LastChg_Timestamp", "Service_Node_LastChg_Timestamp"));
+        dependencies.put("getfrumigrationhistory", Arrays.asList("Replacement_Max_Timestamp", "Inv_Max_Timestamp"));
+        dependencies.put("getinvchanges", Arrays.asList("Inv_Max_Timestamp", "Replacement_Max_Timestamp"));
+        dependencies.put("getinvhislctn", Arrays.asList("Inv_Max_Timestamp", "Node_Max_DbUpdatedTimestamp",
+                "Service_Node_LastChg_Timestamp"));
+        dependencies.put("getnodeinvinfo", Collections.singletonList("Inv_Max_Timestamp"));
+        DEPENDENCIES = Collections.unmodifiableMap(dependencies);
+    }
+
+    private final Logger log_;
+    private final CannedDataSource source_;
+    private final ChangeTimestamps changes_;
+    private final int maxEntries_;
+    private final long timeToLiveMs_;
+    private final long checkIntervalMs_;
+    private final LinkedHashMap<String, Entry> entries_;
+    private final Object changesLock_ = new Object();
+    private Map<String, String> currentChanges_ = null;
+    private boolean changesRead_ = false;
+    private long changesReadMs_ = 0L;
+    private final LongAdder hits_ = new LongAdder();
+    private final LongAdder misses_ = new LongAdder();
+    private final LongAdder uncached_ = new LongAdder();
+}
@@ -11,8 +11,6 @@ import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.sql.Types;
-import java.math.BigDecimal;
-import java.math.RoundingMode;
 
 public class JsonConverter {
 
@@ -41,14 +39,10 @@ public class JsonConverter {
                     rowData.add( resultsetinp.getInt(i));
                 }
                 else if(rasmetadata.getColumnType(i)== Types.DOUBLE){
-                    BigDecimal bd = new BigDecimal(Double.toString(resultsetinp.getDouble(i)));
-                    bd = bd.setScale(4, RoundingMode.HALF_UP);
-                    rowData.add( bd.toPlainString());
+                    rowData.add( JsonResultSetWriter.formatScaled4(resultsetinp.getDouble(i)));
                 }
                 else if(rasmetadata.getColumnType(i)== Types.FLOAT){
-                    BigDecimal bd = new BigDecimal(Float.toString(resultsetinp.getFloat(i)));
-                    bd = bd.setScale(4, RoundingMode.HALF_UP);
-                    rowData.add( bd.toPlainString());
+                    rowData.add( JsonResultSetWriter.formatScaled4(resultsetinp.getFloat(i)));
                 }
                 else if(rasmetadata.getColumnType(i)== Types.INTEGER){
                     rowData.add( resultsetinp.getInt(i));
@@ -11,8 +11,6 @@ import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.sql.Types;
-import java.math.BigDecimal;
-import java.math.RoundingMode;
 
 public class JsonConverterGUI {
 
@@ -38,14 +36,10 @@ public class JsonConverterGUI {
                     obj_json.put(column_name, resultsetinp.getInt(i));
                 }
                 else if(rasmetadata.getColumnType(i)== Types.DOUBLE){
-                    BigDecimal bd = new BigDecimal(Double.toString(resultsetinp.getDouble(i)));
-                    bd = bd.setScale(4, RoundingMode.HALF_UP);
-                    obj_json.put(column_name, bd.toPlainString());
+                    obj_json.put(column_name, JsonResultSetWriter.formatScaled4(resultsetinp.getDouble(i)));
                 }
                 else if(rasmetadata.getColumnType(i)== Types.FLOAT){
-                    BigDecimal bd = new BigDecimal(Float.toString(resultsetinp.getFloat(i)));
-                    bd = bd.setScale(4, RoundingMode.HALF_UP);
-                    obj_json.put(column_name, bd.toPlainString());
+                    obj_json.put(column_name, JsonResultSetWriter.formatScaled4(resultsetinp.getFloat(i)));
                 }
                 else if(rasmetadata.getColumnType(i)== Types.INTEGER){
                     obj_json.put(column_name, resultsetinp.getInt(i));
@@ -0,0 +1,308 @@
+// Copyright (C) 2021 Intel Corporation
+//
+// SPDX-License-Identifier: Apache-2.0
+//
+package com.intel.dai.ui;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.Collection;
+import java.util.function.Function;
+
+/**
+ * Writes a ResultSet as JSON while it is being read, in the same format as JsonConverter.convertToJsonResultSet()
+ * ("result-data-columns", "schema", "data", "result-data-lines" and "result-status-code"), so the rows never have to
+ * be held in memory. The statement should have a fetch size (FETCH_SIZE) so the JDBC driver does not read the whole
+ * result either.
+ *
+ * If reading the rows fails part way, the document is still completed (with the rows written so far, a
+ * "result-status-code" of 1 and the error in "result-status-message") before the SQLException is rethrown.
+ */
+class JsonResultSetWriter {
+    static final int FETCH_SIZE = 1000;
+
+    // Opens the output once the query succeeded, so a failed query can still be reported some other way.
+    interface Output {
+        Writer open() throws IOException;
+    }
+
+    /**
+     * Column added to every row and computed from the value of another column of the row (e.g. the hostname of the
+     * row's location). It is only added when the result has one of the source columns and not the column itself.
+     */
+    static final class DerivedColumn {
+        DerivedColumn(String name, Collection<String> sourceColumns, Function<String, String> value) {
+            this.name = name;
+            this.sourceColumns = sourceColumns;
+            this.value = value;
+        }
+
+        final String name;
+        final Collection<String> sourceColumns;
+        final Function<String, String> value;
+    }
+
+    JsonResultSetWriter() {
+        this(null);
+    }
+
+    JsonResultSetWriter(DerivedColumn derivedColumn) {
+        derivedColumn_ = derivedColumn;
+    }
+
+    /**
+     * Write the result to out.
+     *
+     * @return The number of rows written.
+     */
+    long write(ResultSet resultSet, Writer out) throws SQLException, IOException {
+        ResultSetMetaData metaData = resultSet.getMetaData();
+        int numColumns = metaData.getColumnCount();
+        int[] types = new int[numColumns + 1];
+        int derivedSource = 0;
+        boolean hasDerivedColumn = false;
+        for (int i = 1; i <= numColumns; i++) {
+            types[i] = metaData.getColumnType(i);
+            if (derivedColumn_ != null) {
+                String name = metaData.getColumnName(i);
+                if (name.equals(derivedColumn_.name))
+                    hasDerivedColumn = true;
+                else if (derivedColumn_.sourceColumns.contains(name))
+                    derivedSource = i;
+            }
+        }
+        if (hasDerivedColumn)
+            derivedSource = 0;
+
+        out.write("{\"result-data-columns\":");
+        out.write(Integer.toString(derivedSource > 0 ? numColumns + 1 : numColumns));
+        out.write(",\"schema\":[");
+        for (int i = 1; i <= numColumns; i++) {
+            if (i > 1)
+                out.write(',');
+            writeSchemaColumn(metaData.getColumnName(i), out);
+        }
+        if (derivedSource > 0) {
+            out.write(',');
+            writeSchemaColumn(derivedColumn_.name, out);
+        }
+        out.write("],\"data\":[");
+        long numRows = 0;
+        try {
+            while (resultSet.next()) {
+                out.write((numRows++ == 0) ? "[" : ",[");
+                String derivedSourceValue = null;
+                for (int i = 1; i <= numColumns; i++) {
+                    if (i > 1)
+                        out.write(',');
+                    String value = writeValue(resultSet, i, types[i], out);
+                    if (i == derivedSource)
+                        derivedSourceValue = value;
+                }
+                if (derivedSource > 0) {
+                    out.write(',');
+                    writeString((derivedSourceValue == null || derivedSourceValue.isEmpty()) ? "" :
+                            derivedColumn_.value.apply(derivedSourceValue), out);
+                }
+                out.write(']');
+            }
+        } catch (SQLException e) {
+            out.write("],\"result-data-lines\":");
+            out.write(Long.toString(numRows));
+            out.write(",\"result-status-code\":1,\"result-status-message\":");
+            writeString(e.getMessage(), out);
+            out.write('}');
+            throw e;
+        }
+        out.write("],\"result-data-lines\":");
+        out.write(Long.toString(numRows));
+        out.write(",\"result-status-code\":0}");
+        return numRows;
+    }
+
+    /**
+     * Format a number with 4 decimals, rounding half up, exactly like
+     * new BigDecimal(Double.toString(value)).setScale(4, RoundingMode.HALF_UP).toPlainString() but without creating
+     * a BigDecimal unless the value is very large or within rounding error of a tie.
+     */
+    static String formatScaled4(double value) {
+        double scaled = value * 10000.0;
+        double magnitude = Math.abs(scaled);
+        if (!(magnitude < 1.0e9))
+            return formatScaled4Exactly(value);  // large, NaN or infinite.
+        double whole = Math.floor(magnitude);
+        double fraction = magnitude - whole;
+        if (Math.abs(fraction - 0.5) < 1.0e-6)
+            return formatScaled4Exactly(value);
+        long units = (long) whole + ((fraction > 0.5) ? 1L : 0L);
+        if (units == 0L)
+            return "0.0000";
+        StringBuilder formatted = new StringBuilder(16);
+        if (scaled < 0.0)
+            formatted.append('-');
+        formatted.append(units / 10000L).append('.');
+        long decimals = units % 10000L;
+        for (long digit = 1000L; digit > 1L && decimals < digit; digit /= 10L)
+            formatted.append('0');
+        return formatted.append(decimals).toString();
+    }
+
+    static String formatScaled4(float value) {
+        // The double closest to the float's shortest decimal representation has the same decimal representation.
+        return formatScaled4(Double.parseDouble(Float.toString(value)));
+    }
+
+    /**
+     * Write a string as a JSON string literal.
+     */
+    static void writeString(String value, Writer out) throws IOException {
+        if (value == null) {
+            out.write("null");
+            return;
+        }
+        out.write('"');
+        writeEscaped(value, out);
+        out.write('"');
+    }
+
+    /**
+     * Writer that escapes everything written to it for use inside a JSON string literal (used for results that are
+     * returned as a string holding the JSON document).
+     */
+    static final class StringContentWriter extends Writer {
+        StringContentWriter(Writer out) {
+            out_ = out;
+        }
+
+        @Override
+        public void write(char[] chars, int offset, int length) throws IOException {
+            for (int i = offset; i < offset + length; i++)
+                writeEscaped(chars[i], out_);
+        }
+
+        @Override
+        public void write(String value) throws IOException {
+            writeEscaped(value, out_);
+        }
+
+        @Override
+        public void write(int c) throws IOException {
+            writeEscaped((char) c, out_);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            out_.flush();
+        }
+
+        // Closing the content does not close the document it is part of.
+        @Override
+        public void close() throws IOException {
+            out_.flush();
+        }
+
+        private final Writer out_;
+    }   // End class StringContentWriter
+
+    private static String formatScaled4Exactly(double value) {
+        return new BigDecimal(Double.toString(value)).setScale(4, RoundingMode.HALF_UP).toPlainString();
+    }
+
+    private static void writeSchemaColumn(String name, Writer out) throws IOException {
+        out.write("{\"data\":");
+        writeString(name, out);
+        out.write(",\"unit\":\"string\",\"heading\":");
+        writeString(name, out);
+        out.write('}');
+    }
+
+    // Writes the column's value and returns it as a string (null for numbers and booleans, only strings can be the
+    // source of the derived column).
+    private static String writeValue(ResultSet resultSet, int column, int type, Writer out)
+            throws SQLException, IOException {
+        String value;
+        switch (type) {
+            case Types.BIGINT:
+                out.write(Long.toString(resultSet.getLong(column)));
+                return null;
+            case Types.TINYINT:
+            case Types.SMALLINT:
+            case Types.INTEGER:
+                out.write(Integer.toString(resultSet.getInt(column)));
+                return null;
+            case Types.BOOLEAN:
+                out.write(resultSet.getBoolean(column) ? "true" : "false");
+                return null;
+            case Types.DOUBLE:
+                value = formatScaled4(resultSet.getDouble(column));
+                break;
+            case Types.FLOAT:
+                value = formatScaled4(resultSet.getFloat(column));
+                break;
+            case Types.NVARCHAR:
+                value = resultSet.getNString(column);
+                break;
+            case Types.VARCHAR:
+                value = resultSet.getString(column);
+                break;
+            case Types.TIMESTAMP:
+                Timestamp timestamp = resultSet.getTimestamp(column);
+                value = (timestamp == null) ? null : timestamp.toString();
+                break;
+            default:
+                Object object = resultSet.getObject(column);
+                value = (object == null) ? null : object.toString();
+                break;
+        }
+        writeString(value, out);
+        return value;
+    }
+
+    private static void writeEscaped(String value, Writer out) throws IOException {
+        int start = 0;
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c >= 0x20 && c != '"' && c != '\\')
+                continue;
+            if (i > start)
+                out.write(value, start, i - start);
+            writeEscaped(c, out);
+            start = i + 1;
+        }
+        if (start < length)
+            out.write(value, start, length - start);
+    }
+
+    private static void writeEscaped(char c, Writer out) throws IOException {
+        switch (c) {
+            case '"':  out.write("\\\""); break;
+            case '\\': out.write("\\\\"); break;
+            case '\n': out.write("\\n"); break;
+            case '\r': out.write("\\r"); break;
+            case '\t': out.write("\\t"); break;
+            case '\b': out.write("\\b"); break;
+            case '\f': out.write("\\f"); break;
+            default:
+                if (c < 0x20) {
+                    out.write("\\u00");
+                    out.write(HEX_DIGITS[c >> 4]);
+                    out.write(HEX_DIGITS[c & 0xF]);
+                }
+                else
+                    out.write(c);
+                break;
+        }
+    }
+
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private final DerivedColumn derivedColumn_;
+}
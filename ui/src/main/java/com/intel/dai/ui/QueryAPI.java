@@ -14,7 +14,6 @@ import com.intel.properties.*;
 import com.intel.dai.exceptions.DataStoreException;
 
 public class QueryAPI {
-    private Connection conn = null;
     JsonConverterGUI jsonConverter = new JsonConverterGUI();
     private static ConfigIO jsonParser = ConfigIOFactory.getInstance("json");
 
@@ -22,79 +21,77 @@ public class QueryAPI {
         assert jsonParser != null: "Failed to get a JSON parser!";
     }
 
+    // Checks out a pooled connection, QueryAPI is shared by all of the requests and holds no connection itself.
     public Connection get_connection() throws DataStoreException {
-        return DbConnectionFactory.createDefaultConnection();
+        return DbConnectionFactory.getPooledDefaultConnection();
     }
 
-    public synchronized String getData(String requestKey, HashMap<String, String> params_map)
+    public String getData(String requestKey, HashMap<String, String> params_map)
             throws SQLException, DataStoreException {
-        conn = get_connection();
-        try {
+        try (Connection conn = get_connection()) {
             Timestamp endtime = getTimestamp(getStartEndTime(params_map, "EndTime"));
             Timestamp starttime = getTimestamp(getStartEndTime(params_map, "StartTime"));
             int seq_num = Integer.parseInt(params_map.getOrDefault("SeqNum", "-1"));
             PropertyArray jsonResult;
             switch (requestKey) {
                 case "filedata":
-                    jsonResult = executeProcedureNoParams("{call GetManifestContent()}");
+                    jsonResult = executeProcedureNoParams(conn, "{call GetManifestContent()}");
                     break;
                 case "diagsact":
-                    jsonResult = executeProcedureEndTime("{call DiagListOfActiveDiagsAtTime(?)}", endtime);
+                    jsonResult = executeProcedureEndTime(conn, "{call DiagListOfActiveDiagsAtTime(?)}", endtime);
                     break;
                 case "diagsnonact":
-                    jsonResult = executeProcedureEndTime("{call DiagListOfNonActiveDiagsAtTime(?)}", endtime);
+                    jsonResult = executeProcedureEndTime(conn, "{call DiagListOfNonActiveDiagsAtTime(?)}", endtime);
                     break;
                 case "computenodestatehistory":
-                    jsonResult = executeProcedureStartEndTime("{call ComputeNodeHistoryListOfStateAtTime(?, ?)}", starttime, endtime);
+                    jsonResult = executeProcedureStartEndTime(conn, "{call ComputeNodeHistoryListOfStateAtTime(?, ?)}", starttime, endtime);
                     break;
                 case "servicenodestatehistory":
-                    jsonResult = executeProcedureStartEndTime("{call ServiceNodeHistoryListOfStateAtTime(?, ?)}", starttime, endtime);
+                    jsonResult = executeProcedureStartEndTime(conn, "{call ServiceNodeHistoryListOfStateAtTime(?, ?)}", starttime, endtime);
                     break;
                 case "rasevent":
-                    jsonResult = executeProcedureStartEndTime("{call RasEventListAtTime(?, ?)}", starttime, endtime);
+                    jsonResult = executeProcedureStartEndTime(conn, "{call RasEventListAtTime(?, ?)}", starttime, endtime);
                     break;
                 case "aggenv":
-                    jsonResult = executeProcedureStartEndTime("{call AggregatedEnvDataListAtTime(?, ?)}", starttime, endtime);
+                    jsonResult = executeProcedureStartEndTime(conn, "{call AggregatedEnvDataListAtTime(?, ?)}", starttime, endtime);
                     break;
                 case "jobsact":
-                    jsonResult = executeProcedureEndTime("{call JobHistoryListOfActiveJobsatTime(?)}", endtime);
+                    jsonResult = executeProcedureEndTime(conn, "{call JobHistoryListOfActiveJobsatTime(?)}", endtime);
                     break;
                 case "jobsnonact":
-                    jsonResult = executeProcedureStartEndTime("{call JobHistoryListOfNonActiveJobsAtTime(?, ?)}", starttime, endtime);
+                    jsonResult = executeProcedureStartEndTime(conn, "{call JobHistoryListOfNonActiveJobsAtTime(?, ?)}", starttime, endtime);
                     break;
                 case "changets":
-                    jsonResult = executeProcedureNoParams("{call DbChgTimestamps()}");
+                    jsonResult = executeProcedureNoParams(conn, "{call DbChgTimestamps()}");
                     break;
                 case "serviceinv":
-                    jsonResult = executeProcedureStartEndTime("{call ServiceNodeInventoryList(?, ?)}", starttime, endtime);
+                    jsonResult = executeProcedureStartEndTime(conn, "{call ServiceNodeInventoryList(?, ?)}", starttime, endtime);
                     break;
                 case "computeinv":
-                    jsonResult = executeProcedureStartEndTime("{call ComputeNodeInventoryList(?, ?)}", starttime, endtime);
+                    jsonResult = executeProcedureStartEndTime(conn, "{call ComputeNodeInventoryList(?, ?)}", starttime, endtime);
                     break;
                 case "computehistoldestts":
-                    jsonResult = executeProcedureNoParams("{call ComputeNodeHistoryOldestTimestamp()}");
+                    jsonResult = executeProcedureNoParams(conn, "{call ComputeNodeHistoryOldestTimestamp()}");
                     break;
                 case "inventoryss":
-                    jsonResult = executeProcedureStartEndTime("{call InventorySnapshotList(?, ?)}", starttime, endtime);
+                    jsonResult = executeProcedureStartEndTime(conn, "{call InventorySnapshotList(?, ?)}", starttime, endtime);
                     break;
                 case "inventoryinfo":
-                    jsonResult = executeProcedureStartEndTime("{call InventoryInfoList(?, ?)}", starttime, endtime);
+                    jsonResult = executeProcedureStartEndTime(conn, "{call InventoryInfoList(?, ?)}", starttime, endtime);
                     break;
                 case "replacementhistory":
-                    jsonResult = executeProcedureStartEndTime("{call ReplacementHistoryList(?, ?)}", starttime, endtime);
+                    jsonResult = executeProcedureStartEndTime(conn, "{call ReplacementHistoryList(?, ?)}", starttime, endtime);
                     break;
                 case "reservationlist":
-                    jsonResult = executeProcedureStartEndTime("{call ReservationListAtTime(?, ?)}", starttime, endtime);
+                    jsonResult = executeProcedureStartEndTime(conn, "{call ReservationListAtTime(?, ?)}", starttime, endtime);
                     break;
                 case "serviceadapterdata":
-                    jsonResult = executeProcedureEndTime("{call ServiceOperationAtTime(?)}", endtime);
+                    jsonResult = executeProcedureEndTime(conn, "{call ServiceOperationAtTime(?)}", endtime);
                     break;
                 default:
                     return "Invalid request, request key: '" + requestKey + "' : Not Found";
             }
             return jsonParser.toString(jsonResult);
-        } finally {
-            conn.close();
         }
     }
 
@@ -115,7 +112,7 @@ public class QueryAPI {
         return new_time;
     }
 
-    private PropertyArray executeProcedureStartEndTime (String prep_procedure, Timestamp StartTime, Timestamp EndTime)
+    private PropertyArray executeProcedureStartEndTime (Connection conn, String prep_procedure, Timestamp StartTime, Timestamp EndTime)
             throws SQLException
     {
         try (CallableStatement stmt = conn.prepareCall(prep_procedure)) {
@@ -127,7 +124,7 @@ public class QueryAPI {
         }
     }
 
-    private PropertyArray executeProcedureNoParams (String prep_procedure)
+    private PropertyArray executeProcedureNoParams (Connection conn, String prep_procedure)
             throws SQLException
     {
         try (CallableStatement stmt = conn.prepareCall(prep_procedure)) {
@@ -136,7 +133,7 @@ public class QueryAPI {
             }
         }
     }
-    private synchronized PropertyArray executeProcedureOneParam (String prep_procedure, Integer num_inp)
+    private PropertyArray executeProcedureOneParam (Connection conn, String prep_procedure, Integer num_inp)
             throws SQLException
     {
         try (CallableStatement stmt = conn.prepareCall(prep_procedure)) {
@@ -147,7 +144,7 @@ public class QueryAPI {
         }
     }
 
-    private PropertyArray executeProcedureEndTime (String prep_procedure, Timestamp EndTime)
+    private PropertyArray executeProcedureEndTime (Connection conn, String prep_procedure, Timestamp EndTime)
             throws SQLException
     {
         try (CallableStatement stmt = conn.prepareCall(prep_procedure)) {
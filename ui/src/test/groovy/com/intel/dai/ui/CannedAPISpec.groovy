@@ -7,10 +7,6 @@ import com.intel.properties.*
 import com.intel.logging.LoggerFactory
 import com.intel.logging.Logger
 
-import java.sql.CallableStatement
-import java.sql.Connection
-import java.sql.ResultSet
-
 
 class CannedAPISpec extends Specification {
 
@@ -24,10 +20,6 @@ class CannedAPISpec extends Specification {
         ConfigIOFactory.getInstance(_) >> jsonParser
 
         underTest_ = new CannedAPI(logger, locationAPI)
-        underTest_.conn = Mock(Connection)
-        CallableStatement stmt = Mock(CallableStatement)
-        underTest_.conn.prepareCall(_) >> stmt
-        stmt.executeQuery() >> Mock(ResultSet)
         underTest_.jsonConverter = Mock(JsonConverter)
     }
 
@@ -148,4 +148,26 @@ public class CannedApiTest {
         PropertyMap result = canned.getData("getnodeinvinfo", input_map);
         assertNotNull(result);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void streamsRasEventsWithFetchSize() throws Exception {
+        MockCannedApi canned = new MockCannedApi();
+        ResultSetMetaData metaData = mock(ResultSetMetaData.class);
+        when(mockrs.getMetaData()).thenReturn(metaData);
+        when(mockstmt.executeQuery()).thenReturn(mockrs);
+        when(mockconn.prepareCall(ArgumentMatchers.anyString())).thenReturn(mockstmt);
+        java.io.StringWriter out = new java.io.StringWriter();
+        assertTrue(canned.isStreamed("getraswithfilters"));
+        assertEquals(0L, canned.streamData("getraswithfilters", input_map, new JsonResultSetWriter(), () -> out));
+        verify(mockstmt).setFetchSize(JsonResultSetWriter.FETCH_SIZE);
+        verify(mockconn).close();
+        assertTrue(out.toString().contains("\"result-data-lines\":0"));
+    }
+
+    @Test(expected = ProviderException.class)
+    public void onlyUnmappedResultsAreStreamed() throws Exception {
+        MockCannedApi canned = new MockCannedApi();
+        assertFalse(canned.isStreamed("getinvhislctn"));
+        canned.streamData("getinvhislctn", input_map, new JsonResultSetWriter(), java.io.StringWriter::new);
+    }
+}
@@ -0,0 +1,136 @@
+// Copyright (C) 2021 Intel Corporation
+//
+// SPDX-License-Identifier: Apache-2.0
+//
+package com.intel.dai.ui;
+
+import com.intel.logging.Logger;
+import com.intel.properties.PropertyMap;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+public class CannedResponseCacheTest {
+    @Before
+    public void setUp() throws Exception {
+        source = mock(CannedDataSource.class);
+        when(source.getData(anyString(), any())).thenAnswer(invocation -> {
+            PropertyMap result = new PropertyMap();
+            result.put("calls", ++calls);
+            return result;
+        });
+        changes = new HashMap<>();
+        changes.put("Ras_Max_DbUpdatedTimestamp", "2021-01-01 00:00:00.0");
+        changes.put("Env_Max_Timestamp", "2021-01-01 00:00:00.0");
+        cache = new CannedResponseCache(mock(Logger.class), source, () -> new HashMap<>(changes), 2, 60000L, 0L);
+    }
+
+    @Test
+    public void returnsTheCachedResult() throws Exception {
+        assertEquals(1, cache.getData("getraswithfilters", params("lctn", "R0")).getInt("calls"));
+        assertEquals(1, cache.getData("getraswithfilters", params("lctn", "R0")).getInt("calls"));
+        assertEquals(2, cache.getData("getraswithfilters", params("lctn", "R1")).getInt("calls"));
+        assertEquals(1L, cache.hits());
+        assertEquals(2L, cache.misses());
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void parameterOrderDoesNotMatter() throws Exception {
+        cache.getData("getraswithfilters", params("lctn", "R0", "limit", "10"));
+        assertEquals(1, cache.getData("getraswithfilters", params("limit", "10", "lctn", "R0")).getInt("calls"));
+        assertEquals(CannedResponseCache.cacheKey("a", params("x", "1", "y", "2")),
+                CannedResponseCache.cacheKey("a", params("y", "2", "x", "1")));
+    }
+
+    @Test
+    public void changedTablesInvalidateTheResult() throws Exception {
+        cache.getData("getraswithfilters", params("lctn", "R0"));
+        cache.getData("getenvwithfilters", params("lctn", "R0"));
+        changes.put("Ras_Max_DbUpdatedTimestamp", "2021-01-01 00:00:01.0");
+        assertEquals(3, cache.getData("getraswithfilters", params("lctn", "R0")).getInt("calls"));
+        assertEquals(2, cache.getData("getenvwithfilters", params("lctn", "R0")).getInt("calls"));
+    }
+
+    @Test
+    public void changesAreOnlyReadOncePerInterval() throws Exception {
+        CannedResponseCache.ChangeTimestamps reader = mock(CannedResponseCache.ChangeTimestamps.class);
+        when(reader.read()).thenReturn(new HashMap<>(changes));
+        cache = new CannedResponseCache(mock(Logger.class), source, reader, 2, 60000L, 60000L);
+        cache.getData("getraswithfilters", params("lctn", "R0"));
+        changes.put("Ras_Max_DbUpdatedTimestamp", "2021-01-01 00:00:01.0");
+        assertEquals(1, cache.getData("getraswithfilters", params("lctn", "R0")).getInt("calls"));
+        verify(reader, times(1)).read();
+    }
+
+    @Test
+    public void expiredResultsAreReadAgain() throws Exception {
+        cache = new CannedResponseCache(mock(Logger.class), source, () -> changes, 2, 0L, 0L);
+        cache.getData("getraswithfilters", params("lctn", "R0"));
+        assertEquals(2, cache.getData("getraswithfilters", params("lctn", "R0")).getInt("calls"));
+        assertEquals(0L, cache.hits());
+    }
+
+    @Test
+    public void leastRecentlyUsedResultIsDropped() throws Exception {
+        cache.getData("getraswithfilters", params("lctn", "R0"));
+        cache.getData("getraswithfilters", params("lctn", "R1"));
+        cache.getData("getraswithfilters", params("lctn", "R0"));
+        cache.getData("getraswithfilters", params("lctn", "R2"));
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getData("getraswithfilters", params("lctn", "R0")).getInt("calls"));
+        assertEquals(4, cache.getData("getraswithfilters", params("lctn", "R1")).getInt("calls"));
+    }
+
+    @Test
+    public void unknownRequestsAreNotCached() throws Exception {
+        cache.getData("getunknown", params());
+        assertEquals(2, cache.getData("getunknown", params()).getInt("calls"));
+        assertEquals(2L, cache.uncached());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void notCachedWhenTheChangesCanNotBeRead() throws Exception {
+        cache = new CannedResponseCache(mock(Logger.class), source, () -> { throw new SQLException("down"); }, 2,
+                60000L, 0L);
+        cache.getData("getraswithfilters", params("lctn", "R0"));
+        assertEquals(2, cache.getData("getraswithfilters", params("lctn", "R0")).getInt("calls"));
+        assertEquals(2L, cache.uncached());
+    }
+
+    @Test
+    public void cachedResultsAreCopies() throws Exception {
+        cache.getData("getraswithfilters", params("lctn", "R0")).put("calls", 100);
+        cache.getData("getraswithfilters", params("lctn", "R0")).put("calls", 200);
+        assertEquals(1, cache.getData("getraswithfilters", params("lctn", "R0")).getInt("calls"));
+        cache.clear();
+        assertEquals(0, cache.size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void ctorRejectsNoEntries() {
+        new CannedResponseCache(mock(Logger.class), source, () -> changes, 0, 60000L, 0L);
+    }
+
+    private static Map<String, String> params(String... keyValues) {
+        Map<String, String> params = new LinkedHashMap<>();
+        for (int i = 0; i < keyValues.length; i += 2)
+            params.put(keyValues[i], keyValues[i + 1]);
+        return params;
+    }
+
+    private CannedDataSource source;
+    private Map<String, String> changes;
+    private CannedResponseCache cache;
+    private int calls = 0;
+}
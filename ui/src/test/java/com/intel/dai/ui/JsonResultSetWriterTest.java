@@ -0,0 +1,133 @@
+// Copyright (C) 2021 Intel Corporation
+//
+// SPDX-License-Identifier: Apache-2.0
+//
+package com.intel.dai.ui;
+
+import com.intel.config_io.ConfigIO;
+import com.intel.config_io.ConfigIOFactory;
+import com.intel.properties.PropertyArray;
+import com.intel.properties.PropertyMap;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class JsonResultSetWriterTest {
+    @Before
+    public void setUp() throws SQLException {
+        resultSet = mock(ResultSet.class);
+        metaData = mock(ResultSetMetaData.class);
+        when(resultSet.getMetaData()).thenReturn(metaData);
+        when(metaData.getColumnCount()).thenReturn(4);
+        when(metaData.getColumnName(1)).thenReturn("id");
+        when(metaData.getColumnType(1)).thenReturn(Types.BIGINT);
+        when(metaData.getColumnName(2)).thenReturn("lctn");
+        when(metaData.getColumnType(2)).thenReturn(Types.VARCHAR);
+        when(metaData.getColumnName(3)).thenReturn("value");
+        when(metaData.getColumnType(3)).thenReturn(Types.DOUBLE);
+        when(metaData.getColumnName(4)).thenReturn("time");
+        when(metaData.getColumnType(4)).thenReturn(Types.TIMESTAMP);
+        when(resultSet.next()).thenReturn(true, true, false);
+        when(resultSet.getLong(1)).thenReturn(1L, 2L);
+        when(resultSet.getString(2)).thenReturn("R0-CH0-CN0", "quote\"and\\slash\n");
+        when(resultSet.getDouble(3)).thenReturn(25.1, -0.00005);
+        when(resultSet.getTimestamp(4)).thenReturn(java.sql.Timestamp.valueOf("2019-06-19 12:00:00"), (java.sql.Timestamp) null);
+    }
+
+    @Test
+    public void writesTheSameDocumentAsJsonConverter() throws Exception {
+        StringWriter out = new StringWriter();
+        assertEquals(2L, new JsonResultSetWriter().write(resultSet, out));
+        PropertyMap streamed = parser.fromString(out.toString()).getAsMap();
+
+        assertEquals(4, streamed.getInt("result-data-columns"));
+        assertEquals(2L, streamed.getLong("result-data-lines"));
+        assertEquals(0, streamed.getInt("result-status-code"));
+        assertEquals("lctn", streamed.getArray("schema").getMap(1).getString("data"));
+        PropertyArray data = streamed.getArray("data");
+        assertEquals(2, data.size());
+        assertEquals(1L, data.getArray(0).getLong(0));
+        assertEquals("R0-CH0-CN0", data.getArray(0).getString(1));
+        assertEquals("25.1000", data.getArray(0).getString(2));
+        assertEquals("2019-06-19 12:00:00.0", data.getArray(0).getString(3));
+        assertEquals("quote\"and\\slash\n", data.getArray(1).getString(1));
+        assertEquals("-0.0001", data.getArray(1).getString(2));
+        assertNull(data.getArray(1).get(3));
+    }
+
+    @Test
+    public void addsTheDerivedColumn() throws Exception {
+        StringWriter out = new StringWriter();
+        new JsonResultSetWriter(new JsonResultSetWriter.DerivedColumn("hostname", Arrays.asList("lctn", "location"),
+                lctn -> lctn.startsWith("R0") ? "c01" : "")).write(resultSet, out);
+        PropertyMap streamed = parser.fromString(out.toString()).getAsMap();
+
+        assertEquals(5, streamed.getInt("result-data-columns"));
+        assertEquals("hostname", streamed.getArray("schema").getMap(4).getString("data"));
+        assertEquals("c01", streamed.getArray("data").getArray(0).getString(4));
+        assertEquals("", streamed.getArray("data").getArray(1).getString(4));
+    }
+
+    @Test
+    public void completesTheDocumentWhenReadingFails() throws Exception {
+        when(resultSet.next()).thenReturn(true).thenThrow(new SQLException("connection lost"));
+        StringWriter out = new StringWriter();
+        try {
+            new JsonResultSetWriter().write(resultSet, out);
+            fail();
+        } catch (SQLException e) {
+            PropertyMap streamed = parser.fromString(out.toString()).getAsMap();
+            assertEquals(1L, streamed.getLong("result-data-lines"));
+            assertEquals(1, streamed.getInt("result-status-code"));
+            assertEquals("connection lost", streamed.getString("result-status-message"));
+        }
+    }
+
+    @Test
+    public void stringContentCanBeEmbedded() throws Exception {
+        StringWriter out = new StringWriter();
+        out.write("{\"Result\":\"");
+        new JsonResultSetWriter().write(resultSet, new JsonResultSetWriter.StringContentWriter(out));
+        out.write("\"}");
+        String result = parser.fromString(out.toString()).getAsMap().getString("Result");
+        assertEquals(2L, parser.fromString(result).getAsMap().getLong("result-data-lines"));
+    }
+
+    @Test
+    public void formatsLikeBigDecimal() {
+        Random random = new Random(1234L);
+        double[] values = { 0.0, -0.0, 0.00005, -0.00005, 0.00004999, 1.23445, 1.23455, 2.5E-5, 99999.99995,
+                123456789.12345, -987654321.98765, 1.0E20, 4.9E-324, 17.1 };
+        for (double value: values)
+            assertEquals(Double.toString(value), exactly(value), JsonResultSetWriter.formatScaled4(value));
+        for (int i = 0; i < 200000; i++) {
+            double value = (random.nextDouble() - 0.5) * Math.pow(10.0, random.nextInt(12) - 4);
+            assertEquals(Double.toString(value), exactly(value), JsonResultSetWriter.formatScaled4(value));
+            double rounded = Math.round(value * 100000.0) / 100000.0;  // many ties.
+            assertEquals(Double.toString(rounded), exactly(rounded), JsonResultSetWriter.formatScaled4(rounded));
+        }
+        assertEquals(new BigDecimal(Float.toString(17.1f)).setScale(4, RoundingMode.HALF_UP).toPlainString(),
+                JsonResultSetWriter.formatScaled4(17.1f));
+    }
+
+    private static String exactly(double value) {
+        return new BigDecimal(Double.toString(value)).setScale(4, RoundingMode.HALF_UP).toPlainString();
+    }
+
+    private final ConfigIO parser = ConfigIOFactory.getInstance("json");
+    private ResultSet resultSet;
+    private ResultSetMetaData metaData;
+}